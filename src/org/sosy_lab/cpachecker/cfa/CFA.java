@@ -56,4 +56,10 @@ public interface CFA {
   Language getLanguage();
 
   List<Path> getFileNames();
+
+  /**
+   * Get an array-based view of the nodes and edges of this CFA for fast repeated traversals. For
+   * a CFA that can still be modified, the view reflects the state at the time of the call.
+   */
+  CFATopology getTopology();
 }
\ No newline at end of file
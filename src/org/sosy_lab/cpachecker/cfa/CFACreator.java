@@ -34,6 +34,7 @@ import org.sosy_lab.common.Concurrency;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -88,6 +89,7 @@ import org.sosy_lab.cpachecker.exceptions.CParserException;
 import org.sosy_lab.cpachecker.exceptions.JParserException;
 import org.sosy_lab.cpachecker.exceptions.ParserException;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
+import org.sosy_lab.cpachecker.util.CFAFunctionFingerprints;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.LiveVariables;
 import org.sosy_lab.cpachecker.util.LoopStructure;
@@ -154,6 +156,15 @@ public class CFACreator {
       description="add loop-structure information to CFA.")
   private boolean useLoopStructure = true;
 
+  @Option(
+      secure = true,
+      name = "analysis.loopStructure.threads",
+      description =
+          "number of threads for computing the loop-structure information of the functions of"
+              + " the program in parallel.")
+  @IntegerOption(min = 1)
+  private int loopStructureThreads = 1;
+
   @Option(secure=true, name="cfa.export",
       description="export CFA as .dot file")
   private boolean exportCfa = true;
@@ -217,6 +228,21 @@ public class CFACreator {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path exportCfaPixelFile = Paths.get("cfaPixel");
 
+  @Option(
+      secure = true,
+      name = "cfa.exportFingerprints",
+      description =
+          "export fingerprints of all functions, which allow to reuse precisions for unchanged"
+              + " functions in the analysis of a later version of the program")
+  private boolean exportFingerprints = false;
+
+  @Option(
+      secure = true,
+      name = "cfa.fingerprintsFile",
+      description = "file for exporting the fingerprints of all functions")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path exportFingerprintsFile = Paths.get("cfaFingerprints.txt");
+
   @Option(secure=true, name="cfa.checkNullPointers",
       description="while this option is activated, before each use of a "
           + "PointerExpression, or a dereferenced field access the expression is "
@@ -575,7 +601,8 @@ public class CFACreator {
         || ((exportFunctionCallsUsedFile != null) && exportFunctionCalls)
         || ((serializeCfaFile != null) && serializeCfa)
         || (exportCfaPixelFile != null)
-        || (exportCfaToCFile != null && exportCfaToC)) {
+        || (exportCfaToCFile != null && exportCfaToC)
+        || (exportFingerprintsFile != null && exportFingerprints)) {
       exportCFAAsync(immutableCFA);
     }
 
@@ -836,7 +863,7 @@ public class CFACreator {
 
   private void addLoopStructure(MutableCFA cfa) {
     try {
-      cfa.setLoopStructure(LoopStructure.getLoopStructure(cfa));
+      cfa.setLoopStructure(LoopStructure.getLoopStructure(cfa, loopStructureThreads));
 
     } catch (ParserException e) {
       // don't abort here, because if the analysis doesn't need the loop information, we can continue
@@ -1065,6 +1092,14 @@ v.addInitializer(initializer);
       }
     }
 
+    if (exportFingerprints && exportFingerprintsFile != null) {
+      try {
+        CFAFunctionFingerprints.compute(cfa).write(exportFingerprintsFile);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write function fingerprints.");
+      }
+    }
+
     stats.exportTime.stop();
   }
 
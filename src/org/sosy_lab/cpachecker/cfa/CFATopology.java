@@ -0,0 +1,214 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+
+/**
+ * Immutable, array-based view of the graph structure of a {@link CFA}.
+ *
+ * <p>Nodes and edges are numbered densely (nodes in the order of their node numbers, edges in the
+ * order of the leaving edges of their predecessor), and the leaving and entering edges of all
+ * nodes are stored in compressed sparse row format. Traversals over this view work on int ids
+ * and do not allocate iterators or wrapper objects, which makes it suitable for analyses that
+ * traverse the CFA repeatedly. Like {@link org.sosy_lab.cpachecker.util.CFATraversal#dfs()}, the
+ * view contains all edges including {@link FunctionSummaryEdge}s, which can be recognized with
+ * {@link #isSummaryEdge(int)}. Edges from or to nodes that are not part of the CFA are omitted.
+ *
+ * <p>Use {@link CFA#getTopology()} to get the view of a CFA.
+ */
+public final class CFATopology {
+
+  private final CFANode[] nodes;
+  private final CFAEdge[] edges;
+
+  // node ids indexed by node number minus minNodeNumber, -1 for nodes outside of the CFA
+  private final int minNodeNumber;
+  private final int[] nodeIds;
+
+  // The leaving edges of node i are the edges leavingOffsets[i] to leavingOffsets[i + 1] - 1.
+  private final int[] leavingOffsets;
+  private final int[] edgeSuccessors;
+
+  // The entering edges of node i are enteringEdges[enteringOffsets[i]] to
+  // enteringEdges[enteringOffsets[i + 1] - 1].
+  private final int[] enteringOffsets;
+  private final int[] enteringEdges;
+  private final int[] edgePredecessors;
+
+  private final BitSet summaryEdges;
+
+  private CFATopology(CFA pCfa) {
+    nodes = ImmutableList.sortedCopyOf(pCfa.getAllNodes()).toArray(new CFANode[0]);
+
+    if (nodes.length == 0) {
+      minNodeNumber = 0;
+      nodeIds = new int[0];
+    } else {
+      minNodeNumber = nodes[0].getNodeNumber();
+      nodeIds = new int[nodes[nodes.length - 1].getNodeNumber() - minNodeNumber + 1];
+      Arrays.fill(nodeIds, -1);
+      for (int i = 0; i < nodes.length; i++) {
+        nodeIds[nodes[i].getNodeNumber() - minNodeNumber] = i;
+      }
+    }
+
+    leavingOffsets = new int[nodes.length + 1];
+    List<CFAEdge> edgeList = new ArrayList<>();
+    for (int i = 0; i < nodes.length; i++) {
+      leavingOffsets[i] = edgeList.size();
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(nodes[i])) {
+        if (getId(edge.getSuccessor()) >= 0) {
+          edgeList.add(edge);
+        }
+      }
+    }
+    leavingOffsets[nodes.length] = edgeList.size();
+    edges = edgeList.toArray(new CFAEdge[0]);
+
+    Map<CFAEdge, Integer> edgeIds = new IdentityHashMap<>(edges.length);
+    edgeSuccessors = new int[edges.length];
+    edgePredecessors = new int[edges.length];
+    summaryEdges = new BitSet(edges.length);
+    for (int i = 0; i < nodes.length; i++) {
+      for (int e = leavingOffsets[i]; e < leavingOffsets[i + 1]; e++) {
+        edgeIds.put(edges[e], e);
+        edgePredecessors[e] = i;
+        edgeSuccessors[e] = getId(edges[e].getSuccessor());
+        if (edges[e] instanceof FunctionSummaryEdge) {
+          summaryEdges.set(e);
+        }
+      }
+    }
+
+    enteringOffsets = new int[nodes.length + 1];
+    enteringEdges = new int[edges.length];
+    int next = 0;
+    for (int i = 0; i < nodes.length; i++) {
+      enteringOffsets[i] = next;
+      for (CFAEdge edge : CFAUtils.allEnteringEdges(nodes[i])) {
+        Integer edgeId = edgeIds.get(edge);
+        if (edgeId != null) {
+          enteringEdges[next++] = edgeId;
+        }
+      }
+    }
+    enteringOffsets[nodes.length] = next;
+  }
+
+  /** Create the topology view of the given CFA, which must not be modified afterwards. */
+  static CFATopology of(CFA pCfa) {
+    return new CFATopology(pCfa);
+  }
+
+  public int getNodeCount() {
+    return nodes.length;
+  }
+
+  public int getEdgeCount() {
+    return edges.length;
+  }
+
+  public CFANode getNode(int pNodeId) {
+    return nodes[pNodeId];
+  }
+
+  public CFAEdge getEdge(int pEdgeId) {
+    return edges[pEdgeId];
+  }
+
+  /** Return the id of the given node, or -1 if the node is not part of the CFA. */
+  public int getId(CFANode pNode) {
+    int index = pNode.getNodeNumber() - minNodeNumber;
+    if (index < 0 || index >= nodeIds.length) {
+      return -1;
+    }
+    int id = nodeIds[index];
+    return id >= 0 && nodes[id] == pNode ? id : -1;
+  }
+
+  public int getNumLeavingEdges(int pNodeId) {
+    return leavingOffsets[pNodeId + 1] - leavingOffsets[pNodeId];
+  }
+
+  /** Return the id of the given leaving edge of a node. */
+  public int getLeavingEdge(int pNodeId, int pIndex) {
+    checkArgument(pIndex >= 0 && pIndex < getNumLeavingEdges(pNodeId));
+    return leavingOffsets[pNodeId] + pIndex;
+  }
+
+  public int getNumEnteringEdges(int pNodeId) {
+    return enteringOffsets[pNodeId + 1] - enteringOffsets[pNodeId];
+  }
+
+  /** Return the id of the given entering edge of a node. */
+  public int getEnteringEdge(int pNodeId, int pIndex) {
+    checkArgument(pIndex >= 0 && pIndex < getNumEnteringEdges(pNodeId));
+    return enteringEdges[enteringOffsets[pNodeId] + pIndex];
+  }
+
+  public int getPredecessor(int pEdgeId) {
+    return edgePredecessors[pEdgeId];
+  }
+
+  public int getSuccessor(int pEdgeId) {
+    return edgeSuccessors[pEdgeId];
+  }
+
+  public boolean isSummaryEdge(int pEdgeId) {
+    return summaryEdges.get(pEdgeId);
+  }
+
+  /**
+   * Add the ids of all nodes that are reachable from the given node (including the node itself) to
+   * the given set. Nodes that are already contained in the set are not explored again, so the same
+   * set can be passed for several start nodes in order to compute the union of their reachable
+   * nodes without visiting any node twice.
+   *
+   * @param pNodeId the id of the start node
+   * @param pForwards whether to follow leaving edges (or entering edges, otherwise)
+   * @param pReached the set of node ids to which all reached nodes are added
+   */
+  public void collectReachableNodes(int pNodeId, boolean pForwards, BitSet pReached) {
+    if (pReached.get(pNodeId)) {
+      return;
+    }
+    int[] stack = new int[16];
+    int stackSize = 0;
+    pReached.set(pNodeId);
+    stack[stackSize++] = pNodeId;
+
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      int end = pForwards ? leavingOffsets[node + 1] : enteringOffsets[node + 1];
+      for (int i = pForwards ? leavingOffsets[node] : enteringOffsets[node]; i < end; i++) {
+        int next = pForwards ? edgeSuccessors[i] : edgePredecessors[enteringEdges[i]];
+        if (!pReached.get(next)) {
+          pReached.set(next);
+          if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+          }
+          stack[stackSize++] = next;
+        }
+      }
+    }
+  }
+}
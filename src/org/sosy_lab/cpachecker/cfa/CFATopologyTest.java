@@ -0,0 +1,192 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.sosy_lab.cpachecker.cfa.model.CFANode.newDummyCFANode;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.util.CFATraversal;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class CFATopologyTest {
+
+  private CFA cfa;
+  private CFATopology topology;
+
+  @Before
+  public void setUp() throws Exception {
+    cfa =
+        TestDataTools.makeCFA(
+            "int f(int p) {",
+            "  while (p > 0) {",
+            "    p = p - 1;",
+            "  }",
+            "  return p;",
+            "}",
+            "int unused(int p) {",
+            "  return p + 1;",
+            "}",
+            "int main() {",
+            "  int x = f(2);",
+            "  if (x) {",
+            "    x = f(x);",
+            "  }",
+            "  return x;",
+            "}");
+    topology = cfa.getTopology();
+  }
+
+  private List<CFAEdge> leavingEdges(int pNodeId) {
+    List<CFAEdge> result = new ArrayList<>();
+    for (int i = 0; i < topology.getNumLeavingEdges(pNodeId); i++) {
+      result.add(topology.getEdge(topology.getLeavingEdge(pNodeId, i)));
+    }
+    return result;
+  }
+
+  private List<CFAEdge> enteringEdges(int pNodeId) {
+    List<CFAEdge> result = new ArrayList<>();
+    for (int i = 0; i < topology.getNumEnteringEdges(pNodeId); i++) {
+      result.add(topology.getEdge(topology.getEnteringEdge(pNodeId, i)));
+    }
+    return result;
+  }
+
+  private Set<CFANode> toNodes(BitSet pNodeIds) {
+    Set<CFANode> result = new HashSet<>();
+    pNodeIds.stream().forEach(id -> result.add(topology.getNode(id)));
+    return result;
+  }
+
+  @Test
+  public void testNodeIds() {
+    assertThat(topology.getNodeCount()).isEqualTo(cfa.getAllNodes().size());
+
+    Set<CFANode> nodes = new HashSet<>();
+    for (int id = 0; id < topology.getNodeCount(); id++) {
+      CFANode node = topology.getNode(id);
+      assertThat(topology.getId(node)).isEqualTo(id);
+      if (id > 0) {
+        // ids are given in the order of node numbers
+        assertThat(node.getNodeNumber()).isGreaterThan(topology.getNode(id - 1).getNodeNumber());
+      }
+      nodes.add(node);
+    }
+    assertThat(nodes).containsExactlyElementsIn(cfa.getAllNodes());
+
+    // nodes that are not part of the CFA
+    assertThat(topology.getId(newDummyCFANode("main"))).isEqualTo(-1);
+  }
+
+  @Test
+  public void testEdges() {
+    int edgeCount = 0;
+    for (int id = 0; id < topology.getNodeCount(); id++) {
+      CFANode node = topology.getNode(id);
+      assertThat(leavingEdges(id)).containsExactlyElementsIn(CFAUtils.allLeavingEdges(node));
+      assertThat(enteringEdges(id)).containsExactlyElementsIn(CFAUtils.allEnteringEdges(node));
+
+      for (int i = 0; i < topology.getNumLeavingEdges(id); i++) {
+        int edge = topology.getLeavingEdge(id, i);
+        assertThat(topology.getPredecessor(edge)).isEqualTo(id);
+        assertThat(topology.getNode(topology.getSuccessor(edge)))
+            .isSameInstanceAs(topology.getEdge(edge).getSuccessor());
+      }
+      for (int i = 0; i < topology.getNumEnteringEdges(id); i++) {
+        assertThat(topology.getSuccessor(topology.getEnteringEdge(id, i))).isEqualTo(id);
+      }
+      edgeCount += topology.getNumLeavingEdges(id);
+    }
+    assertThat(topology.getEdgeCount()).isEqualTo(edgeCount);
+  }
+
+  @Test
+  public void testEdgeOffsets() {
+    // the leaving edges of all nodes are numbered consecutively in the order of the nodes
+    int next = 0;
+    for (int id = 0; id < topology.getNodeCount(); id++) {
+      for (int i = 0; i < topology.getNumLeavingEdges(id); i++) {
+        assertThat(topology.getLeavingEdge(id, i)).isEqualTo(next++);
+      }
+    }
+    assertThat(next).isEqualTo(topology.getEdgeCount());
+
+    int node = topology.getId(cfa.getMainFunction());
+    assertThrows(IllegalArgumentException.class, () -> topology.getLeavingEdge(node, -1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> topology.getLeavingEdge(node, topology.getNumLeavingEdges(node)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> topology.getEnteringEdge(node, topology.getNumEnteringEdges(node)));
+  }
+
+  @Test
+  public void testSummaryEdges() {
+    int summaryEdges = 0;
+    for (int edge = 0; edge < topology.getEdgeCount(); edge++) {
+      boolean isSummaryEdge = topology.getEdge(edge) instanceof FunctionSummaryEdge;
+      assertThat(topology.isSummaryEdge(edge)).isEqualTo(isSummaryEdge);
+      if (isSummaryEdge) {
+        summaryEdges++;
+      }
+    }
+    // one for each call of f
+    assertThat(summaryEdges).isEqualTo(2);
+  }
+
+  @Test
+  public void testReachableNodes() {
+    for (CFANode node : cfa.getAllNodes()) {
+      BitSet forwards = new BitSet();
+      topology.collectReachableNodes(topology.getId(node), true, forwards);
+      assertThat(toNodes(forwards))
+          .containsExactlyElementsIn(CFATraversal.dfs().collectNodesReachableFrom(node));
+
+      BitSet backwards = new BitSet();
+      topology.collectReachableNodes(topology.getId(node), false, backwards);
+      assertThat(toNodes(backwards))
+          .containsExactlyElementsIn(
+              CFATraversal.dfs().backwards().collectNodesReachableFrom(node));
+    }
+  }
+
+  @Test
+  public void testReachableNodesOfSeveralStartNodes() {
+    List<CFANode> startNodes =
+        ImmutableList.of(cfa.getMainFunction(), cfa.getFunctionHead("unused"));
+    BitSet reached = new BitSet();
+    Set<CFANode> expected = new HashSet<>();
+    for (CFANode startNode : startNodes) {
+      topology.collectReachableNodes(topology.getId(startNode), true, reached);
+      expected.addAll(CFATraversal.dfs().collectNodesReachableFrom(startNode));
+    }
+    assertThat(toNodes(reached)).containsExactlyElementsIn(expected);
+
+    // nodes that are already in the set are not explored again
+    BitSet onlyStart = new BitSet();
+    int main = topology.getId(cfa.getMainFunction());
+    onlyStart.set(main);
+    topology.collectReachableNodes(main, true, onlyStart);
+    assertThat(onlyStart.cardinality()).isEqualTo(1);
+  }
+}
@@ -57,6 +57,8 @@ class ImmutableCFA implements CFA, Serializable {
   /* fileNames are final, except for serialization. */
   private transient ImmutableList<Path> fileNames;
 
+  private transient volatile @Nullable CFATopology topology = null; // computed lazily
+
   ImmutableCFA(
       MachineModel pMachineModel,
       Map<String, FunctionEntryNode> pFunctions,
@@ -183,6 +185,17 @@ class ImmutableCFA implements CFA, Serializable {
     return fileNames;
   }
 
+  @Override
+  public CFATopology getTopology() {
+    CFATopology result = topology;
+    if (result == null) {
+      // Creating it twice in parallel is harmless.
+      result = CFATopology.of(this);
+      topology = result;
+    }
+    return result;
+  }
+
   private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
 
     // write default stuff
@@ -187,4 +187,9 @@ public class MutableCFA implements CFA {
   public List<Path> getFileNames() {
     return fileNames;
   }
+
+  @Override
+  public CFATopology getTopology() {
+    return CFATopology.of(this);
+  }
 }
\ No newline at end of file
@@ -67,6 +67,7 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.algorithm.pcc.ProofGenerator;
 import org.sosy_lab.cpachecker.core.counterexample.ReportGenerator;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.core.specification.Property;
 import org.sosy_lab.cpachecker.core.specification.Property.CommonCoverageType;
 import org.sosy_lab.cpachecker.core.specification.Property.CommonPropertyType;
@@ -189,6 +190,11 @@ public class CPAMain {
       logManager.logUserException(Level.WARNING, e, "Could not write statistics to file");
     }
 
+    if (result.getReached() != null) {
+      // e.g., delete the spill file of the reached set
+      ReachedSetFactory.close(result.getReached());
+    }
+
     System.out.flush();
     System.err.flush();
     logManager.flush();
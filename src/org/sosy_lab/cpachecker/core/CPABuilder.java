@@ -26,6 +26,7 @@ import org.sosy_lab.common.Classes;
 import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -37,6 +38,7 @@ import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.cpa.automaton.Automaton;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonProduct;
 import org.sosy_lab.cpachecker.cpa.automaton.ControlAutomatonCPA;
 import org.sosy_lab.cpachecker.cpa.composite.CompositeCPA;
 import org.sosy_lab.cpachecker.cpa.location.LocationCPA;
@@ -55,6 +57,34 @@ public class CPABuilder {
       description="CPA to use (see doc/Configuration.md for more documentation on this)")
   private String cpaName = CompositeCPA.class.getCanonicalName();
 
+  @Option(
+      secure = true,
+      name = "specification.combineAutomata",
+      description =
+          "Combine the specification automata into a single product automaton, such that only one"
+              + " automaton needs to be tracked per abstract state. Only automata without"
+              + " variables, actions, and assumptions whose transitions depend only on the CFA"
+              + " edge are combined, all other automata are kept separately.")
+  private boolean combineSpecificationAutomata = false;
+
+  @Option(
+      secure = true,
+      name = "specification.combineAutomata.maxStates",
+      description =
+          "maximal number of states of the product of the specification automata,"
+              + " if it is larger the automata are kept separately")
+  @IntegerOption(min = 1)
+  private int maxProductStates = 1000;
+
+  @Option(
+      secure = true,
+      name = "specification.combineAutomata.maxTransitions",
+      description =
+          "maximal number of transition combinations to consider for the product of the"
+              + " specification automata, if there are more the automata are kept separately")
+  @IntegerOption(min = 1)
+  private int maxProductTransitions = 100000;
+
   private final Configuration config;
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
@@ -86,6 +116,9 @@ public class CPABuilder {
     Set<String> usedAliases = new HashSet<>();
 
     List<Automaton> specAutomata = specification.getSpecificationAutomata();
+    if (combineSpecificationAutomata) {
+      specAutomata = combineAutomata(specAutomata);
+    }
     List<ConfigurableProgramAnalysis> cpas =
         new ArrayList<>(specAutomata.size() + additionalAutomata.size());
 
@@ -118,6 +151,44 @@ public class CPABuilder {
     return cpa;
   }
 
+  /**
+   * Replace all automata that can be combined by their product automaton, if the product is not
+   * too large.
+   */
+  private List<Automaton> combineAutomata(List<Automaton> pAutomata) {
+    List<Automaton> combinable = new ArrayList<>();
+    List<Automaton> others = new ArrayList<>();
+    for (Automaton automaton : pAutomata) {
+      if (AutomatonProduct.isSupported(automaton)) {
+        combinable.add(automaton);
+      } else {
+        others.add(automaton);
+      }
+    }
+    if (combinable.size() < 2) {
+      return pAutomata;
+    }
+
+    Optional<Automaton> product =
+        AutomatonProduct.computeProduct(combinable, maxProductStates, maxProductTransitions);
+    if (!product.isPresent()) {
+      logger.log(
+          Level.INFO,
+          "Product of specification automata is too large, keeping",
+          combinable.size(),
+          "automata separately.");
+      return pAutomata;
+    }
+    logger.log(
+        Level.FINE,
+        "Combined",
+        combinable.size(),
+        "specification automata into a product automaton with",
+        product.orElseThrow().getNumberOfStates(),
+        "states.");
+    return ImmutableList.<Automaton>builder().add(product.orElseThrow()).addAll(others).build();
+  }
+
   private ConfigurableProgramAnalysis buildCPAs(
       String optionValue,
       String optionName,
@@ -82,6 +82,7 @@ import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProvider;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProviderImpl;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.jfr.AnalysisRecording;
 
 @Options
 public class CPAchecker {
@@ -89,6 +90,8 @@ public class CPAchecker {
   public static interface CPAcheckerMXBean {
     public int getReachedSetSize();
 
+    public int getWaitlistSize();
+
     public void stop();
   }
 
@@ -108,6 +111,11 @@ public class CPAchecker {
       return reached.size();
     }
 
+    @Override
+    public int getWaitlistSize() {
+      return reached.getWaitlist().size();
+    }
+
     @Override
     public void stop() {
       shutdownManager.requestShutdown("A stop request was received via the JMX interface.");
@@ -226,6 +234,7 @@ public class CPAchecker {
   private final ShutdownManager shutdownManager;
   private final ShutdownNotifier shutdownNotifier;
   private final CoreComponentsFactory factory;
+  private final AnalysisRecording recording;
 
   // The content of this String is read from a file that is created by the
   // ant task "init".
@@ -310,6 +319,7 @@ public class CPAchecker {
     factory =
         new CoreComponentsFactory(
             pConfiguration, pLogManager, shutdownNotifier, new AggregatedReachedSets());
+    recording = new AnalysisRecording(pConfiguration, pLogManager);
   }
 
   public CPAcheckerResult run(
@@ -525,7 +535,9 @@ public class CPAchecker {
     CPAcheckerBean mxbean = new CPAcheckerBean(reached, logger, shutdownManager);
     mxbean.register();
 
+    recording.start();
     stats.startAnalysisTimer();
+    stats.startLiveStatistics(reached);
     try {
       int counterExampleCount = 0;
       do {
@@ -550,6 +562,7 @@ public class CPAchecker {
 
     } finally {
       stats.stopAnalysisTimer();
+      recording.close();
 
       // unregister management interface for CPAchecker
       mxbean.unregister();
@@ -0,0 +1,176 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import org.sosy_lab.common.JSON;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+
+/**
+ * This class is a runnable that periodically appends a snapshot of the current state of the
+ * analysis as one line of JSON to a file, such that running analyses can be monitored from the
+ * outside (e.g., with "tail -f"). To use it, let a {@link Thread} run it and call {@link
+ * Thread#interrupt()} when the analysis is finished, then a last snapshot is written.
+ *
+ * <p>Each snapshot contains the wall time since the start of the analysis, the sizes of reached set
+ * and waitlist, the heap usage, and the values of {@link Statistics#getLiveValues()} of all
+ * statistics that provide such values, grouped by the name of the statistics.
+ *
+ * <p>The snapshots are taken concurrently to the analysis without synchronization, so the values
+ * of one snapshot are not necessarily consistent with each other. Values that cannot be read
+ * (e.g., because of a {@link java.util.ConcurrentModificationException}) are omitted from a
+ * snapshot.
+ */
+class LiveStatisticsWriter implements Runnable {
+
+  private final Path file;
+  private final TimeSpan interval;
+  private final UnmodifiableReachedSet reached;
+  private final Collection<Statistics> statistics;
+  private final LogManager logger;
+
+  private final long startTime = System.nanoTime();
+
+  LiveStatisticsWriter(
+      Path pFile,
+      TimeSpan pInterval,
+      UnmodifiableReachedSet pReached,
+      Collection<Statistics> pStatistics,
+      LogManager pLogger) {
+    file = pFile;
+    interval = pInterval;
+    reached = pReached;
+    statistics = pStatistics;
+    logger = pLogger;
+  }
+
+  @Override
+  public void run() {
+    boolean writeFailed = false;
+    try (Writer out = IO.openOutputFile(file, StandardCharsets.UTF_8)) {
+      while (true) {
+        try {
+          Thread.sleep(interval.asMillis());
+        } catch (InterruptedException e) {
+          break; // the last snapshot is written below
+        }
+        writeFailed = true;
+        out.write(takeSnapshot());
+        out.flush();
+        writeFailed = false;
+      }
+    } catch (IOException e) {
+      // ClosedByInterruptException if the analysis finished while we were writing
+      if (!(e instanceof ClosedByInterruptException)) {
+        logger.logUserException(Level.WARNING, e, "Could not write live statistics");
+      }
+    } finally {
+      writeLastSnapshot(writeFailed);
+    }
+  }
+
+  /**
+   * Append a last snapshot to the file, which is opened again because the first writer may have
+   * been closed by an interrupt.
+   *
+   * @param pStartNewLine whether the previous write failed and may have left an incomplete line
+   */
+  private void writeLastSnapshot(boolean pStartNewLine) {
+    // clear the interrupted flag while writing, otherwise the file would be closed immediately
+    boolean interrupted = Thread.interrupted();
+    try (Writer out =
+        Files.newBufferedWriter(
+            file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      if (pStartNewLine) {
+        out.write('\n');
+      }
+      out.write(takeSnapshot());
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write live statistics");
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Create one line with the current snapshot. Each value is read separately, and values that
+   * cannot be read because the analysis modifies them concurrently are omitted.
+   */
+  private String takeSnapshot() throws IOException {
+    Map<String, Object> snapshot = new LinkedHashMap<>();
+    snapshot.put("walltime", TimeSpan.ofNanos(System.nanoTime() - startTime).asMillis());
+    putIfReadable(snapshot, "reachedSetSize", reached::size);
+    putIfReadable(snapshot, "waitlistSize", () -> reached.getWaitlist().size());
+
+    try {
+      MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+      snapshot.put("heapUsed", heap.getUsed());
+      snapshot.put("heapMax", heap.getMax());
+    } catch (IllegalArgumentException e) {
+      // JDK bug, cf. MemoryStatistics
+    }
+
+    // the analysis may add statistics concurrently, so iterate over a copy
+    ImmutableList<Statistics> currentStatistics;
+    try {
+      currentStatistics = ImmutableList.copyOf(statistics);
+    } catch (RuntimeException e) {
+      // only the values of the statistics are omitted from this snapshot
+      logger.logDebugException(e, "Could not read list of live statistics");
+      currentStatistics = ImmutableList.of();
+    }
+    for (Statistics stats : currentStatistics) {
+      String name = Strings.nullToEmpty(stats.getName());
+      if (!snapshot.containsKey(name)) {
+        putIfReadable(snapshot, name, stats::getLiveValues);
+      }
+    }
+
+    StringBuilder line = new StringBuilder();
+    JSON.writeJSONString(snapshot, line);
+    return line.append('\n').toString();
+  }
+
+  private void putIfReadable(
+      Map<String, Object> pSnapshot, String pKey, Supplier<?> pValue) {
+    Object value;
+    try {
+      value = pValue.get();
+    } catch (RuntimeException e) {
+      // The analysis modifies the source concurrently (there is no synchronization with the
+      // analysis) or the source is broken, in both cases we just omit the value.
+      logger.logDebugException(e, "Could not read live statistics value " + pKey);
+      return;
+    }
+    if (!(value instanceof Map<?, ?>) || !((Map<?, ?>) value).isEmpty()) {
+      pSnapshot.put(pKey, value);
+    }
+  }
+}
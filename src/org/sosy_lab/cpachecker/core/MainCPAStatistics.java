@@ -43,6 +43,7 @@ import org.sosy_lab.common.configuration.FileOption.Type;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.io.PathTemplate;
 import org.sosy_lab.common.log.LogManager;
@@ -100,6 +101,23 @@ class MainCPAStatistics implements Statistics {
     description="track memory usage of JVM during runtime")
   private boolean monitorMemoryUsage = true;
 
+  @Option(
+      secure = true,
+      name = "statistics.live.file",
+      description =
+          "periodically append a snapshot of the current statistics (reached-set size, "
+              + "heap usage, and important values of the analysis) as one line of JSON "
+              + "to this file while the analysis is running")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path liveStatisticsFile = null;
+
+  @Option(
+      secure = true,
+      name = "statistics.live.interval",
+      description = "interval between two snapshots of the live statistics")
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 1)
+  private TimeSpan liveStatisticsInterval = TimeSpan.ofSeconds(5);
+
   @Option(
     secure = true,
     name = "cinvariants.export",
@@ -132,6 +150,7 @@ class MainCPAStatistics implements Statistics {
   private final @Nullable MemoryStatistics memStats;
   private final @Nullable CExpressionInvariantExporter cExpressionInvariantExporter;
   private Thread memStatsThread;
+  private @Nullable Thread liveStatisticsThread = null;
 
   private final Timer programTime = new Timer();
   final Timer creationTime = new Timer();
@@ -220,10 +239,27 @@ class MainCPAStatistics implements Statistics {
     }
   }
 
+  /** Start writing live statistics about the given reached set, if this is enabled. */
+  void startLiveStatistics(UnmodifiableReachedSet pReached) {
+    if (liveStatisticsFile != null) {
+      Preconditions.checkState(liveStatisticsThread == null);
+      LiveStatisticsWriter writer =
+          new LiveStatisticsWriter(
+              liveStatisticsFile, liveStatisticsInterval, pReached, subStats, logger);
+      liveStatisticsThread =
+          Concurrency.newDaemonThread("CPAchecker live statistics writer", writer);
+      liveStatisticsThread.start();
+    }
+  }
+
   void stopAnalysisTimer() {
     analysisTime.stop();
     programTime.stop();
 
+    if (liveStatisticsThread != null) {
+      liveStatisticsThread.interrupt(); // writes a last snapshot and terminates
+    }
+
     try {
       long stopCpuTime = ProcessCpuTime.read();
 
@@ -13,10 +13,12 @@ import static org.sosy_lab.cpachecker.util.AbstractStates.isTargetState;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.div;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.PrintStream;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
@@ -67,6 +69,17 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
       return "CEGAR algorithm";
     }
 
+    @Override
+    public Map<String, Object> getLiveValues() {
+      return ImmutableMap.of(
+          "refinements",
+          countRefinements,
+          "refinementTime",
+          refinementTimer.getSumTime().asMillis(),
+          "refinementActive",
+          refinementTimer.isRunning());
+    }
+
     @Override
     public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
 
@@ -49,6 +49,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.jfr.CPAOperatorEvent;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
@@ -312,6 +313,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       }
     }
 
+    CPAOperatorEvent transferEvent = new CPAOperatorEvent();
+    transferEvent.begin();
     stats.transferTimer.start();
     Collection<? extends AbstractState> successors;
     try {
@@ -319,6 +322,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     } finally {
       stats.transferTimer.stop();
     }
+    transferEvent.commitFor("transfer", transferRelation, state, successors.size());
     // TODO When we have a nice way to mark the analysis result as incomplete,
     // we could continue analysis on a CPATransferException with the next state from waitlist.
 
@@ -391,6 +395,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       // An optimization, we don't bother merging if we know that the
       // merge operator won't do anything (i.e., it is merge-sep).
       if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
+        CPAOperatorEvent mergeEvent = new CPAOperatorEvent();
+        mergeEvent.begin();
         stats.mergeTimer.start();
         try {
           List<AbstractState> toRemove = new ArrayList<>();
@@ -427,8 +433,11 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         } finally {
           stats.mergeTimer.stop();
         }
+        mergeEvent.commitFor("merge", mergeOperator, successor, reached.size());
       }
 
+      CPAOperatorEvent stopEvent = new CPAOperatorEvent();
+      stopEvent.begin();
       stats.stopTimer.start();
       boolean stop;
       try {
@@ -436,6 +445,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       } finally {
         stats.stopTimer.stop();
       }
+      stopEvent.commitFor("stop", stopOperator, successor, reached.size());
 
       if (stop) {
         logger.log(Level.FINER, "Successor is covered or unreachable, not adding to waitlist");
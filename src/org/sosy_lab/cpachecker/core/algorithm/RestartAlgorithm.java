@@ -57,6 +57,7 @@ import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
 import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.HistoryForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
@@ -65,6 +66,7 @@ import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.resources.MemoryLimit;
 
 @Options(prefix = "restartAlgorithm")
 public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpdater {
@@ -229,6 +231,18 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
     checkArgument(pReached.size() <= 1, "RestartAlgorithm does not support being called several times with the same reached set");
     checkArgument(!pReached.isEmpty(), "RestartAlgorithm needs non-empty reached set");
 
+    // reached sets replaced by later analyses, closed only after all analyses are done
+    // because states of a replaced reached set may still be restored until then
+    final List<ReachedSet> reachedSetsToClose = new ArrayList<>();
+    try {
+      return run0(pReached, reachedSetsToClose);
+    } finally {
+      reachedSetsToClose.forEach(ReachedSetFactory::close);
+    }
+  }
+
+  private AlgorithmStatus run0(ReachedSet pReached, List<ReachedSet> pReachedSetsToClose)
+      throws CPAException, InterruptedException {
     ForwardingReachedSet reached = (ForwardingReachedSet)pReached;
 
     Iterable<CFANode> initialNodes = AbstractStates.extractLocations(pReached.getFirstState());
@@ -247,6 +261,9 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
       @Nullable ConfigurableProgramAnalysis currentCpa = null;
       ReachedSet currentReached;
       ShutdownManager singleShutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+      // if memory gets low, give up on the current analysis early and leave the memory to the next
+      MemoryLimit.PressureListener memoryPressureListener =
+          () -> singleShutdownManager.requestShutdown("Memory is getting low");
 
       boolean lastAnalysisInterrupted = false;
       boolean lastAnalysisFailed = false;
@@ -262,6 +279,7 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
             stats.noOfAlgorithmsUsed + 1,
             singleConfigFileName);
 
+        boolean isLastReachedSetProvided = provideReachedForNextAlgorithm && isLastReachedSetUsable;
         try {
           Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg =
               createNextAlgorithm(
@@ -299,7 +317,12 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
         if (reached instanceof HistoryForwardingReachedSet) {
           ((HistoryForwardingReachedSet) reached).saveCPA(currentCpa);
         }
+        ReachedSet previousReached = reached.getDelegate();
         reached.setDelegate(currentReached);
+        if (!(reached instanceof HistoryForwardingReachedSet) && !isLastReachedSetProvided) {
+          // the previous reached set is not used by the following analyses
+          pReachedSetsToClose.add(previousReached);
+        }
 
         if (currentAlgorithm instanceof StatisticsProvider) {
           ((StatisticsProvider)currentAlgorithm).collectStatistics(stats.getSubStatistics());
@@ -310,6 +333,9 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
 
         // run algorithm
         registerReachedSetUpdateListeners();
+        if (configFilesIterator.hasNext()) {
+          MemoryLimit.registerPressureListener(memoryPressureListener);
+        }
         try {
           logger.logf(Level.INFO, "Starting analysis %d ...", stats.noOfAlgorithmsUsed);
           status = currentAlgorithm.run(currentReached);
@@ -378,6 +404,7 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
           }
         }
       } finally {
+        MemoryLimit.unregisterPressureListener(memoryPressureListener);
         unregisterReachedSetUpdateListeners();
         singleShutdownManager.getNotifier().unregister(logShutdownListener);
         singleShutdownManager.requestShutdown("Analysis terminated"); // shutdown any remaining components
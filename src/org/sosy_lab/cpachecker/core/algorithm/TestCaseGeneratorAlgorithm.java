@@ -39,6 +39,7 @@ import org.sosy_lab.cpachecker.core.specification.Property.CommonCoverageType;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.core.specification.SpecificationProperty;
 import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
+import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.arg.ARGUtils;
 import org.sosy_lab.cpachecker.cpa.testtargets.CoverFunction;
@@ -82,6 +83,7 @@ public class TestCaseGeneratorAlgorithm implements ProgressReportingAlgorithm, S
   private final ConfigurableProgramAnalysis cpa;
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
+  private final TestTargetTransferRelation targetTransferRelation;
   private final Set<CFAEdge> testTargets;
   private final SpecificationProperty specProp;
   private final TestCaseExporter exporter;
@@ -106,8 +108,8 @@ public class TestCaseGeneratorAlgorithm implements ProgressReportingAlgorithm, S
         AssumptionToEdgeAllocator.create(pConfig, logger, pCfa.getMachineModel());
     TestTargetCPA testTargetCpa =
         CPAs.retrieveCPAOrFail(pCpa, TestTargetCPA.class, TestCaseGeneratorAlgorithm.class);
-    testTargets =
-        ((TestTargetTransferRelation) testTargetCpa.getTransferRelation()).getTestTargets();
+    targetTransferRelation = (TestTargetTransferRelation) testTargetCpa.getTransferRelation();
+    testTargets = targetTransferRelation.getTestTargets();
     exporter = new TestCaseExporter(pCfa, logger, pConfig);
 
     if (pSpec.getProperties().size() == 1) {
@@ -154,7 +156,10 @@ public class TestCaseGeneratorAlgorithm implements ProgressReportingAlgorithm, S
 
     try {
       boolean shouldReturnFalse, ignoreTargetState;
-      while (pReached.hasWaitingState() && !testTargets.isEmpty()) {
+      // if the waitlist is exhausted, continue with targets of other shards that were passed while
+      // pursuing our own shard
+      while (!testTargets.isEmpty()
+          && (pReached.hasWaitingState() || resumePostponedTargets(pReached))) {
         shutdownNotifier.shutdownIfNecessary();
         shouldReturnFalse = false;
         ignoreTargetState = false;
@@ -211,17 +216,26 @@ public class TestCaseGeneratorAlgorithm implements ProgressReportingAlgorithm, S
               if (testTargets.contains(targetEdge)) {
 
                 if (status.isPrecise()) {
-                  CounterexampleInfo cexInfo = ARGUtils.tryGetOrCreateCounterexampleInformation(argState, cpa, assumptionToEdgeAllocator).orElseThrow();
-                  exporter.writeTestCaseFiles(cexInfo, Optional.ofNullable(specProp));
-
-                  logger.log(Level.FINE, "Removing test target: " + targetEdge.toString());
-                  testTargets.remove(targetEdge);
-
-                  if (shouldReportCoveredErrorCallAsError()) {
-                    addErrorStateWithViolatedProperty(pReached);
-                    shouldReturnFalse = true;
+                  // The test targets may be shared with analyses running in parallel, so we claim
+                  // the target before exporting the test case. Only the analysis that removes the
+                  // target exports a test case for it.
+                  if (testTargets.remove(targetEdge)) {
+                    logger.log(Level.FINE, "Removing test target: " + targetEdge.toString());
+
+                    CounterexampleInfo cexInfo = ARGUtils.tryGetOrCreateCounterexampleInformation(argState, cpa, assumptionToEdgeAllocator).orElseThrow();
+                    exporter.writeTestCaseFiles(cexInfo, Optional.ofNullable(specProp));
+
+                    if (shouldReportCoveredErrorCallAsError()) {
+                      addErrorStateWithViolatedProperty(pReached);
+                      shouldReturnFalse = true;
+                    }
+                    progress++;
+                  } else {
+                    logger.log(
+                        Level.FINE,
+                        "Test target was covered by a parallel analysis in the meantime:"
+                            + targetEdge.toString());
                   }
-                  progress++;
                 } else {
                   if (ignoreTargetState) {
                     TestTargetState targetState =
@@ -274,6 +288,49 @@ public class TestCaseGeneratorAlgorithm implements ProgressReportingAlgorithm, S
     return AlgorithmStatus.NO_PROPERTY_CHECKED;
   }
 
+  /**
+   * Re-add the states from which uncovered test targets of other shards were reached while they
+   * were postponed, such that they are explored again as regular targets. Otherwise these targets
+   * would remain uncovered if the parallel instance responsible for them does not cover them.
+   *
+   * @return whether the analysis has to continue
+   */
+  private boolean resumePostponedTargets(final ReachedSet pReached) throws InterruptedException {
+    if (!targetTransferRelation.stopPostponingTargets()) {
+      return false;
+    }
+
+    List<ARGState> postponedStates =
+        from(pReached)
+            .filter(ARGState.class)
+            .filter(
+                state -> {
+                  TestTargetState targetState =
+                      AbstractStates.extractStateByType(state, TestTargetState.class);
+                  return targetState != null && targetState.isPostponedTarget();
+                })
+            .filter(
+                state ->
+                    from(state.getParents())
+                        .transform(parent -> parent.getEdgeToChild(state))
+                        .anyMatch(edge -> edge != null && testTargets.contains(edge)))
+            .toList();
+
+    ARGReachedSet argReached = new ARGReachedSet(pReached, cpa);
+    for (ARGState state : postponedStates) {
+      // the state may have been removed already as part of the subtree of another one
+      if (!state.isDestroyed()) {
+        argReached.removeSubtree(state);
+      }
+    }
+    logger.log(
+        Level.FINE,
+        "Exploring",
+        postponedStates.size(),
+        "uncovered test targets of other shards again.");
+    return pReached.hasWaitingState();
+  }
+
   private void cleanUpIfNoTestTargetsRemain(final ReachedSet pReached) {
     if (testTargets.isEmpty()) {
       List<AbstractState> waitlist = new ArrayList<>(pReached.getWaitlist());
@@ -113,8 +113,12 @@ public class KInductionInvariantChecker {
   public void checkCandidates() throws CPAException, InterruptedException {
     checkState(!isComputationFinished);
 
-    invGen.start(cfa.getMainFunction());
-    invGen.getSupplier(); // let invariant generator do the work
+    try {
+      invGen.start(cfa.getMainFunction());
+      invGen.getSupplier(); // let invariant generator do the work
+    } finally {
+      invGen.close();
+    }
 
     isComputationFinished = true;
   }
@@ -115,6 +115,7 @@ import org.sosy_lab.cpachecker.util.ExpressionSubstitution.SubstitutionException
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.WitnessInvariantsExtractor;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProvider;
+import org.sosy_lab.cpachecker.util.resources.MemoryLimit;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import org.sosy_lab.cpachecker.util.variableclassification.Partition;
@@ -123,7 +124,7 @@ import org.sosy_lab.java_smt.api.SolverException;
 
 /** Generate invariants using k-induction. */
 public class KInductionInvariantGenerator extends AbstractInvariantGenerator
-    implements StatisticsProvider, ConditionAdjustmentEventSubscriber {
+    implements StatisticsProvider, ConditionAdjustmentEventSubscriber, AutoCloseable {
 
   @Options(prefix = "invariantGeneration.kInduction")
   public static class KInductionInvariantGeneratorOptions {
@@ -185,6 +186,8 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
 
   private final LogManager logger;
   private final ShutdownManager shutdownManager;
+  // stops only the analysis of the invariant generator, the shutdown manager above may be shared
+  private final ShutdownManager childShutdown;
 
   private final boolean async;
 
@@ -337,7 +340,7 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
           }
         };
 
-    ShutdownManager childShutdown = ShutdownManager.createWithParent(shutdownManager.getNotifier());
+    childShutdown = ShutdownManager.createWithParent(shutdownManager.getNotifier());
     ResourceLimitChecker.fromConfiguration(config, logger, childShutdown).start();
     CPABuilder invGenBMCBuilder =
         new CPABuilder(config, logger, childShutdown.getNotifier(), pReachedSetFactory);
@@ -368,6 +371,7 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
 
     if (async) {
       // start invariant generation asynchronously
+      MemoryLimit.registerPressureListener(memoryPressureListener);
       ExecutorService executor = Executors.newSingleThreadExecutor();
       invariantGenerationFuture = executor.submit(task);
       executor.shutdown(); // will shutdown after task is finished
@@ -382,13 +386,35 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
 
   private final AtomicBoolean cancelled = new AtomicBoolean();
 
+  // if memory gets low, stop generating new invariants and keep the ones found so far
+  @SuppressWarnings("UnnecessaryAnonymousClass") // lambda cannot access the final field yet
+  private final MemoryLimit.PressureListener memoryPressureListener =
+      new MemoryLimit.PressureListener() {
+
+        @Override
+        public void memoryPressureReached() {
+          cancelled.set(true);
+          childShutdown.requestShutdown("Memory is getting low, stopping invariant generation.");
+        }
+      };
+
   @Override
   public void cancel() {
     checkState(invariantGenerationFuture != null);
+    MemoryLimit.unregisterPressureListener(memoryPressureListener);
     shutdownManager.requestShutdown("Invariant generation cancel requested.");
     cancelled.set(true);
   }
 
+  /** Cancel the invariant generation if it is still running, and release its listeners. */
+  @Override
+  public void close() {
+    MemoryLimit.unregisterPressureListener(memoryPressureListener);
+    if (invariantGenerationFuture != null && !invariantGenerationFuture.isDone()) {
+      cancel();
+    }
+  }
+
   @Override
   public AggregatedReachedSets get() {
     throw new UnsupportedOperationException(
@@ -476,6 +502,7 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
         throw new CPAException("Solver Failure", e);
       } finally {
         stats.invariantGeneration.stop();
+        MemoryLimit.unregisterPressureListener(memoryPressureListener);
         CPAs.closeCpaIfPossible(cpa, logger);
         CPAs.closeIfPossible(algorithm, logger);
       }
@@ -12,10 +12,14 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
+import com.google.common.io.MoreFiles;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -85,6 +89,14 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path runningRSESeriesFile = Paths.get("RSESeries.csv");
 
+  @Option(
+      description =
+          "export number of running RSE instances in a compact binary format"
+              + " (cf. StatisticsSeriesWithNumbers.writeCompact)",
+      secure = true)
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path runningRSESeriesCompactFile = null;
+
   private final ParallelBAMStatistics stats = new ParallelBAMStatistics();
   private final LogManager logger;
   private final LogManagerWithoutDuplicates oneTimeLogger;
@@ -331,7 +343,7 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
     private final StatCounter unfinishedRSEcounter = new StatCounter("unfinished reached-sets");
 
     final StatisticsSeries<Integer> runningRSESeries =
-        (runningRSESeriesFile == null)
+        (runningRSESeriesFile == null && runningRSESeriesCompactFile == null)
             ? new NoopStatisticsSeries<>()
             : new StatisticsSeriesWithNumbers();
 
@@ -345,7 +357,7 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
       StatisticsUtils.write(pOut, 0, 50, threadTime);
       StatisticsUtils.write(pOut, 1, 50, addingStatesTime);
       StatisticsUtils.write(pOut, 1, 50, terminationCheckTime);
-      if (runningRSESeriesFile != null) {
+      if (runningRSESeries instanceof StatisticsSeriesWithNumbers) {
         final StatisticsSeriesWithNumbers sswn = (StatisticsSeriesWithNumbers) runningRSESeries;
         StatisticsUtils.write(
             pOut, 1, 50, "Avg. number of parallel RSEs w/o time", sswn.getStatsWithoutTime());
@@ -363,6 +375,17 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
           logger.logUserException(Level.WARNING, e, "Could not write data-series for RSEs to file");
         }
       }
+      if (runningRSESeriesCompactFile != null) {
+        try {
+          MoreFiles.createParentDirectories(runningRSESeriesCompactFile);
+          try (OutputStream out =
+              new BufferedOutputStream(Files.newOutputStream(runningRSESeriesCompactFile))) {
+            ((StatisticsSeriesWithNumbers) runningRSESeries).writeCompact(out);
+          }
+        } catch (IOException e) {
+          logger.logUserException(Level.WARNING, e, "Could not write data-series for RSEs to file");
+        }
+      }
     }
 
     @Override
@@ -35,7 +35,7 @@ public abstract class AbstractSingleWrapperState
     return pArg0 -> ((AbstractSingleWrapperState)pArg0).getWrappedState();
   }
 
-  private final @Nullable AbstractState wrappedState;
+  private @Nullable AbstractState wrappedState;
 
   protected AbstractSingleWrapperState(@Nullable AbstractState pWrappedState) {
     // TODO this collides with some CPAs' way of handling dummy states, but it should really be not null here
@@ -47,10 +47,19 @@ public abstract class AbstractSingleWrapperState
     return wrappedState;
   }
 
+  /**
+   * Replace the wrapped state. This is only meant for subclasses that temporarily move the wrapped
+   * state out of memory and that restore an equal state in {@link #getWrappedState()}.
+   */
+  protected void setWrappedState(@Nullable AbstractState pWrappedState) {
+    wrappedState = pWrappedState;
+  }
+
   @Override
   public boolean isTarget() {
-    if (wrappedState instanceof Targetable) {
-      return ((Targetable)wrappedState).isTarget();
+    AbstractState wrapped = getWrappedState();
+    if (wrapped instanceof Targetable) {
+      return ((Targetable) wrapped).isTarget();
     } else {
       return false;
     }
@@ -59,13 +68,14 @@ public abstract class AbstractSingleWrapperState
   @Override
   public Set<Property> getViolatedProperties() throws IllegalStateException {
     checkState(isTarget());
-    return ((Targetable)wrappedState).getViolatedProperties();
+    return ((Targetable)getWrappedState()).getViolatedProperties();
   }
 
   @Override
   public Object getPartitionKey() {
-    if (wrappedState instanceof Partitionable) {
-      return ((Partitionable)wrappedState).getPartitionKey();
+    AbstractState wrapped = getWrappedState();
+    if (wrapped instanceof Partitionable) {
+      return ((Partitionable) wrapped).getPartitionKey();
     } else {
       return null;
     }
@@ -73,8 +83,9 @@ public abstract class AbstractSingleWrapperState
 
   @Override
   public Comparable<?> getPseudoPartitionKey() {
-    if (wrappedState instanceof PseudoPartitionable) {
-      return ((PseudoPartitionable) wrappedState).getPseudoPartitionKey();
+    AbstractState wrapped = getWrappedState();
+    if (wrapped instanceof PseudoPartitionable) {
+      return ((PseudoPartitionable) wrapped).getPseudoPartitionKey();
     } else {
       return null;
     }
@@ -82,8 +93,9 @@ public abstract class AbstractSingleWrapperState
 
   @Override
   public Object getPseudoHashCode() {
-    if (wrappedState instanceof PseudoPartitionable) {
-      return ((PseudoPartitionable) wrappedState).getPseudoHashCode();
+    AbstractState wrapped = getWrappedState();
+    if (wrapped instanceof PseudoPartitionable) {
+      return ((PseudoPartitionable) wrapped).getPseudoHashCode();
     } else {
       return null;
     }
@@ -91,11 +103,11 @@ public abstract class AbstractSingleWrapperState
 
   @Override
   public String toString() {
-    return wrappedState.toString();
+    return getWrappedState().toString();
   }
 
   @Override
   public ImmutableList<AbstractState> getWrappedStates() {
-    return ImmutableList.of(wrappedState);
+    return ImmutableList.of(getWrappedState());
   }
 }
\ No newline at end of file
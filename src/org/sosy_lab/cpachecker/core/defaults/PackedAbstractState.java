@@ -0,0 +1,82 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.defaults;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.io.Serializable;
+import java.util.List;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * Abstract state that consists of one component state per pack of variables (cf. {@link
+ * org.sosy_lab.cpachecker.util.variableclassification.VariablePacks}). All components are of the
+ * same kind, each of them only tracks the variables of its own pack. The concretization of this
+ * state is the intersection of the concretizations of the components.
+ *
+ * <p>The formula approximation of this state is the conjunction of the approximations of all
+ * components that report one, such that invariants and witnesses can be exported for packed
+ * analyses as well. The state is serializable if all components are.
+ */
+public final class PackedAbstractState implements FormulaReportingState, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final ImmutableList<AbstractState> components;
+
+  public PackedAbstractState(List<? extends AbstractState> pComponents) {
+    checkArgument(!pComponents.isEmpty(), "packed state without components");
+    components = ImmutableList.copyOf(pComponents);
+  }
+
+  public ImmutableList<AbstractState> getComponents() {
+    return components;
+  }
+
+  public AbstractState getComponent(int pPackIndex) {
+    return components.get(pPackIndex);
+  }
+
+  public int getNumberOfPacks() {
+    return components.size();
+  }
+
+  @Override
+  public BooleanFormula getFormulaApproximation(FormulaManagerView pManager) {
+    return pManager
+        .getBooleanFormulaManager()
+        .and(
+            FluentIterable.from(components)
+                .filter(FormulaReportingState.class)
+                .transform(component -> component.getFormulaApproximation(pManager))
+                .toList());
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    return pOther instanceof PackedAbstractState
+        && components.equals(((PackedAbstractState) pOther).components);
+  }
+
+  @Override
+  public int hashCode() {
+    return components.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return Joiner.on("\n").join(components);
+  }
+}
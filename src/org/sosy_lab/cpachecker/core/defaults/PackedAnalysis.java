@@ -0,0 +1,123 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.defaults;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.util.variableclassification.VariablePacks;
+
+/**
+ * The operators of an analysis that tracks one component state per pack of variables (cf. {@link
+ * PackedAbstractState}), built from the operators of the analysis without packing. CPAs that
+ * support variable packing create an instance of this class and delegate to its operators and
+ * {@link #createInitialState(ComponentFactory)}.
+ */
+public final class PackedAnalysis {
+
+  /** Factory for the initial component state of a pack. */
+  @FunctionalInterface
+  public interface ComponentFactory<X extends Exception> {
+    AbstractState createInitialComponent() throws X;
+  }
+
+  private final VariablePacks packs;
+  private final AbstractDomain abstractDomain;
+  private final TransferRelation transferRelation;
+  private final MergeOperator mergeOperator;
+  private final StopOperator stopOperator;
+
+  private PackedAnalysis(
+      VariablePacks pPacks,
+      AbstractDomain pComponentDomain,
+      TransferRelation pComponentTransfer,
+      MergeOperator pComponentMerge) {
+    packs = pPacks;
+    abstractDomain = new PackedDomain(pComponentDomain);
+    transferRelation = new PackedTransferRelation(pComponentTransfer, packs);
+    mergeOperator =
+        pComponentMerge == MergeSepOperator.getInstance()
+            ? pComponentMerge
+            : new PackedMergeOperator(pComponentMerge, packs);
+    stopOperator = new StopSepOperator(abstractDomain);
+  }
+
+  /**
+   * Create the operators of a packed analysis.
+   *
+   * @param pAnalysisName the name of the analysis, used in error messages
+   * @param pHasStaticPrecision whether the analysis is configured with a static precision, which
+   *     is required because the refiners operate on states without packing
+   */
+  public static PackedAnalysis create(
+      String pAnalysisName,
+      boolean pHasStaticPrecision,
+      Configuration pConfig,
+      LogManager pLogger,
+      CFA pCfa,
+      AbstractDomain pComponentDomain,
+      TransferRelation pComponentTransfer,
+      MergeOperator pComponentMerge)
+      throws InvalidConfigurationException {
+    if (!pHasStaticPrecision) {
+      throw new InvalidConfigurationException(
+          "Variable packing for the "
+              + pAnalysisName
+              + " analysis is only supported with a static precision.");
+    }
+    if (!pCfa.getVarClassification().isPresent()) {
+      throw new InvalidConfigurationException(
+          "Variable packing for the "
+              + pAnalysisName
+              + " analysis requires the variable classification.");
+    }
+    VariablePacks packs = new VariablePacks(pConfig, pCfa.getVarClassification().orElseThrow());
+    pLogger.log(Level.FINE, "Using", packs, "with sizes", packs.getPackSizes());
+    return new PackedAnalysis(packs, pComponentDomain, pComponentTransfer, pComponentMerge);
+  }
+
+  public VariablePacks getPacks() {
+    return packs;
+  }
+
+  public AbstractDomain getAbstractDomain() {
+    return abstractDomain;
+  }
+
+  public TransferRelation getTransferRelation() {
+    return transferRelation;
+  }
+
+  public MergeOperator getMergeOperator() {
+    return mergeOperator;
+  }
+
+  public StopOperator getStopOperator() {
+    return stopOperator;
+  }
+
+  /** Create an initial state with one fresh component per pack. */
+  public <X extends Exception> PackedAbstractState createInitialState(
+      ComponentFactory<X> pComponentFactory) throws X {
+    List<AbstractState> components = new ArrayList<>(packs.getNumberOfPacks());
+    for (int pack = 0; pack < packs.getNumberOfPacks(); pack++) {
+      components.add(pComponentFactory.createInitialComponent());
+    }
+    return new PackedAbstractState(components);
+  }
+}
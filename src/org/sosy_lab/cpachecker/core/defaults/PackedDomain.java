@@ -0,0 +1,61 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.defaults;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+
+/**
+ * Domain for {@link PackedAbstractState}s, all operations are delegated component-wise to the
+ * domain of the component states.
+ */
+public class PackedDomain implements AbstractDomain {
+
+  private final AbstractDomain componentDomain;
+
+  public PackedDomain(AbstractDomain pComponentDomain) {
+    componentDomain = pComponentDomain;
+  }
+
+  @Override
+  public AbstractState join(AbstractState pState1, AbstractState pState2)
+      throws CPAException, InterruptedException {
+    PackedAbstractState state1 = (PackedAbstractState) pState1;
+    PackedAbstractState state2 = (PackedAbstractState) pState2;
+    assert state1.getNumberOfPacks() == state2.getNumberOfPacks();
+
+    List<AbstractState> joined = new ArrayList<>(state1.getNumberOfPacks());
+    boolean identicalToState2 = true;
+    for (int pack = 0; pack < state1.getNumberOfPacks(); pack++) {
+      AbstractState component =
+          componentDomain.join(state1.getComponent(pack), state2.getComponent(pack));
+      identicalToState2 &= component == state2.getComponent(pack);
+      joined.add(component);
+    }
+    return identicalToState2 ? state2 : new PackedAbstractState(joined);
+  }
+
+  @Override
+  public boolean isLessOrEqual(AbstractState pState1, AbstractState pState2)
+      throws CPAException, InterruptedException {
+    PackedAbstractState state1 = (PackedAbstractState) pState1;
+    PackedAbstractState state2 = (PackedAbstractState) pState2;
+    assert state1.getNumberOfPacks() == state2.getNumberOfPacks();
+
+    for (int pack = 0; pack < state1.getNumberOfPacks(); pack++) {
+      if (!componentDomain.isLessOrEqual(state1.getComponent(pack), state2.getComponent(pack))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
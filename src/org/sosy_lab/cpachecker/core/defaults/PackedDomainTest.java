@@ -0,0 +1,61 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.defaults;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.cpachecker.core.defaults.PackedDomainTest.FlatState.A;
+import static org.sosy_lab.cpachecker.core.defaults.PackedDomainTest.FlatState.B;
+import static org.sosy_lab.cpachecker.core.defaults.PackedDomainTest.FlatState.TOP;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+
+public class PackedDomainTest {
+
+  /** Component states of a flat lattice with top element {@code TOP}. */
+  enum FlatState implements AbstractState {
+    A,
+    B,
+    TOP
+  }
+
+  static PackedAbstractState packed(FlatState... pComponents) {
+    return new PackedAbstractState(ImmutableList.copyOf(pComponents));
+  }
+
+  private final PackedDomain domain = new PackedDomain(new FlatLatticeDomain(TOP));
+
+  @Test
+  public void testIsLessOrEqualComponentWise() throws CPAException, InterruptedException {
+    assertThat(domain.isLessOrEqual(packed(A, B), packed(A, B))).isTrue();
+    assertThat(domain.isLessOrEqual(packed(A, B), packed(TOP, B))).isTrue();
+    assertThat(domain.isLessOrEqual(packed(TOP, B), packed(A, B))).isFalse();
+  }
+
+  @Test
+  public void testIsLessOrEqualRequiresAllComponents() throws CPAException, InterruptedException {
+    // each single component is covered by some state, but not all components by the same state
+    assertThat(domain.isLessOrEqual(packed(A, A), packed(A, B))).isFalse();
+    assertThat(domain.isLessOrEqual(packed(A, A), packed(B, A))).isFalse();
+  }
+
+  @Test
+  public void testJoinComponentWise() throws CPAException, InterruptedException {
+    AbstractState joined = domain.join(packed(A, A), packed(A, B));
+    assertThat(joined).isEqualTo(packed(A, TOP));
+  }
+
+  @Test
+  public void testJoinReturnsCoveringState() throws CPAException, InterruptedException {
+    PackedAbstractState state2 = packed(TOP, B);
+    assertThat(domain.join(packed(A, B), state2)).isSameInstanceAs(state2);
+  }
+}
@@ -0,0 +1,59 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.defaults;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.sosy_lab.cpachecker.core.defaults.precision.PackRestrictedPrecision;
+import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.variableclassification.VariablePacks;
+
+/**
+ * Merge operator for {@link PackedAbstractState}s that merges the states component-wise with the
+ * merge operator of the component states. The result is the reached state itself if no component
+ * was changed by the merge, such that merge-sep semantics are preserved.
+ *
+ * <p>Like in {@link PackedTransferRelation}, the component merge operator gets the precision
+ * restricted to the variables of the respective pack.
+ */
+public class PackedMergeOperator implements MergeOperator {
+
+  private final MergeOperator componentMerge;
+  private final VariablePacks packs;
+
+  public PackedMergeOperator(MergeOperator pComponentMerge, VariablePacks pPacks) {
+    componentMerge = pComponentMerge;
+    packs = pPacks;
+  }
+
+  @Override
+  public AbstractState merge(AbstractState pState1, AbstractState pState2, Precision pPrecision)
+      throws CPAException, InterruptedException {
+    PackedAbstractState state1 = (PackedAbstractState) pState1;
+    PackedAbstractState state2 = (PackedAbstractState) pState2;
+    assert state1.getNumberOfPacks() == state2.getNumberOfPacks();
+    List<VariableTrackingPrecision> packPrecisions =
+        PackRestrictedPrecision.restrictToPacks((VariableTrackingPrecision) pPrecision, packs);
+
+    List<AbstractState> merged = new ArrayList<>(state1.getNumberOfPacks());
+    boolean identicalToState2 = true;
+    for (int pack = 0; pack < state1.getNumberOfPacks(); pack++) {
+      AbstractState component =
+          componentMerge.merge(
+              state1.getComponent(pack), state2.getComponent(pack), packPrecisions.get(pack));
+      identicalToState2 &= component == state2.getComponent(pack);
+      merged.add(component);
+    }
+    return identicalToState2 ? state2 : new PackedAbstractState(merged);
+  }
+}
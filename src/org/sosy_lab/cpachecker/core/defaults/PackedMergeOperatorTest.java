@@ -0,0 +1,86 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.defaults;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.cpachecker.core.defaults.PackedDomainTest.FlatState.A;
+import static org.sosy_lab.cpachecker.core.defaults.PackedDomainTest.FlatState.B;
+import static org.sosy_lab.cpachecker.core.defaults.PackedDomainTest.FlatState.TOP;
+import static org.sosy_lab.cpachecker.core.defaults.PackedDomainTest.packed;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.cpachecker.core.defaults.precision.PackRestrictedPrecision;
+import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.cpa.octagon.OctagonCPA;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.variableclassification.VariablePacks;
+
+public class PackedMergeOperatorTest {
+
+  private final VariablePacks packs = VariablePacks.of(ImmutableMap.of("main::x", 0), 2);
+
+  private VariableTrackingPrecision precision;
+  private PackedMergeOperator mergeJoin;
+
+  @Before
+  public void setUp() throws InvalidConfigurationException {
+    precision =
+        VariableTrackingPrecision.createStaticPrecision(
+            Configuration.defaultConfiguration(), Optional.empty(), OctagonCPA.class);
+    mergeJoin = new PackedMergeOperator(new MergeJoinOperator(new FlatLatticeDomain(TOP)), packs);
+  }
+
+  @Test
+  public void testMergeJoinComponentWise() throws CPAException, InterruptedException {
+    assertThat(mergeJoin.merge(packed(A, B), packed(B, B), precision))
+        .isEqualTo(packed(TOP, B));
+  }
+
+  @Test
+  public void testMergeJoinKeepsReachedStateIfUnchanged()
+      throws CPAException, InterruptedException {
+    PackedAbstractState reached = packed(TOP, B);
+    assertThat(mergeJoin.merge(packed(A, B), reached, precision)).isSameInstanceAs(reached);
+  }
+
+  @Test
+  public void testMergeSepKeepsReachedState() throws CPAException, InterruptedException {
+    PackedMergeOperator mergeSep = new PackedMergeOperator(MergeSepOperator.getInstance(), packs);
+    PackedAbstractState reached = packed(B, B);
+    assertThat(mergeSep.merge(packed(A, B), reached, precision)).isSameInstanceAs(reached);
+  }
+
+  @Test
+  public void testComponentsGetPackRestrictedPrecision()
+      throws CPAException, InterruptedException {
+    List<Precision> componentPrecisions = new ArrayList<>();
+    PackedMergeOperator merge =
+        new PackedMergeOperator(
+            (state1, state2, componentPrecision) -> {
+              componentPrecisions.add(componentPrecision);
+              return state2;
+            },
+            packs);
+    merge.merge(packed(A, B), packed(B, B), precision);
+
+    assertThat(componentPrecisions)
+        .containsExactly(
+            new PackRestrictedPrecision(precision, packs, 0),
+            new PackRestrictedPrecision(precision, packs, 1))
+        .inOrder();
+  }
+}
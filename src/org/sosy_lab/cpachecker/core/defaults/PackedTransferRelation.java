@@ -0,0 +1,70 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.defaults;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.defaults.precision.PackRestrictedPrecision;
+import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.variableclassification.VariablePacks;
+
+/**
+ * Transfer relation for {@link PackedAbstractState}s. The successors are computed independently
+ * for each pack by the given component transfer relation, with the precision restricted to the
+ * variables of the pack. Variables of other packs are unknown for a component, thus operations
+ * that relate variables of different packs are over-approximated by the component transfer
+ * relation itself.
+ */
+public class PackedTransferRelation extends SingleEdgeTransferRelation {
+
+  private final TransferRelation componentTransfer;
+  private final VariablePacks packs;
+
+  public PackedTransferRelation(TransferRelation pComponentTransfer, VariablePacks pPacks) {
+    componentTransfer = pComponentTransfer;
+    packs = pPacks;
+  }
+
+  @Override
+  public Collection<PackedAbstractState> getAbstractSuccessorsForEdge(
+      AbstractState pState, Precision pPrecision, CFAEdge pCfaEdge)
+      throws CPATransferException, InterruptedException {
+    PackedAbstractState state = (PackedAbstractState) pState;
+    // computed per call, the transfer relation may be used by several threads at once
+    List<VariableTrackingPrecision> packPrecisions =
+        PackRestrictedPrecision.restrictToPacks((VariableTrackingPrecision) pPrecision, packs);
+
+    List<List<AbstractState>> successorsOfPacks = new ArrayList<>(state.getNumberOfPacks());
+    for (int pack = 0; pack < state.getNumberOfPacks(); pack++) {
+      Collection<? extends AbstractState> successors =
+          componentTransfer.getAbstractSuccessorsForEdge(
+              state.getComponent(pack), packPrecisions.get(pack), pCfaEdge);
+      if (successors.isEmpty()) {
+        // one unsatisfiable pack suffices to make the whole state unsatisfiable
+        return ImmutableSet.of();
+      }
+      successorsOfPacks.add(ImmutableList.copyOf(successors));
+    }
+
+    ImmutableList.Builder<PackedAbstractState> result = ImmutableList.builder();
+    for (List<AbstractState> successor : Lists.cartesianProduct(successorsOfPacks)) {
+      result.add(new PackedAbstractState(successor));
+    }
+    return result.build();
+  }
+}
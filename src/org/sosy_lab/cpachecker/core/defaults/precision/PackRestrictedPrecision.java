@@ -0,0 +1,149 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.defaults.precision;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimap;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.Type;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.variableclassification.VariablePacks;
+
+/**
+ * A precision that restricts another precision to the variables of one pack of {@link
+ * VariablePacks}. Analyses that track one abstract state per pack use this precision for each of
+ * the component states, such that every component only declares the variables of its own pack.
+ */
+public final class PackRestrictedPrecision extends VariableTrackingPrecision {
+
+  private static final long serialVersionUID = 1L;
+
+  private final VariableTrackingPrecision delegate;
+  private final VariablePacks packs;
+  private final int packIndex;
+
+  public PackRestrictedPrecision(
+      VariableTrackingPrecision pDelegate, VariablePacks pPacks, int pPackIndex) {
+    checkArgument(0 <= pPackIndex && pPackIndex < pPacks.getNumberOfPacks());
+    delegate = checkNotNull(pDelegate);
+    packs = pPacks;
+    packIndex = pPackIndex;
+  }
+
+  /**
+   * Restrict the given precision to each of the packs.
+   *
+   * @return a list with the restricted precision of pack i at index i
+   */
+  public static ImmutableList<VariableTrackingPrecision> restrictToPacks(
+      VariableTrackingPrecision pPrecision, VariablePacks pPacks) {
+    ImmutableList.Builder<VariableTrackingPrecision> result =
+        ImmutableList.builderWithExpectedSize(pPacks.getNumberOfPacks());
+    for (int pack = 0; pack < pPacks.getNumberOfPacks(); pack++) {
+      result.add(new PackRestrictedPrecision(pPrecision, pPacks, pack));
+    }
+    return result.build();
+  }
+
+  public VariableTrackingPrecision getDelegate() {
+    return delegate;
+  }
+
+  public int getPackIndex() {
+    return packIndex;
+  }
+
+  @Override
+  public boolean allowsAbstraction() {
+    return true;
+  }
+
+  @Override
+  public boolean isTracking(MemoryLocation pVariable, Type pType, CFANode pLocation) {
+    return packs.getPackIndex(pVariable) == packIndex
+        && delegate.isTracking(pVariable, pType, pLocation);
+  }
+
+  @Override
+  public VariableTrackingPrecision withIncrement(Multimap<CFANode, MemoryLocation> pIncrement) {
+    VariableTrackingPrecision refined = delegate.withIncrement(pIncrement);
+    return refined == delegate ? this : new PackRestrictedPrecision(refined, packs, packIndex);
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public void serialize(Writer pWriter) throws IOException {
+    delegate.serialize(pWriter);
+  }
+
+  @Override
+  public VariableTrackingPrecision join(VariableTrackingPrecision pOtherPrecision) {
+    checkArgument(pOtherPrecision instanceof PackRestrictedPrecision);
+    PackRestrictedPrecision other = (PackRestrictedPrecision) pOtherPrecision;
+    checkArgument(packIndex == other.packIndex);
+    return new PackRestrictedPrecision(delegate.join(other.delegate), packs, packIndex);
+  }
+
+  @Override
+  public boolean tracksTheSameVariablesAs(VariableTrackingPrecision pOtherPrecision) {
+    return pOtherPrecision instanceof PackRestrictedPrecision
+        && packIndex == ((PackRestrictedPrecision) pOtherPrecision).packIndex
+        && delegate.tracksTheSameVariablesAs(((PackRestrictedPrecision) pOtherPrecision).delegate);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return delegate.isEmpty();
+  }
+
+  @Override
+  @SuppressWarnings("ForOverride")
+  protected Class<? extends ConfigurableProgramAnalysis> getCPAClass() {
+    return delegate.getCPAClass();
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    if (this == pOther) {
+      return true;
+    }
+    if (!(pOther instanceof PackRestrictedPrecision)) {
+      return false;
+    }
+    PackRestrictedPrecision other = (PackRestrictedPrecision) pOther;
+    return packIndex == other.packIndex
+        && packs == other.packs
+        && delegate.equals(other.delegate);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(delegate, packIndex);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(PackRestrictedPrecision.class)
+        .add("pack", packIndex)
+        .add("delegate", delegate)
+        .toString();
+  }
+}
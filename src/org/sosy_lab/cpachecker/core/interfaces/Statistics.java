@@ -8,7 +8,9 @@
 
 package org.sosy_lab.cpachecker.core.interfaces;
 
+import com.google.common.collect.ImmutableMap;
 import java.io.PrintStream;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
@@ -67,6 +69,18 @@ public interface Statistics {
    */
   default void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {}
 
+  /**
+   * Return the current values of the most important statistics while the analysis is still
+   * running, e.g., for monitoring the analysis with the option "statistics.live.file".
+   *
+   * <p>This method is called periodically from a different thread than the analysis, so it should
+   * be cheap and only read values that can be safely accessed concurrently, like counters and
+   * timers. The values should be numbers, strings, or booleans.
+   */
+  default Map<String, Object> getLiveValues() {
+    return ImmutableMap.of();
+  }
+
   int DEFAULT_OUTPUT_NAME_COL_WIDTH = 50;
 
   /**
@@ -12,6 +12,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -185,6 +186,39 @@ public class ReachedSetFactory {
       description = "track more statistics about the reachedset")
   private boolean withStatistics = false;
 
+  @Option(
+      secure = true,
+      name = "reachedSet.spilling",
+      description =
+          "move the abstract states of covered ARG states that were not expanded to a "
+              + "temporary file when the heap is nearly full. These states are not needed for "
+              + "stop and merge, and are restored transparently when they are accessed again, "
+              + "e.g., for refinement or export. This needs the ARGCPA and abstract states "
+              + "that are serializable.")
+  private boolean useSpilling = false;
+
+  @Option(
+      secure = true,
+      name = "reachedSet.spilling.heapThreshold",
+      description =
+          "fraction of the maximal heap size above which states are moved to the spill file. "
+              + "The heap usage after the last garbage collection is compared, such that "
+              + "garbage that was not yet collected does not count.")
+  private double spillingHeapThreshold = 0.85;
+
+  @Option(
+      secure = true,
+      name = "reachedSet.spilling.ratio",
+      description = "maximal fraction of the reached set that is spilled at once")
+  private double spillingRatio = 0.25;
+
+  @Option(
+      secure = true,
+      name = "reachedSet.spilling.checkInterval",
+      description = "check the heap usage after this many additions to the reached set")
+  @IntegerOption(min = 1)
+  private int spillingCheckInterval = 1000;
+
   private @Nullable BlockConfiguration blockConfig;
   private @Nullable UsageConfiguration usageConfig;
   private WeightedRandomWaitlist.@Nullable WaitlistOptions weightedWaitlistOptions;
@@ -195,6 +229,15 @@ public class ReachedSetFactory {
     pConfig.inject(this);
     this.logger = checkNotNull(pLogger);
 
+    if (spillingHeapThreshold <= 0 || spillingHeapThreshold > 1) {
+      throw new InvalidConfigurationException(
+          "Invalid value for analysis.reachedSet.spilling.heapThreshold, needs to be in (0,1]");
+    }
+    if (spillingRatio <= 0 || spillingRatio > 1) {
+      throw new InvalidConfigurationException(
+          "Invalid value for analysis.reachedSet.spilling.ratio, needs to be in (0,1]");
+    }
+
     if (useBlocks) {
       blockConfig = new BlockConfiguration(pConfig);
     } else {
@@ -285,10 +328,36 @@ public class ReachedSetFactory {
         reached = new DefaultReachedSet(waitlistFactory);
     }
 
+    if (useSpilling) {
+      reached =
+          new SpillingReachedSet(
+              reached, logger, spillingHeapThreshold, spillingRatio, spillingCheckInterval);
+    }
+
     if (withStatistics) {
       reached = new StatisticsReachedSet(reached);
     }
 
     return reached;
   }
+
+  /**
+   * Release the resources that are held by the given reached set or by the reached sets that it
+   * wraps, e.g., the spill file of option analysis.reachedSet.spilling. The states of the reached
+   * set must not be accessed afterwards.
+   */
+  public static void close(UnmodifiableReachedSet pReached) {
+    if (pReached instanceof HistoryForwardingReachedSet) {
+      for (ReachedSet usedReached :
+          ((HistoryForwardingReachedSet) pReached).getAllReachedSetsUsedAsDelegates()) {
+        close(usedReached);
+      }
+    }
+    if (pReached instanceof SpillingReachedSet) {
+      ((SpillingReachedSet) pReached).close();
+    }
+    if (pReached instanceof ForwardingReachedSet) {
+      close(((ForwardingReachedSet) pReached).getDelegate());
+    }
+  }
 }
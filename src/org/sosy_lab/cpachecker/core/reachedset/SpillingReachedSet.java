@@ -0,0 +1,205 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.arg.ARGStateSpillFile;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.resources.MemoryStatistics;
+import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+
+/**
+ * This reached-set moves the wrapped states of cold {@link ARGState}s to a temporary file if the
+ * heap usage after the last garbage collection (as reported by {@link
+ * MemoryStatistics#getHeapUsageAfterLastCollection()}) exceeds a threshold. All operations are
+ * forwarded to a nested reached-set.
+ *
+ * <p>A state is considered cold if it can never take part in stop or merge again, which holds for
+ * covered states that were not expanded (cf. {@link ARGState#maySpillWrappedState()}). These are
+ * found among the states in the reached set and their children, because covered states are usually
+ * not kept in the reached set. The oldest cold states are spilled first. Spilled states are
+ * restored transparently whenever their wrapped state is accessed, e.g., during refinement or for
+ * export.
+ *
+ * <p>The spill file is deleted by {@link #close()}, after which the spilled states cannot be
+ * restored anymore. Use {@link ReachedSetFactory#close(UnmodifiableReachedSet)} when the reached
+ * set is not needed anymore.
+ */
+class SpillingReachedSet extends ForwardingReachedSet implements AutoCloseable {
+
+  private final LogManager logger;
+  private final double heapThreshold;
+  private final double spillRatio;
+  private final int checkInterval;
+
+  private @Nullable ARGStateSpillFile spillFile = null;
+  private boolean spillingDisabled = false;
+  private final Set<Class<?>> unspillableStates = new HashSet<>();
+  private int addedSinceLastCheck = 0;
+
+  private final StatCounter spillRounds = new StatCounter("Number of spilling rounds");
+  private final StatCounter spilledStates = new StatCounter("Number of spilled states");
+  private final StatCounter failedSpills =
+      new StatCounter("Number of states that could not be spilled");
+
+  SpillingReachedSet(
+      ReachedSet pDelegate,
+      LogManager pLogger,
+      double pHeapThreshold,
+      double pSpillRatio,
+      int pCheckInterval) {
+    super(pDelegate);
+    logger = pLogger;
+    heapThreshold = pHeapThreshold;
+    spillRatio = pSpillRatio;
+    checkInterval = pCheckInterval;
+  }
+
+  @Override
+  public void add(AbstractState pState, Precision pPrecision) throws IllegalArgumentException {
+    super.add(pState, pPrecision);
+    addedSinceLastCheck++;
+    checkMemory();
+  }
+
+  @Override
+  public void addAll(Iterable<Pair<AbstractState, Precision>> pToAdd) {
+    // add one by one, such that the check interval counts states and not batches
+    for (Pair<AbstractState, Precision> pair : pToAdd) {
+      add(pair.getFirst(), pair.getSecond());
+    }
+  }
+
+  private void checkMemory() {
+    if (addedSinceLastCheck < checkInterval) {
+      return;
+    }
+    addedSinceLastCheck = 0;
+    if (!spillingDisabled && MemoryStatistics.getHeapUsageAfterLastCollection() > heapThreshold) {
+      spillColdStates();
+    }
+  }
+
+  private void spillColdStates() {
+    if (spillFile == null) {
+      try {
+        spillFile = ARGStateSpillFile.create();
+      } catch (IOException e) {
+        logger.logUserException(
+            Level.WARNING, e, "Could not create spill file, reached set stays in memory");
+        spillingDisabled = true;
+        return;
+      }
+    }
+    spillRounds.inc();
+
+    // asCollection() iterates in insertion order, so the oldest states come first
+    final long toSpill = Math.round(size() * spillRatio);
+    long remaining = toSpill;
+    for (AbstractState state : asCollection()) {
+      if (remaining <= 0 || spillingDisabled) {
+        break;
+      }
+      if (!(state instanceof ARGState) || ((ARGState) state).isDestroyed()) {
+        continue;
+      }
+      ARGState argState = (ARGState) state;
+      if (trySpill(argState)) {
+        remaining--;
+      }
+      for (ARGState child : argState.getChildren()) {
+        if (remaining > 0 && trySpill(child)) {
+          remaining--;
+        }
+      }
+    }
+    logger.logf(
+        Level.FINE,
+        "Spilled %d states because of high memory usage, spill file has %d bytes",
+        toSpill - remaining,
+        spillFile.getSize());
+  }
+
+  private boolean trySpill(ARGState pState) {
+    if (!pState.maySpillWrappedState()
+        || pState.getWrappedState() == null
+        || unspillableStates.contains(pState.getWrappedState().getClass())) {
+      return false;
+    }
+    try {
+      pState.spillWrappedState(spillFile);
+      spilledStates.inc();
+      return true;
+    } catch (IOException e) {
+      // do not try again for states of this kind
+      Class<?> wrappedClass = pState.getWrappedState().getClass();
+      unspillableStates.add(wrappedClass);
+      failedSpills.inc();
+      logger.logDebugException(e, "Could not spill state of type " + wrappedClass);
+      return false;
+    } catch (RuntimeException e) {
+      // e.g., a state that needs global information for serialization; the state is unchanged,
+      // but we do not know which other states are affected, so do not spill anything else
+      spillingDisabled = true;
+      failedSpills.inc();
+      logger.logUserException(
+          Level.WARNING,
+          e,
+          "Could not spill state of type "
+              + pState.getWrappedState().getClass()
+              + ", remaining states stay in memory");
+      return false;
+    }
+  }
+
+  @VisibleForTesting
+  @Nullable ARGStateSpillFile getSpillFile() {
+    return spillFile;
+  }
+
+  /** Close and delete the spill file. Spilled states cannot be restored afterwards. */
+  @Override
+  public void close() {
+    if (spillFile != null) {
+      try {
+        spillFile.close();
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not delete spill file");
+      }
+    }
+    // do not create a new spill file after closing
+    spillingDisabled = true;
+  }
+
+  @Override
+  public ImmutableMap<String, AbstractStatValue> getStatistics() {
+    ImmutableMap.Builder<String, AbstractStatValue> builder = ImmutableMap.builder();
+    builder.putAll(super.getStatistics());
+    put(builder, spillRounds);
+    put(builder, spilledStates);
+    put(builder, failedSpills);
+    return builder.build();
+  }
+
+  private static void put(
+      ImmutableMap.Builder<String, AbstractStatValue> builder, AbstractStatValue s) {
+    builder.put(s.getTitle(), s);
+  }
+}
@@ -0,0 +1,186 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.defaults.FlatLatticeDomain;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.arg.ARGStateSpillFile;
+import org.sosy_lab.cpachecker.cpa.arg.ARGStopSep;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.Pair;
+
+public class SpillingReachedSetTest {
+
+  /**
+   * A serializable state without equals(), i.e., like in several domains (e.g., for the call
+   * stack) a restored copy of such a state is never equal to the original state.
+   */
+  private static final class IdentityState implements AbstractState, Serializable {
+    private static final long serialVersionUID = 1L;
+  }
+
+  /** A state whose serialization fails with an unchecked exception. */
+  private static final class UnserializableState implements AbstractState, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @SuppressWarnings("unused")
+    private void writeObject(ObjectOutputStream pOut) {
+      throw new IllegalStateException("state cannot be written");
+    }
+  }
+
+  private final LogManager logger = LogManager.createTestLogManager();
+  private final Precision precision = SingletonPrecision.getInstance();
+
+  private SpillingReachedSet reached;
+  private ARGState root;
+  private ARGState coveringState;
+  private ARGState coveredState;
+
+  @Before
+  public void setUp() {
+    // a negative threshold lets the reached set spill whenever it checks the memory usage
+    reached =
+        new SpillingReachedSet(
+            new DefaultReachedSet(TraversalMethod.DFS), logger, -1, 1.0, 1);
+
+    root = new ARGState(new IdentityState(), null);
+    root.markExpanded();
+    coveringState = new ARGState(new IdentityState(), root);
+    coveredState = new ARGState(new IdentityState(), root);
+    coveredState.setCovered(coveringState);
+
+    reached.add(root, precision);
+    reached.add(coveringState, precision);
+  }
+
+  @Test
+  public void testOnlyCoveredStatesAreSpilled() {
+    assertThat(coveredState.isWrappedStateSpilled()).isTrue();
+    assertThat(root.isWrappedStateSpilled()).isFalse();
+    assertThat(coveringState.isWrappedStateSpilled()).isFalse();
+  }
+
+  @Test
+  public void testReachedStatesCoverNewSuccessors() throws CPAException, InterruptedException {
+    ARGStopSep stop =
+        new ARGStopSep(new StopSepOperator(new FlatLatticeDomain()), logger, false, false, false);
+
+    // a successor of the covering state whose wrapped state is identical to the covering one
+    ARGState successor = new ARGState(coveringState.getWrappedState(), coveringState);
+    coveringState.markExpanded();
+
+    assertThat(stop.stop(successor, reached.getReached(successor), precision)).isTrue();
+    assertThat(successor.isCovered()).isTrue();
+    assertThat(successor.getCoveringState()).isSameInstanceAs(coveringState);
+  }
+
+  @Test
+  public void testRestoreSpilledState() {
+    assertThat(coveredState.getWrappedState()).isInstanceOf(IdentityState.class);
+    assertThat(coveredState.isWrappedStateSpilled()).isFalse();
+    assertThat(coveredState.isCovered()).isTrue();
+  }
+
+  @Test
+  public void testUncoveredSpilledStateIsRediscovered() {
+    reached.popFromWaitlist();
+    reached.popFromWaitlist();
+    assertThat(reached.hasWaitingState()).isFalse();
+
+    new ARGReachedSet(reached).removeCoverageOf(coveringState);
+
+    // the spilled state is not expanded, but its parent is re-added to the waitlist
+    assertThat(coveredState.isDestroyed()).isTrue();
+    assertThat(root.getChildren()).containsExactly(coveringState);
+    assertThat(reached.getWaitlist()).containsExactly(root);
+  }
+
+  @Test
+  public void testAddAllCountsStates() {
+    // the memory is checked after every third added state
+    SpillingReachedSet batchReached =
+        new SpillingReachedSet(new DefaultReachedSet(TraversalMethod.DFS), logger, -1, 1.0, 3);
+
+    ARGState parent = new ARGState(new IdentityState(), null);
+    parent.markExpanded();
+    ARGState covering = new ARGState(new IdentityState(), parent);
+    ARGState covered = new ARGState(new IdentityState(), parent);
+    covered.setCovered(covering);
+    ARGState other = new ARGState(new IdentityState(), parent);
+
+    batchReached.addAll(
+        ImmutableList.of(Pair.of(parent, precision), Pair.of(covering, precision)));
+    assertThat(covered.isWrappedStateSpilled()).isFalse();
+
+    // the third state reaches the check interval, although it is added in the second batch
+    batchReached.addAll(ImmutableList.of(Pair.of(other, precision)));
+    assertThat(covered.isWrappedStateSpilled()).isTrue();
+  }
+
+  @Test
+  public void testFailedSerializationDisablesSpilling() {
+    SpillingReachedSet failingReached =
+        new SpillingReachedSet(new DefaultReachedSet(TraversalMethod.DFS), logger, -1, 1.0, 1);
+
+    ARGState parent = new ARGState(new IdentityState(), null);
+    parent.markExpanded();
+    ARGState covering = new ARGState(new IdentityState(), parent);
+    ARGState failing = new ARGState(new UnserializableState(), parent);
+    failing.setCovered(covering);
+
+    failingReached.add(parent, precision);
+    failingReached.add(covering, precision);
+    assertThat(failing.isWrappedStateSpilled()).isFalse();
+    assertThat(failing.getWrappedState()).isInstanceOf(UnserializableState.class);
+
+    // states that could be spilled stay in memory after the failure
+    ARGState covered = new ARGState(new IdentityState(), parent);
+    covered.setCovered(covering);
+    failingReached.add(new ARGState(new IdentityState(), parent), precision);
+    assertThat(covered.isWrappedStateSpilled()).isFalse();
+
+    failingReached.close();
+  }
+
+  @Test
+  public void testCloseDeletesSpillFile() {
+    ARGStateSpillFile spillFile = reached.getSpillFile();
+    assertThat(spillFile).isNotNull();
+    Path file = spillFile.getPath();
+    assertThat(Files.exists(file)).isTrue();
+
+    ReachedSetFactory.close(new StatisticsReachedSet(reached));
+    assertThat(spillFile.isOpen()).isFalse();
+    assertThat(Files.exists(file)).isFalse();
+
+    // no new spill file is created after closing
+    reached.add(new ARGState(new IdentityState(), root), precision);
+    assertThat(reached.getSpillFile()).isSameInstanceAs(spillFile);
+
+    // closing twice is harmless
+    reached.close();
+  }
+}
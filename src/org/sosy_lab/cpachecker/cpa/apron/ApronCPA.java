@@ -38,6 +38,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
+import org.sosy_lab.cpachecker.core.defaults.PackedAnalysis;
 import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
 import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
@@ -77,6 +78,14 @@ public final class ApronCPA
       description="Use this to change the underlying abstract domain in the APRON library")
   private ApronManager.AbstractDomain domainType = ApronManager.AbstractDomain.OCTAGON;
 
+  @Option(
+      secure = true,
+      description =
+          "track one abstract value of the APRON library per pack of dependent variables instead"
+              + " of one abstract value for all variables. The packs are computed from the"
+              + " variable classification, this is only supported with a static precision.")
+  private boolean variablePacking = false;
+
   @Option(secure=true, description="get an initial precision from file")
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private Path initialPrecisionFile = null;
@@ -95,6 +104,7 @@ public final class ApronCPA
   private final ShutdownNotifier shutdownNotifier;
   private final CFA cfa;
   private final ApronManager apronManager;
+  private final @Nullable PackedAnalysis packedAnalysis;
 
   private ApronCPA(Configuration config, LogManager log,
                      ShutdownNotifier shutdownNotifier, CFA cfa)
@@ -108,16 +118,33 @@ public final class ApronCPA
 
     apronManager = new ApronManager(domainType);
 
-    this.transferRelation =
+    TransferRelation apronTransfer =
         new ApronTransferRelation(logger, cfa.getLoopStructure().orElseThrow(), splitDisequalities);
 
     MergeOperator apronMergeOp = ApronMergeOperator.getInstance(apronDomain, config);
 
-    StopOperator apronStopOp = new StopSepOperator(apronDomain);
-
-    this.abstractDomain = apronDomain;
-    this.mergeOperator = apronMergeOp;
-    this.stopOperator = apronStopOp;
+    if (variablePacking) {
+      packedAnalysis =
+          PackedAnalysis.create(
+              "APRON",
+              initialPrecisionFile == null && precisionType.equals("STATIC_FULL"),
+              config,
+              logger,
+              cfa,
+              apronDomain,
+              apronTransfer,
+              apronMergeOp);
+      this.transferRelation = packedAnalysis.getTransferRelation();
+      this.abstractDomain = packedAnalysis.getAbstractDomain();
+      this.mergeOperator = packedAnalysis.getMergeOperator();
+      this.stopOperator = packedAnalysis.getStopOperator();
+    } else {
+      packedAnalysis = null;
+      this.transferRelation = apronTransfer;
+      this.abstractDomain = apronDomain;
+      this.mergeOperator = apronMergeOp;
+      this.stopOperator = new StopSepOperator(apronDomain);
+    }
     this.config = config;
     this.shutdownNotifier = shutdownNotifier;
     this.cfa = cfa;
@@ -163,6 +190,9 @@ public final class ApronCPA
   @Override
   public AbstractState getInitialState(CFANode pNode, StateSpacePartition pPartition) {
     try {
+      if (packedAnalysis != null) {
+        return packedAnalysis.createInitialState(() -> new ApronState(logger, apronManager));
+      }
       return new ApronState(logger, apronManager);
     } catch (ApronException e) {
       throw new RuntimeException("An error occured while operating with the apron library", e);
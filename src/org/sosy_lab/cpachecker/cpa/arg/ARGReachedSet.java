@@ -425,6 +425,15 @@ public class ARGReachedSet {
   private void uncover(ARGState element) {
     element.uncover();
 
+    if (element.isWrappedStateSpilled()) {
+      // A restored wrapped state is not identical to the original state and should not be
+      // expanded, so we rediscover the state from its parents instead.
+      for (ARGState parent : removeSet(ImmutableSet.of(element))) {
+        mReached.reAddToWaitlist(parent);
+      }
+      return;
+    }
+
     // this is the subtree of elements which now become uncovered
     for (ARGState e : element.getSubgraph()) {
       assert !e.isCovered();
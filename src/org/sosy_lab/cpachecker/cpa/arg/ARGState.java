@@ -19,6 +19,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.graph.Traverser;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -67,6 +69,13 @@ public class ARGState extends AbstractSingleWrapperState
   // If this is a target state, we may store additional information here.
   private transient CounterexampleInfo counterexample;
 
+  // If the wrapped state was moved out of memory, this is where it can be restored from.
+  // Written only while holding the lock of this state.
+  private transient volatile @Nullable ARGStateSpillFile spillFile = null;
+  // Where the wrapped state was last stored, kept after restoring to avoid writing it again.
+  private transient @Nullable ARGStateSpillFile lastSpillFile = null;
+  private transient long spillPosition = -1;
+
   private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
 
   public ARGState(@Nullable AbstractState pWrappedState, @Nullable ARGState pParentElement) {
@@ -329,6 +338,88 @@ public class ARGState extends AbstractSingleWrapperState
     return Optional.ofNullable(counterexample);
   }
 
+  // moving the wrapped state out of memory
+
+  /**
+   * Return whether the wrapped state of this state may be moved out of memory with {@link
+   * #spillWrappedState(ARGStateSpillFile)}.
+   *
+   * <p>This is the case only for covered states that were not expanded. The wrapped state of such a
+   * state never takes part in stop or merge, because covered states do not cover other states, and
+   * no successors are computed from it. This is important because a restored wrapped state is only
+   * equal, but not identical to the original state, and some domains compare (parts of) states by
+   * identity. If such a state is uncovered later on, {@link ARGReachedSet} rediscovers it from its
+   * parents instead of expanding the restored state.
+   */
+  public boolean maySpillWrappedState() {
+    assert !destroyed : "Don't use destroyed ARGState " + this;
+    return isCovered() && !wasExpanded && children.isEmpty() && spillFile == null;
+  }
+
+  /**
+   * Move the wrapped state to the given spill file, such that it can be garbage collected. The
+   * wrapped state is restored transparently on the next call to {@link #getWrappedState()} and
+   * kept in memory afterwards, e.g., for refinement or export.
+   *
+   * @throws IOException if the wrapped state could not be written, e.g., because it is not
+   *     serializable. The state is unchanged in this case.
+   */
+  public synchronized void spillWrappedState(ARGStateSpillFile pSpillFile) throws IOException {
+    checkState(maySpillWrappedState(), "wrapped state of %s may not be spilled", stateId);
+    AbstractState wrappedState = super.getWrappedState();
+    checkState(wrappedState != null);
+
+    // a state that was restored before is already stored in the file and need not be written again
+    if (spillPosition < 0 || pSpillFile != lastSpillFile) {
+      spillPosition = pSpillFile.write(wrappedState);
+      lastSpillFile = pSpillFile;
+    }
+    spillFile = pSpillFile;
+    setWrappedState(null);
+  }
+
+  public boolean isWrappedStateSpilled() {
+    return spillFile != null;
+  }
+
+  @Override
+  public @Nullable AbstractState getWrappedState() {
+    // Reading the volatile spill file first makes a wrapped state that was restored by another
+    // thread visible to this thread.
+    if (spillFile == null) {
+      AbstractState wrappedState = super.getWrappedState();
+      if (wrappedState != null) {
+        return wrappedState;
+      }
+    }
+    // the state may be spilled, or its wrapped state may be null (for dummy states)
+    return restoreWrappedState();
+  }
+
+  /**
+   * Restore the spilled wrapped state, if any. This is synchronized because the wrapped state may
+   * be accessed by several threads, e.g., while the ARG is exported.
+   *
+   * @throws UncheckedIOException if the state cannot be read from the spill file
+   */
+  private synchronized @Nullable AbstractState restoreWrappedState() {
+    if (spillFile != null) {
+      try {
+        setWrappedState(spillFile.read(spillPosition));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not restore spilled state " + stateId, e);
+      }
+      spillFile = null;
+    }
+    return super.getWrappedState();
+  }
+
+  /** Restore a spilled wrapped state before this state is serialized. */
+  protected Object writeReplace() {
+    getWrappedState();
+    return this;
+  }
+
   // small and less important stuff
 
   public int getStateId() {
@@ -0,0 +1,121 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+/**
+ * A temporary file into which the wrapped states of {@link ARGState}s can be moved in order to
+ * free heap memory, cf. {@link ARGState#spillWrappedState(ARGStateSpillFile)}. States are stored
+ * with Java serialization, so only serializable states can be spilled.
+ *
+ * <p>The file is only appended to. Each state is written at most once, because a restored state
+ * remembers its position in the file and is not written again if it is spilled again. The file is
+ * deleted when it is closed or when the JVM exits.
+ */
+public final class ARGStateSpillFile implements Closeable {
+
+  private static final int LENGTH_BYTES = Integer.BYTES;
+
+  private final Path file;
+  private final FileChannel channel;
+  private long size = 0;
+
+  private ARGStateSpillFile(Path pFile, FileChannel pChannel) {
+    file = pFile;
+    channel = pChannel;
+  }
+
+  public static ARGStateSpillFile create() throws IOException {
+    Path file = TempFile.builder().prefix("reached").suffix(".spill").create();
+    file.toFile().deleteOnExit();
+    return new ARGStateSpillFile(
+        file,
+        FileChannel.open(
+            file,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE));
+  }
+
+  /** Append the given state to the file and return the position where it was stored. */
+  synchronized long write(AbstractState pState) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(pState);
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate(LENGTH_BYTES + bytes.size());
+    buffer.putInt(bytes.size());
+    buffer.put(bytes.toByteArray());
+    buffer.flip();
+
+    long position = size;
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, position + buffer.position());
+    }
+    size += buffer.limit();
+    return position;
+  }
+
+  /** Read the state that was stored at the given position by {@link #write(AbstractState)}. */
+  synchronized AbstractState read(long pPosition) throws IOException {
+    ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+    readFully(length, pPosition);
+    ByteBuffer content = ByteBuffer.allocate(length.getInt(0));
+    readFully(content, pPosition + LENGTH_BYTES);
+
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(content.array()))) {
+      return (AbstractState) in.readObject();
+    } catch (ClassNotFoundException | ClassCastException e) {
+      InvalidObjectException ioe = new InvalidObjectException("Corrupt spill file");
+      ioe.initCause(e);
+      throw ioe;
+    }
+  }
+
+  private void readFully(ByteBuffer pBuffer, long pPosition) throws IOException {
+    while (pBuffer.hasRemaining()) {
+      if (channel.read(pBuffer, pPosition + pBuffer.position()) < 0) {
+        throw new InvalidObjectException("Unexpected end of spill file");
+      }
+    }
+  }
+
+  public Path getPath() {
+    return file;
+  }
+
+  public boolean isOpen() {
+    return channel.isOpen();
+  }
+
+  /** The number of bytes that were written to the file so far. */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
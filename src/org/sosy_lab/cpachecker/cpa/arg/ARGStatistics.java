@@ -13,11 +13,14 @@ import static com.google.common.collect.FluentIterable.from;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.SetMultimap;
 import com.google.common.io.MoreFiles;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Writer;
@@ -28,18 +31,26 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiPredicate;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Appender;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -175,6 +186,26 @@ public class ARGStatistics implements Statistics {
       description = "export all automata into one zip-file, depends on 'automaton.export=true'")
   private boolean exportAutomatonZipped = true;
 
+  @Option(
+      secure = true,
+      name = "exportThreads",
+      description =
+          "number of threads for writing the exported files of the ARG (ARG.dot,"
+              + " ARGSimplified.dot, pixel graphic, proof witnesses) concurrently."
+              + " Each file is streamed by a single thread. The ARG is not modified by the export,"
+              + " except that wrapped states that were spilled to disk are restored on access."
+              + " The labels of the states in the dot files are still computed by one thread at a"
+              + " time, because states of some analyses print formulas with a solver, which is not"
+              + " thread-safe.")
+  @IntegerOption(min = 1)
+  private int exportThreads = 1;
+
+  @Option(
+      secure = true,
+      name = "compressExport",
+      description = "compress the exported ARG.dot and ARGSimplified.dot using GZIP compression.")
+  private boolean compressExport = false;
+
   protected final ConfigurableProgramAnalysis cpa;
 
   private final CEXExportOptions counterexampleOptions;
@@ -355,8 +386,21 @@ public class ARGStatistics implements Statistics {
         ? ARGUtils.getRootStates(pReached)
         : Collections.singleton(AbstractStates.extractStateByType(pReached.getFirstState(), ARGState.class));
 
-    for (ARGState rootState: rootStates) {
-      exportARG0(rootState, BiPredicates.pairIn(allTargetPathEdges), pResult);
+    ExecutorService executor = null;
+    if (exportThreads > 1) {
+      executor =
+          Executors.newFixedThreadPool(
+              exportThreads,
+              new ThreadFactoryBuilder().setNameFormat("arg-export-%d").setDaemon(true).build());
+    }
+    try {
+      for (ARGState rootState: rootStates) {
+        exportARG0(rootState, BiPredicates.pairIn(allTargetPathEdges), pResult, executor);
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
     }
   }
 
@@ -364,7 +408,13 @@ public class ARGStatistics implements Statistics {
   private void exportARG0(
       final ARGState rootState,
       final BiPredicate<ARGState, ARGState> isTargetPathEdge,
-      Result pResult) {
+      Result pResult,
+      @Nullable ExecutorService pExecutor) {
+    // All files that are written by traversing the ARG are independent of each other. The only
+    // modification of the ARG during export is restoring spilled wrapped states, which is
+    // synchronized in ARGState. Labels of states may print formulas with a solver that is not
+    // thread-safe, so ARGToDotWriter computes them under a lock.
+    List<Runnable> exportTasks = new ArrayList<>();
     SetMultimap<ARGState, ARGState> relevantSuccessorRelation =
         ARGUtils.projectARG(rootState, ARGState::getChildren, ARGUtils.RELEVANT_STATE);
     Function<ARGState, Collection<ARGState>> relevantSuccessorFunction =
@@ -380,59 +430,72 @@ public class ARGStatistics implements Statistics {
 
       if (proofWitness != null) {
         Path witnessFile = adjustPathNameForPartitioning(rootState, proofWitness);
-        WitnessToOutputFormatsUtils.writeWitness(
-            witnessFile,
-            compressWitness,
-            pAppendable -> WitnessToOutputFormatsUtils.writeToGraphMl(witness, pAppendable),
-            logger);
+        exportTasks.add(
+            () ->
+                WitnessToOutputFormatsUtils.writeWitness(
+                    witnessFile,
+                    compressWitness,
+                    pAppendable -> WitnessToOutputFormatsUtils.writeToGraphMl(witness, pAppendable),
+                    logger));
       }
 
       if (proofWitnessDot != null) {
         Path witnessFile = adjustPathNameForPartitioning(rootState, proofWitnessDot);
-        WitnessToOutputFormatsUtils.writeWitness(
-            witnessFile,
-            compressWitness,
-            pAppendable -> WitnessToOutputFormatsUtils.writeToDot(witness, pAppendable),
-            logger);
+        exportTasks.add(
+            () ->
+                WitnessToOutputFormatsUtils.writeWitness(
+                    witnessFile,
+                    compressWitness,
+                    pAppendable -> WitnessToOutputFormatsUtils.writeToDot(witness, pAppendable),
+                    logger));
       }
     }
 
     if (argFile != null) {
-      try (Writer w =
-          IO.openOutputFile(
-              adjustPathNameForPartitioning(rootState, argFile), Charset.defaultCharset())) {
-        ARGToDotWriter.write(
-            w, rootState, ARGState::getChildren, Predicates.alwaysTrue(), isTargetPathEdge);
-      } catch (IOException e) {
-        logger.logUserException(Level.WARNING, e, "Could not write ARG to file");
-      }
+      Path adjustedArgFile = adjustPathNameForPartitioning(rootState, argFile);
+      exportTasks.add(
+          () ->
+              writeDotFile(
+                  adjustedArgFile,
+                  w ->
+                      ARGToDotWriter.write(
+                          w,
+                          rootState,
+                          ARGState::getChildren,
+                          Predicates.alwaysTrue(),
+                          isTargetPathEdge)));
     }
 
     if (pixelGraphicFile != null) {
-      try {
-        Path adjustedBitmapFileName = adjustPathNameForPartitioning(rootState, pixelGraphicFile);
-        argToBitmapExporter.write(rootState, adjustedBitmapFileName);
-      } catch (IOException | InvalidConfigurationException e) {
-        logger.logUserException(Level.WARNING, e, "Could not write ARG bitmap to file");
-      }
+      Path adjustedBitmapFileName = adjustPathNameForPartitioning(rootState, pixelGraphicFile);
+      exportTasks.add(
+          () -> {
+            try {
+              argToBitmapExporter.write(rootState, adjustedBitmapFileName);
+            } catch (IOException | InvalidConfigurationException e) {
+              logger.logUserException(Level.WARNING, e, "Could not write ARG bitmap to file");
+            }
+          });
     }
 
     if (simplifiedArgFile != null) {
-      try (Writer w =
-          IO.openOutputFile(
-              adjustPathNameForPartitioning(rootState, simplifiedArgFile),
-              Charset.defaultCharset())) {
-        ARGToDotWriter.write(
-            w,
-            rootState,
-            relevantSuccessorFunction,
-            Predicates.alwaysTrue(),
-            BiPredicates.alwaysFalse());
-      } catch (IOException e) {
-        logger.logUserException(Level.WARNING, e, "Could not write ARG to file");
-      }
+      Path adjustedSimplifiedArgFile = adjustPathNameForPartitioning(rootState, simplifiedArgFile);
+      exportTasks.add(
+          () ->
+              writeDotFile(
+                  adjustedSimplifiedArgFile,
+                  w ->
+                      ARGToDotWriter.write(
+                          w,
+                          rootState,
+                          relevantSuccessorFunction,
+                          Predicates.alwaysTrue(),
+                          BiPredicates.alwaysFalse())));
     }
 
+    // the remaining files are written by this thread while the export tasks are running
+    List<Future<?>> runningExportTasks = startExportTasks(exportTasks, pExecutor);
+
     assert (refinementGraphUnderlyingWriter == null) == (refinementGraphWriter == null);
     if (refinementGraphUnderlyingWriter != null) {
       try (Writer w = refinementGraphUnderlyingWriter) { // for auto-closing
@@ -470,6 +533,53 @@ public class ARGStatistics implements Statistics {
         logger.logUserException(Level.WARNING, io, "Could not write ARG to automata to file");
       }
     }
+
+    awaitExportTasks(runningExportTasks);
+  }
+
+  /**
+   * Run the given tasks with the given executor, or directly in this thread if there is no
+   * executor, and return the futures of the tasks that are still running.
+   */
+  private List<Future<?>> startExportTasks(
+      List<Runnable> pTasks, @Nullable ExecutorService pExecutor) {
+    if (pExecutor == null) {
+      pTasks.forEach(Runnable::run);
+      return ImmutableList.of();
+    }
+    List<Future<?>> futures = new ArrayList<>(pTasks.size());
+    for (Runnable task : pTasks) {
+      futures.add(pExecutor.submit(task));
+    }
+    return futures;
+  }
+
+  private void awaitExportTasks(List<Future<?>> pFutures) {
+    try {
+      for (Future<?> future : pFutures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      pFutures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      // export tasks handle all checked exceptions themselves
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new UnexpectedCheckedException("export of ARG", e.getCause());
+    }
+  }
+
+  private void writeDotFile(Path pPath, Appender pContent) {
+    try {
+      if (compressExport) {
+        Path file = pPath.resolveSibling(pPath.getFileName() + ".gz");
+        IO.writeGZIPFile(file, Charset.defaultCharset(), pContent);
+      } else {
+        IO.writeFile(pPath, Charset.defaultCharset(), pContent);
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write ARG to file");
+    }
   }
 
   private void writeAutomaton(int counterId, Automaton automaton) throws IOException {
@@ -9,12 +9,13 @@
 package org.sosy_lab.cpachecker.cpa.arg;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,6 +31,13 @@ import org.sosy_lab.cpachecker.util.BiPredicates;
 
 public class ARGToDotWriter {
 
+  /**
+   * Serializes the computation of state labels. Several files may be written concurrently (cf.
+   * option cpa.arg.exportThreads), but some states print formulas in their labels, which uses
+   * solver contexts that are not thread-safe.
+   */
+  private static final Object LABEL_LOCK = new Object();
+
   private final Appendable sb;
 
   public ARGToDotWriter(Appendable pSb) throws IOException {
@@ -151,8 +159,9 @@ public class ARGToDotWriter {
       throws IOException {
 
     Deque<ARGState> worklist = new ArrayDeque<>();
-    Set<ARGState> processed = new HashSet<>();
-    StringBuilder edges = new StringBuilder();
+    // Edges are written after all nodes, in a second pass over the displayed states in the order
+    // in which they were written, such that no edge needs to be kept in memory.
+    Set<ARGState> processed = new LinkedHashSet<>();
 
     worklist.add(rootState);
 
@@ -168,21 +177,21 @@ public class ARGToDotWriter {
       sb.append(determineNode(currentElement));
       sb.append(determineStateHint(currentElement));
 
+      Iterables.addAll(worklist, successorFunction.apply(currentElement));
+    }
+
+    for (ARGState currentElement : processed) {
       for (ARGState covered : currentElement.getCoveredByThis()) {
         if (displayedElements.apply(covered)) {
-          edges.append(covered.getStateId());
-          edges.append(" -> ");
-          edges.append(currentElement.getStateId());
-          edges.append(" [style=\"dashed\" weight=\"0\" label=\"covered by\"]\n");
+          sb.append(covered.getStateId() + " -> " + currentElement.getStateId());
+          sb.append(" [style=\"dashed\" weight=\"0\" label=\"covered by\"]\n");
         }
       }
 
       for (ARGState child : successorFunction.apply(currentElement)) {
-        edges.append(determineEdge(highlightEdge, currentElement, child));
-        worklist.add(child);
+        sb.append(determineEdge(highlightEdge, currentElement, child));
       }
     }
-    sb.append(edges);
   }
 
   private static String determineEdge(
@@ -343,8 +352,11 @@ public class ARGToDotWriter {
       builder.append("\\n");
     }
 
-    builder.append(
-        DOTBuilder.escapeGraphvizLabel(currentElement.toDOTLabel(), "\\\\n"));
+    String stateLabel;
+    synchronized (LABEL_LOCK) {
+      stateLabel = currentElement.toDOTLabel();
+    }
+    builder.append(DOTBuilder.escapeGraphvizLabel(stateLabel, "\\\\n"));
 
     return builder.toString().trim();
   }
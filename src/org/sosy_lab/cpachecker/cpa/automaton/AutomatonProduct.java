@@ -0,0 +1,420 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.collect.FluentIterable.from;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.StringExpression;
+
+/**
+ * Computes the synchronous product of several specification automata, such that the analysis can
+ * track a single automaton instead of one automaton per specification.
+ *
+ * <p>Only automata for which the product can be computed without changing the semantics are
+ * supported (cf. {@link #isSupported(Automaton)}): they must not use variables, and all transitions
+ * must only change the automaton state and have triggers that depend only on the CFA edge. For
+ * these automata, the product is computed by exploring the reachable combinations of states, such
+ * that unreachable combinations never appear in the product. A product state is a target state if
+ * one of its components is, and its violated-property description combines the descriptions of all
+ * such components. A component that stays in a target state keeps the description with which it
+ * entered this state, so product states also distinguish these descriptions. Combinations where
+ * one component reaches the bottom state are not explored further, and transitions that lead to
+ * the same successor are merged into one transition.
+ */
+public final class AutomatonProduct {
+
+  private static final Joiner STATE_NAME_JOINER = Joiner.on(" x ");
+
+  private static final Joiner DESCRIPTION_JOINER = Joiner.on("; ");
+
+  private final ImmutableList<Automaton> automata;
+  private final int maxStates;
+  private final int maxTransitions;
+
+  private final Map<ProductState, String> stateNames = new LinkedHashMap<>();
+  private final Deque<ProductState> waitlist = new ArrayDeque<>();
+  private int transitionCount = 0;
+
+  private AutomatonProduct(List<Automaton> pAutomata, int pMaxStates, int pMaxTransitions) {
+    automata = ImmutableList.copyOf(pAutomata);
+    maxStates = pMaxStates;
+    maxTransitions = pMaxTransitions;
+  }
+
+  /**
+   * Check whether the given automaton can be part of a product automaton. This is the case if the
+   * automaton has no variables and is deterministic, and all its transitions only change the
+   * automaton state and have triggers that depend only on the CFA edge. Furthermore, descriptions
+   * of transitions into target states that can be kept for later edges must not depend on the edge.
+   */
+  public static boolean isSupported(Automaton pAutomaton) {
+    if (!pAutomaton.getInitialVariables().isEmpty()) {
+      return false;
+    }
+    for (AutomatonInternalState state : pAutomaton.getStates()) {
+      if ((state.isNonDetState() && state.getTransitions().size() > 1)
+          || state.isNontrivialCycleStart()) {
+        return false;
+      }
+      for (AutomatonTransition transition : state.getTransitions()) {
+        if (!transition.isPlainStateChange()
+            || !AutomatonTransitionIndex.dependsOnlyOnEdge(transition.getTrigger())) {
+          return false;
+        }
+        // The product keeps the description unevaluated while the component stays in the target
+        // state, so it must not refer to the edge ($line, $rawstatement, ...). The error state is
+        // left on the next edge anyway.
+        StringExpression description = transition.getViolatedPropertyDescriptionExpression();
+        if (transition.getFollowState().isTarget()
+            && transition.getFollowState() != AutomatonInternalState.ERROR
+            && description != null
+            && description.toString().contains("$")) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compute the product of the given automata, all of which need to be supported according to
+   * {@link #isSupported(Automaton)}.
+   *
+   * @param pAutomata the automata to combine
+   * @param pMaxStates the maximal number of states of the product automaton
+   * @param pMaxTransitions the maximal number of transition combinations to consider
+   * @return the product automaton, or an empty optional if it would be too large
+   */
+  public static Optional<Automaton> computeProduct(
+      List<Automaton> pAutomata, int pMaxStates, int pMaxTransitions) {
+    for (Automaton automaton : pAutomata) {
+      if (!isSupported(automaton)) {
+        throw new IllegalArgumentException(
+            "Automaton " + automaton.getName() + " cannot be part of a product automaton");
+      }
+    }
+    return new AutomatonProduct(pAutomata, pMaxStates, pMaxTransitions).computeProduct();
+  }
+
+  private Optional<Automaton> computeProduct() {
+    List<AutomatonInternalState> initialComponents =
+        from(automata).transform(Automaton::getInitialState).toList();
+    ProductState initialState =
+        new ProductState(
+            initialComponents,
+            // components that start in a target state report the name of their state
+            from(initialComponents).transform(state -> state.isTarget() ? state.getName() : ""));
+    String initialStateName = getStateName(initialState);
+
+    List<AutomatonInternalState> productStates = new ArrayList<>();
+    while (!waitlist.isEmpty()) {
+      if (stateNames.size() > maxStates) {
+        return Optional.empty();
+      }
+      ProductState state = waitlist.pop();
+      Optional<List<AutomatonTransition>> transitions = computeTransitions(state);
+      if (!transitions.isPresent()) {
+        return Optional.empty();
+      }
+      productStates.add(
+          new AutomatonInternalState(
+              stateNames.get(state),
+              transitions.orElseThrow(),
+              state.components.stream().anyMatch(AutomatonInternalState::isTarget),
+              false,
+              false));
+    }
+
+    String name = Joiner.on("_x_").join(from(automata).transform(Automaton::getName));
+    try {
+      return Optional.of(new Automaton(name, ImmutableMap.of(), productStates, initialStateName));
+    } catch (InvalidAutomatonException e) {
+      throw new AssertionError("Product automaton should be valid", e);
+    }
+  }
+
+  private String getStateName(ProductState pState) {
+    String name = stateNames.get(pState);
+    if (name == null) {
+      name = STATE_NAME_JOINER.join(pState.components);
+      if (stateNames.containsValue(name)) {
+        name = name + "#" + stateNames.size();
+      }
+      stateNames.put(pState, name);
+      waitlist.push(pState);
+    }
+    return name;
+  }
+
+  /**
+   * Compute the transitions of a product state by combining one choice of each component.
+   * Components are deterministic, so the conditions of the choices of one component are mutually
+   * exclusive and the order of the resulting transitions does not matter.
+   */
+  private Optional<List<AutomatonTransition>> computeTransitions(ProductState pState) {
+    List<List<Choice>> choicesPerComponent = new ArrayList<>(pState.components.size());
+    long combinations = 1;
+    for (AutomatonInternalState componentState : pState.components) {
+      List<Choice> choices = getChoices(componentState);
+      choicesPerComponent.add(choices);
+      combinations *= choices.size();
+      if (transitionCount + combinations > maxTransitions) {
+        return Optional.empty();
+      }
+    }
+    transitionCount += (int) combinations;
+
+    // successor state (or its name) and property description -> trigger
+    Map<Successor, AutomatonBoolExpr> successors = new LinkedHashMap<>();
+    for (List<Choice> combination : Lists.cartesianProduct(choicesPerComponent)) {
+      AutomatonBoolExpr trigger = AutomatonBoolExpr.TRUE;
+      for (Choice choice : combination) {
+        trigger = and(trigger, choice.condition);
+      }
+      if (trigger == AutomatonBoolExpr.FALSE) {
+        continue;
+      }
+
+      Successor successor = getSuccessor(pState, combination);
+      if (successor != null) {
+        successors.merge(successor, trigger, AutomatonProduct::or);
+      }
+    }
+
+    List<AutomatonTransition> transitions = new ArrayList<>(successors.size());
+    for (Map.Entry<Successor, AutomatonBoolExpr> entry : successors.entrySet()) {
+      Successor successor = entry.getKey();
+      AutomatonTransition.Builder builder =
+          successor.specialState != null
+              ? new AutomatonTransition.Builder(entry.getValue(), successor.specialState)
+              : new AutomatonTransition.Builder(entry.getValue(), successor.stateName);
+      if (successor.violatedPropertyDescription != null) {
+        builder.withViolatedPropertyDescription(successor.violatedPropertyDescription);
+      }
+      transitions.add(builder.build());
+    }
+    return Optional.of(transitions);
+  }
+
+  /**
+   * Compute the choices of a deterministic component state: each transition is taken if its
+   * trigger matches and no earlier trigger matches, and the state is kept if no trigger matches.
+   */
+  private static List<Choice> getChoices(AutomatonInternalState pState) {
+    List<Choice> choices = new ArrayList<>(pState.getTransitions().size() + 1);
+    AutomatonBoolExpr noEarlierMatch = AutomatonBoolExpr.TRUE;
+    for (AutomatonTransition transition : pState.getTransitions()) {
+      AutomatonBoolExpr condition = and(noEarlierMatch, transition.getTrigger());
+      if (condition != AutomatonBoolExpr.FALSE) {
+        choices.add(new Choice(condition, transition.getFollowState(), transition));
+      }
+      noEarlierMatch = and(noEarlierMatch, not(transition.getTrigger()));
+    }
+    if (noEarlierMatch != AutomatonBoolExpr.FALSE) {
+      choices.add(new Choice(noEarlierMatch, pState, null));
+    }
+    return choices;
+  }
+
+  /**
+   * Determine the successor of a product state for a combination of choices, or return null if the
+   * combination does not change the product state and thus needs no transition.
+   */
+  private @Nullable Successor getSuccessor(ProductState pState, List<Choice> pCombination) {
+    List<AutomatonInternalState> successorComponents =
+        from(pCombination).transform(choice -> choice.successor).toList();
+
+    // if any component has no successor, the product has none, too
+    if (successorComponents.contains(AutomatonInternalState.BOTTOM)) {
+      return new Successor(AutomatonInternalState.BOTTOM, null, null);
+    }
+
+    // Components in the error state are kept like other components, such that the product state
+    // is a target state for all violated properties and the other components are still tracked.
+    ImmutableList<String> descriptions = getViolatedPropertyDescriptions(pState, pCombination);
+    StringExpression description =
+        successorComponents.stream().anyMatch(AutomatonInternalState::isTarget)
+            ? new StringExpression(
+                DESCRIPTION_JOINER.join(
+                    from(descriptions).filter(text -> !text.isEmpty()).toSet()))
+            : null;
+
+    // A component that breaks halts the analysis, unless the product reaches a target state,
+    // which needs to be reported (the breaking component has no successor afterwards).
+    if (successorComponents.contains(AutomatonInternalState.BREAK) && description == null) {
+      return new Successor(AutomatonInternalState.BREAK, null, null);
+    }
+
+    ProductState successorState = new ProductState(successorComponents, descriptions);
+    if (successorState.equals(pState) && description == null) {
+      // nothing changes, this is the default if no transition matches
+      return null;
+    }
+    return new Successor(null, getStateName(successorState), description);
+  }
+
+  /**
+   * Determine the violated-property descriptions of all components after the given combination of
+   * choices: a component that enters a target state reports the description of its transition, and
+   * a component that stays in a target state without a transition keeps its previous description.
+   * Components that are not in a target state have an empty description.
+   */
+  private static ImmutableList<String> getViolatedPropertyDescriptions(
+      ProductState pState, List<Choice> pCombination) {
+    ImmutableList.Builder<String> descriptions =
+        ImmutableList.builderWithExpectedSize(pCombination.size());
+    for (int i = 0; i < pCombination.size(); i++) {
+      Choice choice = pCombination.get(i);
+      if (!choice.successor.isTarget()) {
+        descriptions.add("");
+      } else if (choice.transition == null) {
+        descriptions.add(pState.descriptions.get(i));
+      } else {
+        StringExpression description =
+            choice.transition.getViolatedPropertyDescriptionExpression();
+        // without an explicit description, the component would report the name of its state
+        descriptions.add(
+            description != null ? description.toString() : choice.successor.getName());
+      }
+    }
+    return descriptions.build();
+  }
+
+  private static AutomatonBoolExpr and(AutomatonBoolExpr a, AutomatonBoolExpr b) {
+    if (a == AutomatonBoolExpr.FALSE || b == AutomatonBoolExpr.FALSE) {
+      return AutomatonBoolExpr.FALSE;
+    } else if (a == AutomatonBoolExpr.TRUE) {
+      return b;
+    } else if (b == AutomatonBoolExpr.TRUE) {
+      return a;
+    }
+    return new AutomatonBoolExpr.And(a, b);
+  }
+
+  private static AutomatonBoolExpr or(AutomatonBoolExpr a, AutomatonBoolExpr b) {
+    if (a == AutomatonBoolExpr.TRUE || b == AutomatonBoolExpr.TRUE) {
+      return AutomatonBoolExpr.TRUE;
+    } else if (a == AutomatonBoolExpr.FALSE) {
+      return b;
+    } else if (b == AutomatonBoolExpr.FALSE) {
+      return a;
+    }
+    return new AutomatonBoolExpr.Or(a, b);
+  }
+
+  private static AutomatonBoolExpr not(AutomatonBoolExpr a) {
+    if (a == AutomatonBoolExpr.TRUE) {
+      return AutomatonBoolExpr.FALSE;
+    } else if (a == AutomatonBoolExpr.FALSE) {
+      return AutomatonBoolExpr.TRUE;
+    }
+    return new AutomatonBoolExpr.Negation(a);
+  }
+
+  /** One possible behavior of a component automaton on a CFA edge. */
+  private static final class Choice {
+
+    private final AutomatonBoolExpr condition;
+    private final AutomatonInternalState successor;
+
+    /** The transition that is taken, or null if no transition matches. */
+    private final @Nullable AutomatonTransition transition;
+
+    private Choice(
+        AutomatonBoolExpr pCondition,
+        AutomatonInternalState pSuccessor,
+        @Nullable AutomatonTransition pTransition) {
+      condition = pCondition;
+      successor = pSuccessor;
+      transition = pTransition;
+    }
+  }
+
+  /**
+   * A state of the product automaton: the states of all components, and the descriptions with
+   * which the components in a target state entered it (empty for the other components).
+   */
+  private static final class ProductState {
+
+    private final ImmutableList<AutomatonInternalState> components;
+    private final ImmutableList<String> descriptions;
+
+    private ProductState(
+        Iterable<AutomatonInternalState> pComponents, Iterable<String> pDescriptions) {
+      components = ImmutableList.copyOf(pComponents);
+      descriptions = ImmutableList.copyOf(pDescriptions);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(components, descriptions);
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      if (this == pOther) {
+        return true;
+      }
+      if (!(pOther instanceof ProductState)) {
+        return false;
+      }
+      ProductState other = (ProductState) pOther;
+      return components.equals(other.components) && descriptions.equals(other.descriptions);
+    }
+  }
+
+  /** The target of a transition of the product automaton. */
+  private static final class Successor {
+
+    private final @Nullable AutomatonInternalState specialState;
+    private final @Nullable String stateName;
+    private final @Nullable StringExpression violatedPropertyDescription;
+
+    private Successor(
+        @Nullable AutomatonInternalState pSpecialState,
+        @Nullable String pStateName,
+        @Nullable StringExpression pViolatedPropertyDescription) {
+      specialState = pSpecialState;
+      stateName = pStateName;
+      violatedPropertyDescription = pViolatedPropertyDescription;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(specialState, stateName, violatedPropertyDescription);
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      if (this == pOther) {
+        return true;
+      }
+      if (!(pOther instanceof Successor)) {
+        return false;
+      }
+      Successor other = (Successor) pOther;
+      return Objects.equals(specialState, other.specialState)
+          && Objects.equals(stateName, other.stateName)
+          && Objects.equals(violatedPropertyDescription, other.violatedPropertyDescription);
+    }
+  }
+}
@@ -0,0 +1,339 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.Assert.assertThrows;
+import static org.sosy_lab.cpachecker.cfa.model.CFANode.newDummyCFANode;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.model.BlankEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.StringExpression;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+
+public class AutomatonProductTest {
+
+  private static final ImmutableList<String> STATEMENTS =
+      ImmutableList.of(
+          "lock();",
+          "unlock();",
+          "free();",
+          "bad();",
+          "warn();",
+          "fix();",
+          "halt();",
+          "abort();",
+          "skip();");
+
+  /** Report a double lock with a custom description. */
+  private final Automaton lockAutomaton =
+      automaton(
+          "Lock",
+          state("Unlocked", false, transition("lock();", "Locked")),
+          state(
+              "Locked",
+              false,
+              transition("lock();", AutomatonInternalState.ERROR, "double lock"),
+              transition("unlock();", "Unlocked")));
+
+  /** Report a double free with the default description, and stop at abort(). */
+  private final Automaton freeAutomaton =
+      automaton(
+          "Free",
+          state(
+              "Allocated",
+              false,
+              transition("free();", "Freed"),
+              transition("abort();", AutomatonInternalState.BOTTOM, null)),
+          state(
+              "Freed",
+              false,
+              transition("free();", AutomatonInternalState.ERROR, null),
+              transition("abort();", AutomatonInternalState.BOTTOM, null)));
+
+  /**
+   * A custom target state that can be left again, is entered with different descriptions, and is
+   * kept on most edges without a transition.
+   */
+  private final Automaton targetAutomaton =
+      automaton(
+          "Target",
+          state(
+              "Ok",
+              false,
+              transition("bad();", "Bad", "bad call"),
+              transition("warn();", "Bad")),
+          state(
+              "Bad",
+              true,
+              transition("fix();", "Ok"),
+              transition("bad();", "Bad", "still bad")));
+
+  /** A nondeterministic state with a single transition, which halts the analysis. */
+  private final Automaton breakAutomaton =
+      automaton(
+          "Break",
+          new AutomatonInternalState(
+              "Running",
+              ImmutableList.of(transition("halt();", AutomatonInternalState.BREAK, null)),
+              false,
+              true));
+
+  private static AutomatonTransition transition(String pStatement, String pFollowState) {
+    return new AutomatonTransition.Builder(new MatchCFAEdgeExact(pStatement), pFollowState)
+        .build();
+  }
+
+  private static AutomatonTransition transition(
+      String pStatement, String pFollowState, String pDescription) {
+    return new AutomatonTransition.Builder(new MatchCFAEdgeExact(pStatement), pFollowState)
+        .withViolatedPropertyDescription(new StringExpression(pDescription))
+        .build();
+  }
+
+  private static AutomatonTransition transition(
+      String pStatement, AutomatonInternalState pFollowState, @Nullable String pDescription) {
+    AutomatonTransition.Builder builder =
+        new AutomatonTransition.Builder(new MatchCFAEdgeExact(pStatement), pFollowState);
+    if (pDescription != null) {
+      builder.withViolatedPropertyDescription(new StringExpression(pDescription));
+    }
+    return builder.build();
+  }
+
+  private static AutomatonInternalState state(
+      String pName, boolean pIsTarget, AutomatonTransition... pTransitions) {
+    return new AutomatonInternalState(pName, ImmutableList.copyOf(pTransitions), pIsTarget, false);
+  }
+
+  private static Automaton automaton(String pName, AutomatonInternalState... pStates) {
+    try {
+      return new Automaton(
+          pName, ImmutableMap.of(), ImmutableList.copyOf(pStates), pStates[0].getName());
+    } catch (InvalidAutomatonException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static AutomatonExpressionArguments arguments(String pStatement) {
+    CFAEdge edge =
+        new BlankEdge(
+            pStatement,
+            FileLocation.DUMMY,
+            newDummyCFANode("main"),
+            newDummyCFANode("main"),
+            pStatement);
+    return new AutomatonExpressionArguments(null, null, null, edge, null);
+  }
+
+  /** Return the first matching transition of a deterministic state, or null if none matches. */
+  private static @Nullable AutomatonTransition getMatchingTransition(
+      AutomatonInternalState pState, AutomatonExpressionArguments pArgs)
+      throws CPATransferException {
+    for (AutomatonTransition transition : pState.getTransitions()) {
+      if (transition.match(pArgs).getValue()) {
+        return transition;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Run the product and the separate automata on all sequences of statements up to the given
+   * length, and check that the product behaves like the separate automata after each statement.
+   */
+  private static void checkProductOnAllSequences(List<Automaton> pAutomata, int pLength)
+      throws CPATransferException {
+    Automaton product = AutomatonProduct.computeProduct(pAutomata, 1000, 100000).orElseThrow();
+
+    for (List<String> sequence : Lists.cartesianProduct(Collections.nCopies(pLength, STATEMENTS))) {
+      List<AutomatonInternalState> states =
+          new ArrayList<>(Lists.transform(pAutomata, Automaton::getInitialState));
+      // the description with which each component entered its target state
+      List<String> descriptions = new ArrayList<>(states.size());
+      for (AutomatonInternalState state : states) {
+        descriptions.add(state.isTarget() ? state.getName() : "");
+      }
+      AutomatonInternalState productState = product.getInitialState();
+
+      for (int step = 0; step < sequence.size(); step++) {
+        AutomatonExpressionArguments args = arguments(sequence.get(step));
+        String message = "after " + sequence.subList(0, step + 1);
+
+        Set<String> expectedDescriptions = new LinkedHashSet<>();
+        for (int i = 0; i < states.size(); i++) {
+          AutomatonTransition transition = getMatchingTransition(states.get(i), args);
+          if (transition != null) {
+            states.set(i, transition.getFollowState());
+            descriptions.set(
+                i,
+                transition.getFollowState().isTarget()
+                    ? transition.getViolatedPropertyDescription(args)
+                    : "");
+          }
+          if (states.get(i).isTarget() && !descriptions.get(i).isEmpty()) {
+            expectedDescriptions.add(descriptions.get(i));
+          }
+        }
+
+        AutomatonTransition productTransition = getMatchingTransition(productState, args);
+        if (productTransition != null) {
+          productState = productTransition.getFollowState();
+        }
+
+        boolean isTarget = states.stream().anyMatch(AutomatonInternalState::isTarget);
+        if (states.contains(AutomatonInternalState.BOTTOM)) {
+          assertWithMessage(message)
+              .that(productState)
+              .isSameInstanceAs(AutomatonInternalState.BOTTOM);
+          break;
+        } else if (states.contains(AutomatonInternalState.BREAK) && !isTarget) {
+          assertWithMessage(message)
+              .that(productState)
+              .isSameInstanceAs(AutomatonInternalState.BREAK);
+          break;
+        }
+
+        // states that differ only in the kept descriptions are made unique by a suffix
+        assertWithMessage(message)
+            .that(productState.getName().replaceFirst("#\\d+$", ""))
+            .isEqualTo(Joiner.on(" x ").join(states));
+        assertWithMessage(message).that(productState.isTarget()).isEqualTo(isTarget);
+        if (isTarget) {
+          // the product state was reached by a transition with the combined description
+          assertWithMessage(message).that(productTransition).isNotNull();
+          assertWithMessage(message)
+              .that(
+                  Splitter.on("; ")
+                      .omitEmptyStrings()
+                      .split(productTransition.getViolatedPropertyDescription(args)))
+              .containsExactlyElementsIn(expectedDescriptions);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testProductBehavesLikeSeparateAutomata() throws CPATransferException {
+    checkProductOnAllSequences(
+        ImmutableList.of(lockAutomaton, freeAutomaton, targetAutomaton, breakAutomaton), 4);
+  }
+
+  @Test
+  public void testProductOfTwoAutomata() throws CPATransferException {
+    checkProductOnAllSequences(ImmutableList.of(lockAutomaton, targetAutomaton), 4);
+  }
+
+  @Test
+  public void testCombinedViolatedPropertyDescriptions() throws CPATransferException {
+    Automaton product =
+        AutomatonProduct.computeProduct(
+                ImmutableList.of(lockAutomaton, targetAutomaton), 1000, 100000)
+            .orElseThrow();
+
+    AutomatonInternalState state = product.getInitialState();
+    state = getMatchingTransition(state, arguments("lock();")).getFollowState();
+    state = getMatchingTransition(state, arguments("bad();")).getFollowState();
+    assertThat(state.isTarget()).isTrue();
+
+    // the other component is still tracked after one component reached the error state, and the
+    // component that stays in its target state keeps its description
+    AutomatonExpressionArguments args = arguments("lock();");
+    AutomatonTransition transition = getMatchingTransition(state, args);
+    assertThat(transition.getFollowState().getName()).isEqualTo("ERROR x Bad");
+    assertThat(transition.getViolatedPropertyDescription(args))
+        .isEqualTo("double lock; bad call");
+  }
+
+  @Test
+  public void testDescriptionIsKeptInTargetState() throws CPATransferException {
+    Automaton product =
+        AutomatonProduct.computeProduct(
+                ImmutableList.of(targetAutomaton, lockAutomaton), 1000, 100000)
+            .orElseThrow();
+
+    AutomatonInternalState badState =
+        getMatchingTransition(product.getInitialState(), arguments("bad();")).getFollowState();
+    AutomatonInternalState warnState =
+        getMatchingTransition(product.getInitialState(), arguments("warn();")).getFollowState();
+    assertThat(badState.isTarget()).isTrue();
+    assertThat(warnState.isTarget()).isTrue();
+    assertThat(warnState).isNotSameInstanceAs(badState);
+
+    // the target component takes no transition on lock(), but reports how it entered its state
+    AutomatonExpressionArguments args = arguments("lock();");
+    assertThat(getMatchingTransition(badState, args).getViolatedPropertyDescription(args))
+        .isEqualTo("bad call");
+    // without an explicit description, the name of the target state is reported
+    assertThat(getMatchingTransition(warnState, args).getViolatedPropertyDescription(args))
+        .isEqualTo("Bad");
+  }
+
+  @Test
+  public void testEdgeDependentDescriptionIsNotSupported() {
+    Automaton edgeDependent =
+        automaton(
+            "Line",
+            state("Ok", false, transition("bad();", "Bad", "bad call in line $line")),
+            state("Bad", true, transition("fix();", "Ok")));
+    Automaton errorWithLine =
+        automaton(
+            "ErrorLine",
+            state(
+                "Ok",
+                false,
+                transition("bad();", AutomatonInternalState.ERROR, "bad call in line $line")));
+
+    assertThat(AutomatonProduct.isSupported(edgeDependent)).isFalse();
+    // the error state is left on the next edge, so its description is never kept
+    assertThat(AutomatonProduct.isSupported(errorWithLine)).isTrue();
+  }
+
+  @Test
+  public void testNondeterministicAutomatonIsNotSupported() {
+    Automaton nondeterministic =
+        automaton(
+            "Nondet",
+            new AutomatonInternalState(
+                "Init",
+                ImmutableList.of(transition("lock();", "Init"), transition("skip();", "Init")),
+                false,
+                true));
+
+    assertThat(AutomatonProduct.isSupported(breakAutomaton)).isTrue();
+    assertThat(AutomatonProduct.isSupported(nondeterministic)).isFalse();
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            AutomatonProduct.computeProduct(
+                ImmutableList.of(lockAutomaton, nondeterministic), 1000, 100000));
+  }
+
+  @Test
+  public void testLimits() {
+    List<Automaton> automata = ImmutableList.of(lockAutomaton, freeAutomaton, targetAutomaton);
+    assertThat(AutomatonProduct.computeProduct(automata, 1, 100000)).isEmpty();
+    assertThat(AutomatonProduct.computeProduct(automata, 1000, 1)).isEmpty();
+  }
+}
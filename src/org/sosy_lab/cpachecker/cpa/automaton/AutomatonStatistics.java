@@ -9,6 +9,7 @@
 package org.sosy_lab.cpachecker.cpa.automaton;
 
 import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAdder;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -27,6 +28,8 @@ class AutomatonStatistics implements Statistics {
   ThreadSafeTimerContainer actionTime          = new ThreadSafeTimerContainer("Time for transition actions");
   ThreadSafeTimerContainer totalStrengthenTime = new ThreadSafeTimerContainer("Total time for strengthen operator");
   StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
+  // updated concurrently by all transfer relations of this automaton
+  final LongAdder indexedMatches = new LongAdder();
 
   public AutomatonStatistics(Automaton pAutomaton) {
     automaton = pAutomaton;
@@ -49,6 +52,10 @@ class AutomatonStatistics implements Statistics {
       put(out, 1, assertionsTime);
       put(out, 1, actionTime);
     }
+    long indexedMatchCount = indexedMatches.sum();
+    if (indexedMatchCount > 0) {
+      put(out, 1, "Transition matches answered by index", indexedMatchCount);
+    }
 
     if (totalStrengthenTime.getUpdateCount() > 0) {
       put(out, 0, totalStrengthenTime);
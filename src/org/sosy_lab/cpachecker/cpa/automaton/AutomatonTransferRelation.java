@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -26,7 +27,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
 import org.sosy_lab.cpachecker.cfa.ast.AExpression;
@@ -56,6 +59,7 @@ public class AutomatonTransferRelation implements TransferRelation {
   private final ControlAutomatonCPA cpa;
   private final LogManager logger;
   private final MachineModel machineModel;
+  private final @Nullable AutomatonTransitionIndex transitionIndex;
 
   private final TimerWrapper totalPostTime;
   private final TimerWrapper matchTime;
@@ -63,15 +67,18 @@ public class AutomatonTransferRelation implements TransferRelation {
   private final TimerWrapper actionTime;
   private final TimerWrapper totalStrengthenTime;
   private final StatIntHist automatonSuccessors;
+  private final LongAdder indexedMatches;
 
   public AutomatonTransferRelation(
       ControlAutomatonCPA pCpa,
       LogManager pLogger,
       MachineModel pMachineModel,
+      @Nullable AutomatonTransitionIndex pTransitionIndex,
       AutomatonStatistics pStats) {
     this.cpa = pCpa;
     this.logger = pLogger;
     this.machineModel = pMachineModel;
+    this.transitionIndex = pTransitionIndex;
 
     totalPostTime = pStats.totalPostTime.getNewTimer();
     matchTime = pStats.matchTime.getNewTimer();
@@ -79,6 +86,7 @@ public class AutomatonTransferRelation implements TransferRelation {
     actionTime = pStats.actionTime.getNewTimer();
     totalStrengthenTime = pStats.totalStrengthenTime.getNewTimer();
     automatonSuccessors = pStats.automatonSuccessors;
+    indexedMatches = pStats.indexedMatches;
   }
 
   @Override
@@ -175,7 +183,20 @@ public class AutomatonTransferRelation implements TransferRelation {
     List<Pair<AutomatonTransition, Map<Integer, AAstNode>>> transitionsToBeTaken =
         new ArrayList<>(2);
 
-    for (AutomatonTransition t : state.getInternalState().getTransitions()) {
+    List<AutomatonTransition> transitions = state.getInternalState().getTransitions();
+    @Nullable BitSet nonMatchingTransitions =
+        transitionIndex == null
+            ? null
+            : transitionIndex.getNonMatchingTransitions(state.getInternalState(), edge);
+
+    for (int i = 0; i < transitions.size(); i++) {
+      AutomatonTransition t = transitions.get(i);
+      if (nonMatchingTransitions != null && nonMatchingTransitions.get(i)) {
+        // known to not match on this edge, no need to evaluate the trigger again
+        indexedMatches.increment();
+        failedMatches++;
+        continue;
+      }
       exprArgs.clearTransitionVariables();
 
       matchTime.start();
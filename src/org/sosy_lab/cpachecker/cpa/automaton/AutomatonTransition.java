@@ -308,6 +308,21 @@ class AutomatonTransition {
     return trigger;
   }
 
+  @Nullable StringExpression getViolatedPropertyDescriptionExpression() {
+    return violatedPropertyDescription;
+  }
+
+  /**
+   * Returns true if taking this transition only changes the internal state of the automaton, i.e.,
+   * the transition has no assertions, assumptions, candidate invariants, or actions.
+   */
+  boolean isPlainStateChange() {
+    return assertion.equals(AutomatonBoolExpr.TRUE)
+        && assumptions.isEmpty()
+        && candidateInvariants.equals(ExpressionTrees.getTrue())
+        && actions.isEmpty();
+  }
+
   public String getViolatedPropertyDescription(AutomatonExpressionArguments pArgs) {
     if (violatedPropertyDescription == null) {
       if (getFollowState().isTarget()) {
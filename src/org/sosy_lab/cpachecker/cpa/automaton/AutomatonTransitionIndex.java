@@ -0,0 +1,150 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.BoolBinaryTest;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeCase;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeASTComparison;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeNodes;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeRegEx;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionCall;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionCallStatement;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionExit;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchJavaAssert;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLabelExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLabelRegEx;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLocationDescriptor;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLoopStart;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchProgramEntry;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchProgramExit;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchSplitDeclaration;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchSuccessor;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.Negation;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+
+/**
+ * Index over the transitions of the states of an automaton that remembers for each pair of an
+ * automaton state and a CFA edge which transitions can never match on this edge.
+ *
+ * <p>Most triggers in specification and witness automata depend only on the CFA edge (e.g., they
+ * match the function name, the source location, or the AST of the edge), but they are evaluated
+ * again for each abstract state that reaches the edge. For such triggers, the index evaluates them
+ * once per edge and answers all further queries from the cache. Triggers that depend on automaton
+ * variables or other abstract states are never cached and are always evaluated by the transfer
+ * relation. Only definite non-matches are cached, because matching transitions need to be
+ * evaluated anyway in order to bind their transition variables.
+ */
+class AutomatonTransitionIndex {
+
+  private final LogManager logger;
+
+  private final Map<AutomatonInternalState, StateIndex> stateIndices = new ConcurrentHashMap<>();
+
+  AutomatonTransitionIndex(LogManager pLogger) {
+    logger = pLogger;
+  }
+
+  /**
+   * Return the positions (in {@link AutomatonInternalState#getTransitions()}) of all transitions
+   * of the given state whose trigger is known to be false for the given edge.
+   */
+  BitSet getNonMatchingTransitions(AutomatonInternalState pState, CFAEdge pEdge) {
+    return stateIndices.computeIfAbsent(pState, StateIndex::new).getNonMatchingTransitions(pEdge);
+  }
+
+  private final class StateIndex {
+
+    private final List<AutomatonTransition> transitions;
+
+    /** Positions of all transitions whose trigger depends only on the CFA edge. */
+    private final BitSet edgeOnlyTransitions = new BitSet();
+
+    private final Map<CFAEdge, BitSet> nonMatchingTransitions = new ConcurrentHashMap<>();
+
+    private StateIndex(AutomatonInternalState pState) {
+      transitions = pState.getTransitions();
+      for (int i = 0; i < transitions.size(); i++) {
+        if (dependsOnlyOnEdge(transitions.get(i).getTrigger())) {
+          edgeOnlyTransitions.set(i);
+        }
+      }
+    }
+
+    private BitSet getNonMatchingTransitions(CFAEdge pEdge) {
+      if (edgeOnlyTransitions.isEmpty()) {
+        return edgeOnlyTransitions;
+      }
+      return nonMatchingTransitions.computeIfAbsent(pEdge, this::computeNonMatchingTransitions);
+    }
+
+    private BitSet computeNonMatchingTransitions(CFAEdge pEdge) {
+      // the trigger does not access the automaton state, its variables, or other abstract states,
+      // and transition variables are bound into this throw-away object
+      AutomatonExpressionArguments args =
+          new AutomatonExpressionArguments(null, null, null, pEdge, logger);
+      BitSet result = new BitSet(transitions.size());
+      for (int i = edgeOnlyTransitions.nextSetBit(0); i >= 0;
+          i = edgeOnlyTransitions.nextSetBit(i + 1)) {
+        try {
+          ResultValue<Boolean> match = transitions.get(i).match(args);
+          if (!match.canNotEvaluate() && !match.getValue()) {
+            result.set(i);
+          }
+        } catch (CPATransferException e) {
+          // leave it to the transfer relation to report the problem
+        }
+        args.clearTransitionVariables();
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Check whether the given expression is known to depend only on the CFA edge, such that its
+   * result for an edge never changes.
+   */
+  static boolean dependsOnlyOnEdge(AutomatonBoolExpr pExpr) {
+    if (pExpr == AutomatonBoolExpr.TRUE || pExpr == AutomatonBoolExpr.FALSE) {
+      return true;
+    } else if (pExpr instanceof BoolBinaryTest) {
+      // And, Or, BoolEqTest, and BoolNotEqTest
+      BoolBinaryTest binaryTest = (BoolBinaryTest) pExpr;
+      return dependsOnlyOnEdge(binaryTest.a) && dependsOnlyOnEdge(binaryTest.b);
+    } else if (pExpr instanceof Negation) {
+      return dependsOnlyOnEdge(((Negation) pExpr).getA());
+    }
+    return pExpr instanceof MatchProgramExit
+        || pExpr instanceof MatchProgramEntry
+        || pExpr instanceof MatchLoopStart
+        || pExpr instanceof MatchSuccessor
+        || pExpr instanceof MatchFunctionCallStatement
+        || pExpr instanceof MatchFunctionCall
+        || pExpr instanceof MatchFunctionExit
+        || pExpr instanceof MatchLabelExact
+        || pExpr instanceof MatchLabelRegEx
+        || pExpr instanceof MatchCFAEdgeASTComparison
+        || pExpr instanceof MatchCFAEdgeRegEx
+        || pExpr instanceof MatchCFAEdgeNodes
+        || pExpr instanceof MatchCFAEdgeExact
+        || pExpr instanceof MatchJavaAssert
+        || pExpr instanceof MatchAssumeEdge
+        || pExpr instanceof MatchAssumeCase
+        || pExpr instanceof MatchSplitDeclaration
+        || pExpr instanceof MatchLocationDescriptor;
+  }
+}
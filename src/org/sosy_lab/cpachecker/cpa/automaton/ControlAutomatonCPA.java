@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -134,12 +135,20 @@ public class ControlAutomatonCPA
   )
   private boolean topOnFinalSelfLoopingState = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Remember for each automaton state and CFA edge which transitions cannot match, "
+              + "such that triggers that depend only on the CFA edge are evaluated once per edge.")
+  private boolean indexTransitions = true;
+
   private final Automaton automaton;
   private final AutomatonState topState;
   private final AutomatonState bottomState;
 
   private final AbstractDomain automatonDomain;
   private final AutomatonStatistics stats;
+  private final @Nullable AutomatonTransitionIndex transitionIndex;
   private final CFA cfa;
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
@@ -174,6 +183,7 @@ public class ControlAutomatonCPA
 
     automatonDomain = new FlatLatticeDomain(topState);
     stats = new AutomatonStatistics(automaton);
+    transitionIndex = indexTransitions ? new AutomatonTransitionIndex(logger) : null;
 
     if (export) {
       if (dotExportFile != null) {
@@ -303,7 +313,8 @@ public class ControlAutomatonCPA
 
   @Override
   public AutomatonTransferRelation getTransferRelation() {
-    return new AutomatonTransferRelation(this, logger, cfa.getMachineModel(), stats);
+    return new AutomatonTransferRelation(
+        this, logger, cfa.getMachineModel(), transitionIndex, stats);
   }
 
   public AutomatonState getBottomState() {
@@ -43,6 +43,7 @@ import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.jfr.BlockEntryEvent;
 
 public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAException> {
 
@@ -284,6 +285,10 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
     // except for one special case (on revisiting recursion).
     final Collection<AbstractState> statesForFurtherAnalysis;
 
+    BlockEntryEvent event = new BlockEntryEvent();
+    event.begin();
+    final String cacheResult;
+
     // Try to get an element from cache.
     // A previously computed element consists of a reached set associated
     // with the recursive call, and
@@ -294,6 +299,7 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
     final Set<AbstractState> reducedResult;
 
     if (entry == null) { // MISS
+      cacheResult = "miss";
       entry =
           data.createAndRegisterNewReachedSet(
               reducedInitialState, reducedInitialPrecision, innerSubtree);
@@ -311,6 +317,7 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
       @Nullable
       final Set<AbstractState> cachedReturnStates = entry.getExitStates();
       if (isCacheHit(cachedReached, cachedReturnStates)) { // FULL HIT
+        cacheResult = "hit";
         // cache hit, return element from cache
         logger.log(
             Level.FINEST,
@@ -322,6 +329,7 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
         reached = cachedReached;
 
       } else { // PARTIAL HIT
+        cacheResult = "partial";
         reached = cachedReached;
         logger.log(
             Level.FINEST,
@@ -351,6 +359,14 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
     entry.setExitStates(reducedResult);
     entry.setRootOfBlock(rootOfBlock);
 
+    event.end();
+    if (event.shouldCommit()) {
+      event.location = AbstractStates.extractLocation(initialState).getNodeNumber();
+      event.cacheResult = cacheResult;
+      event.nestingLevel = stack.size();
+      event.commit();
+    }
+
     return Pair.of(statesForFurtherAnalysis, reached);
   }
 
@@ -40,7 +40,8 @@ import org.sosy_lab.cpachecker.util.predicates.regions.NamedRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
 
 @Options(prefix="cpa.bdd")
-public class BDDCPA implements ConfigurableProgramAnalysisWithBAM, StatisticsProvider {
+public class BDDCPA
+    implements ConfigurableProgramAnalysisWithBAM, StatisticsProvider, AutoCloseable {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(BDDCPA.class);
@@ -150,6 +151,11 @@ public class BDDCPA implements ConfigurableProgramAnalysisWithBAM, StatisticsPro
     return precision;
   }
 
+  @Override
+  public void close() {
+    manager.close();
+  }
+
   @Override
   public void collectStatistics(Collection<Statistics> statsCollection) {
     statsCollection.add(stats);
@@ -49,6 +49,7 @@ import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.jfr.CPAOperatorEvent;
 
 final class CompositeTransferRelation implements WrapperTransferRelation {
 
@@ -278,9 +279,16 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
       AbstractState lCurrentElement = componentElements.get(i);
       Precision lCurrentPrecision = compositePrecision.get(i);
 
+      CPAOperatorEvent event = new CPAOperatorEvent();
+      event.begin();
       Collection<? extends AbstractState> componentSuccessors;
       componentSuccessors = lCurrentTransfer.getAbstractSuccessorsForEdge(
           lCurrentElement, lCurrentPrecision, cfaEdge);
+      event.commitFor(
+          "transfer",
+          lCurrentTransfer,
+          cfaEdge.getPredecessor().getNodeNumber(),
+          componentSuccessors.size());
       resultCount *= componentSuccessors.size();
 
       if (resultCount == 0) {
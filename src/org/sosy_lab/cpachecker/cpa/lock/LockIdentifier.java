@@ -8,9 +8,11 @@
 
 package org.sosy_lab.cpachecker.cpa.lock;
 
-import java.util.HashSet;
+import com.google.common.collect.ComparisonChain;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 public class LockIdentifier implements Comparable<LockIdentifier> {
 
@@ -25,14 +27,25 @@ public class LockIdentifier implements Comparable<LockIdentifier> {
     }
   }
 
-  private static Set<LockIdentifier> createdIds;
+  /** All identifiers are interned, this maps each identifier to its unique instance. */
+  private static final Map<LockIdentifier, LockIdentifier> createdIds = new HashMap<>();
+
+  /**
+   * All interned identifiers, indexed by their number (cf. {@link #getId()}). The array is copied
+   * on each new identifier, such that it can be read without synchronization.
+   */
+  private static volatile LockIdentifier[] idsByNumber = new LockIdentifier[0];
 
   private final String name;
   private final LockType type;
 
-  LockIdentifier(String pName, LockType pType) {
+  /** A dense number of this identifier, unique among all interned identifiers. */
+  private final int id;
+
+  LockIdentifier(String pName, LockType pType, int pId) {
     name = pName;
     type = pType;
+    id = pId;
   }
 
   public static LockIdentifier of(String name) {
@@ -43,28 +56,39 @@ public class LockIdentifier implements Comparable<LockIdentifier> {
     return LockIdentifier.of(name, var, LockType.GLOBAL_LOCK);
   }
 
-  public static LockIdentifier of(String name, String var, LockType type) {
-    if (createdIds == null) {
-      createdIds = new HashSet<>();
-    }
+  public static synchronized LockIdentifier of(String name, String var, LockType type) {
+    final int nextId = idsByNumber.length;
     LockIdentifier newId;
     if (var.isEmpty()) {
-      newId = new LockIdentifier(name, type);
+      newId = new LockIdentifier(name, type, nextId);
     } else {
       String varName = getCleanName(var);
-      newId = new LockIdentifierWithVariable(name, varName, type);
+      newId = new LockIdentifierWithVariable(name, varName, type, nextId);
     }
 
-    for (LockIdentifier id : createdIds) {
-      if (id.equals(newId)) {
-        return id;
-      }
+    LockIdentifier existingId = createdIds.putIfAbsent(newId, newId);
+    if (existingId != null) {
+      return existingId;
     }
-
-    createdIds.add(newId);
+    LockIdentifier[] ids = Arrays.copyOf(idsByNumber, nextId + 1);
+    ids[nextId] = newId;
+    idsByNumber = ids;
     return newId;
   }
 
+  /** Return the interned identifier with the given number (cf. {@link #getId()}). */
+  static LockIdentifier fromId(int pId) {
+    return idsByNumber[pId];
+  }
+
+  /**
+   * Return a small number that is unique for this identifier, such that sets of identifiers can be
+   * represented as bit sets.
+   */
+  public int getId() {
+    return id;
+  }
+
   public String getName() {
     return name;
   }
@@ -106,6 +130,12 @@ public class LockIdentifier implements Comparable<LockIdentifier> {
 
   @Override
   public int compareTo(LockIdentifier pO) {
-    return this.name.compareTo(pO.name);
+    // consistent with equals(), which compares the name, the type and the class
+    return ComparisonChain.start()
+        .compare(name, pO.name)
+        .compare(type, pO.type)
+        .compareFalseFirst(
+            this instanceof LockIdentifierWithVariable, pO instanceof LockIdentifierWithVariable)
+        .result();
   }
 }
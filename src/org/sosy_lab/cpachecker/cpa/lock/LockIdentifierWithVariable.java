@@ -14,8 +14,8 @@ public final class LockIdentifierWithVariable extends LockIdentifier {
 
   private final String varName;
 
-  LockIdentifierWithVariable(String pName, String var, LockType pType) {
-    super(pName, pType);
+  LockIdentifierWithVariable(String pName, String var, LockType pType, int pId) {
+    super(pName, pType, pId);
     assert !var.isEmpty();
     varName = var;
   }
@@ -49,10 +49,7 @@ public final class LockIdentifierWithVariable extends LockIdentifier {
     if (result != 0) {
       return result;
     }
-    if (pO instanceof LockIdentifierWithVariable) {
-      return this.varName.compareTo(((LockIdentifierWithVariable) pO).varName);
-    } else {
-      return 1;
-    }
+    // the super class orders identifiers without variable first
+    return this.varName.compareTo(((LockIdentifierWithVariable) pO).varName);
   }
 }
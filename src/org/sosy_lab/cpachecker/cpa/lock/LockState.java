@@ -11,9 +11,14 @@ package org.sosy_lab.cpachecker.cpa.lock;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import com.google.errorprone.annotations.concurrent.LazyInit;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -21,6 +26,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cpa.lock.effects.AcquireLockEffect;
 import org.sosy_lab.cpachecker.cpa.lock.effects.LockEffect;
 import org.sosy_lab.cpachecker.cpa.lock.effects.ReleaseLockEffect;
@@ -29,31 +35,82 @@ import org.sosy_lab.cpachecker.cpa.usage.CompatibleState;
 
 public final class LockState extends AbstractLockState {
 
-  @SuppressWarnings("checkstyle:IllegalType") // TODO: use composition instead of inheritance
-  public static class LockTreeNode extends TreeSet<LockIdentifier> implements CompatibleNode {
+  /**
+   * An immutable set of locks, represented as a bit set of the ids of the locks (cf. {@link
+   * LockIdentifier#getId()}). Nodes are interned, i.e., equal sets of locks are represented by
+   * the same instance, which is shared between all usages with these locks.
+   */
+  public static final class LockTreeNode implements CompatibleNode, Iterable<LockIdentifier> {
+
+    private static final Interner<LockTreeNode> nodes = Interners.newWeakInterner();
+
+    private final BitSet lockIds;
+    private final int hashCode;
 
-    private static final long serialVersionUID = 5757759799394605077L;
+    @LazyInit private @Nullable ImmutableList<LockIdentifier> sortedLocks;
 
-    public LockTreeNode(Set<LockIdentifier> locks) {
-      super(locks);
+    private LockTreeNode(BitSet pLockIds) {
+      lockIds = pLockIds;
+      hashCode = pLockIds.hashCode();
+    }
+
+    public static LockTreeNode of(Iterable<LockIdentifier> pLocks) {
+      BitSet ids = new BitSet();
+      for (LockIdentifier lock : pLocks) {
+        ids.set(lock.getId());
+      }
+      return nodes.intern(new LockTreeNode(ids));
+    }
+
+    public int size() {
+      return lockIds.cardinality();
+    }
+
+    public boolean contains(LockIdentifier pLock) {
+      return lockIds.get(pLock.getId());
+    }
+
+    @Override
+    public Iterator<LockIdentifier> iterator() {
+      return getSortedLocks().iterator();
+    }
+
+    /** Return the locks ordered by their names. */
+    private ImmutableList<LockIdentifier> getSortedLocks() {
+      // nodes are interned, so the sorted list is computed at most once per lock set
+      ImmutableList<LockIdentifier> result = sortedLocks;
+      if (result == null) {
+        result =
+            lockIds.stream()
+                .mapToObj(LockIdentifier::fromId)
+                .sorted()
+                .collect(ImmutableList.toImmutableList());
+        sortedLocks = result;
+      }
+      return result;
     }
 
     @Override
     public boolean isCompatibleWith(CompatibleState pState) {
       Preconditions.checkArgument(pState instanceof LockTreeNode);
-      return Sets.intersection(this, (LockTreeNode) pState).isEmpty();
+      return !lockIds.intersects(((LockTreeNode) pState).lockIds);
     }
 
     @Override
     public int compareTo(CompatibleState pArg0) {
       Preconditions.checkArgument(pArg0 instanceof LockTreeNode);
       LockTreeNode o = (LockTreeNode) pArg0;
-      int result = size() - o.size();
+      if (this == o) {
+        return 0;
+      }
+      int result = Integer.compare(size(), o.size());
       if (result != 0) {
         return result;
       }
-      Iterator<LockIdentifier> lockIterator = iterator();
-      Iterator<LockIdentifier> lockIterator2 = o.iterator();
+      // compare the locks by their names, not by their ids, which depend on the order in which the
+      // locks were found; both sets have the same size
+      Iterator<LockIdentifier> lockIterator = getSortedLocks().iterator();
+      Iterator<LockIdentifier> lockIterator2 = o.getSortedLocks().iterator();
       while (lockIterator.hasNext()) {
         result = lockIterator.next().compareTo(lockIterator2.next());
         if (result != 0) {
@@ -69,16 +126,36 @@ public final class LockState extends AbstractLockState {
       LockTreeNode o = (LockTreeNode) pNode;
 
       // empty locks do not cover all others (special case
-      if (this.isEmpty()) {
-        return o.isEmpty();
+      if (lockIds.isEmpty()) {
+        return o.lockIds.isEmpty();
       } else {
-        return o.containsAll(this);
+        BitSet notInOther = (BitSet) lockIds.clone();
+        notInOther.andNot(o.lockIds);
+        return notInOther.isEmpty();
       }
     }
 
     @Override
     public boolean hasEmptyLockSet() {
-      return isEmpty();
+      return lockIds.isEmpty();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      if (this == pObj) {
+        return true;
+      }
+      return pObj instanceof LockTreeNode && lockIds.equals(((LockTreeNode) pObj).lockIds);
+    }
+
+    @Override
+    public String toString() {
+      return getSortedLocks().toString();
     }
   }
 
@@ -384,7 +461,7 @@ public final class LockState extends AbstractLockState {
 
   @Override
   public CompatibleNode getCompatibleNode() {
-    return new LockTreeNode(locks.keySet());
+    return LockTreeNode.of(locks.keySet());
   }
 
   @Override
@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.cpa.octagon;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -17,6 +18,7 @@ import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
+import org.sosy_lab.cpachecker.core.defaults.PackedAnalysis;
 import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
 import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
@@ -49,6 +51,14 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
       description="this option determines which initial precision should be used")
   private String precisionType = "STATIC_FULL";
 
+  @Option(
+      secure = true,
+      description =
+          "track one octagon per pack of dependent variables instead of one octagon for all"
+              + " variables. The packs are computed from the variable classification, this is"
+              + " only supported with a static precision.")
+  private boolean variablePacking = false;
+
   private final AbstractDomain abstractDomain;
   private final TransferRelation transferRelation;
   private final MergeOperator mergeOperator;
@@ -59,6 +69,7 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
   private final ShutdownNotifier shutdownNotifier;
   private final CFA cfa;
   private final OctagonManager octagonManager;
+  private final @Nullable PackedAnalysis packedAnalysis;
 
   private OctagonCPA(Configuration config, LogManager log,
                      ShutdownNotifier shutdownNotifier, CFA cfa)
@@ -76,11 +87,32 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
       octagonManager = new OctagonIntManager();
     }
 
-    this.transferRelation =
+    TransferRelation octagonTransfer =
         new OctagonTransferRelation(logger, cfa.getLoopStructure().orElseThrow());
-    this.abstractDomain = octagonDomain;
-    this.mergeOperator = OctagonMergeOperator.getInstance(octagonDomain, config);
-    this.stopOperator = new StopSepOperator(octagonDomain);
+    MergeOperator octagonMerge = OctagonMergeOperator.getInstance(octagonDomain, config);
+
+    if (variablePacking) {
+      packedAnalysis =
+          PackedAnalysis.create(
+              "octagon",
+              precisionType.equals("STATIC_FULL"),
+              config,
+              logger,
+              cfa,
+              octagonDomain,
+              octagonTransfer,
+              octagonMerge);
+      this.transferRelation = packedAnalysis.getTransferRelation();
+      this.abstractDomain = packedAnalysis.getAbstractDomain();
+      this.mergeOperator = packedAnalysis.getMergeOperator();
+      this.stopOperator = packedAnalysis.getStopOperator();
+    } else {
+      packedAnalysis = null;
+      this.transferRelation = octagonTransfer;
+      this.abstractDomain = octagonDomain;
+      this.mergeOperator = octagonMerge;
+      this.stopOperator = new StopSepOperator(octagonDomain);
+    }
     this.config = config;
     this.shutdownNotifier = shutdownNotifier;
     this.cfa = cfa;
@@ -122,6 +154,9 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
 
   @Override
   public AbstractState getInitialState(CFANode pNode, StateSpacePartition pPartition) {
+    if (packedAnalysis != null) {
+      return packedAnalysis.createInitialState(() -> new OctagonState(logger, octagonManager));
+    }
     return new OctagonState(logger, octagonManager);
   }
 
@@ -0,0 +1,82 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+
+/**
+ * Solver environments that are kept open for incremental boolean abstractions, by location and the
+ * (uninstantiated) predicates whose definitions are asserted, in LRU order. At most a given number
+ * of environments is kept, the least recently used ones are closed.
+ *
+ * <p>The cache is owned by the CPA and shared by all its {@link PredicateAbstractionManager}s.
+ * An environment is leased exclusively by one manager (cf. {@link #take(CFANode, ImmutableSet)})
+ * and put back after use, so managers on different threads never use the same environment
+ * concurrently.
+ */
+final class IncrementalProverCache implements AutoCloseable {
+
+  private final int maxProvers;
+
+  private final Map<Pair<CFANode, ImmutableSet<AbstractionPredicate>>, ProverEnvironment> provers =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  IncrementalProverCache(int pMaxProvers) {
+    checkArgument(pMaxProvers > 0);
+    maxProvers = pMaxProvers;
+  }
+
+  /**
+   * Remove the environment for the given location and predicates from the cache and return it, or
+   * return null if there is none. The caller has to put it back with {@link #put(CFANode,
+   * ImmutableSet, ProverEnvironment)} or close it.
+   */
+  synchronized @Nullable ProverEnvironment take(
+      CFANode pLocation, ImmutableSet<AbstractionPredicate> pPredicates) {
+    return provers.remove(Pair.of(pLocation, pPredicates));
+  }
+
+  /**
+   * Put an environment into the cache. The least recently used environment is closed if the cache
+   * is full, as is an environment that was put for the same key in the meantime.
+   */
+  synchronized void put(
+      CFANode pLocation,
+      ImmutableSet<AbstractionPredicate> pPredicates,
+      ProverEnvironment pProver) {
+    ProverEnvironment previous = provers.put(Pair.of(pLocation, pPredicates), pProver);
+    if (previous != null) {
+      previous.close();
+    }
+    if (provers.size() > maxProvers) {
+      Map.Entry<Pair<CFANode, ImmutableSet<AbstractionPredicate>>, ProverEnvironment> eldest =
+          provers.entrySet().iterator().next();
+      provers.remove(eldest.getKey());
+      eldest.getValue().close();
+    }
+  }
+
+  /**
+   * Close all environments in the cache. The cache can still be used afterwards, environments that
+   * are currently leased are put back as usual.
+   */
+  @Override
+  public synchronized void close() {
+    provers.values().forEach(ProverEnvironment::close);
+    provers.clear();
+  }
+}
@@ -0,0 +1,214 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Checks the truth values of predicates for a cartesian abstraction in parallel. Each thread has
+ * its own solver instance, because solver contexts cannot be used concurrently. The formulas are
+ * translated into the contexts of all solvers on the calling thread before the checks are started.
+ *
+ * <p>Each call leases the workers it uses from a pool of idle workers and returns them afterwards,
+ * so concurrent calls (e.g., from parallel BAM) use disjoint workers instead of waiting for each
+ * other.
+ */
+final class ParallelCartesianAbstraction implements AutoCloseable {
+
+  static final byte PREDICATE_FALSE = -1;
+  static final byte PREDICATE_UNKNOWN = 0;
+  static final byte PREDICATE_TRUE = 1;
+
+  /** A solver that is used by at most one thread at a time, together with its solving timer. */
+  private static final class Worker {
+    private final Solver solver;
+    private final TimerWrapper solveTimer;
+
+    private Worker(Solver pSolver, TimerWrapper pSolveTimer) {
+      solver = pSolver;
+      solveTimer = pSolveTimer;
+    }
+  }
+
+  private final ImmutableList<Worker> workers;
+  private final BlockingQueue<Worker> idleWorkers;
+  private final ExecutorService executor;
+
+  private ParallelCartesianAbstraction(ImmutableList<Worker> pWorkers) {
+    workers = pWorkers;
+    idleWorkers = new LinkedBlockingQueue<>(workers);
+    executor =
+        Executors.newFixedThreadPool(
+            workers.size(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("cartesian-abstraction-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  static ParallelCartesianAbstraction create(
+      int pNumSolvers,
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      PredicateAbstractionStatistics pStats)
+      throws InvalidConfigurationException {
+    checkArgument(pNumSolvers > 0);
+    ImmutableList.Builder<Worker> workers = ImmutableList.builder();
+    for (int i = 0; i < pNumSolvers; i++) {
+      workers.add(
+          new Worker(
+              Solver.create(pConfig, pLogger, pShutdownNotifier),
+              pStats.parallelCartesianSolveTime.getNewTimer()));
+    }
+    return new ParallelCartesianAbstraction(workers.build());
+  }
+
+  /**
+   * Check for each of the given atoms whether it is implied by the formula, or whether its
+   * negation is implied. The atoms are distributed round-robin over the workers of this call: the
+   * call waits for one idle worker and additionally takes all other idle workers that are needed.
+   *
+   * @param f The formula to abstract, needs to be satisfiable.
+   * @param fmgr The formula manager of f and the atoms.
+   * @param atoms The instantiated atoms of the predicates.
+   * @return for each atom one of {@link #PREDICATE_TRUE}, {@link #PREDICATE_FALSE}, or {@link
+   *     #PREDICATE_UNKNOWN}
+   */
+  byte[] checkPredicates(BooleanFormula f, FormulaManagerView fmgr, List<BooleanFormula> atoms)
+      throws SolverException, InterruptedException {
+    List<Worker> leasedWorkers = new ArrayList<>(workers.size());
+    leasedWorkers.add(idleWorkers.take());
+    idleWorkers.drainTo(leasedWorkers, Math.min(workers.size(), atoms.size()) - 1);
+
+    final int numTasks = leasedWorkers.size();
+    List<Future<byte[]>> tasks = new ArrayList<>(numTasks);
+    // Each worker is returned exactly once, by whoever claims it first: its task when it starts
+    // (which returns the worker when it is finished), or this thread if the task never started.
+    List<AtomicBoolean> claims = new ArrayList<>(numTasks);
+    try {
+      for (int task = 0; task < numTasks; task++) {
+        Worker worker = leasedWorkers.get(task);
+        FormulaManagerView taskFmgr = worker.solver.getFormulaManager();
+        BooleanFormula taskFormula = taskFmgr.translateFrom(f, fmgr);
+        List<BooleanFormula> taskAtoms = new ArrayList<>();
+        for (int i = task; i < atoms.size(); i += numTasks) {
+          taskAtoms.add(taskFmgr.translateFrom(atoms.get(i), fmgr));
+        }
+        AtomicBoolean claim = new AtomicBoolean();
+        tasks.add(
+            executor.submit(
+                () -> {
+                  if (!claim.compareAndSet(false, true)) {
+                    return null; // cancelled, the worker was already returned
+                  }
+                  try {
+                    return checkPredicates(worker, taskFormula, taskAtoms);
+                  } finally {
+                    idleWorkers.add(worker);
+                  }
+                }));
+        claims.add(claim);
+      }
+
+      byte[] result = new byte[atoms.size()];
+      Throwable failure = null;
+      for (int task = 0; task < numTasks; task++) {
+        try {
+          byte[] taskResult = tasks.get(task).get();
+          for (int i = task, j = 0; i < atoms.size(); i += numTasks, j++) {
+            result[i] = taskResult[j];
+          }
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+        }
+      }
+      if (failure != null) {
+        Throwables.propagateIfPossible(failure, SolverException.class, InterruptedException.class);
+        throw new AssertionError("Unexpected exception during cartesian abstraction", failure);
+      }
+      return result;
+
+    } catch (InterruptedException e) {
+      for (int task = 0; task < tasks.size(); task++) {
+        tasks.get(task).cancel(true);
+        if (claims.get(task).compareAndSet(false, true)) {
+          idleWorkers.add(leasedWorkers.get(task));
+        }
+      }
+      throw e;
+    } finally {
+      // workers without a task (e.g., if the translation failed) are returned here
+      idleWorkers.addAll(leasedWorkers.subList(claims.size(), numTasks));
+    }
+  }
+
+  private static byte[] checkPredicates(Worker worker, BooleanFormula f, List<BooleanFormula> atoms)
+      throws SolverException, InterruptedException {
+    BooleanFormulaManagerView bfmgr = worker.solver.getFormulaManager().getBooleanFormulaManager();
+    byte[] result = new byte[atoms.size()];
+    worker.solveTimer.start();
+    try (ProverEnvironment prover = worker.solver.newProverEnvironment()) {
+      prover.push(f);
+      for (int i = 0; i < atoms.size(); i++) {
+        BooleanFormula atom = atoms.get(i);
+        result[i] = PREDICATE_UNKNOWN;
+
+        prover.push(bfmgr.not(atom));
+        boolean isTrue = prover.isUnsat();
+        prover.pop();
+        if (isTrue) {
+          result[i] = PREDICATE_TRUE;
+        } else {
+          prover.push(atom);
+          boolean isFalse = prover.isUnsat();
+          prover.pop();
+          if (isFalse) {
+            result[i] = PREDICATE_FALSE;
+          }
+        }
+      }
+    } finally {
+      worker.solveTimer.stop();
+    }
+    return result;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    workers.forEach(worker -> worker.solver.close());
+  }
+}
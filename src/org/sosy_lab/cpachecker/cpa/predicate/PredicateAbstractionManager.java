@@ -29,6 +29,7 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,7 @@ import org.sosy_lab.cpachecker.cpa.callstack.CallstackStateEqualsWrapper;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage.AbstractionNode;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.jfr.AbstractionEvent;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionFormula;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
@@ -68,6 +70,7 @@ import org.sosy_lab.cpachecker.util.predicates.weakening.WeakeningOptions;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
 import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -113,6 +116,14 @@ public class PredicateAbstractionManager {
   // 1: predicate is true
   private final Map<Pair<BooleanFormula, AbstractionPredicate>, Byte> cartesianAbstractionCache;
 
+  private final @Nullable ParallelCartesianAbstraction parallelCartesianAbstraction;
+
+  // open solver environments for boolean abstraction, possibly shared with other managers
+  private final @Nullable IncrementalProverCache incrementalProvers;
+
+  // set by other threads (cf. requestCacheEviction), handled before the next abstraction
+  private volatile boolean cacheEvictionRequested = false;
+
   // Statistics
   private final TimerWrapper trivialPredicatesTimer;
   private final TimerWrapper quantifierEliminationTimer;
@@ -135,6 +146,36 @@ public class PredicateAbstractionManager {
       ShutdownNotifier pShutdownNotifier,
       PredicateAbstractionStatistics pAbstractionStats,
       InvariantSupplier pInvariantsSupplier) {
+    this(
+        pAmgr,
+        pPfmgr,
+        pSolver,
+        pOptions,
+        weakeningOptions,
+        pAbstractionStorage,
+        pLogger,
+        pShutdownNotifier,
+        pAbstractionStats,
+        pInvariantsSupplier,
+        null,
+        pOptions.getIncrementalProvers() > 0
+            ? new IncrementalProverCache(pOptions.getIncrementalProvers())
+            : null);
+  }
+
+  PredicateAbstractionManager(
+      AbstractionManager pAmgr,
+      PathFormulaManager pPfmgr,
+      Solver pSolver,
+      PredicateAbstractionManagerOptions pOptions,
+      WeakeningOptions weakeningOptions,
+      PredicateAbstractionsStorage pAbstractionStorage,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      PredicateAbstractionStatistics pAbstractionStats,
+      InvariantSupplier pInvariantsSupplier,
+      @Nullable ParallelCartesianAbstraction pParallelCartesianAbstraction,
+      @Nullable IncrementalProverCache pIncrementalProvers) {
     shutdownNotifier = pShutdownNotifier;
 
     options = pOptions;
@@ -175,6 +216,18 @@ public class PredicateAbstractionManager {
       cartesianAbstractionCache = null;
     }
 
+    if (options.getAbstractionType() != AbstractionType.BOOLEAN) {
+      parallelCartesianAbstraction = pParallelCartesianAbstraction;
+    } else {
+      parallelCartesianAbstraction = null;
+    }
+
+    if (options.getAbstractionType() == AbstractionType.BOOLEAN) {
+      incrementalProvers = pIncrementalProvers;
+    } else {
+      incrementalProvers = null;
+    }
+
     abstractionStorage = pAbstractionStorage;
 
     trivialPredicatesTimer = stats.trivialPredicatesTime.getNewTimer();
@@ -229,6 +282,38 @@ public class PredicateAbstractionManager {
       unsatisfiabilityCache.clear();
     }
   }
+
+  /**
+   * Request that all caches and open solver environments of this manager are dropped before the
+   * next abstraction, e.g., to reduce memory usage. This method is thread-safe, the caches are
+   * cleared by the thread that uses this manager.
+   */
+  public void requestCacheEviction() {
+    cacheEvictionRequested = true;
+  }
+
+  private void evictCachesIfRequested() {
+    if (cacheEvictionRequested) {
+      cacheEvictionRequested = false;
+      clear();
+      if (cartesianAbstractionCache != null) {
+        cartesianAbstractionCache.clear();
+      }
+      close();
+    }
+  }
+
+  /**
+   * Close the solver environments that are kept open for incremental boolean abstractions. This
+   * affects all managers that share the environments of this manager. The manager can still be
+   * used afterwards, but has to create new environments.
+   */
+  public void close() {
+    if (incrementalProvers != null) {
+      incrementalProvers.close();
+    }
+  }
+
   /**
    * Compute an abstraction of the conjunction of an AbstractionFormula and
    * a PathFormula. The AbstractionFormula will be used in its instantiated form,
@@ -246,6 +331,30 @@ public class PredicateAbstractionManager {
       final PathFormula pathFormula,
       final Collection<AbstractionPredicate> pPredicates)
       throws SolverException, InterruptedException {
+    evictCachesIfRequested();
+
+    AbstractionEvent event = new AbstractionEvent();
+    event.begin();
+    AbstractionFormula result =
+        buildAbstraction0(
+            location, callstackInformation, abstractionFormula, pathFormula, pPredicates);
+    event.end();
+    if (event.shouldCommit()) {
+      event.location = location.getNodeNumber();
+      event.predicates = pPredicates.size();
+      event.isFalse = result.isFalse();
+      event.commit();
+    }
+    return result;
+  }
+
+  private AbstractionFormula buildAbstraction0(
+      final CFANode location,
+      Optional<CallstackStateEqualsWrapper> callstackInformation,
+      final AbstractionFormula abstractionFormula,
+      final PathFormula pathFormula,
+      final Collection<AbstractionPredicate> pPredicates)
+      throws SolverException, InterruptedException {
 
     int currentAbstractionId = stats.numCallsAbstraction.getAndIncrement();
 
@@ -373,6 +482,13 @@ public class PredicateAbstractionManager {
     } else if (options.getAbstractionType() == AbstractionType.CARTESIAN_BY_WEAKENING) {
       abs = rmgr.makeAnd(abs, buildCartesianAbstractionUsingWeakening(f, ssa, remainingPredicates));
 
+    } else if (incrementalProvers != null
+        && !remainingPredicates.isEmpty()
+        && canInstantiateByVariables(remainingPredicates)) {
+      abs =
+          rmgr.makeAnd(
+              abs, computeBooleanAbstractionIncrementally(location, f, ssa, remainingPredicates));
+
     } else {
       abs = rmgr.makeAnd(abs, computeAbstraction(f, remainingPredicates, instantiator));
     }
@@ -810,6 +926,11 @@ public class PredicateAbstractionManager {
 
       // check whether each of the predicate is implied in the next state...
 
+      final Map<AbstractionPredicate, Byte> parallelResults =
+          parallelCartesianAbstraction == null
+              ? ImmutableMap.of()
+              : checkPredicatesInParallel(f, pPredicates, instantiator);
+
       final Iterator<AbstractionPredicate> predicateIt = pPredicates.iterator();
       while (predicateIt.hasNext()) {
         final AbstractionPredicate p = predicateIt.next();
@@ -833,47 +954,23 @@ public class PredicateAbstractionManager {
           abstractionBddConstructionTimer.stop();
 
         } else {
-          logger.log(Level.ALL, "DEBUG_1",
-              "CHECKING VALUE OF PREDICATE: ", p.getSymbolicAtom());
-
-          // instantiate the definition of the predicate
-          BooleanFormula predTrue = instantiator.apply(p.getSymbolicAtom());
-          BooleanFormula predFalse = bfmgr.not(predTrue);
-
-          // check whether this predicate has a truth value in the next
-          // state
-          byte predVal = 0; // pred is neither true nor false
-
-          thmProver.push(predFalse);
-          boolean isTrue = thmProver.isUnsat();
-          thmProver.pop();
-
-          if (isTrue) {
+          // check whether this predicate has a truth value in the next state
+          Byte parallelResult = parallelResults.get(p);
+          byte predVal =
+              parallelResult != null
+                  ? parallelResult
+                  : checkPredicate(thmProver, instantiator.apply(p.getSymbolicAtom()));
+
+          if (predVal != ParallelCartesianAbstraction.PREDICATE_UNKNOWN) {
             stats.numCartesianAbsPredicates.incrementAndGet();
             abstractionBddConstructionTimer.start();
             Region v = p.getAbstractVariable();
+            if (predVal == ParallelCartesianAbstraction.PREDICATE_FALSE) {
+              v = rmgr.makeNot(v);
+            }
             absbdd = rmgr.makeAnd(absbdd, v);
             predicateIt.remove(); // mark predicate as handled
             abstractionBddConstructionTimer.stop();
-
-            predVal = 1;
-          } else {
-            // check whether it's false...
-            thmProver.push(predTrue);
-            boolean isFalse = thmProver.isUnsat();
-            thmProver.pop();
-
-            if (isFalse) {
-              stats.numCartesianAbsPredicates.incrementAndGet();
-              abstractionBddConstructionTimer.start();
-              Region v = p.getAbstractVariable();
-              v = rmgr.makeNot(v);
-              absbdd = rmgr.makeAnd(absbdd, v);
-              predicateIt.remove(); // mark predicate as handled
-              abstractionBddConstructionTimer.stop();
-
-              predVal = -1;
-            }
           }
 
           if (options.isUseCache()) {
@@ -890,6 +987,61 @@ public class PredicateAbstractionManager {
     }
   }
 
+  /**
+   * Check whether the given (instantiated) predicate is true (1), false (-1), or neither (0) for
+   * the formula on the solver stack.
+   */
+  private byte checkPredicate(ProverEnvironment thmProver, BooleanFormula predTrue)
+      throws SolverException, InterruptedException {
+    logger.log(Level.ALL, "DEBUG_1", "CHECKING VALUE OF PREDICATE: ", predTrue);
+    BooleanFormula predFalse = bfmgr.not(predTrue);
+
+    thmProver.push(predFalse);
+    boolean isTrue = thmProver.isUnsat();
+    thmProver.pop();
+    if (isTrue) {
+      return ParallelCartesianAbstraction.PREDICATE_TRUE;
+    }
+
+    // check whether it's false...
+    thmProver.push(predTrue);
+    boolean isFalse = thmProver.isUnsat();
+    thmProver.pop();
+    return isFalse
+        ? ParallelCartesianAbstraction.PREDICATE_FALSE
+        : ParallelCartesianAbstraction.PREDICATE_UNKNOWN;
+  }
+
+  /**
+   * Check the values of all predicates that are not cached with the additional solvers of {@link
+   * ParallelCartesianAbstraction}. Returns an empty map if there are too few predicates to be
+   * worth it.
+   */
+  private Map<AbstractionPredicate, Byte> checkPredicatesInParallel(
+      final BooleanFormula f,
+      final Collection<AbstractionPredicate> pPredicates,
+      final Function<BooleanFormula, BooleanFormula> instantiator)
+      throws SolverException, InterruptedException {
+    List<AbstractionPredicate> predicates = new ArrayList<>();
+    List<BooleanFormula> atoms = new ArrayList<>();
+    for (AbstractionPredicate p : pPredicates) {
+      if (!options.isUseCache() || !cartesianAbstractionCache.containsKey(Pair.of(f, p))) {
+        predicates.add(p);
+        atoms.add(instantiator.apply(p.getSymbolicAtom()));
+      }
+    }
+    if (predicates.size() < 2) {
+      return ImmutableMap.of();
+    }
+
+    byte[] values = parallelCartesianAbstraction.checkPredicates(f, fmgr, atoms);
+    Map<AbstractionPredicate, Byte> result = new HashMap<>(predicates.size());
+    for (int i = 0; i < predicates.size(); i++) {
+      result.put(predicates.get(i), values[i]);
+    }
+    return result;
+  }
+
   /** Build cartesian abstraction using the inductive weakening approach. */
   private Region buildCartesianAbstractionUsingWeakening(
       final BooleanFormula f, final SSAMap ssa, final Collection<AbstractionPredicate> pPredicates)
@@ -958,44 +1110,146 @@ public class PredicateAbstractionManager {
       final Function<BooleanFormula, BooleanFormula> instantiator)
       throws InterruptedException, SolverException {
 
-    // build the definition of the predicates, and instantiate them
-    // also collect all predicate variables so that the solver knows for which
-    // variables we want to have the satisfying assignments
-    BooleanFormula predDef = bfmgr.makeTrue();
-    List<BooleanFormula> predVars = new ArrayList<>(predicates.size());
+    // the formula is (abstractionFormula & pathFormula & predDef)
+    thmProver.push(buildPredicateDefinitions(predicates, instantiator));
+    AllSatCallbackImpl callback = new AllSatCallbackImpl();
+    Region result = thmProver.allSat(callback, getPredicateVariables(predicates));
+
+    // pop() is actually costly sometimes, and we delete the environment anyway
+    // thmProver.pop();
+
+    updateAllSatStatistics(callback);
+
+    // Not strictly necessary, but mark all predicates as handled
+    predicates.clear();
+
+    return result;
+  }
+
+  /**
+   * Compute a boolean abstraction like {@link #computeBooleanAbstraction(ProverEnvironment,
+   * Collection, Function)}, but on a solver environment that is kept open for the given location
+   * and predicates. The environment has the uninstantiated predicate definitions asserted
+   * permanently, so it can be reused for abstractions with other SSA indices. Only the formula and
+   * the equalities between the uninstantiated and the instantiated variables of the predicates
+   * (cf. {@link #buildInstantiationConstraints(Collection, SSAMap)}) are pushed and popped.
+   */
+  private Region computeBooleanAbstractionIncrementally(
+      final CFANode location,
+      final BooleanFormula f,
+      final SSAMap ssa,
+      final Collection<AbstractionPredicate> predicates)
+      throws SolverException, InterruptedException {
+    stats.numBooleanAbsPredicates.addAndGet(predicates.size());
+    booleanAbstractionTimer.start();
+    try {
+      stats.numIncrementalAbstractions.incrementAndGet();
+      ImmutableSet<AbstractionPredicate> predicateSet = ImmutableSet.copyOf(predicates);
+      ProverEnvironment thmProver = incrementalProvers.take(location, predicateSet);
+      if (thmProver == null) {
+        thmProver = solver.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT);
+        thmProver.push(buildPredicateDefinitions(predicates, Functions.identity()));
+      } else {
+        stats.numIncrementalProverReuses.incrementAndGet();
+      }
+
+      boolean success = false;
+      thmProver.push(bfmgr.and(f, buildInstantiationConstraints(predicates, ssa)));
+      try {
+        AllSatCallbackImpl callback = new AllSatCallbackImpl();
+        Region result = thmProver.allSat(callback, getPredicateVariables(predicates));
+        updateAllSatStatistics(callback);
+        success = true;
+        return result;
+      } finally {
+        if (success) {
+          thmProver.pop();
+          incrementalProvers.put(location, predicateSet, thmProver);
+        } else {
+          // the state of the environment is unknown, do not reuse it
+          thmProver.close();
+        }
+      }
+
+    } finally {
+      booleanAbstractionTimer.stop();
+      // Not strictly necessary, but mark all predicates as handled
+      predicates.clear();
+    }
+  }
 
+  /**
+   * Check whether instantiating the given predicates only renames variables. Uninterpreted
+   * functions would be renamed, too, which cannot be expressed by equalities between variables.
+   */
+  private boolean canInstantiateByVariables(final Collection<AbstractionPredicate> predicates) {
+    for (AbstractionPredicate p : predicates) {
+      BooleanFormula atom = p.getSymbolicAtom();
+      if (fmgr.extractFunctionNames(atom).size() != fmgr.extractVariableNames(atom).size()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Build the conjunction of (var = instance of var) for all variables in the given predicates
+   * that are renamed when instantiating the predicates with the given SSA map. Together with the
+   * uninstantiated predicate definitions, this is equivalent to the instantiated definitions.
+   */
+  private BooleanFormula buildInstantiationConstraints(
+      final Collection<AbstractionPredicate> predicates, final SSAMap ssa) {
+    Map<String, Formula> variables = new LinkedHashMap<>();
+    for (AbstractionPredicate p : predicates) {
+      variables.putAll(fmgr.extractVariables(p.getSymbolicAtom()));
+    }
+    List<BooleanFormula> constraints = new ArrayList<>(variables.size());
+    for (Formula variable : variables.values()) {
+      Formula instance = fmgr.instantiate(variable, ssa);
+      if (!instance.equals(variable)) {
+        constraints.add(fmgr.makeEqual(variable, instance));
+      }
+    }
+    return bfmgr.and(constraints);
+  }
+
+  /**
+   * Build the definition of the predicates, and instantiate them, i.e., the conjunction of (var
+   * <-> def) for all predicates.
+   */
+  private BooleanFormula buildPredicateDefinitions(
+      final Collection<AbstractionPredicate> predicates,
+      final Function<BooleanFormula, BooleanFormula> instantiator) {
+    List<BooleanFormula> predDefs = new ArrayList<>(predicates.size());
     for (AbstractionPredicate p : predicates) {
       // get propositional variable and definition of predicate
       BooleanFormula var = p.getSymbolicVariable();
       final BooleanFormula def = instantiator.apply(p.getSymbolicAtom());
       assert !bfmgr.isFalse(def);
-
-      // build the formula (var <-> def) and add it to the list of definitions
-      BooleanFormula equiv = bfmgr.equivalence(var, def);
-      predDef = bfmgr.and(predDef, equiv);
-
-      predVars.add(var);
+      predDefs.add(bfmgr.equivalence(var, def));
     }
+    return bfmgr.and(predDefs);
+  }
 
-    // the formula is (abstractionFormula & pathFormula & predDef)
-    thmProver.push(predDef);
-    AllSatCallbackImpl callback = new AllSatCallbackImpl();
-    Region result = thmProver.allSat(callback, predVars);
-
-    // pop() is actually costly sometimes, and we delete the environment anyway
-    // thmProver.pop();
+  /**
+   * Collect all predicate variables so that the solver knows for which variables we want to have
+   * the satisfying assignments.
+   */
+  private static List<BooleanFormula> getPredicateVariables(
+      final Collection<AbstractionPredicate> predicates) {
+    List<BooleanFormula> predVars = new ArrayList<>(predicates.size());
+    for (AbstractionPredicate p : predicates) {
+      predVars.add(p.getSymbolicVariable());
+    }
+    return predVars;
+  }
 
-    // update statistics
+  private void updateAllSatStatistics(AllSatCallbackImpl callback) {
     int numModels = callback.getCount();
     if (numModels < Integer.MAX_VALUE) {
       stats.maxAllSatCount = Math.max(numModels, stats.maxAllSatCount);
       stats.allSatCount += numModels;
     }
-
-    // Not strictly necessary, but mark all predicates as handled
-    predicates.clear();
-
-    return result;
   }
 
   private class AllSatCallbackImpl implements AllSatCallback<Region> {
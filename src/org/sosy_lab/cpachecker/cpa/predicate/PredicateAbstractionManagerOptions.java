@@ -11,6 +11,7 @@ package org.sosy_lab.cpachecker.cpa.predicate;
 import java.nio.file.Path;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -50,6 +51,34 @@ public class PredicateAbstractionManagerOptions {
       description = "Max. number of edge of the abstraction tree to prescan for reuse")
   private int maxAbstractionReusePrescan = 1;
 
+  @Option(
+      secure = true,
+      name = "abstraction.cartesianParallelSolvers",
+      description =
+          "number of solver instances that check the predicates of a cartesian abstraction in"
+              + " parallel (0 checks them sequentially on the main solver). Each instance has its"
+              + " own solver context into which the formulas are translated, so this pays off only"
+              + " for abstractions with many predicates.")
+  @IntegerOption(min = 0)
+  private int cartesianParallelSolvers = 0;
+
+  @Option(
+      secure = true,
+      name = "abstraction.incrementalProvers",
+      description =
+          "number of solver environments that are kept open for boolean abstractions"
+              + " (0 creates a new environment for each abstraction). Each environment belongs to"
+              + " one abstraction location and set of predicates and has their uninstantiated"
+              + " definitions asserted permanently. Each abstraction there only pushes its formula"
+              + " and equalities that rename the predicate variables to their current SSA indices,"
+              + " such that the solver can reuse what it learned in earlier abstractions at this"
+              + " location. Predicates with uninterpreted functions cannot be renamed this way,"
+              + " abstractions with them always use a new environment. The statistics report how"
+              + " many abstractions reused an environment; if this rate is low, this option only"
+              + " costs memory.")
+  @IntegerOption(min = 0)
+  private int incrementalProvers = 0;
+
   @Option(secure = true, name = "abs.useCache", description = "use caching of abstractions")
   private boolean useCache = true;
 
@@ -106,6 +135,14 @@ public class PredicateAbstractionManagerOptions {
     return maxAbstractionReusePrescan;
   }
 
+  int getCartesianParallelSolvers() {
+    return cartesianParallelSolvers;
+  }
+
+  int getIncrementalProvers() {
+    return incrementalProvers;
+  }
+
   boolean isUseCache() {
     return useCache;
   }
@@ -0,0 +1,274 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.cpachecker.cfa.model.CFANode.newDummyCFANode;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier.TrivialInvariantSupplier;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionFormula;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
+import org.sosy_lab.cpachecker.util.predicates.regions.SymbolicRegionManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverViewBasedTest0;
+import org.sosy_lab.cpachecker.util.predicates.weakening.WeakeningOptions;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+
+public class PredicateAbstractionManagerTest extends SolverViewBasedTest0 {
+
+  private final CFANode location = newDummyCFANode("main");
+
+  private AbstractionManager amgr;
+  private PathFormulaManager pfmgr;
+
+  private PredicateAbstractionStatistics incrementalStats;
+  private PredicateAbstractionManager incrementalManager;
+  private PredicateAbstractionManager nonIncrementalManager;
+
+  private SSAMap ssa;
+  private List<AbstractionPredicate> predicates;
+
+  @Before
+  public void setUp() throws Exception {
+    amgr = new AbstractionManager(new SymbolicRegionManager(solver), config, logger, solver);
+    pfmgr =
+        new PathFormulaManagerImpl(
+            mgrv,
+            config,
+            logger,
+            ShutdownNotifier.createDummy(),
+            MachineModel.LINUX32,
+            Optional.empty(),
+            AnalysisDirection.FORWARD);
+
+    incrementalStats = new PredicateAbstractionStatistics();
+    incrementalManager = createManager(2, incrementalStats);
+    nonIncrementalManager = createManager(0, new PredicateAbstractionStatistics());
+
+    ssa =
+        SSAMap.emptySSAMap()
+            .builder()
+            .setIndex("x", CNumericTypes.INT, 1)
+            .setIndex("y", CNumericTypes.INT, 1)
+            .build();
+
+    predicates =
+        ImmutableList.of(
+            amgr.makePredicate(imgrv.greaterThan(var("x"), imgrv.makeNumber(0))),
+            amgr.makePredicate(imgrv.equal(var("y"), imgrv.makeNumber(0))),
+            amgr.makePredicate(imgrv.lessThan(var("x"), var("y"))));
+  }
+
+  @After
+  public void closeManagers() {
+    incrementalManager.close();
+    nonIncrementalManager.close();
+  }
+
+  private PredicateAbstractionManager createManager(
+      int pIncrementalProvers, PredicateAbstractionStatistics pStats) throws Exception {
+    Configuration managerConfig = createManagerConfig(pIncrementalProvers);
+    return new PredicateAbstractionManager(
+        amgr,
+        pfmgr,
+        solver,
+        new PredicateAbstractionManagerOptions(managerConfig),
+        new WeakeningOptions(managerConfig),
+        new PredicateAbstractionsStorage(null, logger, mgrv, null),
+        logger,
+        ShutdownNotifier.createDummy(),
+        pStats,
+        TrivialInvariantSupplier.INSTANCE);
+  }
+
+  private PredicateAbstractionManager createManager(
+      IncrementalProverCache pProvers, PredicateAbstractionStatistics pStats) throws Exception {
+    Configuration managerConfig = createManagerConfig(1);
+    return new PredicateAbstractionManager(
+        amgr,
+        pfmgr,
+        solver,
+        new PredicateAbstractionManagerOptions(managerConfig),
+        new WeakeningOptions(managerConfig),
+        new PredicateAbstractionsStorage(null, logger, mgrv, null),
+        logger,
+        ShutdownNotifier.createDummy(),
+        pStats,
+        TrivialInvariantSupplier.INSTANCE,
+        null,
+        pProvers);
+  }
+
+  private Configuration createManagerConfig(int pIncrementalProvers) throws Exception {
+    return Configuration.builder()
+        .copyFrom(config)
+        // the cache would answer repeated abstractions without using the solver
+        .setOption("cpa.predicate.abs.useCache", "false")
+        .setOption(
+            "cpa.predicate.abstraction.incrementalProvers", Integer.toString(pIncrementalProvers))
+        .build();
+  }
+
+  private IntegerFormula var(String pName) {
+    return mgrv.makeVariable(FormulaType.IntegerType, pName);
+  }
+
+  private IntegerFormula var(String pName, int pIndex) {
+    return mgrv.makeVariable(FormulaType.IntegerType, pName, pIndex);
+  }
+
+  private BooleanFormula abstractWith(PredicateAbstractionManager pManager, BooleanFormula pFormula)
+      throws Exception {
+    return abstractWith(pManager, pFormula, ssa);
+  }
+
+  private BooleanFormula abstractWith(
+      PredicateAbstractionManager pManager, BooleanFormula pFormula, SSAMap pSsa)
+      throws Exception {
+    PathFormula blockFormula =
+        new PathFormula(pFormula, pSsa, PointerTargetSet.emptyPointerTargetSet(), 1);
+    AbstractionFormula abstraction =
+        pManager.buildAbstraction(
+            location, Optional.empty(), pFormula, blockFormula, new ArrayList<>(predicates));
+    return abstraction.asFormula();
+  }
+
+  private void assertSameAbstraction(BooleanFormula pFormula) throws Exception {
+    assertSameAbstraction(pFormula, ssa);
+  }
+
+  private void assertSameAbstraction(BooleanFormula pFormula, SSAMap pSsa) throws Exception {
+    BooleanFormula expected = abstractWith(nonIncrementalManager, pFormula, pSsa);
+    BooleanFormula actual = abstractWith(incrementalManager, pFormula, pSsa);
+    assertThat(solver.isUnsat(bmgrv.not(bmgrv.equivalence(expected, actual)))).isTrue();
+  }
+
+  @Test
+  public void testIncrementalAbstractionEqualsNonIncremental() throws Exception {
+    List<BooleanFormula> formulas =
+        ImmutableList.of(
+            bmgrv.and(
+                imgrv.greaterThan(var("x", 1), imgrv.makeNumber(5)),
+                imgrv.greaterThan(var("y", 1), var("x", 1))),
+            bmgrv.and(
+                imgrv.equal(var("y", 1), imgrv.add(var("x", 1), imgrv.makeNumber(1))),
+                imgrv.lessThan(var("x", 1), imgrv.makeNumber(0))),
+            bmgrv.or(
+                imgrv.equal(var("y", 1), imgrv.makeNumber(0)),
+                imgrv.equal(var("x", 1), var("y", 1))),
+            bmgrv.and(
+                imgrv.greaterThan(var("x", 1), imgrv.makeNumber(0)),
+                imgrv.lessThan(var("x", 1), var("y", 1)),
+                imgrv.lessThan(var("y", 1), imgrv.makeNumber(0))));
+
+    // irrelevant predicates are dropped before the abstraction, so all formulas mention x and y
+    for (BooleanFormula formula : formulas) {
+      assertSameAbstraction(formula);
+    }
+
+    // all abstractions use the same location and predicates, so only the first one has to create
+    // a new solver environment
+    assertThat(incrementalStats.numIncrementalAbstractions.get()).isEqualTo(formulas.size());
+    assertThat(incrementalStats.numIncrementalProverReuses.get())
+        .isEqualTo(formulas.size() - 1);
+  }
+
+  @Test
+  public void testIncrementalAbstractionWithOtherIndices() throws Exception {
+    assertSameAbstraction(
+        bmgrv.and(
+            imgrv.greaterThan(var("x", 1), imgrv.makeNumber(5)),
+            imgrv.greaterThan(var("y", 1), var("x", 1))));
+
+    // the same predicates at the same location, but for other indices
+    SSAMap otherSsa =
+        SSAMap.emptySSAMap()
+            .builder()
+            .setIndex("x", CNumericTypes.INT, 2)
+            .setIndex("y", CNumericTypes.INT, 3)
+            .build();
+    assertSameAbstraction(
+        bmgrv.and(
+            imgrv.greaterThan(var("x", 2), imgrv.makeNumber(5)),
+            imgrv.greaterThan(var("y", 3), var("x", 2)),
+            // the old instances must not constrain the new ones
+            imgrv.lessThan(var("y", 1), imgrv.makeNumber(0))),
+        otherSsa);
+    assertSameAbstraction(
+        bmgrv.and(
+            imgrv.equal(var("y", 3), imgrv.makeNumber(0)),
+            imgrv.lessThan(var("x", 2), imgrv.makeNumber(0))),
+        otherSsa);
+
+    assertThat(incrementalStats.numIncrementalAbstractions.get()).isEqualTo(3);
+    assertThat(incrementalStats.numIncrementalProverReuses.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testAbstractionAfterClose() throws Exception {
+    BooleanFormula formula = imgrv.equal(var("x", 1), var("y", 1));
+    assertSameAbstraction(formula);
+
+    incrementalManager.close();
+    assertSameAbstraction(formula);
+    assertThat(incrementalStats.numIncrementalProverReuses.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void testManagersShareIncrementalProvers() throws Exception {
+    IncrementalProverCache provers = new IncrementalProverCache(1);
+    PredicateAbstractionStatistics stats = new PredicateAbstractionStatistics();
+    PredicateAbstractionManager first = createManager(provers, stats);
+    PredicateAbstractionManager second = createManager(provers, stats);
+    BooleanFormula formula = imgrv.equal(var("x", 1), var("y", 1));
+
+    try {
+      BooleanFormula expected = abstractWith(first, formula);
+      BooleanFormula actual = abstractWith(second, formula);
+      assertThat(solver.isUnsat(bmgrv.not(bmgrv.equivalence(expected, actual)))).isTrue();
+
+      // the second manager reuses the environment that the first one created
+      assertThat(stats.numIncrementalAbstractions.get()).isEqualTo(2);
+      assertThat(stats.numIncrementalProverReuses.get()).isEqualTo(1);
+    } finally {
+      provers.close();
+    }
+  }
+
+  @Test
+  public void testFalseAbstraction() throws Exception {
+    BooleanFormula formula =
+        bmgrv.and(
+            imgrv.greaterThan(var("x", 1), imgrv.makeNumber(0)),
+            imgrv.lessThan(var("x", 1), imgrv.makeNumber(0)));
+    BooleanFormula abstraction = abstractWith(incrementalManager, formula);
+    assertThat(bmgrv.isFalse(abstraction)).isTrue();
+  }
+}
@@ -37,6 +37,10 @@ public class PredicateAbstractionStatistics {
   final AtomicInteger numCartesianAbsPredicatesCached = new AtomicInteger(0);
   final AtomicInteger numBooleanAbsPredicates = new AtomicInteger(0);
 
+  // boolean abstractions with incremental solver environments, and how many reused one
+  final AtomicInteger numIncrementalAbstractions = new AtomicInteger(0);
+  final AtomicInteger numIncrementalProverReuses = new AtomicInteger(0);
+
   final ThreadSafeTimerContainer abstractionReuseTime =
       new ThreadSafeTimerContainer("Abstraction reuse");
   final ThreadSafeTimerContainer abstractionReuseImplicationTime =
@@ -61,6 +65,10 @@ public class PredicateAbstractionStatistics {
   final ThreadSafeTimerContainer abstractionSolveTime =
       new ThreadSafeTimerContainer("Time for abstraction solving");
 
+  // solving time of the additional solvers for cartesian abstractions, summed over all solvers
+  final ThreadSafeTimerContainer parallelCartesianSolveTime =
+      new ThreadSafeTimerContainer("Time for parallel cartesian abstraction solving");
+
   long allSatCount = 0;
   int maxAllSatCount = 0;
 
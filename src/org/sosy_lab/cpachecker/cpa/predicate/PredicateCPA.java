@@ -10,9 +10,13 @@ package org.sosy_lab.cpachecker.cpa.predicate;
 
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.configuration.Configuration;
@@ -58,6 +62,7 @@ import org.sosy_lab.cpachecker.util.predicates.regions.SymbolicRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.cpachecker.util.predicates.weakening.WeakeningOptions;
+import org.sosy_lab.cpachecker.util.resources.MemoryLimit;
 import org.sosy_lab.java_smt.api.SolverException;
 
 /**
@@ -121,6 +126,7 @@ public class PredicateCPA
   private final PredicateCPAStatistics stats;
   private final PredicatePrecisionBootstrapper precisionBootstraper;
   private final CFA cfa;
+  private final RegionManager regionManager;
   private final AbstractionManager abstractionManager;
   private final PredicateCPAInvariantsManager invariantsManager;
   private final BlockOperator blk;
@@ -131,6 +137,19 @@ public class PredicateCPA
   private final PredicateAbstractionManagerOptions abstractionOptions;
   private final WeakeningOptions weakeningOptions;
   private final PredicateAbstractionsStorage abstractionStorage;
+  private final @Nullable ParallelCartesianAbstraction parallelCartesianAbstraction;
+
+  // solver environments kept open by all managers, these need to be closed before the solver
+  private final @Nullable IncrementalProverCache incrementalProvers;
+
+  // all managers that were handed out, whose caches are cleared if memory gets low;
+  // held weakly because many callers create a new manager for each use
+  private final Set<PredicateAbstractionManager> managersForCacheEviction =
+      Collections.newSetFromMap(new WeakHashMap<>());
+
+  // registered with the first manager that is handed out (guarded by managersForCacheEviction)
+  private MemoryLimit.@Nullable PressureListener memoryPressureListener = null;
+
   private final PredicateAbstractionStatistics abstractionStats =
       new PredicateAbstractionStatistics();
 
@@ -171,7 +190,6 @@ public class PredicateCPA
     }
     pathFormulaManager = pfMgr;
 
-    RegionManager regionManager;
     if (abstractionType.equals("FORMULA") || blk.alwaysReturnsFalse()) {
       // No need to load BDD library if we never abstract (might use lots of memory)
       regionManager = new SymbolicRegionManager(solver);
@@ -196,6 +214,21 @@ public class PredicateCPA
             solver.getFormulaManager(),
             null);
     weakeningOptions = new WeakeningOptions(config);
+    incrementalProvers =
+        abstractionOptions.getIncrementalProvers() > 0
+            ? new IncrementalProverCache(abstractionOptions.getIncrementalProvers())
+            : null;
+    if (abstractionOptions.getCartesianParallelSolvers() > 0) {
+      parallelCartesianAbstraction =
+          ParallelCartesianAbstraction.create(
+              abstractionOptions.getCartesianParallelSolvers(),
+              config,
+              logger,
+              pShutdownNotifier,
+              abstractionStats);
+    } else {
+      parallelCartesianAbstraction = null;
+    }
 
     statistics = new PredicateStatistics();
     options = new PredicateCpaOptions(config);
@@ -275,19 +308,44 @@ public class PredicateCPA
   }
 
   public PredicateAbstractionManager getPredicateManager() {
-    return new PredicateAbstractionManager(
-        abstractionManager,
-        pathFormulaManager,
-        solver,
-        abstractionOptions,
-        weakeningOptions,
-        abstractionStorage,
-        logger,
-        shutdownNotifier,
-        abstractionStats,
-        invariantsManager.appendToAbstractionFormula()
-            ? invariantsManager
-            : TrivialInvariantSupplier.INSTANCE);
+    PredicateAbstractionManager predicateManager =
+        new PredicateAbstractionManager(
+            abstractionManager,
+            pathFormulaManager,
+            solver,
+            abstractionOptions,
+            weakeningOptions,
+            abstractionStorage,
+            logger,
+            shutdownNotifier,
+            abstractionStats,
+            invariantsManager.appendToAbstractionFormula()
+                ? invariantsManager
+                : TrivialInvariantSupplier.INSTANCE,
+            parallelCartesianAbstraction,
+            incrementalProvers);
+    synchronized (managersForCacheEviction) {
+      managersForCacheEviction.add(predicateManager);
+      if (memoryPressureListener == null) {
+        memoryPressureListener = createMemoryPressureListener(managersForCacheEviction, logger);
+        MemoryLimit.registerPressureListener(memoryPressureListener);
+      }
+    }
+    return predicateManager;
+  }
+
+  /**
+   * Create the listener that clears the caches of the given managers. It is static such that the
+   * registered listener does not keep this CPA reachable.
+   */
+  private static MemoryLimit.PressureListener createMemoryPressureListener(
+      Set<PredicateAbstractionManager> pManagers, LogManager pLogger) {
+    return () -> {
+      pLogger.log(Level.INFO, "Memory is getting low, clearing caches of predicate abstraction.");
+      synchronized (pManagers) {
+        pManagers.forEach(PredicateAbstractionManager::requestCacheEviction);
+      }
+    };
   }
 
   public PathFormulaManager getPathFormulaManager() {
@@ -345,6 +403,20 @@ public class PredicateCPA
 
   @Override
   public void close() {
+    synchronized (managersForCacheEviction) {
+      if (memoryPressureListener != null) {
+        MemoryLimit.unregisterPressureListener(memoryPressureListener);
+        memoryPressureListener = null;
+      }
+      managersForCacheEviction.clear();
+    }
+    if (incrementalProvers != null) {
+      incrementalProvers.close();
+    }
+    if (parallelCartesianAbstraction != null) {
+      parallelCartesianAbstraction.close();
+    }
+    regionManager.close();
     solver.close();
   }
 
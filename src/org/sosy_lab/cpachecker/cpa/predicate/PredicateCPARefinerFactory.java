@@ -109,13 +109,38 @@ public class PredicateCPARefinerFactory {
    */
   public ARGBasedRefiner create(RefinementStrategy pRefinementStrategy)
       throws InvalidConfigurationException {
+    return create(
+        pRefinementStrategy, predicateCpa.getSolver(), predicateCpa.getPathFormulaManager());
+  }
+
+  /**
+   * Create a {@link PredicateCPARefiner} that checks counterexamples and computes interpolants
+   * with the given solver instead of the solver of the PredicateCPA. The interpolants passed to
+   * the refinement strategy belong to the formula manager of the given solver.
+   * This factory can be reused afterwards.
+   * @param pRefinementStrategy The refinement strategy to use.
+   * @param pSolver The solver for the formulas of the refiner.
+   * @param pPfmgr A path-formula manager that creates formulas for the given solver.
+   * @return A fresh instance.
+   * @throws InvalidConfigurationException
+   *    If the static refinement is enabled together with a solver that is not the one
+   *    of the PredicateCPA.
+   */
+  public ARGBasedRefiner create(
+      RefinementStrategy pRefinementStrategy, Solver pSolver, PathFormulaManager pPfmgr)
+      throws InvalidConfigurationException {
     checkNotNull(pRefinementStrategy);
+    Solver solver = checkNotNull(pSolver);
+    PathFormulaManager pfmgr = checkNotNull(pPfmgr);
+    if (performInitialStaticRefinement && solver != predicateCpa.getSolver()) {
+      throw new InvalidConfigurationException(
+          "Static refinement is not supported with a separate solver for the refiner, "
+              + "please turn cpa.predicate.refinement.useStaticRefinement off.");
+    }
 
     Configuration config = predicateCpa.getConfiguration();
     LogManager logger = predicateCpa.getLogger();
     ShutdownNotifier shutdownNotifier = predicateCpa.getShutdownNotifier();
-    Solver solver = predicateCpa.getSolver();
-    PathFormulaManager pfmgr = predicateCpa.getPathFormulaManager();
 
     CFA cfa = predicateCpa.getCfa();
     MachineModel machineModel = cfa.getMachineModel();
@@ -127,7 +152,7 @@ public class PredicateCPARefinerFactory {
 
     PrefixProvider prefixProvider =
         new PredicateBasedPrefixProvider(
-            config, logger, solver, predicateCpa.getPathFormulaManager(), shutdownNotifier);
+            config, logger, solver, pfmgr, shutdownNotifier);
     PrefixSelector prefixSelector = new PrefixSelector(variableClassification, loopStructure);
 
     InterpolationManager interpolationManager =
@@ -14,6 +14,7 @@ import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.valueWithPercentage;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.SetMultimap;
 import java.io.IOException;
@@ -26,6 +27,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import org.sosy_lab.common.configuration.Configuration;
@@ -148,6 +150,17 @@ class PredicateCPAStatistics implements Statistics {
     return "PredicateCPA";
   }
 
+  @Override
+  public Map<String, Object> getLiveValues() {
+    return ImmutableMap.<String, Object>builder()
+        .put("solverTime", solver.solverTime.getSumTime().asMillis())
+        .put("satChecks", solver.satChecks)
+        .put("cachedSatChecks", solver.cachedSatChecks)
+        .put("abstractions", abstractionStats.numCallsAbstraction.get())
+        .put("cachedAbstractions", abstractionStats.numCallsAbstractionCached.get())
+        .build();
+  }
+
   /**
    * TreeMap to sort output for the user and sets for no duplication.
    */
@@ -312,6 +325,12 @@ class PredicateCPAStatistics implements Statistics {
         out.println("  Total number of models for allsat:      " + as.allSatCount);
         out.println("  Max number of models for allsat:        " + as.maxAllSatCount);
         out.println("  Avg number of models for allsat:        " + div(as.allSatCount, as.booleanAbstractionTime.getNumberOfIntervals()));
+        if (as.numIncrementalAbstractions.get() > 0) {
+          out.println(
+              "  Number of reused solver environments:   "
+                  + valueWithPercentage(
+                      as.numIncrementalProverReuses, as.numIncrementalAbstractions));
+        }
       }
     }
     out.println();
@@ -345,6 +364,14 @@ class PredicateCPAStatistics implements Statistics {
         out.println("    Abstraction reuse implication:  " + as.abstractionReuseImplicationTime);
       }
       out.println("    Solving time:                    " + as.abstractionSolveTime + " (Max: " + as.abstractionSolveTime.getMaxTime().formatAs(SECONDS) + ")");
+      if (as.parallelCartesianSolveTime.getNumberOfIntervals() > 0) {
+        out.println(
+            "    Parallel solving time:           "
+                + as.parallelCartesianSolveTime
+                + " (Max: "
+                + as.parallelCartesianSolveTime.getMaxTime().formatAs(SECONDS)
+                + ")");
+      }
       out.println(
           "    Model enumeration time:          "
               + as.abstractionModelEnumTime.getSumTime().formatAs(SECONDS));
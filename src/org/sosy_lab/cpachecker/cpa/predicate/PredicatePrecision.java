@@ -14,20 +14,29 @@ import static com.google.common.collect.FluentIterable.from;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Collections2;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.Sets;
+import com.google.errorprone.annotations.concurrent.LazyInit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.interfaces.AdjustablePrecision;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
@@ -106,12 +115,33 @@ public final class PredicatePrecision implements AdjustablePrecision {
     }
   }
 
-  private final ImmutableSetMultimap<LocationInstance, AbstractionPredicate>
+  /**
+   * Predicate sets are shared between all precisions (and between the keys of one precision), as
+   * long as they have the same predicates in the same order. Because the function and global
+   * predicates are included eagerly in the sets of all locations, many locations have equal sets,
+   * and precisions that are created from each other by refinement usually differ only for few
+   * locations. Without sharing, each new precision would copy all sets.
+   */
+  private static final Interner<ImmutableSet<AbstractionPredicate>> predicateSets =
+      Interners.newWeakInterner();
+
+  private final ImmutableMap<LocationInstance, ImmutableSet<AbstractionPredicate>>
       mLocationInstancePredicates;
-  private final ImmutableSetMultimap<CFANode, AbstractionPredicate> mLocalPredicates;
-  private final ImmutableSetMultimap<String, AbstractionPredicate> mFunctionPredicates;
+  private final ImmutableMap<CFANode, ImmutableSet<AbstractionPredicate>> mLocalPredicates;
+  private final ImmutableMap<String, ImmutableSet<AbstractionPredicate>> mFunctionPredicates;
   private final ImmutableSet<AbstractionPredicate> mGlobalPredicates;
 
+  // multimap views for the public getters, created on demand
+  @LazyInit
+  private @Nullable ImmutableSetMultimap<LocationInstance, AbstractionPredicate>
+      locationInstancePredicatesView;
+
+  @LazyInit
+  private @Nullable ImmutableSetMultimap<CFANode, AbstractionPredicate> localPredicatesView;
+
+  @LazyInit
+  private @Nullable ImmutableSetMultimap<String, AbstractionPredicate> functionPredicatesView;
+
   private static final PredicatePrecision EMPTY =
       new PredicatePrecision(
           ImmutableList.of(), ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
@@ -146,49 +176,89 @@ public final class PredicatePrecision implements AdjustablePrecision {
     // The following code achieves all these points by sorting keys by their natural order,
     // keeping the iteration order of the predicate sets as they are,
     // and merging the sets where necessary.
-    // It relies on the fact that a Multimap with treeKeys() and arrayListValues()
-    // produces exactly the iteration order that we want,
-    // and ImmutableSetMultimap.copyOf() preserves the order and removes duplicates.
-    // We do two copies of each map here, but we cannot do better for creating
-    // a sorted and immutable Multimap (even ImmutableMultimap.Builder copies twice when sorting).
     // Accepting Iterable<Map.Entry<...>> as parameters is no disadvantage here,
     // and makes mergeWith() and the various addSomethingPredicates() methods more efficient.
 
-    mGlobalPredicates = ImmutableSet.copyOf(pGlobalPredicates);
+    final ImmutableSet<AbstractionPredicate> globalPredicates =
+        intern(ImmutableSet.copyOf(pGlobalPredicates));
+    mGlobalPredicates = globalPredicates;
+
+    final ImmutableMap<String, ImmutableSet<AbstractionPredicate>> functionPredicates =
+        buildPredicateMap(pFunctionPredicates, function -> ImmutableList.of(globalPredicates));
+    mFunctionPredicates = functionPredicates;
+
+    final ImmutableMap<CFANode, ImmutableSet<AbstractionPredicate>> localPredicates =
+        buildPredicateMap(
+            pLocalPredicates,
+            node ->
+                ImmutableList.of(
+                    functionPredicates.getOrDefault(node.getFunctionName(), ImmutableSet.of()),
+                    globalPredicates));
+    mLocalPredicates = localPredicates;
+
+    mLocationInstancePredicates =
+        buildPredicateMap(
+            pLocationInstancePredicates,
+            location ->
+                ImmutableList.of(
+                    localPredicates.getOrDefault(location.getLocation(), ImmutableSet.of()),
+                    functionPredicates.getOrDefault(
+                        location.getFunctionName(), ImmutableSet.of()),
+                    globalPredicates));
+  }
 
-    Multimap<String, AbstractionPredicate> functionPredicates =
-        MultimapBuilder.treeKeys().arrayListValues().build();
-    putAll(pFunctionPredicates, functionPredicates);
-    for (String function : functionPredicates.keySet()) {
-      functionPredicates.putAll(function, mGlobalPredicates);
+  /**
+   * Group the given predicates by their keys, with the keys sorted by their natural order, and add
+   * the inherited predicates of each key after its own predicates.
+   */
+  private static <K extends Comparable<? super K>>
+      ImmutableMap<K, ImmutableSet<AbstractionPredicate>> buildPredicateMap(
+          Iterable<Map.Entry<K, AbstractionPredicate>> entries,
+          Function<K, List<ImmutableSet<AbstractionPredicate>>> inheritedPredicates) {
+    Map<K, ImmutableSet.Builder<AbstractionPredicate>> builders = new TreeMap<>();
+    for (Map.Entry<K, AbstractionPredicate> entry : entries) {
+      builders.computeIfAbsent(entry.getKey(), k -> ImmutableSet.builder()).add(entry.getValue());
     }
-    mFunctionPredicates = ImmutableSetMultimap.copyOf(functionPredicates);
-
-    Multimap<CFANode, AbstractionPredicate> localPredicates =
-        MultimapBuilder.treeKeys().arrayListValues().build();
-    putAll(pLocalPredicates, localPredicates);
-    for (CFANode node : localPredicates.keySet()) {
-      localPredicates.putAll(node, mFunctionPredicates.get(node.getFunctionName()));
-      localPredicates.putAll(node, mGlobalPredicates);
+    ImmutableMap.Builder<K, ImmutableSet<AbstractionPredicate>> result =
+        ImmutableMap.builderWithExpectedSize(builders.size());
+    for (Map.Entry<K, ImmutableSet.Builder<AbstractionPredicate>> entry : builders.entrySet()) {
+      ImmutableSet.Builder<AbstractionPredicate> predicates = entry.getValue();
+      for (ImmutableSet<AbstractionPredicate> inherited :
+          inheritedPredicates.apply(entry.getKey())) {
+        predicates.addAll(inherited);
+      }
+      result.put(entry.getKey(), intern(predicates.build()));
     }
-    mLocalPredicates = ImmutableSetMultimap.copyOf(localPredicates);
+    return result.build();
+  }
 
-    Multimap<LocationInstance, AbstractionPredicate> locationInstancePredicates =
-        MultimapBuilder.treeKeys().arrayListValues().build();
-    putAll(pLocationInstancePredicates, locationInstancePredicates);
-    for (LocationInstance location : locationInstancePredicates.keySet()) {
-      locationInstancePredicates.putAll(location, mLocalPredicates.get(location.getLocation()));
-      locationInstancePredicates.putAll(
-          location, mFunctionPredicates.get(location.getFunctionName()));
-      locationInstancePredicates.putAll(location, mGlobalPredicates);
-    }
-    mLocationInstancePredicates = ImmutableSetMultimap.copyOf(locationInstancePredicates);
+  /**
+   * Return a shared instance of the given set if there is one with the same predicates in the same
+   * order.
+   */
+  private static ImmutableSet<AbstractionPredicate> intern(
+      ImmutableSet<AbstractionPredicate> predicates) {
+    ImmutableSet<AbstractionPredicate> canonical = predicateSets.intern(predicates);
+    // ImmutableSet.equals() ignores the order, but we want to keep it
+    return canonical.asList().equals(predicates.asList()) ? canonical : predicates;
+  }
+
+  private static <K> FluentIterable<Map.Entry<K, AbstractionPredicate>> entries(
+      Map<K, ImmutableSet<AbstractionPredicate>> predicates) {
+    return from(predicates.entrySet())
+        .transformAndConcat(
+            entry ->
+                Collections2.transform(
+                    entry.getValue(), predicate -> Maps.immutableEntry(entry.getKey(), predicate)));
   }
 
-  private static <K, V> void putAll(Iterable<Map.Entry<K, V>> entries, Multimap<K, V> map) {
-    for (Map.Entry<K, V> entry : entries) {
-      map.put(entry.getKey(), entry.getValue());
+  private static <K> ImmutableSetMultimap<K, AbstractionPredicate> toMultimap(
+      Map<K, ImmutableSet<AbstractionPredicate>> predicates) {
+    ImmutableSetMultimap.Builder<K, AbstractionPredicate> result = ImmutableSetMultimap.builder();
+    for (Map.Entry<K, ImmutableSet<AbstractionPredicate>> entry : predicates.entrySet()) {
+      result.putAll(entry.getKey(), entry.getValue());
     }
+    return result.build();
   }
 
   /**
@@ -208,10 +278,10 @@ public final class PredicatePrecision implements AdjustablePrecision {
     }
 
     return new PredicatePrecision(
-        from(precisions).transformAndConcat(prec -> prec.getLocationInstancePredicates().entries()),
-        from(precisions).transformAndConcat(prec -> prec.getLocalPredicates().entries()),
-        from(precisions).transformAndConcat(prec -> prec.getFunctionPredicates().entries()),
-        from(precisions).transformAndConcat(prec -> prec.getGlobalPredicates()));
+        from(precisions).transformAndConcat(prec -> entries(prec.mLocationInstancePredicates)),
+        from(precisions).transformAndConcat(prec -> entries(prec.mLocalPredicates)),
+        from(precisions).transformAndConcat(prec -> entries(prec.mFunctionPredicates)),
+        from(precisions).transformAndConcat(prec -> prec.mGlobalPredicates));
   }
 
   /**
@@ -249,21 +319,30 @@ public final class PredicatePrecision implements AdjustablePrecision {
    */
   public final ImmutableSetMultimap<LocationInstance, AbstractionPredicate>
       getLocationInstancePredicates() {
-    return mLocationInstancePredicates;
+    if (locationInstancePredicatesView == null) {
+      locationInstancePredicatesView = toMultimap(mLocationInstancePredicates);
+    }
+    return locationInstancePredicatesView;
   }
 
   /**
    * Return a map view of the location-specific predicates of this precision.
    */
   public final ImmutableSetMultimap<CFANode, AbstractionPredicate> getLocalPredicates() {
-    return mLocalPredicates;
+    if (localPredicatesView == null) {
+      localPredicatesView = toMultimap(mLocalPredicates);
+    }
+    return localPredicatesView;
   }
 
   /**
    * Return a map view of the function-specific predicates of this precision.
    */
   public final ImmutableSetMultimap<String, AbstractionPredicate> getFunctionPredicates() {
-    return mFunctionPredicates;
+    if (functionPredicatesView == null) {
+      functionPredicatesView = toMultimap(mFunctionPredicates);
+    }
+    return functionPredicatesView;
   }
 
   /**
@@ -279,6 +358,10 @@ public final class PredicatePrecision implements AdjustablePrecision {
    * @param locInstance How often this location has appeared in the current path.
    */
   public final ImmutableSet<AbstractionPredicate> getPredicates(CFANode loc, int locInstance) {
+    if (mLocationInstancePredicates.isEmpty()) {
+      // avoid creating a LocationInstance in the common case
+      return getPredicates(loc, loc.getFunctionName());
+    }
     return getPredicates(new LocationInstance(loc, locInstance));
   }
 
@@ -286,16 +369,20 @@ public final class PredicatePrecision implements AdjustablePrecision {
    * Return all predicates for one specific location in this precision.
    */
   public final ImmutableSet<AbstractionPredicate> getPredicates(LocationInstance locationInstance) {
-    ImmutableSet<AbstractionPredicate> result =
-        getLocationInstancePredicates().get(locationInstance);
-    if (result.isEmpty()) {
-      result = getLocalPredicates().get(locationInstance.getLocation());
+    ImmutableSet<AbstractionPredicate> result = mLocationInstancePredicates.get(locationInstance);
+    if (result != null) {
+      return result;
     }
-    if (result.isEmpty()) {
-      result = getFunctionPredicates().get(locationInstance.getFunctionName());
+    return getPredicates(locationInstance.getLocation(), locationInstance.getFunctionName());
+  }
+
+  private ImmutableSet<AbstractionPredicate> getPredicates(CFANode loc, String function) {
+    ImmutableSet<AbstractionPredicate> result = mLocalPredicates.get(loc);
+    if (result == null) {
+      result = mFunctionPredicates.get(function);
     }
-    if (result.isEmpty()) {
-      result = getGlobalPredicates();
+    if (result == null) {
+      result = mGlobalPredicates;
     }
     return result;
   }
@@ -306,10 +393,10 @@ public final class PredicatePrecision implements AdjustablePrecision {
    */
   public PredicatePrecision addGlobalPredicates(Collection<AbstractionPredicate> newPredicates) {
     return new PredicatePrecision(
-        getLocationInstancePredicates(),
-        getLocalPredicates(),
-        getFunctionPredicates(),
-        Iterables.concat(getGlobalPredicates(), newPredicates));
+        entries(mLocationInstancePredicates),
+        entries(mLocalPredicates),
+        entries(mFunctionPredicates),
+        Iterables.concat(mGlobalPredicates, newPredicates));
   }
 
   /**
@@ -322,10 +409,10 @@ public final class PredicatePrecision implements AdjustablePrecision {
       return this;
     }
     return new PredicatePrecision(
-        getLocationInstancePredicates().entries(),
-        getLocalPredicates().entries(),
-        Iterables.concat(getFunctionPredicates().entries(), newPredicates),
-        getGlobalPredicates());
+        entries(mLocationInstancePredicates),
+        entries(mLocalPredicates),
+        Iterables.concat(entries(mFunctionPredicates), newPredicates),
+        mGlobalPredicates);
   }
 
   /**
@@ -338,10 +425,10 @@ public final class PredicatePrecision implements AdjustablePrecision {
       return this;
     }
     return new PredicatePrecision(
-        getLocationInstancePredicates().entries(),
-        Iterables.concat(getLocalPredicates().entries(), newPredicates),
-        getFunctionPredicates().entries(),
-        getGlobalPredicates());
+        entries(mLocationInstancePredicates),
+        Iterables.concat(entries(mLocalPredicates), newPredicates),
+        entries(mFunctionPredicates),
+        mGlobalPredicates);
   }
 
   /**
@@ -354,10 +441,10 @@ public final class PredicatePrecision implements AdjustablePrecision {
       return this;
     }
     return new PredicatePrecision(
-        Iterables.concat(getLocationInstancePredicates().entries(), newPredicates),
-        getLocalPredicates().entries(),
-        getFunctionPredicates().entries(),
-        getGlobalPredicates());
+        Iterables.concat(entries(mLocationInstancePredicates), newPredicates),
+        entries(mLocalPredicates),
+        entries(mFunctionPredicates),
+        mGlobalPredicates);
   }
 
   /**
@@ -368,16 +455,66 @@ public final class PredicatePrecision implements AdjustablePrecision {
     if (this == prec || this.isEmpty()) {
       return prec;
     }
-    if (prec.isEmpty()) {
+    if (prec.isEmpty() || contains(prec)) {
       return this;
     }
     return new PredicatePrecision(
         Iterables.concat(
-            getLocationInstancePredicates().entries(),
-            prec.getLocationInstancePredicates().entries()),
-        Iterables.concat(getLocalPredicates().entries(), prec.getLocalPredicates().entries()),
-        Iterables.concat(getFunctionPredicates().entries(), prec.getFunctionPredicates().entries()),
-        Iterables.concat(getGlobalPredicates(), prec.getGlobalPredicates()));
+            entries(mLocationInstancePredicates), entries(prec.mLocationInstancePredicates)),
+        Iterables.concat(entries(mLocalPredicates), entries(prec.mLocalPredicates)),
+        Iterables.concat(entries(mFunctionPredicates), entries(prec.mFunctionPredicates)),
+        Iterables.concat(mGlobalPredicates, prec.mGlobalPredicates));
+  }
+
+  /**
+   * Check whether merging the given precision into this one would not change this precision, i.e.,
+   * whether all its predicates are already present for the same keys.
+   */
+  private boolean contains(PredicatePrecision other) {
+    return mGlobalPredicates.containsAll(other.mGlobalPredicates)
+        && containsAll(mFunctionPredicates, other.mFunctionPredicates)
+        && containsAll(mLocalPredicates, other.mLocalPredicates)
+        && containsAll(mLocationInstancePredicates, other.mLocationInstancePredicates);
+  }
+
+  private static <K> boolean containsAll(
+      Map<K, ImmutableSet<AbstractionPredicate>> predicates,
+      Map<K, ImmutableSet<AbstractionPredicate>> otherPredicates) {
+    for (Map.Entry<K, ImmutableSet<AbstractionPredicate>> entry : otherPredicates.entrySet()) {
+      ImmutableSet<AbstractionPredicate> ownPredicates = predicates.get(entry.getKey());
+      if (ownPredicates == null
+          || (ownPredicates != entry.getValue() && !ownPredicates.containsAll(entry.getValue()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Count the predicates that are present for some key in the first map but not in the second. */
+  private static <K> int countMissing(
+      Map<K, ImmutableSet<AbstractionPredicate>> predicates,
+      Map<K, ImmutableSet<AbstractionPredicate>> otherPredicates) {
+    int missing = 0;
+    for (Map.Entry<K, ImmutableSet<AbstractionPredicate>> entry : predicates.entrySet()) {
+      ImmutableSet<AbstractionPredicate> other =
+          otherPredicates.getOrDefault(entry.getKey(), ImmutableSet.of());
+      if (other != entry.getValue()) {
+        missing += Sets.difference(entry.getValue(), other).size();
+      }
+    }
+    return missing;
+  }
+
+  /** The predicates of the first map that are not present for the same key in the second map. */
+  private static <K> FluentIterable<Map.Entry<K, AbstractionPredicate>> difference(
+      Map<K, ImmutableSet<AbstractionPredicate>> predicates,
+      Map<K, ImmutableSet<AbstractionPredicate>> otherPredicates) {
+    return entries(predicates)
+        .filter(
+            entry ->
+                !otherPredicates
+                    .getOrDefault(entry.getKey(), ImmutableSet.of())
+                    .contains(entry.getValue()));
   }
 
   /**
@@ -392,34 +529,27 @@ public final class PredicatePrecision implements AdjustablePrecision {
    */
   public int calculateDifferenceTo(PredicatePrecision other) {
     int difference = 0;
-    difference += Sets.difference(this.getGlobalPredicates(),
-                                  other.getGlobalPredicates()).size();
-
-    difference += Sets.difference(this.getFunctionPredicates().entries(),
-                                  other.getFunctionPredicates().entries()).size();
-
-    difference += Sets.difference(this.getLocalPredicates().entries(),
-                                  other.getLocalPredicates().entries()).size();
-
-    difference += Sets.difference(this.getLocationInstancePredicates().entries(),
-                                  other.getLocationInstancePredicates().entries()).size();
+    difference += Sets.difference(mGlobalPredicates, other.mGlobalPredicates).size();
+    difference += countMissing(mFunctionPredicates, other.mFunctionPredicates);
+    difference += countMissing(mLocalPredicates, other.mLocalPredicates);
+    difference += countMissing(mLocationInstancePredicates, other.mLocationInstancePredicates);
     return difference;
   }
 
   @Override
   public boolean isEmpty() {
-    return getGlobalPredicates().isEmpty()
-        && getFunctionPredicates().isEmpty()
-        && getLocalPredicates().isEmpty()
-        && getLocationInstancePredicates().isEmpty();
+    return mGlobalPredicates.isEmpty()
+        && mFunctionPredicates.isEmpty()
+        && mLocalPredicates.isEmpty()
+        && mLocationInstancePredicates.isEmpty();
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(getGlobalPredicates(),
-                             getFunctionPredicates(),
-                             getLocalPredicates(),
-                             getLocationInstancePredicates());
+    return Objects.hash(mGlobalPredicates,
+                             mFunctionPredicates,
+                             mLocalPredicates,
+                             mLocationInstancePredicates);
   }
 
   @Override
@@ -432,40 +562,40 @@ public final class PredicatePrecision implements AdjustablePrecision {
       return false;
     } else {
       PredicatePrecision other = (PredicatePrecision)pObj;
-      return getLocationInstancePredicates().equals(other.getLocationInstancePredicates())
-          && getLocalPredicates().equals(other.getLocalPredicates())
-          && getFunctionPredicates().equals(other.getFunctionPredicates())
-          && getGlobalPredicates().equals(other.getGlobalPredicates());
+      return mLocationInstancePredicates.equals(other.mLocationInstancePredicates)
+          && mLocalPredicates.equals(other.mLocalPredicates)
+          && mFunctionPredicates.equals(other.mFunctionPredicates)
+          && mGlobalPredicates.equals(other.mGlobalPredicates);
     }
   }
 
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
-    if (!getGlobalPredicates().isEmpty())  {
+    if (!mGlobalPredicates.isEmpty())  {
       sb.append("global predicates: ");
-      sb.append(getGlobalPredicates());
+      sb.append(mGlobalPredicates);
     }
-    if (!getFunctionPredicates().isEmpty()) {
+    if (!mFunctionPredicates.isEmpty()) {
       if (sb.length() > 0) {
         sb.append(", ");
       }
       sb.append("function predicates: ");
-      sb.append(getFunctionPredicates());
+      sb.append(mFunctionPredicates);
     }
-    if (!getLocalPredicates().isEmpty()) {
+    if (!mLocalPredicates.isEmpty()) {
       if (sb.length() > 0) {
         sb.append(", ");
       }
       sb.append("local predicates: ");
-      sb.append(getLocalPredicates());
+      sb.append(mLocalPredicates);
     }
-    if (!getLocationInstancePredicates().isEmpty()) {
+    if (!mLocationInstancePredicates.isEmpty()) {
       if (sb.length() > 0) {
         sb.append(", ");
       }
       sb.append("location-instance predicates: ");
-      sb.append(getLocationInstancePredicates());
+      sb.append(mLocationInstancePredicates);
     }
 
     if (sb.length() == 0) {
@@ -487,9 +617,9 @@ public final class PredicatePrecision implements AdjustablePrecision {
     PredicatePrecision other = (PredicatePrecision) pOtherPrecision;
 
     return new PredicatePrecision(
-        Sets.difference(mLocationInstancePredicates.entries(), other.getLocationInstancePredicates().entries()),
-        Sets.difference(mLocalPredicates.entries(), other.getLocalPredicates().entries()),
-        Sets.difference(mFunctionPredicates.entries(), other.getFunctionPredicates().entries()),
-        Sets.difference(this.getGlobalPredicates(), other.getGlobalPredicates()));
+        difference(mLocationInstancePredicates, other.mLocationInstancePredicates),
+        difference(mLocalPredicates, other.mLocalPredicates),
+        difference(mFunctionPredicates, other.mFunctionPredicates),
+        Sets.difference(mGlobalPredicates, other.mGlobalPredicates));
   }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -79,6 +80,17 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
     @Option(secure = true, description = "initial predicates are added as atomic predicates")
     private boolean splitIntoAtoms = false;
 
+    @Option(
+        secure = true,
+        description =
+            "function fingerprints (cf. option cfa.exportFingerprints) of the program version"
+                + " for which the initial predicates were computed. If given, location-specific"
+                + " predicates of unchanged functions are mapped to the corresponding locations"
+                + " of the current program, and those of changed functions are applied"
+                + " function-wide.")
+    @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+    private @Nullable Path previousFingerprints = null;
+
     public boolean applyFunctionWide() {
       return applyFunctionWide;
     }
@@ -91,6 +103,10 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
       return encodePredicates;
     }
 
+    public @Nullable Path getPreviousFingerprints() {
+      return previousFingerprints;
+    }
+
   }
 
   private final FormulaManagerView formulaManagerView;
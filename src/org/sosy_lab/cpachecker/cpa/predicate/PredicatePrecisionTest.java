@@ -0,0 +1,175 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.sosy_lab.cpachecker.cfa.model.CFANode.newDummyCFANode;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision.LocationInstance;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+
+public class PredicatePrecisionTest {
+
+  private AbstractionPredicate globalPred;
+  private AbstractionPredicate functionPred;
+  private AbstractionPredicate localPred;
+  private AbstractionPredicate instancePred;
+
+  private CFANode nodeInF;
+  private CFANode otherNodeInF;
+  private CFANode nodeInG;
+
+  private PredicatePrecision precision;
+
+  @Before
+  public void setUp() {
+    globalPred = mock(AbstractionPredicate.class);
+    functionPred = mock(AbstractionPredicate.class);
+    localPred = mock(AbstractionPredicate.class);
+    instancePred = mock(AbstractionPredicate.class);
+
+    nodeInF = newDummyCFANode("f");
+    otherNodeInF = newDummyCFANode("f");
+    nodeInG = newDummyCFANode("g");
+
+    precision =
+        new PredicatePrecision(
+            ImmutableSetMultimap.of(new LocationInstance(nodeInF, 1), instancePred),
+            ImmutableSetMultimap.of(nodeInF, localPred),
+            ImmutableSetMultimap.of("f", functionPred),
+            ImmutableList.of(globalPred));
+  }
+
+  @Test
+  public void testEmpty() {
+    PredicatePrecision empty = PredicatePrecision.empty();
+    assertThat(empty.isEmpty()).isTrue();
+    assertThat(empty.getPredicates(nodeInF, 0)).isEmpty();
+    assertThat(precision.isEmpty()).isFalse();
+  }
+
+  @Test
+  public void testLocationInstanceLookup() {
+    assertThat(precision.getPredicates(nodeInF, 1))
+        .containsExactly(instancePred, localPred, functionPred, globalPred)
+        .inOrder();
+    assertThat(precision.getPredicates(new LocationInstance(nodeInF, 1)))
+        .containsExactly(instancePred, localPred, functionPred, globalPred)
+        .inOrder();
+  }
+
+  @Test
+  public void testLocationLookup() {
+    assertThat(precision.getPredicates(nodeInF, 0))
+        .containsExactly(localPred, functionPred, globalPred)
+        .inOrder();
+  }
+
+  @Test
+  public void testFunctionLookup() {
+    assertThat(precision.getPredicates(otherNodeInF, 0))
+        .containsExactly(functionPred, globalPred)
+        .inOrder();
+  }
+
+  @Test
+  public void testGlobalLookup() {
+    assertThat(precision.getPredicates(nodeInG, 0)).containsExactly(globalPred);
+  }
+
+  @Test
+  public void testLookupWithoutLocationInstances() {
+    PredicatePrecision prec =
+        PredicatePrecision.empty()
+            .addGlobalPredicates(ImmutableList.of(globalPred))
+            .addLocalPredicates(ImmutableList.of(Maps.immutableEntry(nodeInF, localPred)));
+    assertThat(prec.getPredicates(nodeInF, 5)).containsExactly(localPred, globalPred).inOrder();
+    assertThat(prec.getPredicates(nodeInG, 5)).containsExactly(globalPred);
+  }
+
+  @Test
+  public void testViews() {
+    assertThat(precision.getGlobalPredicates()).containsExactly(globalPred);
+    assertThat(precision.getFunctionPredicates().get("f"))
+        .containsExactly(functionPred, globalPred);
+    assertThat(precision.getLocalPredicates().get(nodeInF))
+        .containsExactly(localPred, functionPred, globalPred);
+    assertThat(precision.getLocationInstancePredicates().keySet())
+        .containsExactly(new LocationInstance(nodeInF, 1));
+  }
+
+  @Test
+  public void testEqualsAndHashCode() {
+    PredicatePrecision sameFromAdding =
+        PredicatePrecision.empty()
+            .addGlobalPredicates(ImmutableList.of(globalPred))
+            .addFunctionPredicates(ImmutableList.of(Maps.immutableEntry("f", functionPred)))
+            .addLocalPredicates(ImmutableList.of(Maps.immutableEntry(nodeInF, localPred)))
+            .addLocationInstancePredicates(
+                ImmutableList.of(
+                    Maps.immutableEntry(new LocationInstance(nodeInF, 1), instancePred)));
+
+    assertThat(sameFromAdding).isEqualTo(precision);
+    assertThat(sameFromAdding.hashCode()).isEqualTo(precision.hashCode());
+
+    PredicatePrecision otherLocation =
+        PredicatePrecision.empty()
+            .addGlobalPredicates(ImmutableList.of(globalPred))
+            .addFunctionPredicates(ImmutableList.of(Maps.immutableEntry("f", functionPred)))
+            .addLocalPredicates(ImmutableList.of(Maps.immutableEntry(otherNodeInF, localPred)))
+            .addLocationInstancePredicates(
+                ImmutableList.of(
+                    Maps.immutableEntry(new LocationInstance(nodeInF, 1), instancePred)));
+    assertThat(otherLocation).isNotEqualTo(precision);
+    assertThat(PredicatePrecision.empty()).isNotEqualTo(precision);
+  }
+
+  @Test
+  public void testMergeWith() {
+    PredicatePrecision other =
+        PredicatePrecision.empty()
+            .addLocalPredicates(ImmutableList.of(Maps.immutableEntry(nodeInG, localPred)));
+
+    PredicatePrecision merged = precision.mergeWith(other);
+    assertThat(merged.getPredicates(nodeInF, 1))
+        .containsExactly(instancePred, localPred, functionPred, globalPred);
+    assertThat(merged.getPredicates(nodeInG, 0)).containsExactly(localPred, globalPred);
+    assertThat(merged).isEqualTo(other.mergeWith(precision));
+
+    // merging does not change the precision, if nothing new is added
+    assertThat(precision.mergeWith(PredicatePrecision.empty())).isSameInstanceAs(precision);
+    assertThat(PredicatePrecision.empty().mergeWith(precision)).isSameInstanceAs(precision);
+    assertThat(merged.mergeWith(precision)).isSameInstanceAs(merged);
+  }
+
+  @Test
+  public void testCalculateDifferenceTo() {
+    assertThat(precision.calculateDifferenceTo(precision)).isEqualTo(0);
+    assertThat(PredicatePrecision.empty().calculateDifferenceTo(precision)).isEqualTo(0);
+
+    PredicatePrecision local =
+        PredicatePrecision.empty()
+            .addLocalPredicates(ImmutableList.of(Maps.immutableEntry(nodeInF, localPred)));
+    PredicatePrecision otherLocal =
+        PredicatePrecision.empty()
+            .addLocalPredicates(ImmutableList.of(Maps.immutableEntry(nodeInG, localPred)));
+
+    // the same predicate at a different location counts as difference
+    assertThat(local.calculateDifferenceTo(otherLocal)).isEqualTo(1);
+    assertThat(local.calculateDifferenceTo(local.mergeWith(otherLocal))).isEqualTo(0);
+    assertThat(local.mergeWith(otherLocal).calculateDifferenceTo(local)).isEqualTo(1);
+  }
+}
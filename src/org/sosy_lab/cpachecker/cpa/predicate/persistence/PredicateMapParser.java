@@ -12,6 +12,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ListMultimap;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -35,6 +36,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecisionBootstrapper;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
+import org.sosy_lab.cpachecker.util.CFAFunctionFingerprints;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
@@ -82,6 +84,10 @@ public class PredicateMapParser {
 
   private final Map<Integer, CFANode> idToNodeMap = new HashMap<>();
 
+  // mapping from node ids of the previous program version to node ids of the current version,
+  // only used if the predicates were computed for a previous version of the program
+  private @Nullable ImmutableMap<Integer, Integer> previousToCurrentNodeIds = null;
+
   private final PredicatePrecisionBootstrapper.InitialPredicatesOptions options;
 
   public PredicateMapParser(
@@ -139,6 +145,17 @@ public class PredicateMapParser {
       commonDefinitions = str.toString();
     }
 
+    if (options.getPreviousFingerprints() != null && previousToCurrentNodeIds == null) {
+      CFAFunctionFingerprints previous =
+          CFAFunctionFingerprints.read(options.getPreviousFingerprints());
+      CFAFunctionFingerprints current = CFAFunctionFingerprints.compute(cfa);
+      previousToCurrentNodeIds = current.mapNodeNumbersFrom(previous);
+      logger.log(
+          Level.INFO,
+          "Mapping predicates of previous program version, changed functions are",
+          current.getChangedFunctions(previous));
+    }
+
     // second, read map of predicates
     List<AbstractionPredicate> globalPredicates = new ArrayList<>();
     ListMultimap<String, AbstractionPredicate> functionPredicates = ArrayListMultimap.create();
@@ -193,7 +210,18 @@ public class PredicateMapParser {
             String function = matcher.group(1);
             int nodeId = Integer.parseInt(matcher.group(2)); // does not fail, we checked with regexp
 
-            if (options.applyFunctionWide()) {
+            boolean applyFunctionWide = options.applyFunctionWide();
+            if (previousToCurrentNodeIds != null) {
+              Integer currentNodeId = previousToCurrentNodeIds.get(nodeId);
+              if (currentNodeId == null) {
+                // the function was changed, the location has no counterpart in this version
+                applyFunctionWide = true;
+              } else {
+                nodeId = currentNodeId;
+              }
+            }
+
+            if (applyFunctionWide) {
               if (!cfa.getAllFunctionNames().contains(function)) {
                 logger.log(Level.WARNING, "Cannot use predicates for function", function + ", this function does not exist.");
                 currentSet = new ArrayList<>(); // temporary list which will be thrown away and ignored
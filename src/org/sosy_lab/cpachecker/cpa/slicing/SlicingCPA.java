@@ -8,8 +8,16 @@
 
 package org.sosy_lab.cpachecker.cpa.slicing;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.Concurrency;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -56,6 +64,14 @@ public class SlicingCPA extends AbstractSingleWrapperCPA implements StatisticsPr
           "Whether to use a refinable slicing precision that starts with an empty slice, or a statically computed, fixed slicing precision")
   private boolean useRefinableSlice = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Whether to compute the fixed slice in a background thread while the remaining analysis"
+              + " is set up, instead of when the initial precision is requested."
+              + " Only relevant if no refinable slice is used.")
+  private boolean computeSliceInBackground = true;
+
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final Configuration config;
@@ -64,6 +80,9 @@ public class SlicingCPA extends AbstractSingleWrapperCPA implements StatisticsPr
 
   private final Slicer slicer;
 
+  /** The fixed slice, if no refinable slice is used. */
+  private final @Nullable FutureTask<Slice> staticSlice;
+
   private TransferRelation transferRelation;
   private MergeOperator mergeOperator;
   private StopOperator stopOperator;
@@ -100,6 +119,15 @@ public class SlicingCPA extends AbstractSingleWrapperCPA implements StatisticsPr
     precisionAdjustment = new PrecisionDelegatingPrecisionAdjustment(pCpa.getPrecisionAdjustment());
 
     slicer = new SlicerFactory().create(logger, shutdownNotifier, config, pCfa);
+
+    if (useRefinableSlice) {
+      staticSlice = null;
+    } else {
+      staticSlice = new FutureTask<>(() -> computeSlice(cfa, spec));
+      if (computeSliceInBackground) {
+        Concurrency.newDaemonThread("Static slicing", staticSlice).start();
+      }
+    }
   }
 
   @Override
@@ -137,7 +165,7 @@ public class SlicingCPA extends AbstractSingleWrapperCPA implements StatisticsPr
     if (useRefinableSlice) {
       relevantEdges = ImmutableSet.of();
     } else {
-      relevantEdges = computeSlice(cfa, spec).getRelevantEdges();
+      relevantEdges = getStaticSlice().getRelevantEdges();
     }
 
     return new SlicingPrecision(wrappedPrec, relevantEdges);
@@ -151,6 +179,19 @@ public class SlicingCPA extends AbstractSingleWrapperCPA implements StatisticsPr
     return slicer.getSlice(pCfa, pSpec);
   }
 
+  private Slice getStaticSlice() throws InterruptedException {
+    // computes the slice in this thread if it was not started yet, otherwise does nothing
+    checkNotNull(staticSlice).run();
+    try {
+      return staticSlice.get();
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.throwIfInstanceOf(t, InterruptedException.class);
+      Throwables.throwIfUnchecked(t);
+      throw new UnexpectedCheckedException("slicing", t);
+    }
+  }
+
   public LogManager getLogger() {
     return logger;
   }
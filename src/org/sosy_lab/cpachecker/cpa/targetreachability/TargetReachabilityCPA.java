@@ -10,6 +10,7 @@ package org.sosy_lab.cpachecker.cpa.targetreachability;
 
 import com.google.common.collect.ImmutableSet;
 import java.io.PrintStream;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -21,6 +22,7 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFATopology;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.defaults.AbstractCPA;
@@ -80,9 +82,20 @@ public class TargetReachabilityCPA extends AbstractCPA implements StatisticsProv
       try {
         Set<CFANode> targetNodes =
             targetProvider.tryGetAutomatonTargetLocations(pCfa.getMainFunction(), pSpecification);
+        // compute the union of the backwards-reachable nodes with a single shared visited set,
+        // such that nodes reachable from several targets are explored only once
+        CFATopology topology = pCfa.getTopology();
+        BitSet reachable = new BitSet(topology.getNodeCount());
         for (CFANode target : targetNodes) {
-          builder.addAll(CFATraversal.dfs().backwards()
-              .collectNodesReachableFrom(target));
+          int targetId = topology.getId(target);
+          if (targetId >= 0) {
+            topology.collectReachableNodes(targetId, false, reachable);
+          } else {
+            builder.addAll(CFATraversal.dfs().backwards().collectNodesReachableFrom(target));
+          }
+        }
+        for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+          builder.add(topology.getNode(i));
         }
       } finally {
         backwardsReachability.stop();
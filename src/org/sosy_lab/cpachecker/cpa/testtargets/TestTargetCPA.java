@@ -8,11 +8,15 @@
 
 package org.sosy_lab.cpachecker.cpa.testtargets;
 
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.defaults.AbstractCPA;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
@@ -21,6 +25,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.util.Pair;
 
 @Options(prefix="testcase")
 public class TestTargetCPA extends AbstractCPA {
@@ -55,6 +60,25 @@ public class TestTargetCPA extends AbstractCPA {
   )
   private TestTargetAdaption targetOptimization = TestTargetAdaption.NONE;
 
+  @Option(
+    secure = true,
+    name = "targets.shards",
+    description =
+        "Number of shards into which the test targets are split if multiple test case generation"
+            + " instances run in parallel. Each instance pursues the targets of its own shard"
+            + " (cf. option testcase.targets.shard) first and the targets of the other shards only"
+            + " after its own shard is covered. Targets of other shards that were passed before and"
+            + " are still uncovered when the instance runs out of states are explored again.")
+  @IntegerOption(min = 1)
+  private int shardCount = 1;
+
+  @Option(
+    secure = true,
+    name = "targets.shard",
+    description = "Index of the shard of test targets that this instance pursues first")
+  @IntegerOption(min = 0)
+  private int shardIndex = 0;
+
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(TestTargetCPA.class);
   }
@@ -69,11 +93,32 @@ public class TestTargetCPA extends AbstractCPA {
           "If you choose target type to be FUN_CALL, you need to specify the target function.");
     }
 
+    if (shardCount > 1 && !runParallel) {
+      throw new InvalidConfigurationException(
+          "Splitting test targets into shards requires testcase.generate.parallel=true.");
+    }
+    if (shardIndex >= shardCount) {
+      throw new InvalidConfigurationException(
+          "Invalid shard index " + shardIndex + " for " + shardCount + " shards of test targets.");
+    }
+
     precisionAdjustment = new TestTargetPrecisionAdjustment();
-    transferRelation =
-        new TestTargetTransferRelation(
-            TestTargetProvider
-                .getTestTargets(pCfa, runParallel, targetType, targetFun, targetOptimization));
+    Set<CFAEdge> testTargets;
+    Set<CFAEdge> shardTargets;
+    if (shardCount > 1) {
+      // get both from one call, a parallel instance may replace the provider in between otherwise
+      Pair<Set<CFAEdge>, ImmutableSet<CFAEdge>> targetsAndShard =
+          TestTargetProvider.getTestTargetsAndShard(
+              pCfa, runParallel, targetType, targetFun, targetOptimization, shardCount, shardIndex);
+      testTargets = targetsAndShard.getFirst();
+      shardTargets = targetsAndShard.getSecond();
+    } else {
+      testTargets =
+          TestTargetProvider.getTestTargets(
+              pCfa, runParallel, targetType, targetFun, targetOptimization);
+      shardTargets = testTargets;
+    }
+    transferRelation = new TestTargetTransferRelation(testTargets, shardTargets);
   }
 
   @Override
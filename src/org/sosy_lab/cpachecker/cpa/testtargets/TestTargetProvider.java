@@ -8,11 +8,14 @@
 
 package org.sosy_lab.cpachecker.cpa.testtargets;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.io.PrintStream;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -23,6 +26,7 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.Pair;
 
 public class TestTargetProvider implements Statistics {
 
@@ -89,12 +93,49 @@ public class TestTargetProvider implements Statistics {
     return instance.uncoveredTargets.size();
   }
 
-  public static Set<CFAEdge> getTestTargets(
+  public static synchronized Set<CFAEdge> getTestTargets(
       final CFA pCfa,
       final boolean pRunParallel,
       final TestTargetType pType,
       final String pTargetFun,
       TestTargetAdaption pTargetOptimization) {
+    return getInstance(pCfa, pRunParallel, pType, pTargetFun, pTargetOptimization)
+        .uncoveredTargets;
+  }
+
+  /**
+   * Get the test targets like {@link #getTestTargets} together with the shard with the given index
+   * if the test targets are split into the given number of shards of (almost) equal size. Each
+   * shard contains the targets of a contiguous range of CFA nodes, and the shards of all instances
+   * that use the same number of shards are disjoint. Both sets are taken from the same provider,
+   * even if parallel instances request test targets at the same time.
+   */
+  static synchronized Pair<Set<CFAEdge>, ImmutableSet<CFAEdge>> getTestTargetsAndShard(
+      final CFA pCfa,
+      final boolean pRunParallel,
+      final TestTargetType pType,
+      final String pTargetFun,
+      final TestTargetAdaption pTargetOptimization,
+      final int pShardCount,
+      final int pShardIndex) {
+    Preconditions.checkArgument(pShardIndex >= 0 && pShardIndex < pShardCount);
+    TestTargetProvider provider =
+        getInstance(pCfa, pRunParallel, pType, pTargetFun, pTargetOptimization);
+    ImmutableList<CFAEdge> targets =
+        ImmutableList.sortedCopyOf(
+            Comparator.comparing(CFAEdge::getPredecessor).thenComparing(CFAEdge::getSuccessor),
+            provider.initialTestTargets);
+    int from = (int) ((long) targets.size() * pShardIndex / pShardCount);
+    int to = (int) ((long) targets.size() * (pShardIndex + 1) / pShardCount);
+    return Pair.of(provider.uncoveredTargets, ImmutableSet.copyOf(targets.subList(from, to)));
+  }
+
+  private static synchronized TestTargetProvider getInstance(
+      final CFA pCfa,
+      final boolean pRunParallel,
+      final TestTargetType pType,
+      final String pTargetFun,
+      final TestTargetAdaption pTargetOptimization) {
     if (instance == null
         || pCfa != instance.cfa
         || instance.type != pType
@@ -102,7 +143,13 @@ public class TestTargetProvider implements Statistics {
       instance = new TestTargetProvider(pCfa, pRunParallel, pType, pTargetFun, pTargetOptimization);
     }
     Preconditions.checkState(instance.runParallel || !pRunParallel);
-    return instance.uncoveredTargets;
+    return instance;
+  }
+
+  /** Forget the current test targets, such that tests do not influence each other. */
+  @VisibleForTesting
+  static synchronized void reset() {
+    instance = null;
   }
 
   public static String getCoverageInfo() {
@@ -0,0 +1,117 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.testtargets;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class TestTargetProviderTest {
+
+  private CFA cfa;
+
+  @Before
+  public void setUp() throws Exception {
+    cfa =
+        TestDataTools.makeCFA(
+            "extern int __VERIFIER_nondet_int();",
+            "int main() {",
+            "  int x = __VERIFIER_nondet_int();",
+            "  int y = 0;",
+            "  if (x > 0) { y++; }",
+            "  if (x > 1) { y++; }",
+            "  if (x > 2) { y++; }",
+            "  while (x > 3) { x--; }",
+            "  if (y == 3) { return 1; }",
+            "  return 0;",
+            "}");
+  }
+
+  @After
+  public void tearDown() {
+    // the provider is static, do not leak the targets of this CFA into other tests
+    TestTargetProvider.reset();
+  }
+
+  private Pair<Set<CFAEdge>, ImmutableSet<CFAEdge>> getTargetsAndShard(
+      int pShardCount, int pShardIndex) {
+    return TestTargetProvider.getTestTargetsAndShard(
+        cfa,
+        true,
+        TestTargetType.ASSUME,
+        null,
+        TestTargetAdaption.NONE,
+        pShardCount,
+        pShardIndex);
+  }
+
+  @Test
+  public void testSingleShard() {
+    Pair<Set<CFAEdge>, ImmutableSet<CFAEdge>> targetsAndShard = getTargetsAndShard(1, 0);
+    // two assume edges for each of the five branchings
+    assertThat(targetsAndShard.getFirst()).hasSize(10);
+    assertThat(targetsAndShard.getSecond())
+        .containsExactlyElementsIn(targetsAndShard.getFirst());
+  }
+
+  @Test
+  public void testShardsAreDisjointAndComplete() {
+    int shardCount = 3;
+    Set<CFAEdge> targets = getTargetsAndShard(shardCount, 0).getFirst();
+    Set<CFAEdge> allShards = new HashSet<>();
+    CFANode lastPredecessor = null;
+
+    for (int i = 0; i < shardCount; i++) {
+      Pair<Set<CFAEdge>, ImmutableSet<CFAEdge>> targetsAndShard = getTargetsAndShard(shardCount, i);
+      // all instances share the same set of uncovered targets
+      assertThat(targetsAndShard.getFirst()).isSameInstanceAs(targets);
+
+      ImmutableSet<CFAEdge> shard = targetsAndShard.getSecond();
+      assertThat(shard.size()).isAtLeast(targets.size() / shardCount);
+      assertThat(shard.size()).isAtMost(targets.size() / shardCount + 1);
+      for (CFAEdge edge : shard) {
+        assertThat(allShards.add(edge)).isTrue();
+        // shards are contiguous ranges of CFA nodes
+        if (lastPredecessor != null) {
+          assertThat(edge.getPredecessor()).isAtLeast(lastPredecessor);
+        }
+        lastPredecessor = edge.getPredecessor();
+      }
+    }
+    assertThat(allShards).containsExactlyElementsIn(targets);
+  }
+
+  @Test
+  public void testShardsIgnoreCoveredTargets() {
+    ImmutableSet<CFAEdge> shard = getTargetsAndShard(2, 1).getSecond();
+    Set<CFAEdge> targets = getTargetsAndShard(2, 1).getFirst();
+
+    // covering targets must not move targets to other shards
+    targets.removeAll(getTargetsAndShard(2, 0).getSecond());
+    assertThat(getTargetsAndShard(2, 1).getSecond()).isEqualTo(shard);
+    assertThat(getTargetsAndShard(2, 0).getSecond()).isNotEmpty();
+  }
+
+  @Test
+  public void testInvalidShard() {
+    assertThrows(IllegalArgumentException.class, () -> getTargetsAndShard(2, 2));
+    assertThrows(IllegalArgumentException.class, () -> getTargetsAndShard(2, -1));
+  }
+}
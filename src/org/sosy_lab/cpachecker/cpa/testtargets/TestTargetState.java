@@ -30,6 +30,7 @@ public class TestTargetState
   enum Status {
     TARGET(true),
     NO_TARGET(false),
+    POSTPONED_TARGET(false),
     STOP_POSSIBLY_INFEASIBLE_TARGET(false);
 
     private final boolean isConsideredTarget;
@@ -88,6 +89,14 @@ public class TestTargetState
     }
   }
 
+  /**
+   * Return whether this state was reached by a test target of another shard, which was not
+   * considered as target at that time.
+   */
+  public boolean isPostponedTarget() {
+    return currentState == Status.POSTPONED_TARGET;
+  }
+
   public boolean isStop() {
     return currentState == Status.STOP_POSSIBLY_INFEASIBLE_TARGET;
   }
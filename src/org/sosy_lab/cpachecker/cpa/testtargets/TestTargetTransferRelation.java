@@ -26,8 +26,20 @@ public class TestTargetTransferRelation extends SingleEdgeTransferRelation {
 
   private final Set<CFAEdge> testTargets;
 
-  TestTargetTransferRelation(final Set<CFAEdge> pTestTargets) {
+  /**
+   * The test targets that are pursued first, either a shard of the test targets if they are split
+   * among parallel instances or all test targets.
+   */
+  private final Set<CFAEdge> shardTargets;
+
+  private boolean postponeOtherShards;
+  private boolean shardCovered = false;
+  private int uncoveredTargetsAtLastShardCheck = -1;
+
+  TestTargetTransferRelation(final Set<CFAEdge> pTestTargets, final Set<CFAEdge> pShardTargets) {
     this.testTargets = pTestTargets;
+    this.shardTargets = pShardTargets;
+    postponeOtherShards = pShardTargets != pTestTargets;
   }
 
   @Override
@@ -43,10 +55,40 @@ public class TestTargetTransferRelation extends SingleEdgeTransferRelation {
       return ImmutableSet.of();
     }
 
+    if (!testTargets.contains(pCfaEdge)) {
+      return Collections.singleton(TestTargetState.noTargetState());
+    }
+    // Targets of other shards are left to the other instances until our own shard is covered.
+    // They are marked, such that they can be explored again if they remain uncovered.
     return Collections.singleton(
-        testTargets.contains(pCfaEdge)
-            ? new TestTargetState(Status.TARGET)
-            : TestTargetState.noTargetState());
+        new TestTargetState(
+            !postponeOtherShards || shardTargets.contains(pCfaEdge) || isShardCovered()
+                ? Status.TARGET
+                : Status.POSTPONED_TARGET));
+  }
+
+  private boolean isShardCovered() {
+    if (!shardCovered) {
+      // the shard can only become covered if some target was covered since the last check
+      int uncoveredTargets = testTargets.size();
+      if (uncoveredTargets != uncoveredTargetsAtLastShardCheck) {
+        uncoveredTargetsAtLastShardCheck = uncoveredTargets;
+        shardCovered = shardTargets.stream().noneMatch(testTargets::contains);
+      }
+    }
+    return shardCovered;
+  }
+
+  /**
+   * Treat the targets of other shards like all other targets from now on, e.g., because the
+   * analysis ran out of states while some of them were still uncovered.
+   *
+   * @return whether targets of other shards were postponed before
+   */
+  public boolean stopPostponingTargets() {
+    boolean wasPostponing = postponeOtherShards;
+    postponeOtherShards = false;
+    return wasPostponing;
   }
 
   public Set<CFAEdge> getTestTargets() {
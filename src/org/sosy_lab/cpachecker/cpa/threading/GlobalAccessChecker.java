@@ -9,9 +9,11 @@
 package org.sosy_lab.cpachecker.cpa.threading;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
 import org.sosy_lab.cpachecker.cfa.ast.AbstractDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.c.CArrayDesignator;
@@ -46,6 +48,7 @@ import org.sosy_lab.cpachecker.cfa.ast.c.CSimpleDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.c.CStatement;
 import org.sosy_lab.cpachecker.cfa.ast.c.CTypeDefDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression.UnaryOperator;
 import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.c.DefaultCExpressionVisitor;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -55,6 +58,7 @@ import org.sosy_lab.cpachecker.cfa.model.c.CDeclarationEdge;
 import org.sosy_lab.cpachecker.cfa.model.c.CFunctionCallEdge;
 import org.sosy_lab.cpachecker.cfa.model.c.CReturnStatementEdge;
 import org.sosy_lab.cpachecker.cfa.model.c.CStatementEdge;
+import org.sosy_lab.cpachecker.cfa.types.c.CArrayType;
 import org.sosy_lab.cpachecker.cfa.types.c.CEnumType;
 import org.sosy_lab.cpachecker.exceptions.NoException;
 
@@ -65,6 +69,28 @@ public class GlobalAccessChecker {
   /** cache elements, edges and their content never change. */
   private final Map<AAstNode, Boolean> astCache = new IdentityHashMap<>();
 
+  private final GlobalAccessVisitor visitor;
+
+  /**
+   * Create a checker that only considers accesses to global variables, i.e., accesses through
+   * pointers to local variables of a thread are assumed to be local.
+   */
+  public GlobalAccessChecker() {
+    visitor = GlobalAccessVisitor.INSTANCE;
+  }
+
+  /**
+   * Create a checker that also considers all possible accesses through pointers as shared, i.e.,
+   * dereferences of pointers, array accesses, taking addresses, and any access to a local
+   * variable whose address is taken somewhere in the program (the address might be passed to
+   * another thread, e.g., as argument of pthread_create).
+   *
+   * @param pAddressedVariables qualified names of all variables whose address is taken
+   */
+  public GlobalAccessChecker(Set<String> pAddressedVariables) {
+    visitor = new PointerAwareGlobalAccessVisitor(ImmutableSet.copyOf(pAddressedVariables));
+  }
+
   /** check, whether the edge might have a write- or read-access to
    * global variables or shared memory, i.e. whether the edge might
    * influence other threads or uses only scoped variables of the thread. */
@@ -123,7 +149,7 @@ public class GlobalAccessChecker {
     if (ast instanceof CRightHandSide) {
 
       if (ast instanceof CExpression) {
-        return ((CExpression) ast).accept(GlobalAccessVisitor.INSTANCE);
+        return ((CExpression) ast).accept(visitor);
 
       } else if (ast instanceof CFunctionCallExpression) {
         CFunctionCallExpression func = (CFunctionCallExpression) ast;
@@ -278,4 +304,47 @@ public class GlobalAccessChecker {
       return false;
     }
   }
+
+  /**
+   * returns whether there might be a read- or write-access to global variables or to memory that
+   * might be shared via pointers.
+   */
+  private static class PointerAwareGlobalAccessVisitor extends GlobalAccessVisitor {
+
+    private final ImmutableSet<String> addressedVariables;
+
+    PointerAwareGlobalAccessVisitor(ImmutableSet<String> pAddressedVariables) {
+      addressedVariables = pAddressedVariables;
+    }
+
+    @Override
+    public Boolean visit(CIdExpression pE) {
+      // arrays are passed as pointers without taking their address explicitly
+      return super.visit(pE)
+          || (pE.getDeclaration() != null
+              && addressedVariables.contains(pE.getDeclaration().getQualifiedName()))
+          || pE.getExpressionType().getCanonicalType() instanceof CArrayType;
+    }
+
+    @Override
+    public Boolean visit(CArraySubscriptExpression pE) {
+      // the array expression might be a pointer to shared memory
+      return true;
+    }
+
+    @Override
+    public Boolean visit(CFieldReference pE) {
+      return pE.isPointerDereference() || super.visit(pE);
+    }
+
+    @Override
+    public Boolean visit(CUnaryExpression pE) {
+      return pE.getOperator() == UnaryOperator.AMPER || super.visit(pE);
+    }
+
+    @Override
+    public Boolean visit(CPointerExpression pE) {
+      return true;
+    }
+  }
 }
@@ -33,6 +33,7 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
 import org.sosy_lab.cpachecker.cfa.ast.AExpression;
 import org.sosy_lab.cpachecker.cfa.ast.AFunctionCall;
 import org.sosy_lab.cpachecker.cfa.ast.AIdExpression;
@@ -40,7 +41,9 @@ import org.sosy_lab.cpachecker.cfa.ast.AStatement;
 import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
 import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression.UnaryOperator;
 import org.sosy_lab.cpachecker.cfa.model.AStatementEdge;
+import org.sosy_lab.cpachecker.cfa.model.AssumeEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
@@ -58,6 +61,7 @@ import org.sosy_lab.cpachecker.cpa.location.LocationCPA;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 
 @Options(prefix="cpa.threading")
@@ -95,12 +99,24 @@ public final class ThreadingTransferRelation extends SingleEdgeTransferRelation
   )
   private boolean useAllPossibleClones = false;
 
+  @Option(
+      description =
+          "use partial-order reduction to avoid exploring equivalent interleavings: "
+              + "if a thread can only execute edges that are independent of all other threads "
+              + "and cannot block, "
+              + "only this thread is explored in the current state (ample set). "
+              + "Accesses through pointers are always considered dependent. "
+              + "Requires the loop structure of the CFA.",
+      secure = true)
+  private boolean usePartialOrderReduction = false;
+
   public static final String THREAD_START = "pthread_create";
   public static final String THREAD_JOIN = "pthread_join";
   private static final String THREAD_EXIT = "pthread_exit";
   private static final String THREAD_MUTEX_LOCK = "pthread_mutex_lock";
   private static final String THREAD_MUTEX_UNLOCK = "pthread_mutex_unlock";
   private static final String VERIFIER_ATOMIC = "__VERIFIER_atomic_";
+  private static final String VERIFIER_NONDET = "__VERIFIER_nondet_";
   private static final String VERIFIER_ATOMIC_BEGIN = "__VERIFIER_atomic_begin";
   private static final String VERIFIER_ATOMIC_END = "__VERIFIER_atomic_end";
   private static final String ATOMIC_LOCK = "__CPAchecker_atomic_lock__";
@@ -118,6 +134,17 @@ public final class ThreadingTransferRelation extends SingleEdgeTransferRelation
 
   private final GlobalAccessChecker globalAccessChecker = new GlobalAccessChecker();
 
+  /** independence check for the ample sets, which also considers accesses through pointers */
+  private final @Nullable GlobalAccessChecker sharedAccessChecker;
+
+  private final @Nullable ImmutableSet<CFANode> loopHeads;
+
+  /**
+   * the ample thread of the last state for which it was computed in the current Java thread, cf.
+   * {@link AmpleThread}
+   */
+  private final ThreadLocal<AmpleThread> lastAmpleThread = new ThreadLocal<>();
+
   public ThreadingTransferRelation(Configuration pConfig, CFA pCfa, LogManager pLogger)
       throws InvalidConfigurationException {
     pConfig.inject(this);
@@ -125,6 +152,49 @@ public final class ThreadingTransferRelation extends SingleEdgeTransferRelation
     locationCPA = LocationCPA.create(pCfa, pConfig);
     callstackCPA = new CallstackCPA(pConfig, pLogger);
     logger = new LogManagerWithoutDuplicates(pLogger);
+
+    if (usePartialOrderReduction) {
+      if (!pCfa.getAllLoopHeads().isPresent()) {
+        throw new InvalidConfigurationException(
+            "Partial-order reduction for the threading analysis requires the loop structure "
+                + "of the CFA, please enable analysis.useLoopStructure or disable "
+                + "cpa.threading.usePartialOrderReduction.");
+      }
+      loopHeads = pCfa.getAllLoopHeads().orElseThrow();
+      sharedAccessChecker = new GlobalAccessChecker(getAddressedVariables(pCfa));
+    } else {
+      loopHeads = null;
+      sharedAccessChecker = null;
+    }
+  }
+
+  /**
+   * Collect the qualified names of all variables whose address is taken somewhere in the program.
+   * We collect all variables occurring in an operand of the address operator, which might be more
+   * than necessary (e.g., the index in {@code &a[i]}).
+   */
+  private static ImmutableSet<String> getAddressedVariables(CFA pCfa) {
+    ImmutableSet.Builder<String> addressedVariables = ImmutableSet.builder();
+    for (CFANode node : pCfa.getAllNodes()) {
+      for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+        for (AAstNode ast : CFAUtils.getAstNodesFromCfaEdge(edge)) {
+          for (AAstNode child : CFAUtils.traverseRecursively(ast)) {
+            if (child instanceof CUnaryExpression
+                && ((CUnaryExpression) child).getOperator() == UnaryOperator.AMPER) {
+              for (AAstNode operandChild :
+                  CFAUtils.traverseRecursively(((CUnaryExpression) child).getOperand())) {
+                if (operandChild instanceof CIdExpression
+                    && ((CIdExpression) operandChild).getDeclaration() != null) {
+                  addressedVariables.add(
+                      ((CIdExpression) operandChild).getDeclaration().getQualifiedName());
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    return addressedVariables.build();
   }
 
   @Override
@@ -148,6 +218,17 @@ public final class ThreadingTransferRelation extends SingleEdgeTransferRelation
       return ImmutableSet.of();
     }
 
+    // check if another thread has an ample set and we can avoid exploration of this thread.
+    // If a lock is held, the lock already restricts the exploration to the locking thread.
+    if (usePartialOrderReduction
+        && !threadingState.hasLock(ATOMIC_LOCK)
+        && !threadingState.hasLock(LOCAL_ACCESS_LOCK)) {
+      final String ampleThread = getAmpleThread(state, threadingState, precision);
+      if (ampleThread != null && !ampleThread.equals(activeThread)) {
+        return ImmutableSet.of();
+      }
+    }
+
     // check if a local-access-lock allows to avoid exploration of some threads
     if (useLocalAccessLocks) {
       threadingState = handleLocalAccessLock(cfaEdge, threadingState, activeThread);
@@ -198,6 +279,136 @@ public final class ThreadingTransferRelation extends SingleEdgeTransferRelation
     return activeThreads.isEmpty() ? null : Iterables.getOnlyElement(activeThreads);
   }
 
+  /**
+   * Search for a thread whose outgoing edges form an ample set, i.e., all of them are independent
+   * of all edges of other threads (they neither access global variables or shared memory nor
+   * handle threads or locks) and invisible for the specification. It is then sufficient to
+   * explore only the edges of this thread in the current state, because each interleaving with
+   * the other threads is equivalent to one where this thread moves first.
+   *
+   * <p>To avoid that the other threads are ignored forever (cycle proviso), an edge that enters a
+   * loop head is never part of an ample set.
+   *
+   * <p>The ample thread must not block, otherwise the state would have no successors at all
+   * although other threads could continue. Thus it needs at least one successor for the location
+   * and the callstack, and each of its assume edges needs the negated assume edge as sibling, such
+   * that one of them is feasible in each feasible state. If there is no such thread, all threads
+   * are explored.
+   *
+   * <p>The ample thread is computed only once per state and then reused for all its edges.
+   *
+   * @param pState the state as given to the transfer relation, used as key for the reuse
+   * @param threadingState the state without exited threads
+   * @return the smallest such thread id (to be deterministic), or NULL if there is none.
+   */
+  @Nullable
+  private String getAmpleThread(
+      final ThreadingState pState, final ThreadingState threadingState, final Precision precision)
+      throws CPATransferException, InterruptedException {
+    final AmpleThread last = lastAmpleThread.get();
+    if (last != null && last.state == pState) {
+      return last.threadId;
+    }
+    String ampleThread = null;
+    if (threadingState.getThreadIds().size() > 1) {
+      for (String id : threadingState.getThreadIds()) {
+        if ((ampleThread == null || id.compareTo(ampleThread) < 0)
+            && isAmple(threadingState.getThreadLocation(id).getOutgoingEdges())
+            && isNonBlocking(id, threadingState, precision)) {
+          ampleThread = id;
+        }
+      }
+    }
+    lastAmpleThread.set(new AmpleThread(pState, ampleThread));
+    return ampleThread;
+  }
+
+  /**
+   * The ample thread of a state. The transfer relation is called for all edges of a state
+   * directly one after another, so it suffices to remember the last state per Java thread.
+   */
+  private static final class AmpleThread {
+    private final ThreadingState state;
+    private final @Nullable String threadId;
+
+    private AmpleThread(ThreadingState pState, @Nullable String pThreadId) {
+      state = pState;
+      threadId = pThreadId;
+    }
+  }
+
+  private boolean isAmple(Iterable<CFAEdge> edges) {
+    if (Iterables.isEmpty(edges)) {
+      return false;
+    }
+    for (CFAEdge edge : edges) {
+      if (loopHeads.contains(edge.getSuccessor())
+          || sharedAccessChecker.hasGlobalAccess(edge)
+          || isImporantForThreading(edge)
+          || isEndOfMainFunction(edge)
+          || isTerminatingEdge(edge)
+          || isCallOfUndefinedFunction(edge)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check that the given thread can always make a step in the given state, i.e., the location and
+   * the callstack have a successor for some outgoing edge, and the assume edges come in pairs of a
+   * condition and its negation.
+   */
+  private boolean isNonBlocking(
+      final String id, final ThreadingState threadingState, final Precision precision)
+      throws CPATransferException, InterruptedException {
+    final Iterable<CFAEdge> edges = threadingState.getThreadLocation(id).getOutgoingEdges();
+    for (CFAEdge edge : edges) {
+      if (edge instanceof AssumeEdge && !hasNegatedSibling((AssumeEdge) edge)) {
+        return false;
+      }
+    }
+    for (CFAEdge edge : edges) {
+      if (!getAbstractSuccessorsFromWrappedCPAs(id, threadingState, precision, edge).isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasNegatedSibling(AssumeEdge edge) {
+    for (CFAEdge sibling : CFAUtils.leavingEdges(edge.getPredecessor())) {
+      if (sibling instanceof AssumeEdge
+          && ((AssumeEdge) sibling).getTruthAssumption() != edge.getTruthAssumption()
+          && ((AssumeEdge) sibling).getExpression().equals(edge.getExpression())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Calls of functions without body might be visible for the specification (e.g., error
+   * functions) or have side effects on shared memory, thus they are never independent. Only the
+   * input functions of SV-Comp are known to be harmless.
+   */
+  private boolean isCallOfUndefinedFunction(CFAEdge cfaEdge) {
+    if (CFAEdgeType.StatementEdge == cfaEdge.getEdgeType()) {
+      AStatement statement = ((AStatementEdge) cfaEdge).getStatement();
+      if (statement instanceof AFunctionCall) {
+        AExpression functionNameExp =
+            ((AFunctionCall) statement).getFunctionCallExpression().getFunctionNameExpression();
+        if (!(functionNameExp instanceof AIdExpression)) {
+          return true;
+        }
+        final String functionName = ((AIdExpression) functionNameExp).getName();
+        return !functionName.startsWith(VERIFIER_NONDET)
+            && cfa.getFunctionHead(functionName) == null;
+      }
+    }
+    return false;
+  }
+
   /** handle all edges related to thread-management:
    * THREAD_START, THREAD_JOIN, THREAD_EXIT, THREAD_MUTEX_LOCK, VERIFIER_ATOMIC,...
    *
@@ -10,15 +10,26 @@ package org.sosy_lab.cpachecker.cpa.usage.refinement;
 
 import static com.google.common.collect.FluentIterable.from;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -34,6 +45,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Refiner;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperCPA;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
@@ -46,6 +58,7 @@ import org.sosy_lab.cpachecker.cpa.usage.UsageCPA;
 import org.sosy_lab.cpachecker.cpa.usage.UsageReachedSet;
 import org.sosy_lab.cpachecker.cpa.usage.storage.UsageContainer;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.exceptions.UnexpectedCheckedException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.Precisions;
@@ -100,9 +113,27 @@ public class IdentifierIterator extends WrappedConfigurableRefinementBlock<Reach
 
   private final Map<SingleIdentifier, AdjustablePrecision> precisionMap = new HashMap<>();
 
+  // independent copies of the wrapped blocks, one per refinement thread
+  private final ImmutableList<ConfigurableRefinementBlock<SingleIdentifier>> refinementChains;
+
   public IdentifierIterator(ConfigurableRefinementBlock<SingleIdentifier> pWrapper, Configuration config,
       ConfigurableProgramAnalysis pCpa, BAMTransferRelation pTransfer) throws InvalidConfigurationException {
-    super(pWrapper);
+    this(ImmutableList.of(pWrapper), config, pCpa, pTransfer);
+  }
+
+  /**
+   * Create an iterator that refines the identifiers with the given chains of blocks. If there are
+   * several chains, each of them runs in its own thread and refines a fixed subset of the
+   * identifiers, so the chains must not share any state that is not thread-safe.
+   */
+  public IdentifierIterator(
+      ImmutableList<ConfigurableRefinementBlock<SingleIdentifier>> pChains,
+      Configuration config,
+      ConfigurableProgramAnalysis pCpa,
+      BAMTransferRelation pTransfer)
+      throws InvalidConfigurationException {
+    super(pChains.get(0));
+    refinementChains = pChains;
     config.inject(this);
     cpa = pCpa;
     UsageCPA uCpa = CPAs.retrieveCPA(pCpa, UsageCPA.class);
@@ -142,15 +173,18 @@ public class IdentifierIterator extends WrappedConfigurableRefinementBlock<Reach
     sendUpdateSignal(PredicateRefinerAdapter.class, pReached);
     sendUpdateSignal(PointIterator.class, container);
 
-    Iterator<SingleIdentifier> iterator = container.getUnrefinedUnsafeIterator();
+    ImmutableList<SingleIdentifier> unrefinedIds =
+        ImmutableList.copyOf(container.getUnrefinedUnsafeIterator());
+    // The container is changed only after all identifiers are refined,
+    // and the results are merged in the order of the identifiers
+    Map<SingleIdentifier, RefinementResult> results =
+        refineIdentifiers(refinementChains, unrefinedIds);
     boolean isPrecisionChanged = false;
     AbstractState firstState = pReached.getFirstState();
     AdjustablePrecision finalPrecision = (AdjustablePrecision) pReached.getPrecision(firstState);
 
-    while (iterator.hasNext()) {
-      SingleIdentifier currentId = iterator.next();
-
-      RefinementResult result = wrappedRefiner.performBlockRefinement(currentId);
+    for (SingleIdentifier currentId : unrefinedIds) {
+      RefinementResult result = results.get(currentId);
       newPrecisionFound |= result.isFalse();
 
       AdjustablePrecision info = result.getPrecision();
@@ -228,15 +262,101 @@ public class IdentifierIterator extends WrappedConfigurableRefinementBlock<Reach
     }
   }
 
+  /**
+   * Refine the given identifiers with the given chains of blocks. With a single chain, the
+   * identifiers are refined one after another in the current thread. Otherwise, every chain refines
+   * the identifiers with the same hash code modulo the number of chains in their given order, such
+   * that every chain sees the same sequence of identifiers in every run.
+   */
+  @VisibleForTesting
+  static Map<SingleIdentifier, RefinementResult> refineIdentifiers(
+      List<? extends ConfigurableRefinementBlock<SingleIdentifier>> pChains,
+      List<SingleIdentifier> pIds)
+      throws CPAException, InterruptedException {
+
+    if (pChains.size() == 1) {
+      return refineSequentially(pChains.get(0), pIds);
+    }
+
+    ListMultimap<Integer, SingleIdentifier> idsPerChain = ArrayListMultimap.create();
+    for (SingleIdentifier id : pIds) {
+      idsPerChain.put(Math.floorMod(id.hashCode(), pChains.size()), id);
+    }
+
+    Map<SingleIdentifier, RefinementResult> results = new HashMap<>();
+    if (idsPerChain.isEmpty()) {
+      return results;
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            idsPerChain.keySet().size(),
+            new ThreadFactoryBuilder().setNameFormat("usage-refinement-%d").build());
+    try {
+      List<Future<Map<SingleIdentifier, RefinementResult>>> futures = new ArrayList<>();
+      for (Integer chain : idsPerChain.keySet()) {
+        ConfigurableRefinementBlock<SingleIdentifier> refiner = pChains.get(chain);
+        List<SingleIdentifier> ids = idsPerChain.get(chain);
+        futures.add(executor.submit(() -> refineSequentially(refiner, ids)));
+      }
+      for (Future<Map<SingleIdentifier, RefinementResult>> future : futures) {
+        results.putAll(future.get());
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("usage refinement", cause);
+    } finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
+
+  private static Map<SingleIdentifier, RefinementResult> refineSequentially(
+      ConfigurableRefinementBlock<SingleIdentifier> pChain, List<SingleIdentifier> pIds)
+      throws CPAException, InterruptedException {
+    Map<SingleIdentifier, RefinementResult> results = new HashMap<>();
+    for (SingleIdentifier id : pIds) {
+      results.put(id, pChain.performBlockRefinement(id));
+    }
+    return results;
+  }
+
+  @Override
+  protected void sendStartSignal() {
+    for (ConfigurableRefinementBlock<SingleIdentifier> chain : refinementChains) {
+      chain.start(getClass());
+    }
+  }
+
+  @Override
+  protected void sendFinishSignal() throws CPAException, InterruptedException {
+    for (ConfigurableRefinementBlock<SingleIdentifier> chain : refinementChains) {
+      chain.finish(getClass());
+    }
+  }
+
+  @Override
+  protected void sendUpdateSignal(Class<? extends RefinementInterface> dstClass, Object data) {
+    for (ConfigurableRefinementBlock<SingleIdentifier> chain : refinementChains) {
+      chain.update(getClass(), dstClass, data);
+    }
+  }
+
   @Override
   public void printStatistics(StatisticsWriter pOut) {
-    wrappedRefiner.printStatistics(pOut);
+    for (ConfigurableRefinementBlock<SingleIdentifier> chain : refinementChains) {
+      chain.printStatistics(pOut);
+    }
   }
 
   @Override
   public void collectStatistics(Collection<Statistics> statsCollection) {
     statsCollection.add(new Stats());
-    super.collectStatistics(statsCollection);
+    for (ConfigurableRefinementBlock<SingleIdentifier> chain : refinementChains) {
+      if (chain instanceof StatisticsProvider) {
+        ((StatisticsProvider) chain).collectStatistics(statsCollection);
+      }
+    }
   }
 
   @Override
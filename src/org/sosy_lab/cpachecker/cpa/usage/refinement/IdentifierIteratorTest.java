@@ -0,0 +1,180 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.usage.refinement;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.identifiers.GlobalVariableIdentifier;
+import org.sosy_lab.cpachecker.util.identifiers.SingleIdentifier;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+public class IdentifierIteratorTest {
+
+  /** Refines identifiers whose names start with "true" as true, all others as false. */
+  private static class RecordingBlock implements ConfigurableRefinementBlock<SingleIdentifier> {
+
+    private final List<SingleIdentifier> refinedIds =
+        Collections.synchronizedList(new ArrayList<>());
+    private final @Nullable CyclicBarrier barrier;
+    private final @Nullable Exception failure;
+
+    RecordingBlock() {
+      this(null, null);
+    }
+
+    RecordingBlock(@Nullable CyclicBarrier pBarrier, @Nullable Exception pFailure) {
+      barrier = pBarrier;
+      failure = pFailure;
+    }
+
+    @Override
+    public RefinementResult performBlockRefinement(SingleIdentifier pInput)
+        throws CPAException, InterruptedException {
+      if (barrier != null && refinedIds.isEmpty()) {
+        try {
+          barrier.await(10, TimeUnit.SECONDS);
+        } catch (BrokenBarrierException | TimeoutException e) {
+          throw new AssertionError("refinement chains do not run concurrently", e);
+        }
+      }
+      refinedIds.add(pInput);
+      if (failure instanceof CPAException) {
+        throw (CPAException) failure;
+      } else if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      return pInput.getName().startsWith("true")
+          ? RefinementResult.createTrue()
+          : RefinementResult.createFalse();
+    }
+
+    @Override
+    public void update(
+        Class<? extends RefinementInterface> pCallerClass,
+        Class<? extends RefinementInterface> pDstClass,
+        Object pData) {}
+
+    @Override
+    public void start(Class<? extends RefinementInterface> pCallerClass) {}
+
+    @Override
+    public void finish(Class<? extends RefinementInterface> pCallerClass) {}
+
+    @Override
+    public void printStatistics(StatisticsWriter pOut) {}
+  }
+
+  private static ImmutableList<SingleIdentifier> makeIds(int pCount) {
+    ImmutableList.Builder<SingleIdentifier> ids = ImmutableList.builder();
+    for (int i = 0; i < pCount; i++) {
+      String name = (i % 3 == 0 ? "true_" : "false_") + i;
+      ids.add(new GlobalVariableIdentifier(name, CNumericTypes.INT, 0));
+    }
+    return ids.build();
+  }
+
+  private static int chainOf(SingleIdentifier pId, int pChains) {
+    return Math.floorMod(pId.hashCode(), pChains);
+  }
+
+  private static void assertResults(
+      Map<SingleIdentifier, RefinementResult> pResults, List<SingleIdentifier> pIds) {
+    assertThat(pResults.keySet()).containsExactlyElementsIn(pIds);
+    for (SingleIdentifier id : pIds) {
+      assertThat(pResults.get(id).isTrue()).isEqualTo(id.getName().startsWith("true"));
+    }
+  }
+
+  @Test
+  public void testSingleChainRefinesIdentifiersInOrder() throws Exception {
+    ImmutableList<SingleIdentifier> ids = makeIds(10);
+    RecordingBlock block = new RecordingBlock();
+
+    Map<SingleIdentifier, RefinementResult> results =
+        IdentifierIterator.refineIdentifiers(ImmutableList.of(block), ids);
+
+    assertThat(block.refinedIds).containsExactlyElementsIn(ids).inOrder();
+    assertResults(results, ids);
+  }
+
+  @Test
+  public void testParallelRefinementIsDeterministic() throws Exception {
+    ImmutableList<SingleIdentifier> ids = makeIds(50);
+    ImmutableList<RecordingBlock> firstRun =
+        ImmutableList.of(new RecordingBlock(), new RecordingBlock(), new RecordingBlock());
+    ImmutableList<RecordingBlock> secondRun =
+        ImmutableList.of(new RecordingBlock(), new RecordingBlock(), new RecordingBlock());
+
+    Map<SingleIdentifier, RefinementResult> results =
+        IdentifierIterator.refineIdentifiers(firstRun, ids);
+    IdentifierIterator.refineIdentifiers(secondRun, ids);
+
+    assertResults(results, ids);
+    for (int chain = 0; chain < firstRun.size(); chain++) {
+      List<SingleIdentifier> expected = new ArrayList<>();
+      for (SingleIdentifier id : ids) {
+        if (chainOf(id, firstRun.size()) == chain) {
+          expected.add(id);
+        }
+      }
+      assertThat(firstRun.get(chain).refinedIds).containsExactlyElementsIn(expected).inOrder();
+      assertThat(secondRun.get(chain).refinedIds).isEqualTo(firstRun.get(chain).refinedIds);
+    }
+  }
+
+  @Test
+  public void testChainsRunConcurrently() throws Exception {
+    ImmutableList<SingleIdentifier> ids = makeIds(20);
+    assertThat(ids.stream().map(id -> chainOf(id, 2)).distinct().count()).isEqualTo(2);
+    CyclicBarrier barrier = new CyclicBarrier(2);
+
+    Map<SingleIdentifier, RefinementResult> results =
+        IdentifierIterator.refineIdentifiers(
+            ImmutableList.of(
+                new RecordingBlock(barrier, null), new RecordingBlock(barrier, null)),
+            ids);
+
+    assertResults(results, ids);
+  }
+
+  @Test
+  public void testExceptionsOfChainsAreRethrown() {
+    ImmutableList<SingleIdentifier> ids = makeIds(20);
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            IdentifierIterator.refineIdentifiers(
+                ImmutableList.of(
+                    new RecordingBlock(), new RecordingBlock(null, new IllegalStateException())),
+                ids));
+    assertThrows(
+        CPAException.class,
+        () ->
+            IdentifierIterator.refineIdentifiers(
+                ImmutableList.of(
+                    new RecordingBlock(null, new CPAException("solver failed")),
+                    new RecordingBlock()),
+                ids));
+  }
+}
@@ -241,14 +241,18 @@ public class PathPairIterator extends
     computingPath.start();
     //try to compute more paths
     BAMSubgraphIterator pathIterator;
-    if (targetToPathIterator.containsKey(info)) {
-      pathIterator = targetToPathIterator.get(info);
-    } else {
-      ARGState target = (ARGState)info.getKeyState();
-      pathIterator = subgraphComputer.iterator(target);
-      targetToPathIterator.put(info, pathIterator);
+    // The BAM cache is shared by the iterators of all refinement threads,
+    // and the subgraph computer removes outdated blocks from it
+    synchronized (bamCpa) {
+      if (targetToPathIterator.containsKey(info)) {
+        pathIterator = targetToPathIterator.get(info);
+      } else {
+        ARGState target = (ARGState)info.getKeyState();
+        pathIterator = subgraphComputer.iterator(target);
+        targetToPathIterator.put(info, pathIterator);
+      }
+      currentPath = pathIterator.nextPath(refinedStates);
     }
-    currentPath = pathIterator.nextPath(refinedStates);
     computingPath.stop();
 
     if (currentPath == null) {
@@ -8,6 +8,8 @@
 
 package org.sosy_lab.cpachecker.cpa.usage.refinement;
 
+import static org.sosy_lab.common.collect.Collections3.transformedImmutableListCopy;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -16,10 +18,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
 import org.sosy_lab.cpachecker.core.counterexample.CounterexampleInfo;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
@@ -42,9 +46,12 @@ import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Precisions;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.java_smt.api.BooleanFormula;
 
 public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
   ARGBasedRefiner refiner;
@@ -67,6 +74,18 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
 
   public PredicateRefinerAdapter(ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>> wrapper,
       ConfigurableProgramAnalysis pCpa, LogManager pLogger) throws InvalidConfigurationException {
+    this(wrapper, pCpa, pLogger, false);
+  }
+
+  /**
+   * Create the adapter. If <code>pUseOwnSolver</code> is set, the adapter checks paths with a new
+   * solver instance instead of the solver of the BAMPredicateCPA. Adapters with their own solvers
+   * may refine paths in parallel, only the conversion of interpolants into predicates is
+   * synchronized on the solver of the BAMPredicateCPA.
+   */
+  public PredicateRefinerAdapter(ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>> wrapper,
+      ConfigurableProgramAnalysis pCpa, LogManager pLogger, boolean pUseOwnSolver)
+      throws InvalidConfigurationException {
     super(wrapper);
 
     if (!(pCpa instanceof WrapperCPA)) {
@@ -80,7 +99,24 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
     }
 
     logger = pLogger;
-    PathFormulaManager pfmgr = predicateCpa.getPathFormulaManager();
+    Solver solver;
+    PathFormulaManager pfmgr;
+    if (pUseOwnSolver) {
+      solver =
+          Solver.create(
+              predicateCpa.getConfiguration(), logger, predicateCpa.getShutdownNotifier());
+      pfmgr =
+          new PathFormulaManagerImpl(
+              solver.getFormulaManager(),
+              predicateCpa.getConfiguration(),
+              logger,
+              predicateCpa.getShutdownNotifier(),
+              predicateCpa.getCfa(),
+              AnalysisDirection.FORWARD);
+    } else {
+      solver = predicateCpa.getSolver();
+      pfmgr = predicateCpa.getPathFormulaManager();
+    }
 
     BlockFormulaStrategy blockFormulaStrategy = new BAMBlockFormulaStrategy(pfmgr);
 
@@ -89,11 +125,12 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
             predicateCpa.getConfiguration(),
             logger,
             predicateCpa.getSolver(),
-            predicateCpa.getPredicateManager());
+            predicateCpa.getPredicateManager(),
+            pUseOwnSolver ? solver.getFormulaManager() : null);
 
     refiner = new PredicateCPARefinerFactory(pCpa)
         .setBlockFormulaStrategy(blockFormulaStrategy)
-        .create(strategy);
+        .create(strategy, solver, pfmgr);
   }
 
   @Override
@@ -245,10 +282,49 @@ public class PredicateRefinerAdapter extends GenericSinglePathRefiner {
     private List<ARGState> lastAffectedStates = new ArrayList<>();
     private PredicatePrecision lastAddedPrecision;
 
+    private final Solver solver;
+    // formula manager of the interpolants, if they are not computed by the given solver
+    private final @Nullable FormulaManagerView interpolantFmgr;
+
     public UsageStatisticsRefinementStrategy(final Configuration config, final LogManager logger,
         final Solver pSolver,
         final PredicateAbstractionManager pPredAbsMgr) throws InvalidConfigurationException {
+      this(config, logger, pSolver, pPredAbsMgr, null);
+    }
+
+    public UsageStatisticsRefinementStrategy(final Configuration config, final LogManager logger,
+        final Solver pSolver,
+        final PredicateAbstractionManager pPredAbsMgr,
+        final @Nullable FormulaManagerView pInterpolantFmgr) throws InvalidConfigurationException {
       super(config, logger, pSolver, pPredAbsMgr);
+      solver = pSolver;
+      interpolantFmgr = pInterpolantFmgr;
+    }
+
+    @Override
+    public boolean performRefinement(
+        ARGReachedSet pReached,
+        List<ARGState> pAbstractionStatesTrace,
+        List<BooleanFormula> pInterpolants,
+        boolean pRepeatedCounterexample)
+        throws CPAException, InterruptedException {
+
+      final FormulaManagerView itpFmgr = interpolantFmgr;
+      if (itpFmgr == null) {
+        return super.performRefinement(
+            pReached, pAbstractionStatesTrace, pInterpolants, pRepeatedCounterexample);
+      }
+
+      // The predicates are created by the abstraction manager of the analysis,
+      // which is shared between all adapters refining in parallel
+      synchronized (solver) {
+        FormulaManagerView fmgr = solver.getFormulaManager();
+        List<BooleanFormula> interpolants =
+            transformedImmutableListCopy(
+                pInterpolants, itp -> fmgr.translateFrom(itp, itpFmgr));
+        return super.performRefinement(
+            pReached, pAbstractionStatesTrace, interpolants, pRepeatedCounterexample);
+      }
     }
 
     @Override
@@ -8,10 +8,12 @@
 
 package org.sosy_lab.cpachecker.cpa.usage.refinement;
 
+import com.google.common.collect.ImmutableList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -72,31 +74,65 @@ public class RefinementBlockFactory {
   @Option(name = "pathEquality", description = "The way how to identify two paths as equal")
   PathEquation pathEquation = PathEquation.CFANodeId;
 
+  @Option(
+      name = "refinementThreads",
+      description =
+          "The number of threads that refine unsafe identifiers in parallel. "
+              + "Each thread has its own copy of the refinement blocks after the "
+              + "IdentifierIterator and its own solver.",
+      secure = true)
+  @IntegerOption(min = 1)
+  private int refinementThreads = 1;
+
   public RefinementBlockFactory(ConfigurableProgramAnalysis pCpa, Configuration pConfig) throws InvalidConfigurationException {
     cpa = pCpa;
     config = pConfig;
     pConfig.inject(this);
   }
 
-  @SuppressWarnings("unchecked")
   public Refiner create() throws InvalidConfigurationException {
     BAMCPA bamCpa = CPAs.retrieveCPA(cpa, BAMCPA.class);
     UsageCPA usCPA = CPAs.retrieveCPA(cpa, UsageCPA.class);
     LogManager logger = usCPA.getLogger();
 
+    Pair<RefinementInterface, currentInnerBlockType> chain = createChain(0, bamCpa, logger);
+    RefinementInterface currentBlock = chain.getFirst();
+    if (chain.getSecond() == currentInnerBlockType.ReachedSet) {
+      assert currentBlock instanceof Refiner;
+      return (Refiner) currentBlock;
+    } else {
+      throw new InvalidConfigurationException("The first block is not take a reached set as parameter");
+    }
+  }
+
+  /**
+   * Create the blocks of the refinement chain starting with the given position.
+   * Returns the first block and the type of its input.
+   */
+  @SuppressWarnings("unchecked")
+  private Pair<RefinementInterface, currentInnerBlockType> createChain(
+      int pFirstBlock, BAMCPA bamCpa, LogManager logger) throws InvalidConfigurationException {
     //Tricky way to create the chain, but it is difficult to dynamically know the parameter types
     RefinementInterface currentBlock = new RefinementPairStub();
     currentInnerBlockType currentBlockType = currentInnerBlockType.ExtendedARGPath;
 
-    for (int i = RefinementChain.size() - 1; i >= 0; i--) {
+    for (int i = RefinementChain.size() - 1; i >= pFirstBlock; i--) {
 
       RefinementBlockTypes currentType = RefinementChain.get(i);
       if (currentBlockType == currentType.innerType) {
         switch (currentType) {
           case IdentifierIterator:
+            ImmutableList.Builder<ConfigurableRefinementBlock<SingleIdentifier>> innerChains =
+                ImmutableList.builder();
+            innerChains.add((ConfigurableRefinementBlock<SingleIdentifier>) currentBlock);
+            for (int thread = 1; thread < refinementThreads; thread++) {
+              innerChains.add(
+                  (ConfigurableRefinementBlock<SingleIdentifier>)
+                      createChain(i + 1, bamCpa, logger).getFirst());
+            }
             currentBlock =
                 new IdentifierIterator(
-                    (ConfigurableRefinementBlock<SingleIdentifier>) currentBlock,
+                    innerChains.build(),
                     config,
                     cpa,
                     bamCpa.getTransferRelation());
@@ -126,7 +162,7 @@ public class RefinementBlockFactory {
 
           case PredicateRefiner:
             currentBlock = new PredicateRefinerAdapter((ConfigurableRefinementBlock<Pair<ExtendedARGPath, ExtendedARGPath>>) currentBlock,
-                cpa, logger);
+                cpa, logger, refinementThreads > 1);
             break;
 
           case CallstackFilter:
@@ -155,11 +191,6 @@ public class RefinementBlockFactory {
         throw new InvalidConfigurationException(currentType + " can not precede the " + currentBlock.getClass().getSimpleName());
       }
     }
-    if (currentBlockType == currentInnerBlockType.ReachedSet) {
-      assert currentBlock instanceof Refiner;
-      return (Refiner) currentBlock;
-    } else {
-      throw new InvalidConfigurationException("The first block is not take a reached set as parameter");
-    }
+    return Pair.of(currentBlock, currentBlockType);
   }
 }
@@ -10,8 +10,10 @@ package org.sosy_lab.cpachecker.cpa.usage.storage;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.BitSet;
 import java.util.NavigableSet;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cpa.lock.DeadLockState.DeadLockTreeNode;
 import org.sosy_lab.cpachecker.cpa.lock.LockIdentifier;
 import org.sosy_lab.cpachecker.cpa.usage.UsageInfo;
@@ -74,30 +76,16 @@ public class UnsafeDetector {
   }
 
   private boolean isUnsafe(NavigableSet<UsagePoint> points) {
-    for (UsagePoint point1 : points) {
-      for (UsagePoint point2 : points.tailSet(point1)) {
-        if (isUnsafePair(point1, point2)) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return findUnsafePair(new UsagePointIndex(points), true) != null;
   }
 
   private Pair<UsagePoint, UsagePoint> getUnsafePair(NavigableSet<UsagePoint> set) {
-
-    for (UsagePoint point1 : set) {
-      for (UsagePoint point2 : set.tailSet(point1)) {
-        if (point1.equals(point2)) {
-          /* There can be an unsafe even with only one usage,
-           * but at first we find two different usages
-           */
-          continue;
-        }
-        if (isUnsafePair(point1, point2)) {
-          return Pair.of(point1, point2);
-        }
-      }
+    /* There can be an unsafe even with only one usage,
+     * but at first we find two different usages
+     */
+    Pair<UsagePoint, UsagePoint> result = findUnsafePair(new UsagePointIndex(set), false);
+    if (result != null) {
+      return result;
     }
     // Now we find an unsafe only from one usage
     if (!config.ignoreEmptyLockset()) {
@@ -111,6 +99,28 @@ public class UnsafeDetector {
     return null;
   }
 
+  /**
+   * Search for a pair of points (point1, point2) with point1 &lt;= point2, which is unsafe. Only
+   * points that do not share a lock are compared, and for races the first point has to be a write
+   * access (because writes are ordered before reads).
+   */
+  private @Nullable Pair<UsagePoint, UsagePoint> findUnsafePair(
+      UsagePointIndex index, boolean includeSamePoint) {
+    final int end =
+        config.getUnsafeMode() == UnsafeMode.RACE ? index.getFirstRead() : index.size();
+    for (int i = 0; i < end; i++) {
+      UsagePoint point1 = index.get(i);
+      BitSet candidates = index.getLockCompatiblePoints(i, includeSamePoint ? i : i + 1);
+      for (int j = candidates.nextSetBit(0); j >= 0; j = candidates.nextSetBit(j + 1)) {
+        UsagePoint point2 = index.get(j);
+        if (isUnsafePair(point1, point2)) {
+          return Pair.of(point1, point2);
+        }
+      }
+    }
+    return null;
+  }
+
   public boolean isUnsafePair(UsagePoint point1, UsagePoint point2) {
     if (point1.isCompatible(point2)) {
       switch (config.getUnsafeMode()) {
@@ -35,6 +35,14 @@ public final class UsageConfiguration {
       secure = true)
   private String intLockName = null;
 
+  @Option(
+      name = "unsafedetector.parallel",
+      description =
+          "search for unsafes of different identifiers in parallel, "
+              + "using all available processors",
+      secure = true)
+  private boolean parallelDetection = false;
+
   public UsageConfiguration(Configuration config) throws InvalidConfigurationException {
     config.inject(this);
   }
@@ -54,4 +62,8 @@ public final class UsageConfiguration {
   String getIntLockName() {
     return intLockName;
   }
+
+  boolean useParallelDetection() {
+    return parallelDetection;
+  }
 }
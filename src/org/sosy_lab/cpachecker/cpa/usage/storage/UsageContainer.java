@@ -12,6 +12,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import java.util.ArrayDeque;
@@ -27,6 +28,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cpa.lock.LockState;
 import org.sosy_lab.cpachecker.cpa.lock.LockState.LockStateBuilder;
@@ -62,6 +64,7 @@ public class UsageContainer {
   private final StatTimer resetTimer = new StatTimer("Time for reseting unsafes");
   private final StatTimer copyTimer = new StatTimer("Time for filling global container");
   private final StatTimer emptyEffectsTimer = new StatTimer("Time for coping usages");
+  private final StatTimer detectionTimer = new StatTimer("Time for detecting unsafes");
 
   int unsafeUsages = -1;
   int totalIds = 0;
@@ -207,20 +210,25 @@ public class UsageContainer {
     if (unsafeUsages == -1) {
       processedUnsafes.clear();
       unsafeUsages = 0;
-      Set<SingleIdentifier> toDelete = new HashSet<>();
-
-      for (Entry<SingleIdentifier, UnrefinedUsagePointSet> entry : unrefinedIds.entrySet()) {
-        UnrefinedUsagePointSet tmpList = entry.getValue();
-        if (detector.isUnsafe(tmpList)) {
-          unsafeUsages += tmpList.size();
-        } else {
-          SingleIdentifier id = entry.getKey();
-          toDelete.add(id);
-          falseUnsafes.add(id);
-        }
+      detectionTimer.start();
+      // the identifiers are independent, and the detector does not modify the usages
+      Stream<Entry<SingleIdentifier, UnrefinedUsagePointSet>> entries =
+          unrefinedIds.entrySet().stream();
+      if (config.useParallelDetection()) {
+        entries = entries.parallel();
       }
+      Set<SingleIdentifier> toDelete =
+          entries
+              .filter(entry -> !detector.isUnsafe(entry.getValue()))
+              .map(Entry::getKey)
+              .collect(ImmutableSet.toImmutableSet());
+      detectionTimer.stop();
+
+      falseUnsafes.addAll(toDelete);
       toDelete.forEach(this::removeIdFromCaches);
 
+      unrefinedIds.forEach((id, list) -> unsafeUsages += list.size());
+
       refinedIds.forEach((id, list) -> unsafeUsages += list.size());
 
       if (initialSet == null) {
@@ -385,7 +393,8 @@ public class UsageContainer {
         .put(failedUsages)
         .put(resetTimer)
         .put(copyTimer)
-        .put(emptyEffectsTimer);
+        .put(emptyEffectsTimer)
+        .put(detectionTimer);
   }
 
   public Set<SingleIdentifier> getProcessedUnsafes() {
@@ -0,0 +1,84 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.usage.storage;
+
+import com.google.common.collect.ImmutableList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import org.sosy_lab.cpachecker.cpa.lock.LockIdentifier;
+import org.sosy_lab.cpachecker.cpa.lock.LockState.LockTreeNode;
+import org.sosy_lab.cpachecker.cpa.usage.UsageInfo.Access;
+
+/**
+ * An index over a sorted set of usage points, which allows to enumerate only those points that are
+ * compatible with a given point with respect to their lock sets, i.e., that do not hold a common
+ * lock. For this, it stores for each lock the set of points holding it, such that the incompatible
+ * points can be excluded with a few bit operations instead of intersecting the lock sets pairwise.
+ *
+ * <p>The index is only a filter: points that are returned as candidates still have to be checked
+ * with {@link UnsafeDetector#isUnsafePair(UsagePoint, UsagePoint)}.
+ */
+final class UsagePointIndex {
+
+  private final ImmutableList<UsagePoint> points;
+  private final Map<LockIdentifier, BitSet> pointsWithLock = new HashMap<>();
+  private final int firstRead;
+
+  UsagePointIndex(NavigableSet<UsagePoint> pPoints) {
+    points = ImmutableList.copyOf(pPoints);
+    int read = points.size();
+    for (int i = 0; i < points.size(); i++) {
+      UsagePoint point = points.get(i);
+      if (read == points.size() && point.getAccess() == Access.READ) {
+        read = i;
+      }
+      LockTreeNode locks = point.get(LockTreeNode.class);
+      if (locks != null) {
+        for (LockIdentifier lock : locks) {
+          pointsWithLock.computeIfAbsent(lock, k -> new BitSet(points.size())).set(i);
+        }
+      }
+    }
+    firstRead = read;
+  }
+
+  int size() {
+    return points.size();
+  }
+
+  UsagePoint get(int pIndex) {
+    return points.get(pIndex);
+  }
+
+  /**
+   * Return the index of the first point with a read access. Points are ordered by their access
+   * first, so all points before this index have a write access.
+   */
+  int getFirstRead() {
+    return firstRead;
+  }
+
+  /**
+   * Return the indices of all points starting at index <code>pFrom</code>, which do not share a
+   * lock with the point at index <code>pIndex</code>.
+   */
+  BitSet getLockCompatiblePoints(int pIndex, int pFrom) {
+    BitSet result = new BitSet(points.size());
+    result.set(pFrom, points.size());
+    LockTreeNode locks = points.get(pIndex).get(LockTreeNode.class);
+    if (locks != null) {
+      for (LockIdentifier lock : locks) {
+        result.andNot(pointsWithLock.get(lock));
+      }
+    }
+    return result;
+  }
+}
@@ -10,15 +10,19 @@ package org.sosy_lab.cpachecker.cpa.value;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -59,6 +63,7 @@ import org.sosy_lab.cpachecker.cpa.value.symbolic.SymbolicValueAnalysisPrecision
 import org.sosy_lab.cpachecker.cpa.value.symbolic.SymbolicValueAnalysisPrecisionAdjustment.SymbolicStatistics;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.SymbolicValueAssigner;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicValue;
+import org.sosy_lab.cpachecker.util.CFAFunctionFingerprints;
 import org.sosy_lab.cpachecker.util.StateToFormulaWriter;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 import org.sosy_lab.cpachecker.util.states.MemoryLocationValueHandler;
@@ -97,6 +102,16 @@ public class ValueAnalysisCPA extends AbstractCPA
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private Path initialPrecisionFile = null;
 
+  @Option(
+      secure = true,
+      description =
+          "function fingerprints (cf. option cfa.exportFingerprints) of the program version"
+              + " for which the initial precision was computed. If given, locations of unchanged"
+              + " functions are mapped to the corresponding locations of the current program, and"
+              + " locations of changed functions are replaced by all locations of the function.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path initialPrecisionFingerprints = null;
+
   @Option(
       secure = true,
       name = "unknownValueHandling",
@@ -191,10 +206,30 @@ public class ValueAnalysisCPA extends AbstractCPA
       return mapping;
     }
 
+    CFAFunctionFingerprints previousFingerprints = null;
+    Map<Integer, Integer> previousToCurrentNodeIds = null;
+    if (initialPrecisionFingerprints != null) {
+      try {
+        previousFingerprints = CFAFunctionFingerprints.read(initialPrecisionFingerprints);
+        previousToCurrentNodeIds =
+            CFAFunctionFingerprints.compute(pCfa).mapNodeNumbersFrom(previousFingerprints);
+      } catch (IOException e) {
+        // the node ids in the precision file belong to another program version and cannot be
+        // used without the fingerprints
+        logger.logUserException(
+            Level.WARNING,
+            e,
+            "Could not read function fingerprints, ignoring precision from file named "
+                + initialPrecisionFile);
+        return mapping;
+      }
+    }
+
     Map<Integer, CFANode> idToCfaNode = createMappingForCFANodes(pCfa);
     final Pattern CFA_NODE_PATTERN = Pattern.compile("N([0-9][0-9]*)");
 
-    CFANode location = getDefaultLocation(idToCfaNode);
+    Collection<CFANode> locations = Collections.singletonList(getDefaultLocation(idToCfaNode));
+    ImmutableListMultimap<String, CFANode> nodesOfFunctions = null; // only needed for changes
     for (String currentLine : contents) {
       if (currentLine.trim().isEmpty()) {
         continue;
@@ -203,11 +238,32 @@ public class ValueAnalysisCPA extends AbstractCPA
         String scopeSelectors = currentLine.substring(0, currentLine.indexOf(":"));
         Matcher matcher = CFA_NODE_PATTERN.matcher(scopeSelectors);
         if (matcher.matches()) {
-          location = idToCfaNode.get(Integer.parseInt(matcher.group(1)));
+          int nodeId = Integer.parseInt(matcher.group(1));
+          if (previousToCurrentNodeIds == null) {
+            locations = Collections.singletonList(idToCfaNode.get(nodeId));
+          } else if (previousToCurrentNodeIds.containsKey(nodeId)) {
+            locations =
+                Collections.singletonList(idToCfaNode.get(previousToCurrentNodeIds.get(nodeId)));
+          } else {
+            // the function was changed, the location has no counterpart in this version,
+            // so the variables are tracked in the whole function
+            Optional<String> function = previousFingerprints.getFunctionOfNode(nodeId);
+            if (function.isPresent() && pCfa.getAllFunctionNames().contains(function.get())) {
+              if (nodesOfFunctions == null) {
+                nodesOfFunctions = Multimaps.index(pCfa.getAllNodes(), CFANode::getFunctionName);
+              }
+              locations = nodesOfFunctions.get(function.get());
+            } else {
+              locations = Collections.singletonList(getDefaultLocation(idToCfaNode));
+            }
+          }
         }
 
       } else {
-        mapping.put(location, MemoryLocation.valueOf(currentLine));
+        MemoryLocation memoryLocation = MemoryLocation.valueOf(currentLine);
+        for (CFANode location : locations) {
+          mapping.put(location, memoryLocation);
+        }
       }
     }
 
@@ -0,0 +1,252 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.parallel;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy.PCStrategyStatistics;
+import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
+import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningUtils;
+
+/**
+ * The common part of all strategies that check the partitions of a proof in parallel.
+ *
+ * <p>Partitions become available for checking when they are read (each read partition is
+ * signaled via {@link #getPartitionsRead()}). A number of {@link ParallelPartitionChecker}s takes
+ * the available partitions one after another, i.e., a checker that is done with its partition
+ * takes the next unchecked one, such that the work is balanced between the checkers. As soon as
+ * one partition is found to be invalid, the checks of all other partitions are cancelled.
+ *
+ * <p>After all partitions are checked, {@link #awaitResult()} checks whether the initial state and
+ * all states that belong to other partitions are covered, and whether the property holds.
+ *
+ * <p>The checkers of all pipelines run in one shared executor with one thread per available
+ * processor and a bounded queue. If the queue is full, the thread that starts a checker runs it
+ * itself, so starting checkers is slowed down instead of piling up tasks. Readers do not run in
+ * this executor but in threads of their own pipeline, and they have to be started before the
+ * checkers. Thus a checker that waits for a partition, even one that runs in the starting thread,
+ * never prevents the reader of that partition from running.
+ */
+public final class PartitionCheckingPipeline implements AutoCloseable {
+
+  private static final ExecutorService CHECKERS =
+      newBoundedExecutor(
+          Runtime.getRuntime().availableProcessors(),
+          Runtime.getRuntime().availableProcessors(),
+          "PCC-checker-%d");
+
+  private final PartitioningIOHelper ioHelper;
+  private final PropertyCheckerCPA cpa;
+  private final PCStrategyStatistics stats;
+  private final LogManager logger;
+
+  /** Used to cancel the checks of all partitions when one partition is invalid. */
+  private final ShutdownManager shutdownManager;
+
+  private final AtomicBoolean checkResult = new AtomicBoolean(true);
+  private final AtomicInteger acquiredPartitions = new AtomicInteger(0);
+  private final AtomicInteger nextPartition = new AtomicInteger(0);
+  private final Semaphore partitionsRead;
+  private final Semaphore partitionsChecked = new Semaphore(0);
+  private final Lock lock = new ReentrantLock();
+
+  private final Collection<AbstractState> certificate;
+  private final Multimap<CFANode, AbstractState> partitionNodes = HashMultimap.create();
+  private final Collection<AbstractState> inOtherPartition = new ArrayList<>();
+  private final AbstractState initialState;
+  private final Precision initialPrecision;
+
+  private final ExecutorService readers =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder().setNameFormat("PCC-reader-%d").setDaemon(true).build());
+  private final List<Future<?>> checkers = new ArrayList<>();
+
+  /**
+   * Create a new pipeline for checking the partitions of the given helper.
+   *
+   * @param pAllPartitionsRead whether all partitions are already read, otherwise each read
+   *     partition has to be signaled via {@link #getPartitionsRead()}.
+   */
+  public PartitionCheckingPipeline(
+      final ReachedSet pReachedSet,
+      final PartitioningIOHelper pIOHelper,
+      final PropertyCheckerCPA pCpa,
+      final boolean pAllPartitionsRead,
+      final PCStrategyStatistics pStats,
+      final ShutdownNotifier pShutdownNotifier,
+      final LogManager pLogger) {
+    ioHelper = pIOHelper;
+    cpa = pCpa;
+    stats = pStats;
+    logger = pLogger;
+    shutdownManager = ShutdownManager.createWithParent(pShutdownNotifier);
+    partitionsRead = new Semaphore(pAllPartitionsRead ? ioHelper.getNumPartitions() : 0);
+    certificate = Sets.newHashSetWithExpectedSize(ioHelper.getSavedReachedSetSize());
+    initialState = pReachedSet.popFromWaitlist();
+    initialPrecision = pReachedSet.getPrecision(initialState);
+  }
+
+  /** The result of the check, readers set it to false if reading fails. */
+  public AtomicBoolean getCheckResult() {
+    return checkResult;
+  }
+
+  /** Readers release one permit for each partition that was read. */
+  public Semaphore getPartitionsRead() {
+    return partitionsRead;
+  }
+
+  /** Checkers release one permit for each partition that was checked. */
+  public Semaphore getPartitionsChecked() {
+    return partitionsChecked;
+  }
+
+  /**
+   * Create an executor with the given number of threads and a queue of the given capacity. If the
+   * queue is full, the submitting thread runs the task itself. The threads are daemon threads that
+   * terminate when idle, so the executor does not need to be shut down.
+   */
+  @VisibleForTesting
+  static ThreadPoolExecutor newBoundedExecutor(
+      final int pThreads, final int pQueueCapacity, final String pNameFormat) {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            pThreads,
+            pThreads,
+            1,
+            TimeUnit.MINUTES,
+            new ArrayBlockingQueue<>(pQueueCapacity),
+            new ThreadFactoryBuilder().setNameFormat(pNameFormat).setDaemon(true).build(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Run the given reader in a thread of this pipeline. Readers have to be started before the
+   * checkers. They are cancelled with the checkers.
+   */
+  public void startReader(final Runnable pReader) {
+    checkState(checkers.isEmpty(), "readers have to be started before the checkers");
+    readers.execute(pReader);
+  }
+
+  /**
+   * Start the given number of checkers in the shared executor. If its queue is full, some checkers
+   * run in the current thread before this method returns.
+   */
+  public void startCheckers(final int pThreads) {
+    for (int i = 0; i < pThreads; i++) {
+      checkers.add(CHECKERS.submit(newChecker()));
+    }
+  }
+
+  /** Create a new checker, e.g., to let the current thread help checking. */
+  public ParallelPartitionChecker newChecker() {
+    return new ParallelPartitionChecker(
+        acquiredPartitions,
+        nextPartition,
+        checkResult,
+        partitionsRead,
+        partitionsChecked,
+        lock,
+        ioHelper,
+        partitionNodes,
+        certificate,
+        inOtherPartition,
+        initialPrecision,
+        cpa.getStopOperator(),
+        cpa.getTransferRelation(),
+        shutdownManager.getNotifier(),
+        logger);
+  }
+
+  /**
+   * Wait until all partitions are checked, then check the states that are in other partitions and
+   * the property.
+   */
+  public boolean awaitResult() throws CPAException, InterruptedException {
+    partitionsChecked.acquire(ioHelper.getNumPartitions());
+
+    if (!checkResult.get()) {
+      cancel();
+      return false;
+    }
+
+    logger.log(Level.INFO, "Add initial state to elements for which it will be checked if they are covered by partition nodes of certificate.");
+    inOtherPartition.add(initialState);
+
+    logger.log(Level.INFO,
+            "Check if initial state and all nodes which should be contained in different partition are covered by certificate (partition node).");
+    if (!PartitioningUtils.areElementsCoveredByPartitionElement(inOtherPartition, partitionNodes, cpa.getStopOperator(),
+        initialPrecision)) {
+      logger.log(Level.SEVERE,
+          "Initial state or a state which should be in other partition is not covered by certificate.");
+      return false;
+    }
+
+    logger.log(Level.INFO, "Check property.");
+    stats.getPropertyCheckingTimer().start();
+    try {
+      if (!cpa.getPropChecker().satisfiesProperty(certificate)) {
+        logger.log(Level.SEVERE, "Property violated");
+        return false;
+      }
+    } finally {
+      stats.getPropertyCheckingTimer().stop();
+    }
+
+    return true;
+  }
+
+  private void cancel() {
+    shutdownManager.requestShutdown("Checking of another partition failed");
+    checkers.forEach(checker -> checker.cancel(true));
+    readers.shutdownNow();
+  }
+
+  /** Shut down the readers of this pipeline, and cancel the remaining tasks if the check failed. */
+  @Override
+  public void close() {
+    if (checkResult.get()) {
+      readers.shutdown();
+    } else {
+      cancel();
+    }
+  }
+}
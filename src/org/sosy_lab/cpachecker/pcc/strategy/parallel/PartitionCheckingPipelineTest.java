@@ -0,0 +1,57 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.parallel;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class PartitionCheckingPipelineTest {
+
+  @Test
+  public void testFullQueueSlowsDownSubmitter() throws InterruptedException {
+    ThreadPoolExecutor executor = PartitionCheckingPipeline.newBoundedExecutor(1, 1, "test-%d");
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicReference<Thread> queuedRunner = new AtomicReference<>();
+    AtomicReference<Thread> overflowRunner = new AtomicReference<>();
+    try {
+      // occupy the only worker and the only queue slot
+      executor.execute(
+          () -> {
+            started.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+      executor.execute(() -> queuedRunner.set(Thread.currentThread()));
+      assertThat(executor.getQueue()).hasSize(1);
+
+      // the submitter has to run the next task itself before it can continue
+      executor.execute(() -> overflowRunner.set(Thread.currentThread()));
+      assertThat(overflowRunner.get()).isSameInstanceAs(Thread.currentThread());
+      assertThat(queuedRunner.get()).isNull();
+
+      release.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(queuedRunner.get()).isNotSameInstanceAs(Thread.currentThread());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+}
@@ -8,9 +8,6 @@
 
 package org.sosy_lab.cpachecker.pcc.strategy.parallel.interleaved;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -20,13 +17,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.zip.ZipInputStream;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -34,19 +26,15 @@ import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
-import org.sosy_lab.cpachecker.cfa.model.CFANode;
-import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
-import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
-import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelPartitionChecker;
+import org.sosy_lab.cpachecker.pcc.strategy.parallel.PartitionCheckingPipeline;
 import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.PartialReachedSetDirectedGraph;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
-import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningUtils;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Triple;
 
@@ -55,7 +43,6 @@ public class PartialReachedSetIOCheckingInterleavedStrategy extends AbstractStra
   private final PartitioningIOHelper ioHelper;
   private final PropertyCheckerCPA cpa;
   private final ShutdownNotifier shutdownNotifier;
-  private final Lock lock = new ReentrantLock();
 
   public PartialReachedSetIOCheckingInterleavedStrategy(
       final Configuration pConfig,
@@ -81,66 +68,22 @@ public class PartialReachedSetIOCheckingInterleavedStrategy extends AbstractStra
 
   @Override
   public boolean checkCertificate(final ReachedSet pReachedSet) throws CPAException, InterruptedException {
-    AtomicBoolean checkResult = new AtomicBoolean(true);
-    AtomicInteger nextId = new AtomicInteger(0);
-    AtomicInteger availableForChecking =new AtomicInteger(0);
-    Semaphore partitionsRead = new Semaphore(0);
-    Semaphore partitionChecked = new Semaphore(0);
-    Collection<AbstractState> certificate = Sets.newHashSetWithExpectedSize(ioHelper.getSavedReachedSetSize());
-    Multimap<CFANode, AbstractState> partitionNodes = HashMultimap.create();
-    Collection<AbstractState> inOtherPartition = new ArrayList<>();
-    AbstractState initialState = pReachedSet.popFromWaitlist();
-    Precision initPrec = pReachedSet.getPrecision(initialState);
-
-   logger.log(Level.INFO, "Create and start threads");
-    ExecutorService executor = Executors.newFixedThreadPool(numThreads-1);
-    try {
-      for (int i = 0; i < numThreads-1; i++) {
-        executor.execute(new ParallelPartitionChecker(availableForChecking, nextId, checkResult, partitionsRead,
-            partitionChecked, lock, ioHelper, partitionNodes, certificate, inOtherPartition, initPrec, cpa
-                .getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger));
-      }
-
-      // read partitions
-      new PartitionReader(checkResult, partitionsRead, partitionChecked).run();
-
-      if (!checkResult.get()) { return false; }
-
-      // help checking remaining partitions
-      new ParallelPartitionChecker(availableForChecking, nextId, checkResult, partitionsRead,
-          partitionChecked, lock, ioHelper, partitionNodes, certificate, inOtherPartition, initPrec, cpa
-              .getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger).run();
-
-      partitionChecked.acquire(ioHelper.getNumPartitions());
-
-      if (!checkResult.get()) { return false; }
-
-      logger.log(Level.INFO, "Add initial state to elements for which it will be checked if they are covered by partition nodes of certificate.");
-      inOtherPartition.add(initialState);
-
-      logger.log(Level.INFO,
-              "Check if initial state and all nodes which should be contained in different partition are covered by certificate (partition node).");
-      if (!PartitioningUtils.areElementsCoveredByPartitionElement(inOtherPartition, partitionNodes, cpa.getStopOperator(),
-          initPrec)) {
-        logger.log(Level.SEVERE,
-            "Initial state or a state which should be in other partition is not covered by certificate.");
-        return false;
-      }
-
-      logger.log(Level.INFO, "Check property.");
-      stats.getPropertyCheckingTimer().start();
-      try {
-        if (!cpa.getPropChecker().satisfiesProperty(certificate)) {
-          logger.log(Level.SEVERE, "Property violated");
-          return false;
-        }
-      } finally {
-        stats.getPropertyCheckingTimer().stop();
-      }
-
-      return true;
-    } finally {
-      executor.shutdown();
+    try (PartitionCheckingPipeline pipeline =
+        new PartitionCheckingPipeline(
+            pReachedSet, ioHelper, cpa, false, stats, shutdownNotifier, logger)) {
+      logger.log(Level.INFO, "Create and start threads");
+      // read partitions in a separate thread
+      pipeline.startReader(
+          new PartitionReader(
+              pipeline.getCheckResult(),
+              pipeline.getPartitionsRead(),
+              pipeline.getPartitionsChecked()));
+      pipeline.startCheckers(numThreads - 1);
+
+      // help checking the partitions
+      pipeline.newChecker().run();
+
+      return pipeline.awaitResult();
     }
   }
 
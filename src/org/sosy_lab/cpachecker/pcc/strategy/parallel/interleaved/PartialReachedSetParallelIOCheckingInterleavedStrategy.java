@@ -8,22 +8,13 @@
 
 package org.sosy_lab.cpachecker.pcc.strategy.parallel.interleaved;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -32,19 +23,15 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
-import org.sosy_lab.cpachecker.cfa.model.CFANode;
-import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
-import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
-import org.sosy_lab.cpachecker.pcc.strategy.parallel.ParallelPartitionChecker;
+import org.sosy_lab.cpachecker.pcc.strategy.parallel.PartitionCheckingPipeline;
 import org.sosy_lab.cpachecker.pcc.strategy.parallel.io.ParallelPartitionReader;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
-import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningUtils;
 
 @Options(prefix = "pcc.interleaved")
 public class PartialReachedSetParallelIOCheckingInterleavedStrategy extends AbstractStrategy {
@@ -87,94 +74,33 @@ public class PartialReachedSetParallelIOCheckingInterleavedStrategy extends Abst
 
   @Override
   public boolean checkCertificate(final ReachedSet pReachedSet) throws CPAException, InterruptedException {
-    AtomicBoolean checkResult = new AtomicBoolean(true);
-    Semaphore partitionChecked = new Semaphore(0);
-    Semaphore partitionsRead = new Semaphore(0);
-    Collection<AbstractState> certificate = Sets.newHashSetWithExpectedSize(ioHelper.getNumPartitions());
-    Multimap<CFANode, AbstractState> partitionNodes = HashMultimap.create();
-    Collection<AbstractState> inOtherPartition = new ArrayList<>();
-    AbstractState initialState = pReachedSet.popFromWaitlist();
-    Precision initPrec = pReachedSet.getPrecision(initialState);
-    Lock lock = new ReentrantLock();
-
-    ExecutorService executor = null, readExecutor = null, checkExecutor = null;
-    logger.log(Level.INFO, "Create and start threads");
-    try {
+    try (PartitionCheckingPipeline pipeline =
+        new PartitionCheckingPipeline(pReachedSet, ioHelper, cpa, false, stats, shutdown, logger)) {
+      logger.log(Level.INFO, "Create and start threads");
       if (numReadThreads == 0) {
-        executor = Executors.newFixedThreadPool(numThreads);
-        startReadingThreads(numThreads, executor, checkResult, partitionsRead);
-        startCheckingThreads(numThreads, executor, checkResult, partitionsRead, partitionChecked, certificate,
-            partitionNodes, inOtherPartition,
-            initPrec, lock);
+        startReadingThreads(numThreads, pipeline);
+        pipeline.startCheckers(numThreads);
       } else {
-        readExecutor = Executors.newFixedThreadPool(numReadThreads);
-        startReadingThreads(numReadThreads, readExecutor, checkResult, partitionsRead);
-        checkExecutor = Executors.newFixedThreadPool(numThreads - numReadThreads);
-        startCheckingThreads(numThreads - numReadThreads, checkExecutor, checkResult, partitionsRead, partitionChecked,
-            certificate, partitionNodes, inOtherPartition,
-            initPrec, lock);
+        startReadingThreads(numReadThreads, pipeline);
+        pipeline.startCheckers(numThreads - numReadThreads);
       }
 
-      partitionChecked.acquire(ioHelper.getNumPartitions());
-
-      if (!checkResult.get()) { return false; }
-
-      logger.log(Level.INFO, "Add initial state to elements for which it will be checked if they are covered by partition nodes of certificate.");
-      inOtherPartition.add(initialState);
-
-      logger.log(Level.INFO,
-              "Check if initial state and all nodes which should be contained in different partition are covered by certificate (partition node).");
-      if (!PartitioningUtils.areElementsCoveredByPartitionElement(inOtherPartition, partitionNodes, cpa.getStopOperator(),
-          initPrec)) {
-        logger.log(Level.SEVERE,
-            "Initial state or a state which should be in other partition is not covered by certificate.");
-        return false;
-      }
-
-      logger.log(Level.INFO, "Check property.");
-      stats.getPropertyCheckingTimer().start();
-      try {
-        if (!cpa.getPropChecker().satisfiesProperty(certificate)) {
-          logger.log(Level.SEVERE, "Property violated");
-          return false;
-        }
-      } finally {
-        stats.getPropertyCheckingTimer().stop();
-      }
-
-      return true;
-    } finally {
-      if (executor != null) {
-        executor.shutdown();
-      }
-      if (readExecutor != null) {
-        readExecutor.shutdown();
-      }
-      if (checkExecutor != null) {
-        checkExecutor.shutdown();
-      }
+      return pipeline.awaitResult();
     }
   }
 
-  private void startReadingThreads(final int threads, final ExecutorService pReadingExecutor, final AtomicBoolean pCheckResult,
-      final Semaphore partitionsRead) {
+  private void startReadingThreads(final int threads, final PartitionCheckingPipeline pPipeline) {
     AtomicInteger nextPartitionId = new AtomicInteger(0);
     for (int i = 0; i < threads; i++) {
-      pReadingExecutor.execute(new ParallelPartitionReader(pCheckResult, partitionsRead, nextPartitionId, this,
-          ioHelper, stats, logger));
-    }
-  }
-
-  private void startCheckingThreads(final int threads, final ExecutorService pCheckingExecutor, final AtomicBoolean pCheckResult,
-      final Semaphore pPartitionsRead, final Semaphore pPartitionChecked, final Collection<AbstractState> pCertificate,
-      final Multimap<CFANode, AbstractState> pInPartition, final Collection<AbstractState> pInOtherPartition,
-      final Precision pInitialPrecision, final Lock pLock) {
-    AtomicInteger availablePartitions = new AtomicInteger(0);
-    AtomicInteger nextId = new AtomicInteger(0);
-    for (int i = 0; i < threads; i++) {
-      pCheckingExecutor.execute(new ParallelPartitionChecker(availablePartitions, nextId, pCheckResult, pPartitionsRead,
-          pPartitionChecked, pLock, ioHelper, pInPartition, pCertificate, pInOtherPartition, pInitialPrecision, cpa
-              .getStopOperator(), cpa.getTransferRelation(), shutdown, logger));
+      pPipeline.startReader(
+          new ParallelPartitionReader(
+              pPipeline.getCheckResult(),
+              pPipeline.getPartitionsRead(),
+              nextPartitionId,
+              this,
+              ioHelper,
+              stats,
+              logger));
     }
   }
 
@@ -0,0 +1,233 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.partialcertificate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable weighted directed graph in compressed sparse row format, i.e., the outgoing edges of
+ * all nodes are stored consecutively in primitive arrays. This is much more compact than {@link
+ * WeightedGraph} and allows to coarsen large graphs in parallel (cf. {@link #contract(int[],
+ * int)}).
+ */
+public final class CompressedWeightedGraph {
+
+  private final int[] nodeWeights;
+
+  /** The outgoing edges of node i are stored at the indices edgeOffsets[i] to edgeOffsets[i+1]. */
+  private final int[] edgeOffsets;
+
+  private final int[] edgeTargets;
+  private final int[] edgeWeights;
+
+  private CompressedWeightedGraph(
+      int[] pNodeWeights, int[] pEdgeOffsets, int[] pEdgeTargets, int[] pEdgeWeights) {
+    nodeWeights = pNodeWeights;
+    edgeOffsets = pEdgeOffsets;
+    edgeTargets = pEdgeTargets;
+    edgeWeights = pEdgeWeights;
+  }
+
+  /** Create a compressed copy of the given graph, which has to contain all of its nodes. */
+  public static CompressedWeightedGraph of(WeightedGraph pGraph) {
+    int numNodes = pGraph.getNumNodes();
+    int[] nodeWeights = new int[numNodes];
+    int[] edgeOffsets = new int[numNodes + 1];
+    for (int node = 0; node < numNodes; node++) {
+      WeightedNode weightedNode = pGraph.getNode(node);
+      checkArgument(weightedNode != null, "Graph does not contain node %s", node);
+      nodeWeights[node] = weightedNode.getWeight();
+      edgeOffsets[node + 1] = edgeOffsets[node] + pGraph.getOutgoingEdges(node).size();
+    }
+
+    int[] edgeTargets = new int[edgeOffsets[numNodes]];
+    int[] edgeWeights = new int[edgeOffsets[numNodes]];
+    for (int node = 0; node < numNodes; node++) {
+      int index = edgeOffsets[node];
+      for (WeightedEdge edge : pGraph.getOutgoingEdges(node)) {
+        edgeTargets[index] = edge.getEndNode().getNodeNumber();
+        edgeWeights[index] = edge.getWeight();
+        index++;
+      }
+    }
+    return new CompressedWeightedGraph(nodeWeights, edgeOffsets, edgeTargets, edgeWeights);
+  }
+
+  public int getNumNodes() {
+    return nodeWeights.length;
+  }
+
+  public int getNumEdges() {
+    return edgeTargets.length;
+  }
+
+  /**
+   * Compute a maximal matching by visiting the nodes in random order and matching each unmatched
+   * node with the unmatched successor to which it has the heaviest edge (if there is any), like
+   * {@link org.sosy_lab.cpachecker.pcc.strategy.partitioning.HeavyEdgeMatchingGenerator}.
+   *
+   * @return an array that maps each node to the number of its super node, super nodes are
+   *     numbered consecutively starting at 0
+   */
+  public int[] computeHeavyEdgeMatching(Random pRandom) {
+    int numNodes = getNumNodes();
+    int[] matching = new int[numNodes];
+    Arrays.fill(matching, -1);
+
+    int[] permutation = IntStream.range(0, numNodes).toArray();
+    for (int i = numNodes - 1; i > 0; i--) {
+      int j = pRandom.nextInt(i + 1);
+      int tmp = permutation[i];
+      permutation[i] = permutation[j];
+      permutation[j] = tmp;
+    }
+
+    int currentSuperNode = 0;
+    for (int node : permutation) {
+      if (matching[node] < 0) {
+        int maxWeight = -1;
+        int maxNeighbor = -1;
+        for (int edge = edgeOffsets[node]; edge < edgeOffsets[node + 1]; edge++) {
+          int succ = edgeTargets[edge];
+          if (matching[succ] < 0 && succ != node && edgeWeights[edge] > maxWeight) {
+            maxWeight = edgeWeights[edge];
+            maxNeighbor = succ;
+          }
+        }
+        matching[node] = currentSuperNode;
+        if (maxNeighbor >= 0) {
+          matching[maxNeighbor] = currentSuperNode;
+        }
+        currentSuperNode++;
+      }
+    }
+    return matching;
+  }
+
+  /**
+   * Create the graph in which all nodes that are mapped to the same super node are contracted into
+   * one node. The weight of a super node is the sum of the weights of its nodes, and the weight of
+   * an edge between two super nodes is the sum of the weights of all edges between their nodes.
+   * Edges inside a super node are dropped. The super nodes are processed in parallel.
+   *
+   * @param pMatching maps each node to its super node
+   * @param pNumSuperNodes the number of super nodes, i.e., the maximal value in the matching + 1
+   */
+  public CompressedWeightedGraph contract(final int[] pMatching, final int pNumSuperNodes) {
+    checkArgument(pMatching.length == getNumNodes());
+    final int[][] members = getSuperNodeMembers(pMatching, pNumSuperNodes);
+
+    final int[] newNodeWeights = new int[pNumSuperNodes];
+    final int[][] newTargets = new int[pNumSuperNodes][];
+    final int[][] newWeights = new int[pNumSuperNodes][];
+
+    IntStream.range(0, pNumSuperNodes)
+        .parallel()
+        .forEach(
+            superNode -> {
+              // collect all outgoing edges of the members, as (target, weight) pairs
+              int numEdges = 0;
+              for (int member : members[superNode]) {
+                newNodeWeights[superNode] += nodeWeights[member];
+                numEdges += edgeOffsets[member + 1] - edgeOffsets[member];
+              }
+              long[] edges = new long[numEdges];
+              int size = 0;
+              for (int member : members[superNode]) {
+                for (int edge = edgeOffsets[member]; edge < edgeOffsets[member + 1]; edge++) {
+                  int target = pMatching[edgeTargets[edge]];
+                  if (target != superNode) {
+                    edges[size++] = ((long) target << 32) | (edgeWeights[edge] & 0xFFFFFFFFL);
+                  }
+                }
+              }
+
+              // sort by target and merge edges to the same target
+              Arrays.sort(edges, 0, size);
+              int[] targets = new int[size];
+              int[] weights = new int[size];
+              int merged = -1;
+              for (int i = 0; i < size; i++) {
+                int target = (int) (edges[i] >>> 32);
+                int weight = (int) edges[i];
+                if (merged >= 0 && targets[merged] == target) {
+                  weights[merged] += weight;
+                } else {
+                  merged++;
+                  targets[merged] = target;
+                  weights[merged] = weight;
+                }
+              }
+              newTargets[superNode] = Arrays.copyOf(targets, merged + 1);
+              newWeights[superNode] = Arrays.copyOf(weights, merged + 1);
+            });
+
+    int[] newOffsets = new int[pNumSuperNodes + 1];
+    for (int superNode = 0; superNode < pNumSuperNodes; superNode++) {
+      newOffsets[superNode + 1] = newOffsets[superNode] + newTargets[superNode].length;
+    }
+    int[] edgeTargetsResult = new int[newOffsets[pNumSuperNodes]];
+    int[] edgeWeightsResult = new int[newOffsets[pNumSuperNodes]];
+    for (int superNode = 0; superNode < pNumSuperNodes; superNode++) {
+      System.arraycopy(
+          newTargets[superNode],
+          0,
+          edgeTargetsResult,
+          newOffsets[superNode],
+          newTargets[superNode].length);
+      System.arraycopy(
+          newWeights[superNode],
+          0,
+          edgeWeightsResult,
+          newOffsets[superNode],
+          newWeights[superNode].length);
+    }
+    return new CompressedWeightedGraph(
+        newNodeWeights, newOffsets, edgeTargetsResult, edgeWeightsResult);
+  }
+
+  /** Compute for each super node the nodes that are mapped to it. */
+  public static int[][] getSuperNodeMembers(int[] pMatching, int pNumSuperNodes) {
+    int[] sizes = new int[pNumSuperNodes];
+    for (int superNode : pMatching) {
+      sizes[superNode]++;
+    }
+    int[][] members = new int[pNumSuperNodes][];
+    for (int superNode = 0; superNode < pNumSuperNodes; superNode++) {
+      members[superNode] = new int[sizes[superNode]];
+      sizes[superNode] = 0;
+    }
+    for (int node = 0; node < pMatching.length; node++) {
+      int superNode = pMatching[node];
+      members[superNode][sizes[superNode]++] = node;
+    }
+    return members;
+  }
+
+  /** Create a {@link WeightedGraph} with the same nodes and edges as this graph. */
+  public WeightedGraph toWeightedGraph() {
+    WeightedNode[] nodes = new WeightedNode[getNumNodes()];
+    for (int node = 0; node < nodes.length; node++) {
+      nodes[node] = new WeightedNode(node, nodeWeights[node]);
+    }
+    WeightedGraph graph = new WeightedGraph(nodes.length);
+    for (int node = 0; node < nodes.length; node++) {
+      graph.insertNode(nodes[node]);
+      for (int edge = edgeOffsets[node]; edge < edgeOffsets[node + 1]; edge++) {
+        graph.addNewEdge(
+            new WeightedEdge(nodes[node], nodes[edgeTargets[edge]], edgeWeights[edge]));
+      }
+    }
+    return graph;
+  }
+}
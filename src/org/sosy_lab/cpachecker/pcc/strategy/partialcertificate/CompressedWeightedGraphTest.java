@@ -0,0 +1,157 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.partialcertificate;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.pcc.strategy.partitioning.MultilevelBalancedGraphPartitioner;
+
+public class CompressedWeightedGraphTest {
+
+  private WeightedGraph graph;
+
+  @Before
+  public void setUp() {
+    WeightedNode[] nodes = new WeightedNode[6];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = new WeightedNode(i, i == 5 ? 2 : 1);
+    }
+    graph = new WeightedGraph(nodes.length);
+    for (WeightedNode node : nodes) {
+      graph.insertNode(node);
+    }
+    graph.addEdge(new WeightedEdge(nodes[0], nodes[1], 5));
+    graph.addEdge(new WeightedEdge(nodes[1], nodes[0], 5));
+    graph.addEdge(new WeightedEdge(nodes[1], nodes[2], 1));
+    graph.addEdge(new WeightedEdge(nodes[2], nodes[3], 5));
+    graph.addEdge(new WeightedEdge(nodes[0], nodes[3], 2));
+    graph.addEdge(new WeightedEdge(nodes[3], nodes[4], 1));
+    graph.addEdge(new WeightedEdge(nodes[4], nodes[5], 5));
+    graph.addEdge(new WeightedEdge(nodes[5], nodes[4], 5));
+    graph.addEdge(new WeightedEdge(nodes[2], nodes[5], 3));
+  }
+
+  private static Map<Integer, Integer> getOutgoingEdges(WeightedGraph pGraph, int pNode) {
+    Map<Integer, Integer> edges = new HashMap<>();
+    for (WeightedEdge edge : pGraph.getOutgoingEdges(pNode)) {
+      edges.put(edge.getEndNode().getNodeNumber(), edge.getWeight());
+    }
+    return edges;
+  }
+
+  @Test
+  public void testConversion() {
+    WeightedGraph converted = CompressedWeightedGraph.of(graph).toWeightedGraph();
+
+    assertThat(converted.getNumNodes()).isEqualTo(graph.getNumNodes());
+    assertThat(converted.getTotalNodeWeight()).isEqualTo(graph.getTotalNodeWeight());
+    for (int node = 0; node < graph.getNumNodes(); node++) {
+      assertThat(converted.getNode(node).getWeight()).isEqualTo(graph.getNode(node).getWeight());
+      assertThat(getOutgoingEdges(converted, node)).isEqualTo(getOutgoingEdges(graph, node));
+    }
+  }
+
+  @Test
+  public void testContract() {
+    CompressedWeightedGraph contracted =
+        CompressedWeightedGraph.of(graph).contract(new int[] {0, 0, 1, 1, 2, 2}, 3);
+    WeightedGraph result = contracted.toWeightedGraph();
+
+    assertThat(contracted.getNumNodes()).isEqualTo(3);
+    assertThat(result.getNode(0).getWeight()).isEqualTo(2);
+    assertThat(result.getNode(1).getWeight()).isEqualTo(2);
+    assertThat(result.getNode(2).getWeight()).isEqualTo(3);
+
+    // edges inside a super node are dropped, parallel edges are merged
+    assertThat(getOutgoingEdges(result, 0)).isEqualTo(ImmutableMap.of(1, 3));
+    assertThat(getOutgoingEdges(result, 1)).isEqualTo(ImmutableMap.of(2, 4));
+    assertThat(getOutgoingEdges(result, 2)).isEmpty();
+  }
+
+  @Test
+  public void testHeavyEdgeMatching() {
+    CompressedWeightedGraph compressed = CompressedWeightedGraph.of(graph);
+    int[] matching = compressed.computeHeavyEdgeMatching(new Random(0));
+
+    // the same seed yields the same matching
+    assertThat(compressed.computeHeavyEdgeMatching(new Random(0))).isEqualTo(matching);
+
+    int numSuperNodes = 0;
+    for (int superNode : matching) {
+      numSuperNodes = Math.max(numSuperNodes, superNode + 1);
+    }
+    int[][] members = CompressedWeightedGraph.getSuperNodeMembers(matching, numSuperNodes);
+    for (int[] superNode : members) {
+      // super nodes are numbered consecutively and contain one node or two adjacent nodes
+      assertThat(superNode.length).isAnyOf(1, 2);
+      if (superNode.length == 2) {
+        assertThat(
+                graph.getIntSuccessors(superNode[0]).contains(superNode[1])
+                    || graph.getIntSuccessors(superNode[1]).contains(superNode[0]))
+            .isTrue();
+      }
+    }
+  }
+
+  @Test
+  public void testPartitioningWithAndWithoutCompression()
+      throws InvalidConfigurationException, InterruptedException {
+    List<Set<Integer>> compressed = computePartitioning(true);
+    List<Set<Integer>> uncompressed = computePartitioning(false);
+
+    // both partitionings contain each node exactly once
+    for (List<Set<Integer>> partitioning : List.of(compressed, uncompressed)) {
+      Set<Integer> nodes = new HashSet<>();
+      int size = 0;
+      for (Set<Integer> partition : partitioning) {
+        nodes.addAll(partition);
+        size += partition.size();
+      }
+      assertThat(nodes).containsExactly(0, 1, 2, 3, 4, 5);
+      assertThat(size).isEqualTo(6);
+    }
+  }
+
+  @Test
+  public void testRepeatedCompressedPartitioningIsEqual()
+      throws InvalidConfigurationException, InterruptedException {
+    MultilevelBalancedGraphPartitioner partitioner = createPartitioner(true);
+
+    assertThat(partitioner.computePartitioning(2, graph))
+        .isEqualTo(partitioner.computePartitioning(2, graph));
+  }
+
+  private List<Set<Integer>> computePartitioning(boolean pCompressedCoarsening)
+      throws InvalidConfigurationException, InterruptedException {
+    return createPartitioner(pCompressedCoarsening).computePartitioning(2, graph);
+  }
+
+  private static MultilevelBalancedGraphPartitioner createPartitioner(
+      boolean pCompressedCoarsening) throws InvalidConfigurationException {
+    Configuration config =
+        Configuration.builder()
+            .setOption(
+                "pcc.partitioning.multilevel.compressedCoarsening",
+                Boolean.toString(pCompressedCoarsening))
+            .build();
+    return new MultilevelBalancedGraphPartitioner(config, LogManager.createTestLogManager());
+  }
+}
@@ -130,6 +130,20 @@ public class WeightedGraph implements Iterable<WeightedNode> {
 
   }
 
+  /**
+   * Insert an edge between two nodes that are already contained in the graph and that are not yet
+   * connected by an edge. In contrast to {@link #addEdge(WeightedEdge)}, the existing edges are not
+   * searched for an edge between both nodes.
+   */
+  void addNewEdge(WeightedEdge edge) {
+    outgoingEdges
+        .computeIfAbsent(edge.getStartNode().getNodeNumber(), k -> new HashSet<>())
+        .add(edge);
+    incomingEdges
+        .computeIfAbsent(edge.getEndNode().getNodeNumber(), k -> new HashSet<>())
+        .add(edge);
+  }
+
   /**
    * Insert a whole set of weighted edges into the graph structure
    * @param edges the edges to be inserted
@@ -17,6 +17,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.logging.Level;
 import org.sosy_lab.common.configuration.Configuration;
@@ -27,6 +28,7 @@ import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.MatchingGenerator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.PartitioningRefiner;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.WeightedBalancedGraphPartitioner;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.CompressedWeightedGraph;
 import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.PartialReachedSetDirectedGraph;
 import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedEdge;
 import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedGraph;
@@ -60,6 +62,15 @@ public class MultilevelBalancedGraphPartitioner implements WeightedBalancedGraph
       description = "Matching method applied to coarsen graph down in multilevel heuristic.")
   private MatchingGenerators matchingGenerator=MatchingGenerators.HEAVY_EDGE;
 
+  @Option(
+      secure = true,
+      description =
+          "Coarsen the graph on a compact array-based representation and contract the matched "
+              + "nodes in parallel. Only used with heavy-edge matching. "
+              + "The random order of the matching differs from the one without compression, "
+              + "so the resulting partitioning may differ.")
+  private boolean compressedCoarsening = false;
+
   private final PartitioningRefiner refiner;
   private final WeightedBalancedGraphPartitioner globalPartitioner;
   private final MatchingGenerator matcher;
@@ -96,6 +107,9 @@ public class MultilevelBalancedGraphPartitioner implements WeightedBalancedGraph
     if (pNumPartitions >= wGraph.getNumNodes()) {//Each Node has its own partition
       return wGraph.getNodesSeperatelyPartitioned(pNumPartitions);
     }
+    if (compressedCoarsening && matchingGenerator == MatchingGenerators.HEAVY_EDGE) {
+      return computePartitioningWithCompressedGraph(pNumPartitions, wGraph);
+    }
 
     // There is more than one partition, and at least one partition contains more than 1 node
 
@@ -149,6 +163,93 @@ public class MultilevelBalancedGraphPartitioner implements WeightedBalancedGraph
     return partitioning;
   }
 
+  /**
+   * Same as {@link #computePartitioning(int, WeightedGraph)}, but the graph is coarsened on its
+   * {@link CompressedWeightedGraph} representation. Only the levels are converted back into {@link
+   * WeightedGraph}s, because the global partitioner and the refiner operate on them.
+   */
+  private List<Set<Integer>> computePartitioningWithCompressedGraph(
+      int pNumPartitions, WeightedGraph wGraph) throws InterruptedException {
+    Deque<CompressedWeightedGraph> levels = new ArrayDeque<>();
+    Deque<int[]> matchings = new ArrayDeque<>();
+
+    int maxLoad = wGraph.getNumNodes() / pNumPartitions + 1;
+    int minGraphSize = (int) (Math.min(((double) maxLoad) / 15 + 1, 15) * pNumPartitions);
+    logger.log(
+        Level.FINE,
+        String.format("[Multilevel] Coarsen graph down to at least %d nodes", minGraphSize));
+
+    CompressedWeightedGraph graph = CompressedWeightedGraph.of(wGraph);
+    levels.push(graph);
+    // a fresh generator for each run, such that repeated runs on the same graph are equal
+    Random random = new Random(0);
+
+    // Coarsen the graph, stop if matching does not shrink the graph anymore
+    while (graph.getNumNodes() > minGraphSize) {
+      int[] matching = graph.computeHeavyEdgeMatching(random);
+      int numSuperNodes = getNumSuperNodes(matching);
+      if (numSuperNodes == graph.getNumNodes()) {
+        break;
+      }
+      graph = graph.contract(matching, numSuperNodes);
+      matchings.push(matching);
+      levels.push(graph);
+      logger.log(
+          Level.FINE,
+          String.format(
+              "[Multilevel] Compressed graph (size: %d) level %d pushed to Stack",
+              graph.getNumNodes(),
+              matchings.size()));
+    }
+
+    // Initial partitioning computed here
+    WeightedGraph levelGraph = levels.pop().toWeightedGraph();
+    List<Set<Integer>> partitioning =
+        globalPartitioner.computePartitioning(pNumPartitions, levelGraph);
+    refiner.refinePartitioning(partitioning, levelGraph, pNumPartitions);
+
+    // Uncoarsening phase, the original graph is reused for the last level
+    while (!levels.isEmpty()) {
+      CompressedWeightedGraph level = levels.pop();
+      levelGraph = levels.isEmpty() ? wGraph : level.toWeightedGraph();
+      int[] matching = matchings.pop();
+      retransformPartitioning(
+          partitioning,
+          CompressedWeightedGraph.getSuperNodeMembers(matching, getNumSuperNodes(matching)));
+      refiner.refinePartitioning(partitioning, levelGraph, pNumPartitions);
+    }
+    removeEmptyPartitions(partitioning);
+    return partitioning;
+  }
+
+  private static int getNumSuperNodes(int[] matching) {
+    int max = -1;
+    for (int superNode : matching) {
+      max = Math.max(max, superNode);
+    }
+    return max + 1;
+  }
+
+  /**
+   * Transforms the given partitioning back into a bigger one, i.e. each super node is replaced by
+   * the nodes that were contracted into it
+   *
+   * @param partitioning partitioning to be transformed back
+   * @param superNodeMembers the nodes that were contracted into each super node
+   */
+  private void retransformPartitioning(List<Set<Integer>> partitioning, int[][] superNodeMembers) {
+    for (int index = 0; index < partitioning.size(); index++) {
+      Set<Integer> partition = partitioning.get(index);
+      Set<Integer> newPartition = new HashSet<>(2 * partition.size());
+      for (Integer node : partition) {
+        for (int contractedNode : superNodeMembers[node]) {
+          newPartition.add(contractedNode);
+        }
+      }
+      partitioning.set(index, newPartition);
+    }
+  }
+
   /**
    * Method to remove all empty partitions from the partitioning. Empty partitions may slow down proof checking phase.
    * @param partitions the partitioning to be cleaned up.
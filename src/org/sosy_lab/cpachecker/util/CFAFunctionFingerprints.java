@@ -0,0 +1,262 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
+
+/**
+ * Fingerprints of the functions of a CFA, which allow to determine the functions that changed
+ * between two versions of a program, and to map the nodes of unchanged functions from one version
+ * to the other. This is used to reuse precisions (predicates and value-analysis precisions) that
+ * were computed for a previous version of a program. Reached sets and BAM block summaries of a
+ * previous version are not reused.
+ *
+ * <p>The fingerprint of a function is a hash over its edges, visited in a deterministic
+ * depth-first order starting at the function entry. It neither depends on node numbers nor on
+ * line numbers, thus functions whose code is only moved within the file keep their fingerprint.
+ * Calls are part of the fingerprint only by their call statement, i.e., changes to a callee do
+ * not change the fingerprint of the caller.
+ *
+ * <p>The textual format that is written by {@link #write(Path)} contains one line per function of
+ * the form "function fingerprint N1,N2,...", where the node numbers are listed in the order of
+ * the traversal.
+ */
+public final class CFAFunctionFingerprints {
+
+  private static final Splitter FIELD_SPLITTER = Splitter.on(' ').omitEmptyStrings();
+  private static final Splitter NODE_SPLITTER = Splitter.on(',').omitEmptyStrings();
+  private static final Joiner NODE_JOINER = Joiner.on(',');
+
+  private final ImmutableMap<String, String> fingerprints;
+
+  /** node numbers of each function, in the order of the traversal that computed the fingerprint */
+  private final ImmutableListMultimap<String, Integer> nodeNumbers;
+
+  private final ImmutableMap<Integer, String> functionOfNode;
+
+  private CFAFunctionFingerprints(
+      ImmutableMap<String, String> pFingerprints,
+      ImmutableListMultimap<String, Integer> pNodeNumbers) {
+    fingerprints = pFingerprints;
+    nodeNumbers = pNodeNumbers;
+    Map<Integer, String> functions = new HashMap<>();
+    pNodeNumbers.forEach((function, node) -> functions.putIfAbsent(node, function));
+    functionOfNode = ImmutableMap.copyOf(functions);
+  }
+
+  /** Compute the fingerprints of all functions of the given CFA. */
+  public static CFAFunctionFingerprints compute(CFA pCfa) {
+    ImmutableMap.Builder<String, String> fingerprints = ImmutableMap.builder();
+    ImmutableListMultimap.Builder<String, Integer> nodeNumbers = ImmutableListMultimap.builder();
+
+    for (String function : pCfa.getAllFunctionNames()) {
+      FunctionEntryNode entry = pCfa.getFunctionHead(function);
+      Hasher hasher = Hashing.sha256().newHasher();
+      List<CFANode> order = traverseFunction(entry, hasher);
+      fingerprints.put(function, hasher.hash().toString());
+      for (CFANode node : order) {
+        nodeNumbers.put(function, node.getNodeNumber());
+      }
+    }
+    return new CFAFunctionFingerprints(fingerprints.build(), nodeNumbers.build());
+  }
+
+  /**
+   * Visit all nodes of a function in depth-first order and feed the edges into the hasher. The
+   * successors of a node are referenced by their position in the traversal order, which makes the
+   * hash independent of the node numbers.
+   */
+  private static List<CFANode> traverseFunction(FunctionEntryNode pEntry, Hasher pHasher) {
+    Map<CFANode, Integer> position = new HashMap<>();
+    List<CFANode> order = new ArrayList<>();
+    Deque<CFANode> waitlist = new ArrayDeque<>();
+
+    position.put(pEntry, 0);
+    order.add(pEntry);
+    waitlist.push(pEntry);
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.pop();
+      pHasher.putInt(position.get(node));
+      pHasher.putBoolean(node.isLoopStart());
+
+      List<CFANode> newSuccessors = new ArrayList<>();
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        if (edge instanceof FunctionCallEdge || edge instanceof FunctionReturnEdge) {
+          // leaves the function, calls are covered by the summary edge
+          continue;
+        }
+        CFANode successor = edge.getSuccessor();
+        Integer successorPosition = position.get(successor);
+        if (successorPosition == null) {
+          successorPosition = order.size();
+          position.put(successor, successorPosition);
+          order.add(successor);
+          newSuccessors.add(successor);
+        }
+        pHasher.putString(edge.getEdgeType().name(), StandardCharsets.UTF_8);
+        pHasher.putString(edge.getDescription(), StandardCharsets.UTF_8);
+        pHasher.putInt(successorPosition);
+      }
+      // push in reverse order such that the first successor is visited first
+      for (CFANode successor : Lists.reverse(newSuccessors)) {
+        waitlist.push(successor);
+      }
+    }
+    return order;
+  }
+
+  /** Read fingerprints that were written with {@link #write(Path)}. */
+  public static CFAFunctionFingerprints read(Path pFile) throws IOException {
+    ImmutableMap.Builder<String, String> fingerprints = ImmutableMap.builder();
+    ImmutableListMultimap.Builder<String, Integer> nodeNumbers = ImmutableListMultimap.builder();
+
+    int lineNumber = 0;
+    for (String line : Files.readAllLines(pFile, StandardCharsets.UTF_8)) {
+      lineNumber++;
+      List<String> fields = FIELD_SPLITTER.splitToList(line);
+      if (fields.isEmpty()) {
+        continue;
+      }
+      if (fields.size() != 3) {
+        throw new IOException(
+            "Invalid line " + lineNumber + " in function fingerprints file " + pFile);
+      }
+      String function = fields.get(0);
+      fingerprints.put(function, fields.get(1));
+      try {
+        for (String node : NODE_SPLITTER.split(fields.get(2))) {
+          if (!node.startsWith("N")) {
+            throw new NumberFormatException(node);
+          }
+          nodeNumbers.put(function, Integer.parseInt(node.substring(1)));
+        }
+      } catch (NumberFormatException e) {
+        throw new IOException(
+            "Invalid node number in line " + lineNumber + " of function fingerprints file " + pFile,
+            e);
+      }
+    }
+    return new CFAFunctionFingerprints(fingerprints.build(), nodeNumbers.build());
+  }
+
+  /** Write the fingerprints to a file, such that they can be read again with {@link #read(Path)}. */
+  public void write(Path pFile) throws IOException {
+    try (Writer w = IO.openOutputFile(pFile, StandardCharsets.UTF_8)) {
+      for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+        String function = entry.getKey();
+        w.append(function).append(' ').append(entry.getValue()).append(' ');
+        NODE_JOINER.appendTo(
+            w, nodeNumbers.get(function).stream().map(n -> "N" + n).iterator());
+        w.append('\n');
+      }
+    }
+  }
+
+  public ImmutableSet<String> getFunctions() {
+    return fingerprints.keySet();
+  }
+
+  public Optional<String> getFingerprint(String pFunction) {
+    return Optional.ofNullable(fingerprints.get(checkNotNull(pFunction)));
+  }
+
+  /**
+   * Returns whether the given function exists in both versions and has the same fingerprint in
+   * both of them.
+   */
+  public boolean isUnchanged(String pFunction, CFAFunctionFingerprints pOther) {
+    String fingerprint = fingerprints.get(checkNotNull(pFunction));
+    return fingerprint != null && fingerprint.equals(pOther.fingerprints.get(pFunction));
+  }
+
+  /**
+   * Returns all functions of this version that do not exist in the other version or have a
+   * different fingerprint there.
+   */
+  public ImmutableSet<String> getChangedFunctions(CFAFunctionFingerprints pOther) {
+    return getFunctions().stream()
+        .filter(f -> !isUnchanged(f, pOther))
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
+  /**
+   * Maps the node numbers of all unchanged functions of the given previous version to the node
+   * numbers of the corresponding nodes in this version. Nodes of changed functions are not
+   * contained in the result, their function can be retrieved with {@link
+   * #getFunctionOfNode(int)} on the previous version.
+   */
+  public ImmutableMap<Integer, Integer> mapNodeNumbersFrom(CFAFunctionFingerprints pPrevious) {
+    ImmutableMap.Builder<Integer, Integer> result = ImmutableMap.builder();
+    for (String function : getFunctions()) {
+      if (isUnchanged(function, pPrevious)) {
+        ImmutableList<Integer> previousNodes = pPrevious.nodeNumbers.get(function);
+        ImmutableList<Integer> currentNodes = nodeNumbers.get(function);
+        // equal fingerprints imply an equal number of nodes, except for hash collisions
+        if (previousNodes.size() == currentNodes.size()) {
+          for (int i = 0; i < currentNodes.size(); i++) {
+            result.put(previousNodes.get(i), currentNodes.get(i));
+          }
+        }
+      }
+    }
+    return result.build();
+  }
+
+  /** Returns the function that contains the node with the given number, if there is one. */
+  public Optional<String> getFunctionOfNode(int pNodeNumber) {
+    return Optional.ofNullable(functionOfNode.get(pNodeNumber));
+  }
+
+  @Override
+  public boolean equals(Object pOther) {
+    return pOther instanceof CFAFunctionFingerprints
+        && fingerprints.equals(((CFAFunctionFingerprints) pOther).fingerprints)
+        && nodeNumbers.equals(((CFAFunctionFingerprints) pOther).nodeNumbers);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(fingerprints, nodeNumbers);
+  }
+
+  @Override
+  public String toString() {
+    return fingerprints.toString();
+  }
+}
@@ -0,0 +1,92 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class CFAFunctionFingerprintsTest {
+
+  private static CFA makeProgram(String pBodyOfChanged)
+      throws ParserException, InterruptedException {
+    return TestDataTools.makeCFA(
+        "int changed(int p) {",
+        pBodyOfChanged,
+        "}",
+        "int unchanged(int p) {",
+        "  if (p > 0) {",
+        "    p = p - 1;",
+        "  }",
+        "  return p;",
+        "}",
+        "void main() {",
+        "  int x = changed(1);",
+        "  x = unchanged(x);",
+        "}");
+  }
+
+  @Test
+  public void testChangedFunctions() throws ParserException, InterruptedException {
+    CFAFunctionFingerprints previous =
+        CFAFunctionFingerprints.compute(makeProgram("  return p + 1;"));
+    CFAFunctionFingerprints current =
+        CFAFunctionFingerprints.compute(makeProgram("  p = p * 2;\n  return p + 1;"));
+
+    assertThat(current.getChangedFunctions(previous)).containsExactly("changed");
+    assertThat(current.isUnchanged("unchanged", previous)).isTrue();
+    assertThat(current.isUnchanged("main", previous)).isTrue();
+    assertThat(current.getFingerprint("changed"))
+        .isNotEqualTo(previous.getFingerprint("changed"));
+  }
+
+  @Test
+  public void testNodeMapping() throws ParserException, InterruptedException {
+    CFA previousCfa = makeProgram("  return p + 1;");
+    CFA currentCfa = makeProgram("  p = p * 2;\n  return p + 1;");
+    CFAFunctionFingerprints previous = CFAFunctionFingerprints.compute(previousCfa);
+    CFAFunctionFingerprints current = CFAFunctionFingerprints.compute(currentCfa);
+
+    ImmutableMap<Integer, Integer> mapping = current.mapNodeNumbersFrom(previous);
+    assertThat(mapping)
+        .containsEntry(
+            previousCfa.getFunctionHead("unchanged").getNodeNumber(),
+            currentCfa.getFunctionHead("unchanged").getNodeNumber());
+    for (CFANode node : previousCfa.getAllNodes()) {
+      if (node.getFunctionName().equals("changed")) {
+        assertThat(mapping).doesNotContainKey(node.getNodeNumber());
+        assertThat(previous.getFunctionOfNode(node.getNodeNumber()).orElseThrow())
+            .isEqualTo("changed");
+      }
+    }
+  }
+
+  @Test
+  public void testWriteAndRead() throws ParserException, InterruptedException, IOException {
+    CFAFunctionFingerprints fingerprints =
+        CFAFunctionFingerprints.compute(makeProgram("  return p + 1;"));
+
+    Path file = TempFile.builder().prefix("fingerprints").suffix(".txt").create();
+    try {
+      fingerprints.write(file);
+      assertThat(CFAFunctionFingerprints.read(file)).isEqualTo(fingerprints);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -8,20 +8,27 @@
 
 package org.sosy_lab.cpachecker.util;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.util.CFAUtils.hasBackWardsEdges;
 import static org.sosy_lab.cpachecker.util.CFAUtils.leavingEdges;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Comparators;
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.Serializable;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -37,8 +44,12 @@ import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.Language;
 import org.sosy_lab.cpachecker.cfa.MutableCFA;
@@ -300,6 +311,7 @@ public final class LoopStructure implements Serializable {
   private final ImmutableListMultimap<String, Loop> loops;
 
   private transient @Nullable ImmutableSet<CFANode> loopHeads = null; // computed lazily
+  private transient @Nullable ImmutableSetMultimap<CFANode, Loop> loopsByLoopHead = null;
 
   // computed lazily
   private transient @Nullable ImmutableSet<String> loopExitConditionVariables;
@@ -342,7 +354,17 @@ public final class LoopStructure implements Serializable {
   }
 
   public ImmutableSet<Loop> getLoopsForLoopHead(final CFANode loopHead) {
-    return from(loops.values()).filter(loop -> loop.getLoopHeads().contains(loopHead)).toSet();
+    // called by CPAs for each abstract state, so we index the loops by their heads once
+    if (loopsByLoopHead == null) {
+      ImmutableSetMultimap.Builder<CFANode, Loop> index = ImmutableSetMultimap.builder();
+      for (Loop loop : loops.values()) {
+        for (CFANode head : loop.getLoopHeads()) {
+          index.put(head, loop);
+        }
+      }
+      loopsByLoopHead = index.build();
+    }
+    return loopsByLoopHead.get(checkNotNull(loopHead));
   }
 
   /**
@@ -467,10 +489,56 @@ public final class LoopStructure implements Serializable {
    * @throws ParserException If the structure of the CFA is too complex for determining loops.
    */
   public static LoopStructure getLoopStructure(MutableCFA cfa) throws ParserException {
+    return getLoopStructure(cfa, 1);
+  }
+
+  /**
+   * Build loop-structure information for a CFA, analyzing the functions of the CFA with the given
+   * number of threads. Do not call this method outside of the frontend, use {@link
+   * org.sosy_lab.cpachecker.cfa.CFA#getLoopStructure()} instead.
+   *
+   * <p>Note that the memory needed for analyzing a function is quadratic in the number of its
+   * nodes, and several large functions may be analyzed at the same time.
+   *
+   * @throws ParserException If the structure of the CFA is too complex for determining loops.
+   */
+  public static LoopStructure getLoopStructure(MutableCFA cfa, int pThreads)
+      throws ParserException {
+    checkArgument(pThreads > 0);
+    List<String> functionNames = ImmutableList.copyOf(cfa.getAllFunctionNames());
+    Language language = cfa.getLanguage();
     ImmutableListMultimap.Builder<String, Loop> loops = ImmutableListMultimap.builder();
-    for (String functionName : cfa.getAllFunctionNames()) {
-      NavigableSet<CFANode> nodes = cfa.getFunctionNodes(functionName);
-      loops.putAll(functionName, findLoops(nodes, cfa.getLanguage()));
+
+    if (pThreads == 1 || functionNames.size() < 2) {
+      for (String functionName : functionNames) {
+        loops.putAll(functionName, findLoops(cfa.getFunctionNodes(functionName), language));
+      }
+      return new LoopStructure(loops.build());
+    }
+
+    // Each function is analyzed independently on its own copy of the function's nodes,
+    // the results are added in the same order as in the sequential case.
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(pThreads, functionNames.size()),
+            new ThreadFactoryBuilder().setNameFormat("loopstructure-%d").setDaemon(true).build());
+    try {
+      List<Future<Collection<Loop>>> futures = new ArrayList<>(functionNames.size());
+      for (String functionName : functionNames) {
+        NavigableSet<CFANode> nodes = cfa.getFunctionNodes(functionName);
+        futures.add(executor.submit(() -> findLoops(nodes, language)));
+      }
+      for (int i = 0; i < functionNames.size(); i++) {
+        loops.putAll(functionNames.get(i), Futures.getUnchecked(futures.get(i)));
+      }
+    } catch (UncheckedExecutionException | ExecutionError e) {
+      // rethrow the exception of the task itself, not the wrapper of the executor
+      Throwable cause = e.getCause();
+      Throwables.throwIfUnchecked(cause);
+      Throwables.throwIfInstanceOf(cause, ParserException.class);
+      throw new UnexpectedCheckedException("loop-structure computation", cause);
+    } finally {
+      executor.shutdownNow();
     }
     return new LoopStructure(loops.build());
   }
@@ -11,6 +11,7 @@ package org.sosy_lab.cpachecker.util.dependencegraph;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ForwardingTable;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
@@ -18,6 +19,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Writer;
@@ -35,11 +37,18 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -149,6 +158,24 @@ public class DependenceGraphBuilder implements StatisticsProvider {
       description = "Whether to consider (data-)flow dependencies.")
   private boolean considerFlowDeps = true;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of threads for computing the dependences of different functions in parallel."
+              + " With 1, all functions are processed sequentially.")
+  @IntegerOption(min = 1)
+  private int threads = 1;
+
+  @Option(
+      secure = true,
+      description =
+          "Directory for caching dependence graphs between runs. The dependence graph of a"
+              + " program is reused if the CFA and the settings for the dependence graph are the"
+              + " same. Use an absolute path to share the cache between runs with different"
+              + " output directories. If `null`, dependence graphs are not cached.")
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private @Nullable Path cacheDirectory = null;
+
   public DependenceGraphBuilder(
       final MutableCFA pCfa,
       final Optional<VariableClassification> pVarClassification,
@@ -178,6 +205,37 @@ public class DependenceGraphBuilder implements StatisticsProvider {
               + " to build a meaningful dependence graph");
     }
 
+    DependenceGraphCache cache = null;
+    if (cacheDirectory != null) {
+      cache =
+          new DependenceGraphCache(
+              cacheDirectory,
+              cfa,
+              String.format(
+                  "flowdeps=%s,controldeps=%s,inverseAssumption=%s",
+                  considerFlowDeps, considerControlDeps, controlDepsTakeBothAssumptions));
+    }
+    if (cache == null || !loadFromCache(cache)) {
+      addDependences();
+      if (cache != null) {
+        storeInCache(cache);
+      }
+    }
+
+    DependenceGraph dg = new DependenceGraph(nodes, adjacencyMatrix, shutdownNotifier);
+    export(dg);
+    logger.log(
+        Level.FINE,
+        "Create dependence graph with ",
+        nodes.size(),
+        " nodes and ",
+        adjacencyMatrix.size(),
+        " edges.");
+    dependenceGraphConstructionTimer.stop();
+    return dg;
+  }
+
+  private void addDependences() throws InterruptedException, CPAException {
     if (considerFlowDeps) {
       flowDependenceTimer.start();
       try {
@@ -197,18 +255,76 @@ public class DependenceGraphBuilder implements StatisticsProvider {
       }
     }
     addMissingNodes();
+  }
 
-    DependenceGraph dg = new DependenceGraph(nodes, adjacencyMatrix, shutdownNotifier);
-    export(dg);
-    logger.log(
-        Level.FINE,
-        "Create dependence graph with ",
-        nodes.size(),
-        " nodes and ",
-        adjacencyMatrix.size(),
-        " edges.");
-    dependenceGraphConstructionTimer.stop();
-    return dg;
+  private boolean loadFromCache(DependenceGraphCache pCache) {
+    try {
+      if (pCache.load(nodes, adjacencyMatrix)) {
+        logger.log(Level.INFO, "Loaded dependence graph from", pCache.getFile());
+        return true;
+      }
+    } catch (IOException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not load cached dependence graph, computing it again");
+      nodes = new NodeMap();
+      adjacencyMatrix = HashBasedTable.create();
+    }
+    return false;
+  }
+
+  private void storeInCache(DependenceGraphCache pCache) {
+    try {
+      pCache.store(nodes, adjacencyMatrix);
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write dependence graph to cache");
+    }
+  }
+
+  /**
+   * Run the given task for all functions of the CFA, in parallel if more than one thread is
+   * configured, and return the results in the order of {@link CFA#getAllFunctionHeads()}.
+   */
+  private <T> List<T> computeForAllFunctions(FunctionTask<T> pTask)
+      throws InterruptedException, CPAException {
+    List<FunctionEntryNode> entryNodes = ImmutableList.copyOf(cfa.getAllFunctionHeads());
+    List<T> results = new ArrayList<>(entryNodes.size());
+
+    if (threads == 1 || entryNodes.size() < 2) {
+      for (FunctionEntryNode entryNode : entryNodes) {
+        results.add(pTask.compute(entryNode));
+      }
+      return results;
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(threads, entryNodes.size()),
+            new ThreadFactoryBuilder().setNameFormat("dependencegraph-%d").setDaemon(true).build());
+    try {
+      List<Future<T>> futures = new ArrayList<>(entryNodes.size());
+      for (FunctionEntryNode entryNode : entryNodes) {
+        futures.add(executor.submit(() -> pTask.compute(entryNode)));
+      }
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("dependence graph construction", t);
+    } finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
+
+  private void addPendingDependences(List<PendingDependence> pDependences) {
+    for (PendingDependence dependence : pDependences) {
+      addDependence(
+          getDGNode(dependence.dependentOnEdge, dependence.dependentOnCause),
+          getDGNode(dependence.dependingEdge, dependence.dependingCause),
+          dependence.type);
+    }
   }
 
   private void addMissingNodes() {
@@ -353,171 +469,185 @@ public class DependenceGraphBuilder implements StatisticsProvider {
       }
     }
 
-    for (FunctionEntryNode entryNode : cfa.getAllFunctionHeads()) {
-
-      // TODO: use more reasonable counter
-      var flowDepCount =
-          new Object() {
-            int value = 0;
-          };
+    List<List<PendingDependence>> dependencesPerFunction =
+        computeForAllFunctions(
+            entryNode ->
+                computeFlowDependences(
+                    entryNode, pointerState, foreignDefUseData, globalEdges, declarationEdges));
+    for (List<PendingDependence> dependences : dependencesPerFunction) {
+      addPendingDependences(dependences);
+      flowDependenceNumber.setNextValue(dependences.size());
+    }
+  }
 
-      CFAEdge funcDeclEdge = declarationEdges.get(entryNode.getFunctionName());
-      for (CFAEdge callEdge : CFAUtils.enteringEdges(entryNode)) {
-        addDependence(
-            getDGNode(funcDeclEdge, Optional.empty()),
-            getDGNode(callEdge, Optional.empty()),
-            DependenceType.FLOW);
-        flowDepCount.value++;
-      }
+  private List<PendingDependence> computeFlowDependences(
+      FunctionEntryNode entryNode,
+      GlobalPointerState pointerState,
+      ForeignDefUseData foreignDefUseData,
+      List<CFAEdge> globalEdges,
+      Map<String, CFAEdge> declarationEdges) {
 
-      DomTree<CFANode> domTree =
-          Dominance.createDomTree(
-              entryNode,
-              DependenceGraphBuilder::iterateSuccessors,
-              DependenceGraphBuilder::iteratePredecessors);
+    List<PendingDependence> dependences = new ArrayList<>();
 
-      DependenceConsumer dependenceConsumer =
-          (defEdge, useEdge, cause) -> {
-            Optional<MemoryLocation> defEdgeCause = Optional.empty();
-            Optional<MemoryLocation> useEdgeCause = Optional.empty();
+    CFAEdge funcDeclEdge = declarationEdges.get(entryNode.getFunctionName());
+    for (CFAEdge callEdge : CFAUtils.enteringEdges(entryNode)) {
+      dependences.add(
+          new PendingDependence(
+              funcDeclEdge, Optional.empty(), callEdge, Optional.empty(), DependenceType.FLOW));
+    }
 
-            if (defEdge instanceof CFunctionCallEdge || defEdge instanceof CFunctionReturnEdge) {
-              defEdgeCause = Optional.of(cause);
-            }
+    DomTree<CFANode> domTree =
+        Dominance.createDomTree(
+            entryNode,
+            DependenceGraphBuilder::iterateSuccessors,
+            DependenceGraphBuilder::iteratePredecessors);
 
-            if (useEdge instanceof CFunctionCallEdge || useEdge instanceof CFunctionReturnEdge) {
-              useEdgeCause = Optional.of(cause);
-            }
+    DependenceConsumer dependenceConsumer =
+        (defEdge, useEdge, cause) -> {
+          Optional<MemoryLocation> defEdgeCause = Optional.empty();
+          Optional<MemoryLocation> useEdgeCause = Optional.empty();
 
-            addDependence(
-                getDGNode(defEdge, defEdgeCause),
-                getDGNode(useEdge, useEdgeCause),
-                DependenceType.FLOW);
-            flowDepCount.value++;
-          };
+          if (defEdge instanceof CFunctionCallEdge || defEdge instanceof CFunctionReturnEdge) {
+            defEdgeCause = Optional.of(cause);
+          }
 
-      boolean isMain = entryNode.equals(cfa.getMainFunction());
+          if (useEdge instanceof CFunctionCallEdge || useEdge instanceof CFunctionReturnEdge) {
+            useEdgeCause = Optional.of(cause);
+          }
 
-      new FlowDepAnalysis(
-              domTree,
-              Dominance.createDomFrontiers(domTree),
-              entryNode,
-              isMain ? ImmutableList.of() : globalEdges,
-              pointerState,
-              foreignDefUseData,
-              declarationEdges,
-              dependenceConsumer)
-          .run();
+          dependences.add(
+              new PendingDependence(
+                  defEdge, defEdgeCause, useEdge, useEdgeCause, DependenceType.FLOW));
+        };
+
+    boolean isMain = entryNode.equals(cfa.getMainFunction());
+
+    new FlowDepAnalysis(
+            domTree,
+            Dominance.createDomFrontiers(domTree),
+            entryNode,
+            isMain ? ImmutableList.of() : globalEdges,
+            pointerState,
+            foreignDefUseData,
+            declarationEdges,
+            dependenceConsumer)
+        .run();
+
+    return dependences;
+  }
 
-      flowDependenceNumber.setNextValue(flowDepCount.value);
-    }
+  private static void addControlDependence(
+      List<PendingDependence> pDependences, CFAEdge pDependingOnEdge, CFAEdge pDependentEdge) {
+    pDependences.add(
+        new PendingDependence(
+            pDependingOnEdge,
+            Optional.empty(),
+            pDependentEdge,
+            Optional.empty(),
+            DependenceType.CONTROL));
   }
 
-  private void addControlDependence(CFAEdge pDependingOnEdge, CFAEdge pDependentEdge) {
-    addDependence(
-        getDGNode(pDependingOnEdge, Optional.empty()),
-        getDGNode(pDependentEdge, Optional.empty()),
-        DependenceType.CONTROL);
+  private void addControlDependences() throws InterruptedException, CPAException {
+    List<List<PendingDependence>> dependencesPerFunction =
+        computeForAllFunctions(this::computeControlDependences);
+    for (List<PendingDependence> dependences : dependencesPerFunction) {
+      addPendingDependences(dependences);
+      controlDependenceNumber.setNextValue(dependences.size());
+    }
   }
 
-  private void addControlDependences() throws InterruptedException {
+  private List<PendingDependence> computeControlDependences(FunctionEntryNode entryNode)
+      throws InterruptedException {
 
-    int controlDepCount = 0;
+    List<PendingDependence> dependences = new ArrayList<>();
     boolean dependOnBothAssumptions = controlDepsTakeBothAssumptions;
 
-    for (FunctionEntryNode entryNode : cfa.getAllFunctionHeads()) {
-
-      DomTree<CFANode> domTree =
-          Dominance.createDomTree(
-              entryNode.getExitNode(),
-              DependenceGraphBuilder::iteratePredecessors,
-              DependenceGraphBuilder::iterateSuccessors);
-
-      DomFrontiers<CFANode> frontiers = Dominance.createDomFrontiers(domTree);
-      Set<CFAEdge> dependentEdges = new HashSet<>();
-
-      for (CFANode dependentNode : domTree) {
-        int nodeId = domTree.getId(dependentNode);
-        for (CFANode branchNode : frontiers.getFrontier(dependentNode)) {
-          for (CFAEdge assumeEdge : CFAUtils.leavingEdges(branchNode)) {
-            int assumeSuccessorId = domTree.getId(assumeEdge.getSuccessor());
-            if (dependOnBothAssumptions
-                || nodeId == assumeSuccessorId
-                || domTree.isAncestorOf(nodeId, assumeSuccessorId)) {
-              for (CFAEdge dependentEdge : CFAUtils.allLeavingEdges(dependentNode)) {
-                if (!ignoreFunctionEdge(dependentEdge) && !assumeEdge.equals(dependentEdge)) {
-                  addControlDependence(assumeEdge, dependentEdge);
-                  controlDepCount++;
-                  dependentEdges.add(dependentEdge);
-                }
+    DomTree<CFANode> domTree =
+        Dominance.createDomTree(
+            entryNode.getExitNode(),
+            DependenceGraphBuilder::iteratePredecessors,
+            DependenceGraphBuilder::iterateSuccessors);
+
+    DomFrontiers<CFANode> frontiers = Dominance.createDomFrontiers(domTree);
+    Set<CFAEdge> dependentEdges = new HashSet<>();
+
+    for (CFANode dependentNode : domTree) {
+      int nodeId = domTree.getId(dependentNode);
+      for (CFANode branchNode : frontiers.getFrontier(dependentNode)) {
+        for (CFAEdge assumeEdge : CFAUtils.leavingEdges(branchNode)) {
+          int assumeSuccessorId = domTree.getId(assumeEdge.getSuccessor());
+          if (dependOnBothAssumptions
+              || nodeId == assumeSuccessorId
+              || domTree.isAncestorOf(nodeId, assumeSuccessorId)) {
+            for (CFAEdge dependentEdge : CFAUtils.allLeavingEdges(dependentNode)) {
+              if (!ignoreFunctionEdge(dependentEdge) && !assumeEdge.equals(dependentEdge)) {
+                addControlDependence(dependences, assumeEdge, dependentEdge);
+                dependentEdges.add(dependentEdge);
               }
             }
           }
         }
       }
+    }
 
-      Set<CFAEdge> noDomEdges = new HashSet<>();
-      if (CFAUtils.existsPath(
-          entryNode, entryNode.getExitNode(), CFAUtils::allLeavingEdges, shutdownNotifier)) {
-        for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
-          int nodeId = domTree.getId(node);
-          if (!domTree.hasParent(nodeId)) {
-            Iterables.addAll(noDomEdges, CFAUtils.allEnteringEdges(node));
-            Iterables.addAll(noDomEdges, CFAUtils.allLeavingEdges(node));
-          }
-        }
-      } else {
-        // Sometimes there is no path from the function entry node to the function exit node.
-        // In this case, domTree is incomplete as it does not contain all function nodes.
-        // Calling domTree.getId would throw an exception for these missing nodes.
-        for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
+    Set<CFAEdge> noDomEdges = new HashSet<>();
+    if (CFAUtils.existsPath(
+        entryNode, entryNode.getExitNode(), CFAUtils::allLeavingEdges, shutdownNotifier)) {
+      for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
+        int nodeId = domTree.getId(node);
+        if (!domTree.hasParent(nodeId)) {
           Iterables.addAll(noDomEdges, CFAUtils.allEnteringEdges(node));
           Iterables.addAll(noDomEdges, CFAUtils.allLeavingEdges(node));
         }
       }
+    } else {
+      // Sometimes there is no path from the function entry node to the function exit node.
+      // In this case, domTree is incomplete as it does not contain all function nodes.
+      // Calling domTree.getId would throw an exception for these missing nodes.
+      for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
+        Iterables.addAll(noDomEdges, CFAUtils.allEnteringEdges(node));
+        Iterables.addAll(noDomEdges, CFAUtils.allLeavingEdges(node));
+      }
+    }
 
-      Set<CFAEdge> noDomAssumes = new HashSet<>();
-      for (CFAEdge edge : noDomEdges) {
-        if (edge.getEdgeType() == CFAEdgeType.AssumeEdge) {
-          noDomAssumes.add(edge);
-        }
+    Set<CFAEdge> noDomAssumes = new HashSet<>();
+    for (CFAEdge edge : noDomEdges) {
+      if (edge.getEdgeType() == CFAEdgeType.AssumeEdge) {
+        noDomAssumes.add(edge);
       }
+    }
 
-      for (CFAEdge dependentEdge : noDomEdges) {
-        if (!ignoreFunctionEdge(dependentEdge)) {
-          for (CFAEdge assumeEdge : noDomAssumes) {
-            if (!assumeEdge.equals(dependentEdge)) {
-              addControlDependence(assumeEdge, dependentEdge);
-              controlDepCount++;
-              dependentEdges.add(dependentEdge);
-            }
+    for (CFAEdge dependentEdge : noDomEdges) {
+      if (!ignoreFunctionEdge(dependentEdge)) {
+        for (CFAEdge assumeEdge : noDomAssumes) {
+          if (!assumeEdge.equals(dependentEdge)) {
+            addControlDependence(dependences, assumeEdge, dependentEdge);
+            dependentEdges.add(dependentEdge);
           }
         }
       }
+    }
 
-      Set<CFAEdge> callEdges = new HashSet<>();
-      for (CFAEdge callEdge : CFAUtils.enteringEdges(entryNode)) {
-        if (callEdge instanceof CFunctionCallEdge) {
-          CFAEdge summaryEdge = ((CFunctionCallEdge) callEdge).getSummaryEdge();
-          callEdges.add(callEdge);
-          addControlDependence(summaryEdge, callEdge);
-          controlDepCount++;
-        }
+    Set<CFAEdge> callEdges = new HashSet<>();
+    for (CFAEdge callEdge : CFAUtils.enteringEdges(entryNode)) {
+      if (callEdge instanceof CFunctionCallEdge) {
+        CFAEdge summaryEdge = ((CFunctionCallEdge) callEdge).getSummaryEdge();
+        callEdges.add(callEdge);
+        addControlDependence(dependences, summaryEdge, callEdge);
       }
+    }
 
-      for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
-        for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
-          if (!dependentEdges.contains(edge) && !ignoreFunctionEdge(edge)) {
-            for (CFAEdge callEdge : callEdges) {
-              addControlDependence(callEdge, edge);
-              controlDepCount++;
-            }
+    for (CFANode node : cfa.getFunctionNodes(entryNode.getFunction().getQualifiedName())) {
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        if (!dependentEdges.contains(edge) && !ignoreFunctionEdge(edge)) {
+          for (CFAEdge callEdge : callEdges) {
+            addControlDependence(dependences, callEdge, edge);
           }
         }
       }
-
-      controlDependenceNumber.setNextValue(controlDepCount);
     }
+
+    return dependences;
   }
 
   @SuppressWarnings("unused") // old method for computing flow dependences
@@ -628,6 +758,40 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     });
   }
 
+  /** Computation that is done separately for each function of the program. */
+  @FunctionalInterface
+  private interface FunctionTask<T> {
+
+    T compute(FunctionEntryNode pEntryNode) throws InterruptedException, CPAException;
+  }
+
+  /**
+   * A dependence that was computed for a single function, but not yet added to the graph. Nodes
+   * of the graph are only created while adding dependences, such that the per-function
+   * computations can run in parallel.
+   */
+  private static final class PendingDependence {
+
+    private final CFAEdge dependentOnEdge;
+    private final Optional<MemoryLocation> dependentOnCause;
+    private final CFAEdge dependingEdge;
+    private final Optional<MemoryLocation> dependingCause;
+    private final DependenceType type;
+
+    private PendingDependence(
+        CFAEdge pDependentOnEdge,
+        Optional<MemoryLocation> pDependentOnCause,
+        CFAEdge pDependingEdge,
+        Optional<MemoryLocation> pDependingCause,
+        DependenceType pType) {
+      dependentOnEdge = pDependentOnEdge;
+      dependentOnCause = pDependentOnCause;
+      dependingEdge = pDependingEdge;
+      dependingCause = pDependingCause;
+      type = pType;
+    }
+  }
+
   /**
    * Flow dependences of nodes in a {@link CFA}.
    *
@@ -0,0 +1,241 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.dependencegraph;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Table;
+import com.google.common.collect.Table.Cell;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.EdgeNode;
+import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.UnknownPointerNode;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.DependenceType;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.NodeMap;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Persistent cache for the nodes and dependences of a {@link DependenceGraph}.
+ *
+ * <p>The graph is stored in a file whose name is a hash of the CFA and of the settings that
+ * influence the graph, such that repeated analyses of the same program (e.g., slicing with
+ * different criteria) can reuse the graph. CFA edges are stored as their position in a
+ * deterministic enumeration of all edges of the CFA.
+ */
+final class DependenceGraphCache {
+
+  /** Increase this whenever the file format or the construction of dependence graphs changes. */
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int UNKNOWN_POINTER_NODE = -1;
+
+  private final Path file;
+  private final ImmutableList<CFAEdge> edges;
+
+  DependenceGraphCache(Path pDirectory, CFA pCfa, String pSettings) {
+    List<CFAEdge> allEdges = new ArrayList<>();
+    for (CFANode node : ImmutableList.sortedCopyOf(pCfa.getAllNodes())) {
+      Iterables.addAll(allEdges, CFAUtils.allLeavingEdges(node));
+    }
+    edges = ImmutableList.copyOf(allEdges);
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putInt(FORMAT_VERSION);
+    hasher.putString(pSettings, StandardCharsets.UTF_8);
+    for (CFAEdge edge : edges) {
+      hasher.putInt(edge.getPredecessor().getNodeNumber());
+      hasher.putInt(edge.getSuccessor().getNodeNumber());
+      hasher.putInt(edge.getEdgeType().ordinal());
+      hasher.putString(edge.getDescription(), StandardCharsets.UTF_8);
+      hasher.putString(edge.getFileLocation().toString(), StandardCharsets.UTF_8);
+    }
+    file = pDirectory.resolve(hasher.hash() + ".dg");
+  }
+
+  Path getFile() {
+    return file;
+  }
+
+  /**
+   * Load the cached graph into the given (empty) node map and adjacency matrix.
+   *
+   * @return whether a cached graph existed and was loaded
+   * @throws IOException if the cache file exists, but could not be read
+   */
+  boolean load(NodeMap pNodes, Table<DGNode, DGNode, DependenceType> pAdjacencyMatrix)
+      throws IOException {
+    if (!Files.isRegularFile(file)) {
+      return false;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported format of dependence graph cache file");
+      }
+
+      int nodeCount = in.readInt();
+      List<DGNode> nodes = new ArrayList<>(nodeCount);
+      for (int i = 0; i < nodeCount; i++) {
+        int edgeIndex = in.readInt();
+        if (edgeIndex == UNKNOWN_POINTER_NODE) {
+          DGNode node = UnknownPointerNode.getInstance();
+          pNodes.getSpecialNodes().add(node);
+          nodes.add(node);
+        } else {
+          CFAEdge edge = getEdge(edgeIndex);
+          Optional<MemoryLocation> cause = readMemoryLocation(in);
+          DGNode node = new EdgeNode(edge, cause.orElse(null));
+          pNodes.getNodesForEdges().put(edge, cause, node);
+          nodes.add(node);
+        }
+      }
+
+      int dependenceCount = in.readInt();
+      DependenceType[] types = DependenceType.values();
+      for (int i = 0; i < dependenceCount; i++) {
+        DGNode dependentOn = getNode(nodes, in.readInt());
+        DGNode depending = getNode(nodes, in.readInt());
+        int type = in.readByte();
+        if (type < 0 || type >= types.length) {
+          throw new IOException("Invalid dependence type in dependence graph cache file");
+        }
+        pAdjacencyMatrix.put(dependentOn, depending, types[type]);
+      }
+    }
+    return true;
+  }
+
+  /** Store the given node map and adjacency matrix in the cache. */
+  void store(NodeMap pNodes, Table<DGNode, DGNode, DependenceType> pAdjacencyMatrix)
+      throws IOException {
+    Map<CFAEdge, Integer> edgeIndices = new HashMap<>();
+    for (CFAEdge edge : edges) {
+      edgeIndices.putIfAbsent(edge, edgeIndices.size());
+    }
+
+    MoreFiles.createParentDirectories(file);
+    // a unique temporary file, such that concurrent analyses do not write to the same file
+    Path tmpFile = Files.createTempFile(file.getParent(), file.getFileName() + ".", ".tmp");
+    boolean success = false;
+    try {
+      writeGraph(tmpFile, edgeIndices, pNodes, pAdjacencyMatrix);
+      Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+      success = true;
+    } finally {
+      if (!success) {
+        Files.deleteIfExists(tmpFile);
+      }
+    }
+  }
+
+  private static void writeGraph(
+      Path pFile,
+      Map<CFAEdge, Integer> pEdgeIndices,
+      NodeMap pNodes,
+      Table<DGNode, DGNode, DependenceType> pAdjacencyMatrix)
+      throws IOException {
+    Map<DGNode, Integer> nodeIndices = new HashMap<>();
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(pFile)))) {
+      out.writeInt(FORMAT_VERSION);
+
+      out.writeInt(pNodes.getNodesForEdges().size() + pNodes.getSpecialNodes().size());
+      for (Cell<CFAEdge, Optional<MemoryLocation>, DGNode> cell :
+          pNodes.getNodesForEdges().cellSet()) {
+        Integer edgeIndex = pEdgeIndices.get(cell.getRowKey());
+        if (edgeIndex == null) {
+          throw new IOException("Dependence graph contains edge that is not part of the CFA");
+        }
+        out.writeInt(edgeIndex);
+        writeMemoryLocation(out, cell.getColumnKey());
+        nodeIndices.put(cell.getValue(), nodeIndices.size());
+      }
+      for (DGNode node : pNodes.getSpecialNodes()) {
+        out.writeInt(UNKNOWN_POINTER_NODE);
+        nodeIndices.put(node, nodeIndices.size());
+      }
+
+      out.writeInt(pAdjacencyMatrix.size());
+      for (Cell<DGNode, DGNode, DependenceType> cell : pAdjacencyMatrix.cellSet()) {
+        out.writeInt(nodeIndices.get(cell.getRowKey()));
+        out.writeInt(nodeIndices.get(cell.getColumnKey()));
+        out.writeByte(cell.getValue().ordinal());
+      }
+    }
+  }
+
+  private CFAEdge getEdge(int pIndex) throws IOException {
+    if (pIndex < 0 || pIndex >= edges.size()) {
+      throw new IOException("Invalid edge in dependence graph cache file");
+    }
+    return edges.get(pIndex);
+  }
+
+  private static DGNode getNode(List<DGNode> pNodes, int pIndex) throws IOException {
+    if (pIndex < 0 || pIndex >= pNodes.size()) {
+      throw new IOException("Invalid node in dependence graph cache file");
+    }
+    return pNodes.get(pIndex);
+  }
+
+  private static void writeMemoryLocation(DataOutputStream out, Optional<MemoryLocation> pLocation)
+      throws IOException {
+    out.writeBoolean(pLocation.isPresent());
+    if (pLocation.isPresent()) {
+      MemoryLocation location = pLocation.orElseThrow();
+      out.writeBoolean(location.isOnFunctionStack());
+      if (location.isOnFunctionStack()) {
+        out.writeUTF(location.getFunctionName());
+      }
+      out.writeUTF(location.getIdentifier());
+      out.writeBoolean(location.isReference());
+      if (location.isReference()) {
+        out.writeLong(location.getOffset());
+      }
+    }
+  }
+
+  private static Optional<MemoryLocation> readMemoryLocation(DataInputStream in)
+      throws IOException {
+    if (!in.readBoolean()) {
+      return Optional.empty();
+    }
+    String functionName = in.readBoolean() ? in.readUTF() : null;
+    String identifier = in.readUTF();
+    OptionalLong offset = in.readBoolean() ? OptionalLong.of(in.readLong()) : OptionalLong.empty();
+
+    if (functionName == null) {
+      return Optional.of(MemoryLocation.valueOf(identifier, offset));
+    } else if (offset.isPresent()) {
+      return Optional.of(MemoryLocation.valueOf(functionName, identifier, offset.orElseThrow()));
+    } else {
+      return Optional.of(MemoryLocation.valueOf(functionName, identifier));
+    }
+  }
+}
@@ -0,0 +1,148 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.dependencegraph;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Table;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.EdgeNode;
+import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.UnknownPointerNode;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.DependenceType;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.NodeMap;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class DependenceGraphCacheTest {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private CFA cfa;
+  private List<CFAEdge> edges;
+
+  @Before
+  public void setUp() throws Exception {
+    cfa =
+        TestDataTools.makeCFA(
+            "int g;",
+            "int main() {",
+            "  int x = 0;",
+            "  int a[2];",
+            "  a[1] = x;",
+            "  g = a[1] + 1;",
+            "  return g;",
+            "}");
+    edges =
+        FluentIterable.from(cfa.getAllNodes())
+            .transformAndConcat(CFAUtils::allLeavingEdges)
+            .toList();
+  }
+
+  private static DGNode addNode(NodeMap pNodes, CFAEdge pEdge, MemoryLocation pCause) {
+    DGNode node = new EdgeNode(pEdge, pCause);
+    pNodes.getNodesForEdges().put(pEdge, Optional.of(pCause), node);
+    return node;
+  }
+
+  private static void assertSameGraph(
+      NodeMap pExpectedNodes,
+      Table<DGNode, DGNode, DependenceType> pExpectedDependences,
+      NodeMap pNodes,
+      Table<DGNode, DGNode, DependenceType> pDependences) {
+    assertThat(pNodes.getNodesForEdges()).isEqualTo(pExpectedNodes.getNodesForEdges());
+    assertThat(pNodes.getSpecialNodes()).isEqualTo(pExpectedNodes.getSpecialNodes());
+    assertThat(pDependences).isEqualTo(pExpectedDependences);
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    NodeMap nodes = new NodeMap();
+    Table<DGNode, DGNode, DependenceType> dependences = HashBasedTable.create();
+
+    CFAEdge first = edges.get(0);
+    CFAEdge second = edges.get(1);
+    CFAEdge last = edges.get(edges.size() - 1);
+
+    DGNode withoutCause = new EdgeNode(first);
+    nodes.getNodesForEdges().put(first, Optional.empty(), withoutCause);
+    DGNode global = addNode(nodes, second, MemoryLocation.valueOf("g", OptionalLong.empty()));
+    DGNode globalWithOffset = addNode(nodes, second, MemoryLocation.valueOf("g", 4));
+    DGNode local = addNode(nodes, last, MemoryLocation.valueOf("main", "x"));
+    DGNode localWithOffset = addNode(nodes, last, MemoryLocation.valueOf("main", "a", 8));
+    DGNode unknownPointer = UnknownPointerNode.getInstance();
+    nodes.getSpecialNodes().add(unknownPointer);
+
+    dependences.put(withoutCause, global, DependenceType.CONTROL);
+    dependences.put(global, globalWithOffset, DependenceType.FLOW);
+    dependences.put(globalWithOffset, local, DependenceType.FLOW);
+    dependences.put(local, localWithOffset, DependenceType.FLOW);
+    dependences.put(unknownPointer, localWithOffset, DependenceType.FLOW);
+
+    Path directory = tempFolder.getRoot().toPath();
+    DependenceGraphCache cache = new DependenceGraphCache(directory, cfa, "settings");
+
+    NodeMap loadedNodes = new NodeMap();
+    Table<DGNode, DGNode, DependenceType> loadedDependences = HashBasedTable.create();
+    assertThat(cache.load(loadedNodes, loadedDependences)).isFalse();
+
+    cache.store(nodes, dependences);
+    assertThat(cache.load(loadedNodes, loadedDependences)).isTrue();
+    assertSameGraph(nodes, dependences, loadedNodes, loadedDependences);
+
+    // a new cache for the same CFA and settings finds the same file
+    NodeMap reloadedNodes = new NodeMap();
+    Table<DGNode, DGNode, DependenceType> reloadedDependences = HashBasedTable.create();
+    assertThat(
+            new DependenceGraphCache(directory, cfa, "settings")
+                .load(reloadedNodes, reloadedDependences))
+        .isTrue();
+    assertSameGraph(nodes, dependences, reloadedNodes, reloadedDependences);
+  }
+
+  @Test
+  public void testStoreLeavesOnlyCacheFile() throws IOException {
+    Path directory = tempFolder.getRoot().toPath();
+    DependenceGraphCache cache = new DependenceGraphCache(directory, cfa, "settings");
+
+    NodeMap nodes = new NodeMap();
+    nodes.getNodesForEdges().put(edges.get(0), Optional.empty(), new EdgeNode(edges.get(0)));
+    cache.store(nodes, HashBasedTable.create());
+    // storing again replaces the file
+    cache.store(nodes, HashBasedTable.create());
+
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.collect(ImmutableList.toImmutableList())).containsExactly(cache.getFile());
+    }
+  }
+
+  @Test
+  public void testSettingsDetermineFile() {
+    Path directory = tempFolder.getRoot().toPath();
+    assertThat(new DependenceGraphCache(directory, cfa, "settings").getFile())
+        .isEqualTo(new DependenceGraphCache(directory, cfa, "settings").getFile());
+    assertThat(new DependenceGraphCache(directory, cfa, "settings").getFile())
+        .isNotEqualTo(new DependenceGraphCache(directory, cfa, "other settings").getFile());
+  }
+}
@@ -0,0 +1,31 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Event for the computation of one predicate abstraction. */
+@Name("org.sosy_lab.cpachecker.PredicateAbstraction")
+@Label("Predicate Abstraction")
+@Category({"CPAchecker", "Analysis"})
+@Enabled(false)
+public final class AbstractionEvent extends jdk.jfr.Event {
+
+  @Label("Location")
+  public int location;
+
+  @Label("Number of predicates")
+  public int predicates;
+
+  @Label("Result is false")
+  public boolean isFalse;
+}
@@ -0,0 +1,100 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.jfr;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.logging.Level;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+
+/**
+ * A recording of the Java Flight Recorder that contains the events of CPAchecker (cf. this
+ * package) in addition to the default events of the JVM. The events of CPAchecker are disabled in
+ * all other recordings, such that they cause only negligible overhead if this class is not used.
+ */
+@Options(prefix = "statistics.jfr")
+public final class AnalysisRecording implements AutoCloseable {
+
+  private static final ImmutableList<Class<? extends Event>> EVENTS =
+      ImmutableList.of(
+          CPAOperatorEvent.class,
+          SolverEvent.class,
+          AbstractionEvent.class,
+          InterpolationEvent.class,
+          BlockEntryEvent.class);
+
+  @Option(
+      secure = true,
+      name = "file",
+      description =
+          "record the analysis with the Java Flight Recorder, including events for CPA operators, "
+              + "solver calls, abstractions, interpolation, and BAM blocks, "
+              + "and write the recording to this file")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path file = null;
+
+  private final LogManager logger;
+  private @Nullable Recording recording = null;
+
+  public AnalysisRecording(Configuration pConfig, LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+  }
+
+  /** Start the recording, if it is enabled. */
+  public void start() {
+    if (file == null) {
+      return;
+    }
+    Recording newRecording;
+    try {
+      newRecording = new Recording(jdk.jfr.Configuration.getConfiguration("default"));
+    } catch (IOException | ParseException e) {
+      logger.logDebugException(e, "Could not load default settings of Java Flight Recorder");
+      newRecording = new Recording();
+    }
+    for (Class<? extends Event> event : EVENTS) {
+      newRecording.enable(event);
+    }
+    newRecording.setName("CPAchecker");
+    try {
+      MoreFiles.createParentDirectories(file);
+      newRecording.setDestination(file);
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not start Java Flight Recorder");
+      newRecording.close();
+      return;
+    }
+    newRecording.start();
+    recording = newRecording;
+  }
+
+  /** Stop the recording and write it to the file, if it was started. */
+  @Override
+  public void close() {
+    if (recording != null) {
+      // writes the recording to the destination
+      recording.stop();
+      recording.close();
+      recording = null;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Event for entering a block with block-abstraction memoization (BAM). */
+@Name("org.sosy_lab.cpachecker.BlockEntry")
+@Label("BAM Block Entry")
+@Category({"CPAchecker", "Analysis"})
+@Enabled(false)
+public final class BlockEntryEvent extends jdk.jfr.Event {
+
+  @Label("Location")
+  public int location;
+
+  @Label("Cache result")
+  public String cacheResult;
+
+  @Label("Nesting level")
+  public int nestingLevel;
+}
@@ -0,0 +1,70 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+
+/** Event for one application of an operator (transfer, merge, stop) of a CPA. */
+@Name("org.sosy_lab.cpachecker.CPAOperator")
+@Label("CPA Operator")
+@Category({"CPAchecker", "Analysis"})
+@Enabled(false)
+public final class CPAOperatorEvent extends jdk.jfr.Event {
+
+  @Label("Operator")
+  public String operator;
+
+  @Label("CPA")
+  @Description("The class that implements the operator")
+  public String cpa;
+
+  @Label("Location")
+  @Description("Number of the CFA node of the input state, or -1 if unknown")
+  public int location = -1;
+
+  @Label("Number of states")
+  @Description("Number of successors for transfer, number of reached states for merge and stop")
+  public int states;
+
+  /**
+   * End this event and commit it with the given values if the event is enabled. The location is
+   * extracted from the given state only in this case.
+   */
+  public void commitFor(
+      String pOperator, Object pImplementation, AbstractState pState, int pStates) {
+    end();
+    if (shouldCommit()) {
+      CFANode node = AbstractStates.extractLocation(pState);
+      commit(pOperator, pImplementation, node == null ? -1 : node.getNodeNumber(), pStates);
+    }
+  }
+
+  /** End this event and commit it with the given values if the event is enabled. */
+  public void commitFor(String pOperator, Object pImplementation, int pLocation, int pStates) {
+    end();
+    if (shouldCommit()) {
+      commit(pOperator, pImplementation, pLocation, pStates);
+    }
+  }
+
+  private void commit(String pOperator, Object pImplementation, int pLocation, int pStates) {
+    operator = pOperator;
+    cpa = pImplementation.getClass().getSimpleName();
+    location = pLocation;
+    states = pStates;
+    commit();
+  }
+}
@@ -0,0 +1,38 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Event for the analysis of one counterexample with interpolation. */
+@Name("org.sosy_lab.cpachecker.Interpolation")
+@Label("Counterexample Interpolation")
+@Category({"CPAchecker", "Refinement"})
+@Enabled(false)
+public final class InterpolationEvent extends jdk.jfr.Event {
+
+  @Label("Number of blocks")
+  public int blocks;
+
+  @Label("Spurious")
+  public boolean spurious;
+
+  /** End this event and commit it with the given values if the event is enabled. */
+  public void commitFor(int pBlocks, boolean pSpurious) {
+    end();
+    if (shouldCommit()) {
+      blocks = pBlocks;
+      spurious = pSpurious;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event for one satisfiability check with the SMT solver. Trivial checks and checks that are
+ * answered by the simple formula cache are not recorded. Checks that are answered by the cache for
+ * sets of constraints are recorded and marked as cached.
+ */
+@Name("org.sosy_lab.cpachecker.SolverCheck")
+@Label("Solver Check")
+@Category({"CPAchecker", "Solver"})
+@Enabled(false)
+public final class SolverEvent extends jdk.jfr.Event {
+
+  @Label("Number of constraints")
+  public int constraints;
+
+  @Label("Unsatisfiable")
+  public boolean unsat;
+
+  @Label("Cached")
+  @Description("Whether the result was taken from a cache instead of calling the solver")
+  public boolean cached;
+
+  /** End this event and commit it with the given values if the event is enabled. */
+  public void commitFor(int pConstraints, boolean pUnsat, boolean pCached) {
+    end();
+    if (shouldCommit()) {
+      constraints = pConstraints;
+      unsat = pUnsat;
+      cached = pCached;
+      commit();
+    }
+  }
+}
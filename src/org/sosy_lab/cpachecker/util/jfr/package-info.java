@@ -0,0 +1,16 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+/**
+ * Events for the Java Flight Recorder that allow to attribute the time of an analysis to its
+ * semantic components, e.g., to CPAs, program locations, and refinements. The events are disabled
+ * by default and enabled by the option "statistics.jfr.file", cf. {@link
+ * org.sosy_lab.cpachecker.util.jfr.AnalysisRecording}.
+ */
+@javax.annotation.ParametersAreNonnullByDefault
+package org.sosy_lab.cpachecker.util.jfr;
@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.util.predicates.bdd;
 
+import java.util.logging.Level;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -46,6 +47,15 @@ public class BDDManagerFactory {
   @Option(secure = true, description = "sequentialize all accesses to the BDD library.")
   private boolean synchronizeLibraryAccess = false;
 
+  @Option(
+      secure = true,
+      description =
+          "The BDD library is accessed by several threads concurrently (e.g., with parallel BAM)."
+              + " PJBDD is thread-safe and is used without a global lock (consider"
+              + " bdd.pjbdd.threadLocalCacheSize), all other packages are sequentialized as with"
+              + " bdd.synchronizeLibraryAccess.")
+  private boolean concurrentAccess = false;
+
   @Option(
       secure = true,
       description =
@@ -79,12 +89,19 @@ public class BDDManagerFactory {
       rmgr = new JavaBDDRegionManager(bddPackage, config, logger);
     }
     if (measureLibraryAccess) {
-      rmgr = new TimedRegionManager(rmgr);
+      if (concurrentAccess) {
+        logger.log(
+            Level.WARNING,
+            "Cannot measure time spent in BDD library with concurrent accesses,",
+            "use bdd.countLibraryAccess instead.");
+      } else {
+        rmgr = new TimedRegionManager(rmgr);
+      }
     }
     if (countLibraryAccess) {
       rmgr = new CountingRegionManager(rmgr);
     }
-    if (synchronizeLibraryAccess) {
+    if (synchronizeLibraryAccess || (concurrentAccess && !bddPackage.equals("PJBDD"))) {
       rmgr = new SynchronizedRegionManager(rmgr);
     }
     return rmgr;
@@ -11,16 +11,23 @@ package org.sosy_lab.cpachecker.util.predicates.bdd;
 import static com.google.common.base.Preconditions.checkState;
 import static org.sosy_lab.cpachecker.util.predicates.bdd.PJBDDRegion.unwrap;
 import static org.sosy_lab.cpachecker.util.predicates.bdd.PJBDDRegion.wrap;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
 import com.google.common.primitives.ImmutableIntArray;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.IntegerOption;
@@ -49,27 +56,86 @@ import org.sosy_lab.pjbdd.node.BDD;
 
 public class PJBDDRegionManager implements RegionManager {
 
+  private static final int OP_AND = 0;
+  private static final int OP_OR = 1;
+  private static final int OP_IMPLY = 2;
+
   private final Region trueFormula;
   private final Region falseFormula;
   private final Creator<BDD> bddCreator;
 
+  /**
+   * Small caches for the results of binary operations, one per thread. PJBDD has its own cache,
+   * but that is shared by all threads, so threads that work on different parts of the state space
+   * (e.g., with parallel BAM) evict each other's entries and contend on it. The threads are weak
+   * keys, such that the caches of terminated threads can be collected, and all caches are dropped
+   * when the region manager is closed, even those of threads in a pool that keeps running.
+   */
+  private final @Nullable ConcurrentMap<Thread, OperationCache> operationCaches;
+  private final int operationCacheSize;
+
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final AtomicInteger numVariables = new AtomicInteger();
+
   public PJBDDRegionManager(Configuration pConfig) throws InvalidConfigurationException {
     BuildFromConfig buildFromConfig = new BuildFromConfig(pConfig);
     bddCreator = buildFromConfig.makeCreator();
     trueFormula = wrap(bddCreator.makeTrue());
     falseFormula = wrap(bddCreator.makeFalse());
+    operationCacheSize = buildFromConfig.threadLocalCacheSize;
+    operationCaches = operationCacheSize > 0 ? new MapMaker().weakKeys().makeMap() : null;
   }
 
   @Override
   public boolean entails(Region f1, Region f2) {
-    return bddCreator.makeImply(unwrap(f1), unwrap(f2)).isTrue();
+    return apply(OP_IMPLY, unwrap(f1), unwrap(f2)).isTrue();
   }
 
   @Override
   public Region createPredicate() {
+    numVariables.incrementAndGet();
     return wrap(bddCreator.makeVariable());
   }
 
+  /** Compute a binary operation, using the cache of the current thread if enabled. */
+  private BDD apply(int op, BDD f1, BDD f2) {
+    if (operationCaches == null) {
+      return compute(op, f1, f2);
+    }
+    if (op != OP_IMPLY && System.identityHashCode(f1) > System.identityHashCode(f2)) {
+      // commutative operation, normalize order of operands
+      BDD tmp = f1;
+      f1 = f2;
+      f2 = tmp;
+    }
+    OperationCache cache =
+        operationCaches.computeIfAbsent(
+            Thread.currentThread(), thread -> new OperationCache(operationCacheSize));
+    BDD result = cache.get(op, f1, f2);
+    if (result != null) {
+      cacheHits.increment();
+    } else {
+      cacheMisses.increment();
+      result = compute(op, f1, f2);
+      cache.put(op, f1, f2, result);
+    }
+    return result;
+  }
+
+  private BDD compute(int op, BDD f1, BDD f2) {
+    switch (op) {
+      case OP_AND:
+        return bddCreator.makeAnd(f1, f2);
+      case OP_OR:
+        return bddCreator.makeOr(f1, f2);
+      case OP_IMPLY:
+        return bddCreator.makeImply(f1, f2);
+      default:
+        throw new AssertionError("unknown operation " + op);
+    }
+  }
+
   @Override
   public Region fromFormula(
       BooleanFormula pF, FormulaManagerView fmgr, Function<BooleanFormula, Region> atomToRegion) {
@@ -94,10 +160,23 @@ public class PJBDDRegionManager implements RegionManager {
 
   @Override
   public void printStatistics(PrintStream out) {
-    out.println("Stats to be printed");
+    long hits = cacheHits.sum();
+    long lookups = hits + cacheMisses.sum();
+    writingStatisticsTo(out)
+        .put("Number of BDD variables", numVariables.get())
+        .putIf(lookups > 0, "Number of thread-local cache lookups", lookups)
+        .putIf(lookups > 0, "Thread-local cache hit rate", toPercent(hits, lookups));
     // TODO    out.print(bddCreator.getCreatorStats().prettyPrint());
   }
 
+  @Override
+  public void close() {
+    if (operationCaches != null) {
+      operationCaches.clear();
+    }
+    bddCreator.shutDown();
+  }
+
   @Override
   public String getVersion() {
     return bddCreator.getVersion();
@@ -138,12 +217,12 @@ public class PJBDDRegionManager implements RegionManager {
 
   @Override
   public Region makeAnd(Region f1, Region f2) {
-    return wrap(bddCreator.makeAnd(unwrap(f1), unwrap(f2)));
+    return wrap(apply(OP_AND, unwrap(f1), unwrap(f2)));
   }
 
   @Override
   public Region makeOr(Region f1, Region f2) {
-    return wrap(bddCreator.makeOr(unwrap(f1), unwrap(f2)));
+    return wrap(apply(OP_OR, unwrap(f1), unwrap(f2)));
   }
 
   @Override
@@ -240,6 +319,14 @@ public class PJBDDRegionManager implements RegionManager {
     @Option(secure = true, description = "Use bdd chaining.")
     private boolean useChainedBDD = false;
 
+    @Option(
+        secure = true,
+        description =
+            "Size of an additional cache for the results of and, or, and implication per thread"
+                + " (0 disables it). Useful if several threads use the BDD library concurrently.")
+    @IntegerOption(min = 0)
+    private int threadLocalCacheSize = 0;
+
     private BuildFromConfig(Configuration pConfig) throws InvalidConfigurationException {
       pConfig.inject(this);
     }
@@ -335,8 +422,9 @@ public class PJBDDRegionManager implements RegionManager {
 
     @Override
     public void close() {
+      // Do not shut down bddCreator here, it is still used afterwards (also by other threads),
+      // it is shut down when the region manager is closed.
       cache.clear();
-      PJBDDRegionManager.this.bddCreator.shutDown();
     }
 
     @Override
@@ -431,6 +519,43 @@ public class PJBDDRegionManager implements RegionManager {
     }
   }
 
+  /** Direct-mapped cache for binary operations, the operands are compared by identity. */
+  private static final class OperationCache {
+
+    private final int[] ops;
+    private final BDD[] operands1;
+    private final BDD[] operands2;
+    private final BDD[] results;
+
+    private OperationCache(int pSize) {
+      ops = new int[pSize];
+      operands1 = new BDD[pSize];
+      operands2 = new BDD[pSize];
+      results = new BDD[pSize];
+    }
+
+    private int index(int op, BDD f1, BDD f2) {
+      int hash = 31 * (31 * op + System.identityHashCode(f1)) + System.identityHashCode(f2);
+      return Math.floorMod(hash, results.length);
+    }
+
+    private @Nullable BDD get(int op, BDD f1, BDD f2) {
+      int i = index(op, f1, f2);
+      if (results[i] != null && ops[i] == op && operands1[i] == f1 && operands2[i] == f2) {
+        return results[i];
+      }
+      return null;
+    }
+
+    private void put(int op, BDD f1, BDD f2, BDD result) {
+      int i = index(op, f1, f2);
+      ops[i] = op;
+      operands1[i] = f1;
+      operands2[i] = f2;
+      results[i] = result;
+    }
+  }
+
   private class RegionBuilder implements RegionCreator.RegionBuilder {
 
     private final List<BDD> cubes = new ArrayList<>();
@@ -56,6 +56,7 @@ import org.sosy_lab.cpachecker.exceptions.RefinementFailedException.Reason;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.jfr.InterpolationEvent;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.strategy.ITPStrategy;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.strategy.NestedInterpolation;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.strategy.SequentialInterpolation;
@@ -276,8 +277,12 @@ public final class InterpolationManager {
       throws CPAException, InterruptedException {
     assert pAbstractionStates.isEmpty() || pFormulas.getSize() == pAbstractionStates.size();
 
-    return callWithTimelimit(
-        () -> buildCounterexampleTrace0(pFormulas, pAbstractionStates));
+    InterpolationEvent event = new InterpolationEvent();
+    event.begin();
+    CounterexampleTraceInfo result =
+        callWithTimelimit(() -> buildCounterexampleTrace0(pFormulas, pAbstractionStates));
+    event.commitFor(pFormulas.getSize(), result.isSpurious());
+    return result;
   }
 
   private CounterexampleTraceInfo callWithTimelimit(Callable<CounterexampleTraceInfo> callable)
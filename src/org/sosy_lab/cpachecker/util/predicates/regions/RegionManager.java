@@ -93,4 +93,10 @@ public interface RegionManager extends RegionCreator {
    * We also assume identical lengths of the old and new predicates.
    */
   Region replace(Region region, Region[] oldPredicates, Region[] newPredicates);
+
+  /**
+   * Release the resources of the underlying library, e.g., its threads. The manager and its
+   * regions must not be used afterwards.
+   */
+  default void close() {}
 }
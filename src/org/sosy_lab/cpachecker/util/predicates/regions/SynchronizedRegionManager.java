@@ -163,4 +163,11 @@ public class SynchronizedRegionManager implements RegionManager {
       return delegate.replace(pRegion, pOldPredicates, pNewPredicates);
     }
   }
+
+  @Override
+  public void close() {
+    synchronized (delegate) {
+      delegate.close();
+    }
+  }
 }
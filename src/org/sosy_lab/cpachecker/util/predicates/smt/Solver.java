@@ -32,6 +32,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.util.jfr.SolverEvent;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.SeparateInterpolatingProverEnvironment;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingBasicProverEnvironment.UFCheckingProverOptions;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingInterpolatingProverEnvironment;
@@ -400,11 +401,14 @@ public final class Solver implements AutoCloseable {
       return result;
     }
 
+    SolverEvent event = new SolverEvent();
+    event.begin();
     solverTime.start();
     try {
       result = isUnsatUncached(f);
 
       unsatCache.put(f, result);
+      event.commitFor(1, result, false);
       return result;
 
     } finally {
@@ -423,9 +427,14 @@ public final class Solver implements AutoCloseable {
    */
   public boolean isUnsat(Set<BooleanFormula> constraints, Object cacheKey)
       throws InterruptedException, SolverException {
+    SolverEvent event = new SolverEvent();
+    event.begin();
     solverTime.start();
     try {
-      return isUnsat0(constraints, cacheKey);
+      int cachedChecksBefore = cachedSatChecks;
+      boolean result = isUnsat0(constraints, cacheKey);
+      event.commitFor(constraints.size(), result, cachedSatChecks != cachedChecksBefore);
+      return result;
     } finally {
       solverTime.stop();
     }
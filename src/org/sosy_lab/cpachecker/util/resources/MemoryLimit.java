@@ -0,0 +1,320 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.resources;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A limit that measures the used memory, either of the Java heap or of the control group (cgroup
+ * v2) of the current process.
+ *
+ * <p>Such a limit is meant to be set a little below the actual memory limit, such that the
+ * analysis is stopped gracefully (and partial results and statistics are reported) before the JVM
+ * throws an {@link OutOfMemoryError} or the process is killed by the OOM killer of its container.
+ *
+ * <p>For the heap, the memory that was still used after the most recent garbage collection of each
+ * heap memory pool is measured, which excludes garbage that the JVM could still reclaim. For the
+ * cgroup, the inactive file cache is not counted, because the kernel reclaims it before it kills
+ * processes (it is part of memory.current nevertheless).
+ *
+ * <p>Stopping the analysis is the last resort. A limit can also have a lower pressure threshold:
+ * whenever the used memory reaches it, the {@link PressureListener}s that components registered
+ * with {@link #registerPressureListener(PressureListener)} are notified, such that they can reduce
+ * their memory usage (e.g., by clearing caches or stopping auxiliary analyses).
+ */
+public class MemoryLimit implements ResourceLimit {
+
+  private static final Path CGROUP_ROOT = Paths.get("/sys/fs/cgroup");
+  private static final Path PROC_SELF_CGROUP = Paths.get("/proc/self/cgroup");
+  private static final String CGROUP_MEMORY_LIMIT = "memory.max";
+  private static final String CGROUP_MEMORY_USAGE = "memory.current";
+  private static final String CGROUP_MEMORY_STAT = "memory.stat";
+  private static final String CGROUP_INACTIVE_FILE = "inactive_file";
+
+  /**
+   * A degradation that a component offers to reduce its memory usage before the analysis has to be
+   * stopped because of a memory limit.
+   */
+  @FunctionalInterface
+  public interface PressureListener {
+
+    /**
+     * Called when the used memory reaches the pressure threshold of a memory limit. This is called
+     * by the thread that checks the resource limits, so implementations need to be thread-safe and
+     * fast, and must not throw exceptions. Typically, they only request the degradation from the
+     * component, e.g., by setting a flag that the component checks at a point where it can safely
+     * release memory, or by requesting a shutdown of an auxiliary analysis.
+     */
+    void memoryPressureReached();
+  }
+
+  private static final List<PressureListener> pressureListeners = new CopyOnWriteArrayList<>();
+
+  private final long limit;
+
+  /** The used memory at which the pressure listeners are notified (Long.MAX_VALUE if never). */
+  private final long pressureThreshold;
+
+  /**
+   * Whether the used memory was above the pressure threshold at the last check, such that the
+   * listeners are only notified when the threshold is reached again. Only accessed by the thread
+   * that checks the limit.
+   */
+  private boolean underPressure = false;
+
+  /** The directory of the cgroup whose memory is measured, or null if the heap is measured. */
+  private final @Nullable Path cgroup;
+
+  private final ImmutableList<MemoryPoolMXBean> heapPools;
+
+  private MemoryLimit(long pLimit, long pPressureThreshold, @Nullable Path pCgroup) {
+    checkArgument(pLimit > 0);
+    checkArgument(pPressureThreshold > 0);
+    limit = pLimit;
+    pressureThreshold = pPressureThreshold;
+    cgroup = pCgroup;
+    ImmutableList.Builder<MemoryPoolMXBean> pools = ImmutableList.builder();
+    if (cgroup == null) {
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()) {
+          pools.add(pool);
+        }
+      }
+    }
+    heapPools = pools.build();
+  }
+
+  /** Create a limit for the given percentage of the maximum size of the Java heap. */
+  public static MemoryLimit ofHeapPercentage(int pPercentage) {
+    return ofHeapPercentage(pPercentage, -1);
+  }
+
+  /**
+   * Create a limit for the given percentage of the maximum size of the Java heap, which notifies
+   * the pressure listeners at the given lower percentage (or never if it is not positive).
+   */
+  public static MemoryLimit ofHeapPercentage(int pPercentage, int pPressurePercentage) {
+    long maxHeap = Runtime.getRuntime().maxMemory();
+    return new MemoryLimit(
+        getThreshold(maxHeap, pPercentage),
+        getPressureThreshold(maxHeap, pPercentage, pPressurePercentage),
+        null);
+  }
+
+  private static long getThreshold(long pMaximum, int pPercentage) {
+    checkArgument(pPercentage > 0 && pPercentage <= 100);
+    return pMaximum / 100 * pPercentage;
+  }
+
+  private static long getPressureThreshold(
+      long pMaximum, int pPercentage, int pPressurePercentage) {
+    if (pPressurePercentage <= 0) {
+      return Long.MAX_VALUE;
+    }
+    checkArgument(pPressurePercentage > 0 && pPressurePercentage < pPercentage);
+    return getThreshold(pMaximum, pPressurePercentage);
+  }
+
+  /**
+   * Create a limit for the given percentage of the memory limit of the cgroup (v2) of the current
+   * process.
+   *
+   * @return a limit, or an empty optional if the process has no cgroup with a memory limit
+   * @throws IOException if the cgroup files exist but cannot be read
+   */
+  public static Optional<MemoryLimit> ofCgroupPercentage(int pPercentage) throws IOException {
+    return ofCgroupPercentage(pPercentage, -1);
+  }
+
+  /**
+   * Create a limit for the given percentage of the memory limit of the cgroup (v2) of the current
+   * process, which notifies the pressure listeners at the given lower percentage (or never if it is
+   * not positive).
+   *
+   * @return a limit, or an empty optional if the process has no cgroup with a memory limit
+   * @throws IOException if the cgroup files exist but cannot be read
+   */
+  public static Optional<MemoryLimit> ofCgroupPercentage(int pPercentage, int pPressurePercentage)
+      throws IOException {
+    return ofCgroupPercentage(pPercentage, pPressurePercentage, PROC_SELF_CGROUP, CGROUP_ROOT);
+  }
+
+  /**
+   * Create a limit for the given percentage of the memory limit of the cgroup (v2) that is listed
+   * in the given file, with the given mount point of the cgroup hierarchy.
+   *
+   * @param pProcSelfCgroup the file that lists the cgroups of the process (/proc/self/cgroup)
+   * @param pCgroupRoot the directory where the cgroup hierarchy is mounted (/sys/fs/cgroup)
+   */
+  @VisibleForTesting
+  static Optional<MemoryLimit> ofCgroupPercentage(
+      int pPercentage, int pPressurePercentage, Path pProcSelfCgroup, Path pCgroupRoot)
+      throws IOException {
+    checkArgument(pPercentage > 0 && pPercentage <= 100);
+    Optional<Path> cgroup = findCgroupDirectory(pProcSelfCgroup, pCgroupRoot);
+    if (!cgroup.isPresent()) {
+      return Optional.empty();
+    }
+    String cgroupLimit = readFile(cgroup.orElseThrow().resolve(CGROUP_MEMORY_LIMIT));
+    if (cgroupLimit.equals("max")) {
+      return Optional.empty();
+    }
+    try {
+      long maximum = Long.parseLong(cgroupLimit);
+      return Optional.of(
+          new MemoryLimit(
+              getThreshold(maximum, pPercentage),
+              getPressureThreshold(maximum, pPercentage, pPressurePercentage),
+              cgroup.orElseThrow()));
+    } catch (NumberFormatException e) {
+      throw new IOException("Invalid cgroup memory limit " + cgroupLimit, e);
+    }
+  }
+
+  private static Optional<Path> findCgroupDirectory(Path pProcSelfCgroup, Path pCgroupRoot)
+      throws IOException {
+    if (Files.isReadable(pProcSelfCgroup)) {
+      for (String line : Files.readAllLines(pProcSelfCgroup, StandardCharsets.US_ASCII)) {
+        // cgroup v2 is listed with hierarchy ID 0 and without controllers
+        if (line.startsWith("0::/")) {
+          Path cgroup = pCgroupRoot.resolve(line.substring("0::/".length()));
+          if (Files.isRegularFile(cgroup.resolve(CGROUP_MEMORY_LIMIT))) {
+            return Optional.of(cgroup);
+          }
+        }
+      }
+    }
+    // inside a container with its own cgroup namespace, its cgroup is mounted as root
+    if (Files.isRegularFile(pCgroupRoot.resolve(CGROUP_MEMORY_LIMIT))) {
+      return Optional.of(pCgroupRoot);
+    }
+    return Optional.empty();
+  }
+
+  private static String readFile(Path pFile) throws IOException {
+    return new String(Files.readAllBytes(pFile), StandardCharsets.US_ASCII).trim();
+  }
+
+  /**
+   * Return the used memory of the cgroup, i.e., its current memory usage without the inactive file
+   * cache, or -1 if the usage cannot be read.
+   */
+  private long getCgroupUsage() {
+    long usage;
+    try {
+      usage = Long.parseLong(readFile(cgroup.resolve(CGROUP_MEMORY_USAGE)));
+    } catch (IOException | NumberFormatException e) {
+      return -1;
+    }
+    try {
+      Path statFile = cgroup.resolve(CGROUP_MEMORY_STAT);
+      for (String line : Files.readAllLines(statFile, StandardCharsets.US_ASCII)) {
+        // lines have the form "inactive_file 123456"
+        if (line.startsWith(CGROUP_INACTIVE_FILE + " ")) {
+          long inactiveFile =
+              Long.parseLong(line.substring(CGROUP_INACTIVE_FILE.length() + 1).trim());
+          return Math.max(0, usage - inactiveFile);
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      // measure the complete usage
+    }
+    return usage;
+  }
+
+  @Override
+  public long getCurrentValue() {
+    if (cgroup != null) {
+      return getCgroupUsage();
+    }
+
+    long used = 0;
+    for (MemoryPoolMXBean pool : heapPools) {
+      MemoryUsage usage = pool.getCollectionUsage();
+      if (usage != null) {
+        used += usage.getUsed();
+      }
+    }
+    return used;
+  }
+
+  @Override
+  public boolean isExceeded(long pCurrentValue) {
+    return pCurrentValue >= limit;
+  }
+
+  /**
+   * Register a listener that is notified whenever the used memory reaches the pressure threshold
+   * of a memory limit. Components should unregister their listener when they are not used anymore.
+   */
+  public static void registerPressureListener(PressureListener pListener) {
+    pressureListeners.add(checkNotNull(pListener));
+  }
+
+  public static void unregisterPressureListener(PressureListener pListener) {
+    pressureListeners.remove(pListener);
+  }
+
+  /**
+   * Notify all pressure listeners if the given value (as returned by {@link #getCurrentValue()})
+   * reached the pressure threshold, unless it was already reached at the previous check.
+   */
+  void checkPressure(long pCurrentValue) {
+    boolean pressure = pCurrentValue >= pressureThreshold;
+    if (pressure && !underPressure) {
+      for (PressureListener listener : pressureListeners) {
+        listener.memoryPressureReached();
+      }
+    }
+    underPressure = pressure;
+  }
+
+  @Override
+  public long nanoSecondsToNextCheck(long pCurrentValue) {
+    if (pCurrentValue < 0) {
+      // reading failed suddenly, we disable this limit
+      return Long.MAX_VALUE;
+    }
+    // memory usage can grow arbitrarily fast
+    return 0;
+  }
+
+  @Override
+  public String getName() {
+    return (cgroup == null ? "heap" : "cgroup")
+        + " memory limit of "
+        + (limit >> 20)
+        + "MB"
+        + (pressureThreshold == Long.MAX_VALUE
+            ? ""
+            : " (pressure at " + (pressureThreshold >> 20) + "MB)");
+  }
+
+  @Override
+  public String getShutdownReason() {
+    return String.format("The %s has been reached.", getName());
+  }
+}
@@ -0,0 +1,205 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.resources;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MemoryLimitTest {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path procSelfCgroup;
+  private Path cgroupRoot;
+
+  @Before
+  public void setUp() throws IOException {
+    procSelfCgroup = tempFolder.newFile("cgroup").toPath();
+    cgroupRoot = tempFolder.newFolder("sys-fs-cgroup").toPath();
+  }
+
+  private static void write(Path pFile, String pContent) throws IOException {
+    Files.createDirectories(pFile.getParent());
+    Files.write(pFile, pContent.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private Optional<MemoryLimit> ofCgroupPercentage(int pPercentage) throws IOException {
+    return MemoryLimit.ofCgroupPercentage(pPercentage, -1, procSelfCgroup, cgroupRoot);
+  }
+
+  @Test
+  public void testCgroupOfProcess() throws IOException {
+    write(procSelfCgroup, "12:memory:/ignored\n0::/user.slice/analysis.scope\n");
+    Path cgroup = cgroupRoot.resolve("user.slice/analysis.scope");
+    write(cgroup.resolve("memory.max"), "1000000000\n");
+    write(cgroup.resolve("memory.current"), "123456\n");
+
+    MemoryLimit limit = ofCgroupPercentage(50).orElseThrow();
+    assertThat(limit.getCurrentValue()).isEqualTo(123456);
+    assertThat(limit.isExceeded(499999999)).isFalse();
+    assertThat(limit.isExceeded(500000000)).isTrue();
+    assertThat(limit.getName()).isEqualTo("cgroup memory limit of 476MB");
+  }
+
+  @Test
+  public void testInactiveFileCacheIsNotCounted() throws IOException {
+    write(procSelfCgroup, "0::/cache\n");
+    Path cgroup = cgroupRoot.resolve("cache");
+    write(cgroup.resolve("memory.max"), "2000\n");
+    write(cgroup.resolve("memory.current"), "1500\n");
+    write(cgroup.resolve("memory.stat"), "anon 700\nfile 800\ninactive_file 600\n");
+
+    MemoryLimit limit = ofCgroupPercentage(100).orElseThrow();
+    assertThat(limit.getCurrentValue()).isEqualTo(900);
+
+    // more cache than usage (the files are not read atomically)
+    write(cgroup.resolve("memory.stat"), "inactive_file 1600\n");
+    assertThat(limit.getCurrentValue()).isEqualTo(0);
+
+    // without statistics the complete usage is measured
+    Files.delete(cgroup.resolve("memory.stat"));
+    assertThat(limit.getCurrentValue()).isEqualTo(1500);
+  }
+
+  @Test
+  public void testCgroupRootInNamespace() throws IOException {
+    // inside a cgroup namespace, the process is listed in the root of the hierarchy
+    write(procSelfCgroup, "0::/\n");
+    write(cgroupRoot.resolve("memory.max"), "2000\n");
+    write(cgroupRoot.resolve("memory.current"), "1000\n");
+
+    MemoryLimit limit = ofCgroupPercentage(100).orElseThrow();
+    assertThat(limit.getCurrentValue()).isEqualTo(1000);
+    assertThat(limit.isExceeded(limit.getCurrentValue())).isFalse();
+    assertThat(limit.isExceeded(2000)).isTrue();
+  }
+
+  @Test
+  public void testCgroupRootWithoutProcessEntry() throws IOException {
+    Files.delete(procSelfCgroup);
+    write(cgroupRoot.resolve("memory.max"), "2000\n");
+    write(cgroupRoot.resolve("memory.current"), "1000\n");
+
+    assertThat(ofCgroupPercentage(100)).isPresent();
+  }
+
+  @Test
+  public void testUnlimitedCgroup() throws IOException {
+    write(procSelfCgroup, "0::/unlimited\n");
+    write(cgroupRoot.resolve("unlimited/memory.max"), "max\n");
+
+    assertThat(ofCgroupPercentage(90)).isEmpty();
+  }
+
+  @Test
+  public void testNoCgroupV2() throws IOException {
+    // only cgroup v1 hierarchies, which are not supported
+    write(procSelfCgroup, "4:memory:/user.slice\n1:name=systemd:/user.slice\n");
+    write(cgroupRoot.resolve("memory/user.slice/memory.limit_in_bytes"), "2000\n");
+
+    assertThat(ofCgroupPercentage(90)).isEmpty();
+  }
+
+  @Test
+  public void testInvalidCgroupLimit() throws IOException {
+    write(procSelfCgroup, "0::/invalid\n");
+    write(cgroupRoot.resolve("invalid/memory.max"), "lots\n");
+
+    assertThrows(IOException.class, () -> ofCgroupPercentage(90));
+  }
+
+  @Test
+  public void testUnreadableUsageDisablesLimit() throws IOException {
+    write(procSelfCgroup, "0::/test\n");
+    write(cgroupRoot.resolve("test/memory.max"), "2000\n");
+
+    // memory.current is missing
+    MemoryLimit limit = ofCgroupPercentage(90).orElseThrow();
+    long value = limit.getCurrentValue();
+    assertThat(value).isEqualTo(-1);
+    assertThat(limit.isExceeded(value)).isFalse();
+    assertThat(limit.nanoSecondsToNextCheck(value)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testPressureListener() throws IOException {
+    write(procSelfCgroup, "0::/pressure\n");
+    write(cgroupRoot.resolve("pressure/memory.max"), "1000000000\n");
+
+    MemoryLimit limit =
+        MemoryLimit.ofCgroupPercentage(90, 50, procSelfCgroup, cgroupRoot).orElseThrow();
+    assertThat(limit.getName()).isEqualTo("cgroup memory limit of 858MB (pressure at 476MB)");
+
+    AtomicInteger notifications = new AtomicInteger();
+    MemoryLimit.PressureListener listener = notifications::incrementAndGet;
+    MemoryLimit.registerPressureListener(listener);
+    try {
+      limit.checkPressure(499999999);
+      assertThat(notifications.get()).isEqualTo(0);
+      limit.checkPressure(500000000);
+      assertThat(notifications.get()).isEqualTo(1);
+      // only reaching the threshold again notifies the listeners again
+      limit.checkPressure(600000000);
+      assertThat(notifications.get()).isEqualTo(1);
+      limit.checkPressure(400000000);
+      limit.checkPressure(500000000);
+      assertThat(notifications.get()).isEqualTo(2);
+      // the hard limit is not affected by the pressure threshold
+      assertThat(limit.isExceeded(600000000)).isFalse();
+    } finally {
+      MemoryLimit.unregisterPressureListener(listener);
+    }
+
+    limit.checkPressure(400000000);
+    limit.checkPressure(500000000);
+    assertThat(notifications.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testInvalidPressureThreshold() throws IOException {
+    write(procSelfCgroup, "0::/pressure\n");
+    write(cgroupRoot.resolve("pressure/memory.max"), "2000\n");
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> MemoryLimit.ofCgroupPercentage(50, 50, procSelfCgroup, cgroupRoot));
+    assertThrows(IllegalArgumentException.class, () -> MemoryLimit.ofHeapPercentage(50, 60));
+  }
+
+  @Test
+  public void testHeapLimit() {
+    MemoryLimit limit = MemoryLimit.ofHeapPercentage(100);
+    long value = limit.getCurrentValue();
+    assertThat(value).isAtLeast(0);
+    assertThat(limit.isExceeded(Runtime.getRuntime().maxMemory())).isTrue();
+    assertThat(limit.getName()).startsWith("heap memory limit of ");
+  }
+
+  @Test
+  public void testShutdownReason() {
+    MemoryLimit limit = MemoryLimit.ofHeapPercentage(50);
+    assertThat(limit.getShutdownReason())
+        .isEqualTo("The " + limit.getName() + " has been reached.");
+    // time limits keep their wording
+    assertThat(WalltimeLimit.fromNowOn(1, TimeUnit.SECONDS).getShutdownReason())
+        .endsWith(" has elapsed.");
+  }
+}
@@ -260,6 +260,35 @@ public class MemoryStatistics implements Runnable {
     }
   }
 
+  /**
+   * Returns the fraction of the maximal heap size that was used after the last garbage collection,
+   * or 0 if there is no maximal heap size or it cannot be determined. Unlike the current usage,
+   * this does not count garbage that was not yet collected. This method may always be called
+   * regardless of whether the memory statistics thread was used.
+   */
+  public static double getHeapUsageAfterLastCollection() {
+    final long max;
+    try {
+      max = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+    } catch (IllegalArgumentException e) {
+      return 0; // cf. run()
+    }
+    if (max <= 0) {
+      return 0;
+    }
+    long used = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        // null if the pool does not support this, 0 before the first collection
+        MemoryUsage usage = pool.getCollectionUsage();
+        if (usage != null) {
+          used += usage.getUsed();
+        }
+      }
+    }
+    return (double) used / max;
+  }
+
   /**
    * Print some statistics about garbage collection.
    * This method may always be called regardless of whether the memory statistics
@@ -70,4 +70,13 @@ public interface ResourceLimit {
    * @return A non-null string.
    */
   String getName();
+
+  /**
+   * Return a human-readable message that explains to the user why the analysis is stopped after
+   * this limit was exceeded. The default is suitable for time limits.
+   * @return A non-null string.
+   */
+  default String getShutdownReason() {
+    return String.format("The %s has elapsed.", getName());
+  }
 }
\ No newline at end of file
@@ -17,8 +17,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.math.LongMath;
 import com.google.common.primitives.Longs;
+import java.io.IOException;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import javax.management.JMException;
@@ -27,6 +29,7 @@ import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -128,6 +131,31 @@ public final class ResourceLimitChecker {
     if (options.threadTime.compareTo(TimeSpan.empty()) >= 0) {
       limits.add(ThreadCpuTimeLimit.fromNowOn(options.threadTime, Thread.currentThread()));
     }
+    // without an explicit memory limit, a pressure threshold is combined with a limit at 100%,
+    // where the analysis would fail anyway
+    int heapPercentage =
+        getMemoryPercentage(options.heapPercentage, options.heapPressurePercentage);
+    if (heapPercentage > 0) {
+      limits.add(MemoryLimit.ofHeapPercentage(heapPercentage, options.heapPressurePercentage));
+    }
+    int cgroupPercentage =
+        getMemoryPercentage(options.cgroupPercentage, options.cgroupPressurePercentage);
+    if (cgroupPercentage > 0) {
+      try {
+        Optional<MemoryLimit> cgroupLimit =
+            MemoryLimit.ofCgroupPercentage(cgroupPercentage, options.cgroupPressurePercentage);
+        if (cgroupLimit.isPresent()) {
+          limits.add(cgroupLimit.orElseThrow());
+        } else {
+          logger.log(Level.INFO, "No cgroup memory limit found, cgroup memory threshold disabled.");
+        }
+      } catch (IOException e) {
+        logger.logDebugException(e, "Querying cgroup memory limit failed");
+        logger.log(
+            Level.WARNING,
+            "Could not read the cgroup memory limit, cgroup memory threshold disabled.");
+      }
+    }
 
     ImmutableList<ResourceLimit> limitsList = limits.build();
     if (!limitsList.isEmpty()) {
@@ -139,6 +167,23 @@ public final class ResourceLimitChecker {
     return new ResourceLimitChecker(shutdownManager, limitsList);
   }
 
+  private static int getMemoryPercentage(int pPercentage, int pPressurePercentage)
+      throws InvalidConfigurationException {
+    if (pPressurePercentage <= 0) {
+      return pPercentage;
+    } else if (pPercentage <= 0) {
+      return 100;
+    } else if (pPressurePercentage >= pPercentage) {
+      throw new InvalidConfigurationException(
+          "The memory pressure threshold of "
+              + pPressurePercentage
+              + "% needs to be below the memory limit of "
+              + pPercentage
+              + "%.");
+    }
+    return pPercentage;
+  }
+
   /**
    * Create an instance of this class with specific CPU time limit. The returned instance is not
    * started yet.
@@ -196,6 +241,51 @@ public final class ResourceLimitChecker {
     )
     @TimeSpanOption(codeUnit = TimeUnit.NANOSECONDS, defaultUserUnit = TimeUnit.SECONDS, min = -1)
     private TimeSpan threadTime = TimeSpan.ofNanos(-1);
+
+    @Option(
+        secure = true,
+        name = "memory.heap",
+        description =
+            "Stop CPAchecker gracefully (reporting partial results) when the Java heap that is"
+                + " still in use after garbage collection reaches this percentage of the maximum"
+                + " heap size (-1 for infinite)")
+    @IntegerOption(min = -1, max = 100)
+    private int heapPercentage = -1;
+
+    @Option(
+        secure = true,
+        name = "memory.cgroup",
+        description =
+            "Stop CPAchecker gracefully (reporting partial results) when the memory usage of the"
+                + " cgroup of this process (cgroup v2, read from /sys/fs/cgroup) reaches this"
+                + " percentage of the memory limit of the cgroup, instead of risking to be killed"
+                + " by the OOM killer (-1 for infinite)")
+    @IntegerOption(min = -1, max = 100)
+    private int cgroupPercentage = -1;
+
+    @Option(
+        secure = true,
+        name = "memory.heap.pressure",
+        description =
+            "Before stopping because of limits.memory.heap, ask components of CPAchecker to reduce"
+                + " their memory usage (e.g., clearing caches, stopping auxiliary invariant"
+                + " generation, or continuing with the next configuration of a restart algorithm)"
+                + " when the Java heap that is still in use after garbage collection reaches this"
+                + " percentage of the maximum heap size (-1 for never)")
+    @IntegerOption(min = -1, max = 99)
+    private int heapPressurePercentage = -1;
+
+    @Option(
+        secure = true,
+        name = "memory.cgroup.pressure",
+        description =
+            "Before stopping because of limits.memory.cgroup, ask components of CPAchecker to"
+                + " reduce their memory usage (e.g., clearing caches, stopping auxiliary invariant"
+                + " generation, or continuing with the next configuration of a restart algorithm)"
+                + " when the memory usage of the cgroup of this process reaches this percentage of"
+                + " the memory limit of the cgroup (-1 for never)")
+    @IntegerOption(min = -1, max = 99)
+    private int cgroupPressurePercentage = -1;
   }
 
   private static class ResourceLimitCheckRunnable implements Runnable {
@@ -241,10 +331,13 @@ public final class ResourceLimitChecker {
           final long currentValue = limit.getCurrentValue();
           if (limit.isExceeded(currentValue)) {
             updateCurrentValuesOfAllLimits();
-            String reason = String.format("The %s has elapsed.", limit.getName());
-            shutdownManager.requestShutdown(reason);
+            shutdownManager.requestShutdown(limit.getShutdownReason());
             return;
           }
+          if (limit instanceof MemoryLimit) {
+            // let components reduce their memory usage before the limit is exceeded
+            ((MemoryLimit) limit).checkPressure(currentValue);
+          }
 
           // Determine when to do the next check.
           // A negative of zero value is ignored here
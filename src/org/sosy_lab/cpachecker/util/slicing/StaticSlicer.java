@@ -10,14 +10,20 @@ package org.sosy_lab.cpachecker.util.slicing;
 
 import com.google.common.collect.ImmutableList;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.Map;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -29,6 +35,7 @@ import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph;
 import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.TraversalDirection;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
@@ -40,12 +47,32 @@ import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
  * <p>For a given slicing criterion CFA edge g and a dependence graph, the slice consists of all CFA
  * edges reachable in the dependence graph through backwards-traversal from g.
  *
+ * <p>The backwards-reachable edges of each criterion are memoized, such that repeated slicing with
+ * overlapping criteria (e.g., during slicing refinement) does not traverse the dependence graph
+ * again for criteria that were already handled.
+ *
  * @see SlicerFactory
  */
+@Options(prefix = "slicing")
 public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
 
+  @Option(
+      secure = true,
+      description =
+          "maximal number of slicing criteria whose slices are memoized for later slicing"
+              + " requests (0 disables memoization). Each memoized slice needs one bit per"
+              + " program edge.")
+  @IntegerOption(min = 0)
+  private int maxMemoizedCriteria = 100;
+
   private DependenceGraph depGraph;
 
+  /** Numbering of all program edges, such that slices can be memoized compactly as bit sets. */
+  private final List<CFAEdge> programEdges = new ArrayList<>();
+
+  private final Map<CFAEdge, Integer> edgeIndices = new HashMap<>();
+  private final Map<CFAEdge, BitSet> memoizedSlices = new HashMap<>();
+
   private StatInt candidateSliceCount =
       new StatInt(StatKind.SUM, "Number of proposed slicing " + "procedures");
   private StatInt sliceCount = new StatInt(StatKind.SUM, "Number of slicing procedures");
@@ -54,6 +81,8 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
   private final StatInt sliceEdgesNumber =
       new StatInt(StatKind.SUM, "Number of relevant slice edges");
   private final StatInt programEdgesNumber = new StatInt(StatKind.SUM, "Number of program edges");
+  private final StatCounter memoizedSliceReuses =
+      new StatCounter("Number of reused criterion slices");
 
   StaticSlicer(
       SlicingCriteriaExtractor pExtractor,
@@ -63,21 +92,21 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
       CFA pCfa)
       throws InvalidConfigurationException {
     super(pExtractor, pLogger, pShutdownNotifier, pConfig);
+    pConfig.inject(this);
 
     depGraph =
         pCfa.getDependenceGraph()
             .orElseThrow(
                 () -> new InvalidConfigurationException("Dependence graph required, but missing"));
-
   }
 
   @Override
-  public Slice getSlice0(CFA pCfa, Collection<CFAEdge> pSlicingCriteria)
+  public synchronized Slice getSlice0(CFA pCfa, Collection<CFAEdge> pSlicingCriteria)
       throws InterruptedException {
     candidateSliceCount.setNextValue(pSlicingCriteria.size());
     int realSlices = 0;
     slicingTime.start();
-    Set<CFAEdge> relevantEdges = new HashSet<>();
+    BitSet relevantEdges = new BitSet();
     try {
       // Heuristic: Reverse to make states that are deeper in the path first - these
       // have a higher chance of including earlier states in their dependences
@@ -87,7 +116,7 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
               pSlicingCriteria);
 
       for (CFAEdge g : criteriaEdges) {
-        if (relevantEdges.contains(g)) {
+        if (relevantEdges.get(getEdgeIndex(g))) {
           // If the relevant edges contain g, then all dependences of g are also already included
           // and we can skip it (this is only true as long as no function call/return edge is a
           // criterion!)
@@ -95,13 +124,15 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
         } else {
           realSlices++;
         }
-        relevantEdges.addAll(depGraph.getReachable(g, TraversalDirection.BACKWARD));
+        relevantEdges.or(getCriterionSlice(g));
       }
 
-      final Slice slice = new Slice(pCfa, relevantEdges, pSlicingCriteria);
+      List<CFAEdge> sliceEdges = new ArrayList<>(relevantEdges.cardinality());
+      relevantEdges.stream().forEach(i -> sliceEdges.add(programEdges.get(i)));
+      final Slice slice = new Slice(pCfa, sliceEdges, pSlicingCriteria);
       slicingTime.stop();
 
-      sliceEdgesNumber.setNextValue(relevantEdges.size());
+      sliceEdgesNumber.setNextValue(sliceEdges.size());
       if (programEdgesNumber.getValueCount() == 0) {
         programEdgesNumber.setNextValue(countProgramEdges(pCfa));
       }
@@ -113,6 +144,33 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
     }
   }
 
+  /** Returns the edges that are backwards-reachable from the given criterion, as bit set. */
+  private BitSet getCriterionSlice(CFAEdge pCriterion) throws InterruptedException {
+    BitSet slice = memoizedSlices.get(pCriterion);
+    if (slice != null) {
+      memoizedSliceReuses.inc();
+      return slice;
+    }
+
+    slice = new BitSet();
+    for (CFAEdge edge : depGraph.getReachable(pCriterion, TraversalDirection.BACKWARD)) {
+      slice.set(getEdgeIndex(edge));
+    }
+    if (memoizedSlices.size() < maxMemoizedCriteria) {
+      memoizedSlices.put(pCriterion, slice);
+    }
+    return slice;
+  }
+
+  private int getEdgeIndex(CFAEdge pEdge) {
+    return edgeIndices.computeIfAbsent(
+        pEdge,
+        edge -> {
+          programEdges.add(edge);
+          return programEdges.size() - 1;
+        });
+  }
+
   private int countProgramEdges(CFA pCfa) {
 
     int programEdgeCounter = 0;
@@ -143,7 +201,7 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
             StatisticsWriter writer = StatisticsWriter.writingStatisticsTo(pOut);
             writer.put(candidateSliceCount).put(sliceCount).put(slicingTime);
 
-            writer.put(sliceEdgesNumber).put(programEdgesNumber);
+            writer.put(sliceEdgesNumber).put(programEdgesNumber).put(memoizedSliceReuses);
             writer.put(
                 "Largest slice / program ratio",
                 String.format(Locale.US, "%.3f", getSliceProgramRatio()));
@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.util.statistics;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multiset;
@@ -90,6 +91,31 @@ public class StatHist extends AbstractStatValue {
     }
   }
 
+  /**
+   * returns the smallest value such that at least the given fraction of all values is less or
+   * equal to it (e.g., 0.5 for the median, 0.99 for the 99th percentile), or 0 if no value is
+   * available.
+   */
+  public long getQuantile(double pFraction) {
+    Preconditions.checkArgument(
+        0 <= pFraction && pFraction <= 1, "Fraction %s is not between 0 and 1", pFraction);
+    synchronized (hist) {
+      if (hist.isEmpty()) {
+        return 0;
+      }
+      // rank of the requested value in the sorted list of all values, starting with 1
+      long rank = Math.max(1, (long) Math.ceil(pFraction * hist.size()));
+      long count = 0;
+      for (long value : ImmutableList.sortedCopyOf(hist.elementSet())) {
+        count += hist.count(value);
+        if (count >= rank) {
+          return value;
+        }
+      }
+      throw new AssertionError("rank " + rank + " is larger than number of values " + count);
+    }
+  }
+
   /** returns the maximum value, or Long.MIN_VALUE if no value is available. */
   public long getMax() {
     synchronized (hist) {
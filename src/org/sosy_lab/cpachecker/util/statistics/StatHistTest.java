@@ -80,4 +80,31 @@ public class StatHistTest {
     assert_().that(sh.getMax()).isEqualTo(9);
     assert_().that(sh.getMean()).isEqualTo(4);
   }
+
+  @Test
+  public void testQuantile0() {
+    assert_().that(sh.getQuantile(0.5)).isEqualTo(0);
+  }
+
+  @Test
+  public void testQuantile() {
+    for (int x : new int[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+      sh.insertValue(x);
+    }
+    assert_().that(sh.getQuantile(0)).isEqualTo(2);
+    assert_().that(sh.getQuantile(0.125)).isEqualTo(2);
+    assert_().that(sh.getQuantile(0.2)).isEqualTo(4);
+    assert_().that(sh.getQuantile(0.5)).isEqualTo(4);
+    assert_().that(sh.getQuantile(0.75)).isEqualTo(5);
+    assert_().that(sh.getQuantile(0.9)).isEqualTo(9);
+    assert_().that(sh.getQuantile(1)).isEqualTo(9);
+  }
+
+  @Test
+  public void testQuantileWithOccurrences() {
+    sh.insertValue(1, 90);
+    sh.insertValue(100, 10);
+    assert_().that(sh.getQuantile(0.9)).isEqualTo(1);
+    assert_().that(sh.getQuantile(0.91)).isEqualTo(100);
+  }
 }
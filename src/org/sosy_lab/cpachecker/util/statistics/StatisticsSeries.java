@@ -8,90 +8,158 @@
 
 package org.sosy_lab.cpachecker.util.statistics;
 
-import com.google.common.base.Joiner;
 import com.google.common.primitives.Ints;
-import com.google.common.primitives.Longs;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.sosy_lab.common.Appender;
 
 /**
  * Thread-safe container for a series of data elements with a time-stamp.
  *
- * <p>It collects all data internally; be aware of the memory usage!
+ * <p>It collects all data internally; be aware of the memory usage! The time stamps and the data
+ * elements are stored column-wise in arrays, such that each entry needs only a few bytes (plus the
+ * data element itself, except for {@link StatisticsSeriesWithNumbers}, which stores primitive
+ * values).
+ *
+ * <p>The series can be written as comma-separated values (time since creation of the series in
+ * milliseconds, data element) with {@link org.sosy_lab.common.io.IO#writeFile}, which streams the
+ * entries without building the whole output in memory.
  */
-public class StatisticsSeries<T> {
+public class StatisticsSeries<T> implements Appender {
+
+  private static final int MIN_CAPACITY = 16;
 
   private final long startTime = System.currentTimeMillis();
 
+  // The columns of the series. Entries are only appended, and only while holding the lock on this
+  // object, and the time stamps are taken while holding the lock, such that the entries are
+  // sorted by time.
+  private long[] times = new long[0];
+  private Object[] data = new Object[0];
+  private int size = 0;
+
+  public synchronized void add(T pData) {
+    data[newEntry()] = pData;
+  }
+
   /**
-   * The fastest minimal working solution.
-   *
-   * <p>Note that we do not guarantee a strict temporal ordering of the entries. It is possible to
-   * get an unsorted list.
+   * Append a new entry with the current time stamp and return its index, at which the data column
+   * has room for the data element. Needs to be called while holding the lock on this object.
    */
-  private final Collection<DataObject<T>> series = new ConcurrentLinkedQueue<>();
+  final int newEntry() {
+    if (size == times.length) {
+      int newCapacity = Math.max(MIN_CAPACITY, size * 2);
+      times = Arrays.copyOf(times, newCapacity);
+      growDataColumn(newCapacity);
+    }
+    times[size] = System.currentTimeMillis();
+    return size++;
+  }
+
+  /** Replace the data column with a copy of the given capacity. */
+  void growDataColumn(int pCapacity) {
+    data = Arrays.copyOf(data, pCapacity);
+  }
 
-  public void add(T pData) {
-    series.add(new DataObject<>(pData));
+  /** Return the current data column for a snapshot. Needs to be called while holding the lock. */
+  Object getDataColumn() {
+    return data;
   }
 
-  Collection<DataObject<T>> getSeries() {
-    List<DataObject<T>> result = new ArrayList<>(series);
-    result.sort(null);
-    return result;
+  /** Append the data element at the given index of the given data column. */
+  void appendData(Appendable pAppendable, Object pDataColumn, int pIndex) throws IOException {
+    pAppendable.append(String.valueOf(((Object[]) pDataColumn)[pIndex]));
+  }
+
+  /** Return a consistent snapshot of all entries that were added so far. */
+  final synchronized Snapshot getSnapshot() {
+    // Arrays are replaced instead of modified when growing, and existing entries are never changed,
+    // so the first 'size' entries of the current arrays stay valid without holding the lock.
+    return new Snapshot(times, getDataColumn(), size);
   }
 
   long getStartTime() {
     return startTime;
   }
 
+  @Override
+  public void appendTo(Appendable pAppendable) throws IOException {
+    Snapshot snapshot = getSnapshot();
+    for (int i = 0; i < snapshot.size; i++) {
+      if (i > 0) {
+        pAppendable.append('\n');
+      }
+      pAppendable.append(Long.toString(snapshot.times[i] - startTime));
+      pAppendable.append(", ");
+      appendData(pAppendable, snapshot.data, i);
+    }
+  }
+
   @Override
   public String toString() {
-    return Joiner.on('\n').join(series);
+    StringBuilder sb = new StringBuilder();
+    try {
+      appendTo(sb);
+    } catch (IOException e) {
+      throw new AssertionError("StringBuilder does not throw IOException", e);
+    }
+    return sb.toString();
   }
 
-  private class DataObject<TT> implements Comparable<DataObject<TT>> {
-    private final long time;
-    private final TT data;
+  static final class Snapshot {
+    private final long[] times;
+    private final Object data;
+    private final int size;
 
-    DataObject(TT pData) {
-      time = System.currentTimeMillis();
+    private Snapshot(long[] pTimes, Object pData, int pSize) {
+      times = pTimes;
       data = pData;
+      size = pSize;
     }
+  }
 
+  /** This stub-class can be used in benchmarking mode to avoid high memory consumption. */
+  public static class NoopStatisticsSeries<T> extends StatisticsSeries<T> {
     @Override
-    public String toString() {
-      return (time - startTime) + ", " + data;
+    public void add(T pData) {
+      // ignore
     }
+  }
+
+  /**
+   * Sub-class with additional methods for statistics. The values are stored as primitive longs,
+   * and the series can also be written in a compact binary format (cf. {@link
+   * #writeCompact(OutputStream)}).
+   */
+  public static class StatisticsSeriesWithNumbers extends StatisticsSeries<Integer> {
+
+    // the values are ints, stored as longs such that differences in writeCompact cannot overflow
+    private long[] values = new long[0];
 
     @Override
-    public int compareTo(DataObject<TT> pOther) {
-      return Longs.compare(time, pOther.time);
+    public void add(Integer pValue) {
+      add(pValue.intValue());
     }
 
-    @Override
-    public boolean equals(Object pOther) {
-      return super.equals(pOther); // object identity
+    public synchronized void add(int pValue) {
+      values[newEntry()] = pValue;
     }
 
     @Override
-    public int hashCode() {
-      return super.hashCode(); // object identity
+    void growDataColumn(int pCapacity) {
+      values = Arrays.copyOf(values, pCapacity);
     }
-  }
 
-  /** This stub-class can be used in benchmarking mode to avoid high memory consumption. */
-  public static class NoopStatisticsSeries<T> extends StatisticsSeries<T> {
     @Override
-    public void add(T pData) {
-      // ignore
+    Object getDataColumn() {
+      return values;
     }
-  }
 
-  /** Sub-class with additional methods for statistics. */
-  public static class StatisticsSeriesWithNumbers extends StatisticsSeries<Integer> {
+    @Override
+    void appendData(Appendable pAppendable, Object pDataColumn, int pIndex) throws IOException {
+      pAppendable.append(Long.toString(((long[]) pDataColumn)[pIndex]));
+    }
 
     /**
      * Get plain numerical statistics without any hint on behavior over time.
@@ -101,14 +169,17 @@ public class StatisticsSeries<T> {
      */
     public StatInt getStatsWithoutTime() {
       StatInt stats = new StatInt(StatKind.AVG, null);
-      for (StatisticsSeries<Integer>.DataObject<Integer> data : getSeries()) {
-        stats.setNextValue(data.data);
+      Snapshot snapshot = getSnapshot();
+      long[] snapshotValues = (long[]) snapshot.data;
+      for (int i = 0; i < snapshot.size; i++) {
+        stats.setNextValue((int) snapshotValues[i]);
       }
       return stats;
     }
 
     /**
-     * Get statistics over all time steps.
+     * Get statistics over all time steps. The returned histogram also provides quantiles of the
+     * values weighted by time (cf. {@link StatHist#getQuantile(double)}).
      *
      * <p>Example: For a time series <code>[10:1,11:2,15:3,40:4]</code> we return <code>
      * StatHist([10x1,1x2,4x3,25x4])</code>.
@@ -116,12 +187,47 @@ public class StatisticsSeries<T> {
     public StatHist getStatsOverTime() {
       StatHist stats = new StatHist(null);
       long currentTime = getStartTime();
-      for (StatisticsSeries<Integer>.DataObject<Integer> data : getSeries()) {
-        long occurences = data.time - currentTime;
-        stats.insertValue(data.data, Ints.checkedCast(occurences));
-        currentTime = data.time;
+      Snapshot snapshot = getSnapshot();
+      long[] snapshotValues = (long[]) snapshot.data;
+      for (int i = 0; i < snapshot.size; i++) {
+        long occurences = snapshot.times[i] - currentTime;
+        stats.insertValue(snapshotValues[i], Ints.checkedCast(occurences));
+        currentTime = snapshot.times[i];
       }
       return stats;
     }
+
+    /**
+     * Write the series column-wise in a compact binary format for offline analysis: the number of
+     * entries, then the time stamps (each as difference to the previous time stamp, starting with
+     * the creation of the series, in milliseconds), and then the values (each as difference to the
+     * previous value, starting with 0). All numbers are written as zig-zag encoded variable-length
+     * integers (7 bits per byte, least significant group first, highest bit set if more bytes
+     * follow), so small differences need only one byte per entry.
+     */
+    public void writeCompact(OutputStream pOut) throws IOException {
+      Snapshot snapshot = getSnapshot();
+      long[] snapshotValues = (long[]) snapshot.data;
+      writeVarLong(pOut, snapshot.size);
+      long previous = getStartTime();
+      for (int i = 0; i < snapshot.size; i++) {
+        writeVarLong(pOut, snapshot.times[i] - previous);
+        previous = snapshot.times[i];
+      }
+      previous = 0;
+      for (int i = 0; i < snapshot.size; i++) {
+        writeVarLong(pOut, snapshotValues[i] - previous);
+        previous = snapshotValues[i];
+      }
+    }
+
+    private static void writeVarLong(OutputStream pOut, long pValue) throws IOException {
+      long zigZag = (pValue << 1) ^ (pValue >> 63);
+      while ((zigZag & ~0x7FL) != 0) {
+        pOut.write((int) ((zigZag & 0x7F) | 0x80));
+        zigZag >>>= 7;
+      }
+      pOut.write((int) zigZag);
+    }
   }
 }
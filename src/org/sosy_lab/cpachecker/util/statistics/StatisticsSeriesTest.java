@@ -0,0 +1,115 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Splitter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsSeries.NoopStatisticsSeries;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsSeries.StatisticsSeriesWithNumbers;
+
+public class StatisticsSeriesTest {
+
+  private static final int[] VALUES = {3, 1, 4, -1, 5, 9, 2, 6, 5, 3, 5, 1000000, -1000000};
+
+  private static StatisticsSeriesWithNumbers createSeries() {
+    StatisticsSeriesWithNumbers series = new StatisticsSeriesWithNumbers();
+    for (int value : VALUES) {
+      series.add(value);
+    }
+    return series;
+  }
+
+  /** Read one number written by {@link StatisticsSeriesWithNumbers#writeCompact}. */
+  private static long readVarLong(InputStream pIn) throws IOException {
+    long zigZag = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = pIn.read();
+      assertThat(b).isAtLeast(0);
+      zigZag |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (zigZag >>> 1) ^ -(zigZag & 1);
+  }
+
+  @Test
+  public void testCsvExport() {
+    StatisticsSeries<String> series = new StatisticsSeries<>();
+    series.add("a");
+    series.add(null);
+    List<String> lines = Splitter.on('\n').splitToList(series.toString());
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0)).endsWith(", a");
+    assertThat(lines.get(1)).endsWith(", null");
+
+    StatisticsSeriesWithNumbers numbers = createSeries();
+    List<String> numberLines = Splitter.on('\n').splitToList(numbers.toString());
+    assertThat(numberLines).hasSize(VALUES.length);
+    for (int i = 0; i < VALUES.length; i++) {
+      assertThat(numberLines.get(i)).endsWith(", " + VALUES[i]);
+    }
+  }
+
+  @Test
+  public void testStatistics() {
+    StatisticsSeriesWithNumbers series = createSeries();
+    StatInt stats = series.getStatsWithoutTime();
+    assertThat(stats.getValueCount()).isEqualTo(VALUES.length);
+    assertThat(stats.getMaxValue()).isEqualTo(1000000);
+    assertThat(stats.getMinValue()).isEqualTo(-1000000);
+    assertThat(stats.getValueSum()).isEqualTo(42);
+
+    // the histogram weights values by time, which is not known here
+    StatHist hist = series.getStatsOverTime();
+    assertThat(hist.getMax()).isAtMost(1000000L);
+    assertThat(hist.getMin()).isAtLeast(-1000000L);
+  }
+
+  @Test
+  public void testCompactExport() throws IOException {
+    StatisticsSeriesWithNumbers series = createSeries();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    series.writeCompact(out);
+
+    InputStream in = new ByteArrayInputStream(out.toByteArray());
+    assertThat(readVarLong(in)).isEqualTo(VALUES.length);
+    long time = series.getStartTime();
+    for (int i = 0; i < VALUES.length; i++) {
+      long timeDifference = readVarLong(in);
+      assertThat(timeDifference).isAtLeast(0L);
+      time += timeDifference;
+    }
+    assertThat(time).isAtMost(System.currentTimeMillis());
+    long value = 0;
+    for (int element : VALUES) {
+      value += readVarLong(in);
+      assertThat(value).isEqualTo(element);
+    }
+    assertThat(in.read()).isEqualTo(-1);
+
+    // The count and the small differences need one byte each, the differences of the two large
+    // values three and four bytes, and time differences of less than 8 seconds at most two bytes.
+    assertThat(out.size()).isAtMost(1 + 2 * VALUES.length + (VALUES.length - 2) + 3 + 4);
+  }
+
+  @Test
+  public void testNoopSeries() {
+    StatisticsSeries<Integer> series = new NoopStatisticsSeries<>();
+    series.add(1);
+    assertThat(series.toString()).isEmpty();
+  }
+}
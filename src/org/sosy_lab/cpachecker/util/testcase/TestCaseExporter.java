@@ -29,9 +29,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiPredicate;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.common.configuration.Configuration;
@@ -109,9 +113,36 @@ public class TestCaseExporter {
     description = "Do not output values for variables that are not initialized when declared")
   private boolean excludeInitialization = false;
 
-  private static int testsWritten = 0;
+  @Option(
+      secure = true,
+      name = "deduplicate",
+      description =
+          "Do not export test cases whose test inputs equal the inputs of an already exported"
+              + " test case, e.g., if parallel analyses cover different targets with the same"
+              + " inputs.")
+  private boolean deduplicateTests = false;
+
+  /**
+   * The state that is shared by all exporters of one analysis run, because parallel analyses export
+   * their test cases to the same files.
+   */
+  private static final class SharedExportState {
+
+    private final CFA cfa;
+    private final AtomicBoolean metadataWritten = new AtomicBoolean(false);
+    private final Object zipLock = new Object();
+    private final Set<String> exportedTestInputs = ConcurrentHashMap.newKeySet();
+
+    private SharedExportState(CFA pCfa) {
+      cfa = pCfa;
+    }
+  }
+
+  // the state of the current run, which is replaced when an exporter for a new CFA is created
+  private static @Nullable SharedExportState currentSharedState = null;
 
   private final CFA cfa;
+  private final SharedExportState sharedState;
   private final HarnessExporter harnessExporter;
   private final String producerString;
 
@@ -128,6 +159,14 @@ public class TestCaseExporter {
     cfa = pCfa;
     harnessExporter = new HarnessExporter(pConfig, logger, pCfa);
     producerString = CPAchecker.getVersion(pConfig);
+    sharedState = getSharedState(pCfa);
+  }
+
+  private static synchronized SharedExportState getSharedState(CFA pCfa) {
+    if (currentSharedState == null || currentSharedState.cfa != pCfa) {
+      currentSharedState = new SharedExportState(pCfa);
+    }
+    return currentSharedState;
   }
 
   private static String printLineSeparated(List<String> pValues) {
@@ -137,10 +176,14 @@ public class TestCaseExporter {
   public void writeTestCaseFiles(
       final CounterexampleInfo pCex,
       Optional<SpecificationProperty> pSpec) {
-    // TODO check if this and openZipFS(), closeZipFS() are thread-safe
     if (areTestsEnabled()) {
       ARGPath targetPath = pCex.getTargetPath();
 
+      if (deduplicateTests && !isNewTestInput(targetPath, pCex)) {
+        logger.log(Level.FINE, "Skipping test case with already exported test inputs");
+        return;
+      }
+
       if (testHarnessFile != null) {
         writeTestCase(
             testHarnessFile.getPath(id.getFreshId()), targetPath, pCex, FormatType.HARNESS, pSpec);
@@ -153,7 +196,7 @@ public class TestCaseExporter {
 
       if (testXMLFile != null) {
         Path testCaseFile = testXMLFile.getPath(id.getFreshId());
-        if (isFirstTest()) {
+        if (sharedState.metadataWritten.compareAndSet(false, true)) {
           writeTestCase(
               testCaseFile.resolveSibling("metadata.xml"),
               targetPath,
@@ -163,16 +206,20 @@ public class TestCaseExporter {
         }
         writeTestCase(testCaseFile, targetPath, pCex, FormatType.XML, pSpec);
       }
-      increaseTestsWritten();
     }
   }
 
-  private static void increaseTestsWritten() {
-    testsWritten++;
-  }
-
-  private static boolean isFirstTest() {
-    return testsWritten == 0;
+  /** Remember the test inputs of the given path and return whether they are exported first. */
+  private boolean isNewTestInput(final ARGPath pTargetPath, final CounterexampleInfo pCexInfo) {
+    Optional<String> inputs =
+        writeTestInputNondetValues(
+            pTargetPath.getFirstState(),
+            Predicates.in(pTargetPath.getStateSet()),
+            BiPredicates.pairIn(ImmutableSet.copyOf(pTargetPath.getStatePairs())),
+            pCexInfo,
+            TestCaseExporter::printLineSeparated);
+    // test cases without extractable inputs are not considered duplicates
+    return !inputs.isPresent() || sharedState.exportedTestInputs.add(inputs.orElseThrow());
   }
 
   private void writeTestCase(
@@ -189,51 +236,56 @@ public class TestCaseExporter {
       Optional<String> testOutput;
 
       if (zipTestCases) {
-        try (FileSystem zipFS = openZipFS()) {
-          Path fileName = pFile.getFileName();
-          Path testFile =
-              zipFS.getPath(fileName != null ? fileName.toString() : id.getFreshId() + "test.txt");
-          try (Writer writer =
-                   new OutputStreamWriter(
-                       zipFS
-                           .provider()
-                           .newOutputStream(testFile, StandardOpenOption.CREATE,
-                               StandardOpenOption.WRITE),
-                       Charset.defaultCharset())) {
-            switch (type) {
-              case HARNESS:
-                harnessExporter.writeHarness(
-                    writer, rootState, relevantStates, relevantEdges, pCexInfo);
-                break;
-              case METADATA:
-                XMLTestCaseExport.writeXMLMetadata(writer, cfa, pSpec.orElse(null), producerString);
-                break;
-              case PLAIN:
-                testOutput =
-                    writeTestInputNondetValues(
-                        rootState,
-                        relevantStates,
-                        relevantEdges,
-                        pCexInfo,
-                        TestCaseExporter::printLineSeparated);
-                if (testOutput.isPresent()) {
-                  writer.write(testOutput.orElseThrow());
-                }
-                break;
-              case XML:
-                testOutput =
-                    writeTestInputNondetValues(
-                        rootState,
-                        relevantStates,
-                        relevantEdges,
-                        pCexInfo,
-                        XMLTestCaseExport.XML_TEST_CASE);
-                if (testOutput.isPresent()) {
-                  writer.write(testOutput.orElseThrow());
-                }
-                break;
-              default:
-                throw new AssertionError("Unknown test case format.");
+        // the zip file system of a file must not be opened concurrently by parallel analyses
+        synchronized (sharedState.zipLock) {
+          try (FileSystem zipFS = openZipFS()) {
+            Path fileName = pFile.getFileName();
+            Path testFile =
+                zipFS.getPath(
+                    fileName != null ? fileName.toString() : id.getFreshId() + "test.txt");
+            try (Writer writer =
+                     new OutputStreamWriter(
+                         zipFS
+                             .provider()
+                             .newOutputStream(testFile, StandardOpenOption.CREATE,
+                                 StandardOpenOption.WRITE),
+                         Charset.defaultCharset())) {
+              switch (type) {
+                case HARNESS:
+                  harnessExporter.writeHarness(
+                      writer, rootState, relevantStates, relevantEdges, pCexInfo);
+                  break;
+                case METADATA:
+                  XMLTestCaseExport.writeXMLMetadata(
+                      writer, cfa, pSpec.orElse(null), producerString);
+                  break;
+                case PLAIN:
+                  testOutput =
+                      writeTestInputNondetValues(
+                          rootState,
+                          relevantStates,
+                          relevantEdges,
+                          pCexInfo,
+                          TestCaseExporter::printLineSeparated);
+                  if (testOutput.isPresent()) {
+                    writer.write(testOutput.orElseThrow());
+                  }
+                  break;
+                case XML:
+                  testOutput =
+                      writeTestInputNondetValues(
+                          rootState,
+                          relevantStates,
+                          relevantEdges,
+                          pCexInfo,
+                          XMLTestCaseExport.XML_TEST_CASE);
+                  if (testOutput.isPresent()) {
+                    writer.write(testOutput.orElseThrow());
+                  }
+                  break;
+                default:
+                  throw new AssertionError("Unknown test case format.");
+              }
             }
           }
         }
@@ -0,0 +1,134 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.variableclassification;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Groups the variables of a program into packs of variables that depend on each other. The packs
+ * are derived from the {@link Partition}s of the {@link VariableClassification}, thus there is no
+ * assignment or assumption that relates variables of different packs. Relational analyses can use
+ * the packs to track one small relational object per pack instead of one object for all variables.
+ *
+ * <p>Small partitions are combined into shared packs, variables without partition (e.g., variables
+ * that are never used in an assignment or assumption) share one additional pack.
+ */
+@Options(prefix = "cfa.variableClassification.packing")
+public final class VariablePacks implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Option(
+      secure = true,
+      description =
+          "partitions with less variables than this bound are combined into shared packs, "
+              + "such that analyses do not have to handle many packs with only few variables.")
+  @IntegerOption(min = 1)
+  private int minPackSize = 8;
+
+  private final ImmutableMap<String, Integer> variableToPack;
+  private final int numberOfPacks;
+
+  public VariablePacks(Configuration pConfig, VariableClassification pVarClassification)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+
+    Map<String, Integer> packs = new HashMap<>();
+    int currentPack = 0;
+    int currentPackSize = 0;
+    // iterate in a deterministic order, the partitions are ordered by their creation
+    for (Partition partition : Ordering.natural().sortedCopy(pVarClassification.getPartitions())) {
+      int size = partition.getVars().size();
+      if (size == 0) {
+        continue;
+      }
+      if (currentPackSize > 0 && currentPackSize + size > minPackSize) {
+        currentPack++;
+        currentPackSize = 0;
+      }
+      for (String var : partition.getVars()) {
+        packs.putIfAbsent(var, currentPack);
+      }
+      currentPackSize += size;
+    }
+
+    variableToPack = ImmutableMap.copyOf(packs);
+    // the last pack contains all variables that do not belong to any partition
+    numberOfPacks = currentPackSize > 0 ? currentPack + 2 : currentPack + 1;
+  }
+
+  private VariablePacks(ImmutableMap<String, Integer> pVariableToPack, int pNumberOfPacks) {
+    variableToPack = pVariableToPack;
+    numberOfPacks = pNumberOfPacks;
+  }
+
+  /**
+   * Create packs with the given assignment of variables to packs. All other variables belong to
+   * the last pack.
+   */
+  @VisibleForTesting
+  public static VariablePacks of(Map<String, Integer> pVariableToPack, int pNumberOfPacks) {
+    checkArgument(pNumberOfPacks > 0);
+    checkArgument(pVariableToPack.values().stream().allMatch(p -> 0 <= p && p < pNumberOfPacks));
+    return new VariablePacks(ImmutableMap.copyOf(pVariableToPack), pNumberOfPacks);
+  }
+
+  /** Returns the number of packs, this includes the pack for variables without partition. */
+  public int getNumberOfPacks() {
+    return numberOfPacks;
+  }
+
+  /** Returns the index of the pack of the given variable, in the range [0, numberOfPacks). */
+  public int getPackIndex(MemoryLocation pVariable) {
+    return getPackIndex(pVariable.getAsSimpleString());
+  }
+
+  /**
+   * Returns the index of the pack of the given variable, in the range [0, numberOfPacks).
+   *
+   * @param pQualifiedName the qualified name of the variable, e.g., "main::x" or "global"
+   */
+  public int getPackIndex(String pQualifiedName) {
+    Integer pack = variableToPack.get(checkNotNull(pQualifiedName));
+    return pack == null ? numberOfPacks - 1 : pack;
+  }
+
+  /** Returns the sizes of all packs, for statistics. */
+  public ImmutableList<Integer> getPackSizes() {
+    int[] sizes = new int[numberOfPacks];
+    for (int pack : variableToPack.values()) {
+      sizes[pack]++;
+    }
+    ImmutableList.Builder<Integer> result = ImmutableList.builderWithExpectedSize(numberOfPacks);
+    for (int size : sizes) {
+      result.add(size);
+    }
+    return result.build();
+  }
+
+  @Override
+  public String toString() {
+    return "VariablePacks(" + numberOfPacks + " packs for " + variableToPack.size() + " variables)";
+  }
+}
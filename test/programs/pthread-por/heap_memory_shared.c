@@ -0,0 +1,40 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+typedef unsigned long int pthread_t;
+typedef int pthread_attr_t;
+extern int pthread_create(pthread_t *thread_id, pthread_attr_t const *attr,
+                          void *(*func)(void *), void *arg);
+extern int pthread_join(pthread_t thread_id, void **value_ptr);
+
+// Both threads access the same heap memory through local pointers.
+
+extern void *malloc(unsigned long size);
+
+void reach_error(void) {}
+
+void *thread(void *arg) {
+  int *q = arg;
+  *q = 1;
+  return 0;
+}
+
+int main(void) {
+  pthread_t t;
+  int *p = malloc(sizeof(int));
+  if (p == 0) {
+    return 0;
+  }
+  *p = 0;
+  pthread_create(&t, 0, thread, p);
+  if (*p == 1) {
+    reach_error();
+  }
+  pthread_join(t, 0);
+  return 0;
+}
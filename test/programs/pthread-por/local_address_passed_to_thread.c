@@ -0,0 +1,35 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+typedef unsigned long int pthread_t;
+typedef int pthread_attr_t;
+extern int pthread_create(pthread_t *thread_id, pthread_attr_t const *attr,
+                          void *(*func)(void *), void *arg);
+extern int pthread_join(pthread_t thread_id, void **value_ptr);
+
+// The thread writes to a local variable of main through a pointer.
+// The write is not independent of the read in main.
+
+void reach_error(void) {}
+
+void *thread(void *arg) {
+  int *p = arg;
+  *p = 1;
+  return 0;
+}
+
+int main(void) {
+  pthread_t t;
+  int x = 0;
+  pthread_create(&t, 0, thread, &x);
+  if (x == 1) {
+    reach_error();
+  }
+  pthread_join(t, 0);
+  return 0;
+}
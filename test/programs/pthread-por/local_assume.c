@@ -0,0 +1,43 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+typedef unsigned long int pthread_t;
+typedef int pthread_attr_t;
+extern int pthread_create(pthread_t *thread_id, pthread_attr_t const *attr,
+                          void *(*func)(void *), void *arg);
+extern int pthread_join(pthread_t thread_id, void **value_ptr);
+extern void __VERIFIER_assume(int cond);
+
+// The thread only uses local variables, but blocks on an assumption that never holds.
+// Only one branch of the local condition is feasible, and no execution of the thread passes
+// the assumption, so the error is only reachable if the other thread is explored, too.
+
+void reach_error(void) {}
+
+int g = 0;
+
+void *thread(void *arg) {
+  int l = 0;
+  if (l) {
+    l = 2;
+  }
+  __VERIFIER_assume(l);
+  g = 1;
+  return 0;
+}
+
+int main(void) {
+  pthread_t t;
+  pthread_create(&t, 0, thread, 0);
+  int x = 0;
+  x++;
+  if (g == 0) {
+    reach_error();
+  }
+  return 0;
+}
@@ -0,0 +1,38 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+typedef unsigned long int pthread_t;
+typedef int pthread_attr_t;
+extern int pthread_create(pthread_t *thread_id, pthread_attr_t const *attr,
+                          void *(*func)(void *), void *arg);
+extern int pthread_join(pthread_t thread_id, void **value_ptr);
+
+// The thread loops on local variables forever, but the other thread must still be explored
+// (cycle proviso).
+
+void reach_error(void) {}
+
+int g = 0;
+
+void *thread(void *arg) {
+  int i = 0;
+  while (1) {
+    i++;
+  }
+  return 0;
+}
+
+int main(void) {
+  pthread_t t;
+  pthread_create(&t, 0, thread, 0);
+  g = 1;
+  if (g == 1) {
+    reach_error();
+  }
+  return 0;
+}
@@ -0,0 +1,42 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+typedef unsigned long int pthread_t;
+typedef int pthread_attr_t;
+extern int pthread_create(pthread_t *thread_id, pthread_attr_t const *attr,
+                          void *(*func)(void *), void *arg);
+extern int pthread_join(pthread_t thread_id, void **value_ptr);
+
+// Both threads only access their own variables, so any order of them is equivalent.
+
+void reach_error(void) {}
+
+void *thread(void *arg) {
+  int i = 0;
+  int j = 2;
+  i = i + j;
+  j = i * j;
+  if (j != 4) {
+    reach_error();
+  }
+  return 0;
+}
+
+int main(void) {
+  pthread_t t;
+  int x = 1;
+  int y = 2;
+  pthread_create(&t, 0, thread, 0);
+  x = x + y;
+  y = x - y;
+  if (y != 1) {
+    reach_error();
+  }
+  pthread_join(t, 0);
+  return 0;
+}